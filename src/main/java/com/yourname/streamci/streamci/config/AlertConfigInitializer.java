@@ -17,13 +17,9 @@ public class AlertConfigInitializer {
     @Bean
     CommandLineRunner initAlertConfigs(AlertConfigRepository repository) {
         return args -> {
-            // check if configs already exist
-            if (repository.count() > 0) {
-                logger.info("Alert configurations already exist, skipping initialization");
-                return;
-            }
-
-            logger.info("Initializing default alert configurations");
+            // seed per type so types added later still get a global config on existing databases
+            logger.info("Checking default alert configurations");
+            long before = repository.count();
 
             // success rate alert
             AlertConfig successRate = AlertConfig.builder()
@@ -35,7 +31,7 @@ public class AlertConfigInitializer {
                     .evaluationWindowMinutes(30)
                     .cooldownMinutes(15)
                     .build();
-            repository.save(successRate);
+            saveIfMissing(repository, successRate);
 
             // duration increase alert
             AlertConfig duration = AlertConfig.builder()
@@ -47,7 +43,7 @@ public class AlertConfigInitializer {
                     .evaluationWindowMinutes(60)
                     .cooldownMinutes(30)
                     .build();
-            repository.save(duration);
+            saveIfMissing(repository, duration);
 
             // consecutive failures alert
             AlertConfig consecutive = AlertConfig.builder()
@@ -59,7 +55,7 @@ public class AlertConfigInitializer {
                     .evaluationWindowMinutes(120)
                     .cooldownMinutes(60)
                     .build();
-            repository.save(consecutive);
+            saveIfMissing(repository, consecutive);
 
             // stale pipeline alert
             AlertConfig stale = AlertConfig.builder()
@@ -71,9 +67,27 @@ public class AlertConfigInitializer {
                     .evaluationWindowMinutes(1440) // 24 hours
                     .cooldownMinutes(720) // 12 hours
                     .build();
-            repository.save(stale);
+            saveIfMissing(repository, stale);
+
+            // anomaly detection - thresholds are z-scores (standard deviations)
+            AlertConfig anomaly = AlertConfig.builder()
+                    .pipeline(null)
+                    .alertType(Alert.AlertType.ANOMALY)
+                    .enabled(true)
+                    .warningThreshold(3.0)
+                    .criticalThreshold(4.5)
+                    .evaluationWindowMinutes(60)
+                    .cooldownMinutes(60)
+                    .build();
+            saveIfMissing(repository, anomaly);
 
-            logger.info("Created {} default alert configurations", repository.count());
+            logger.info("Created {} default alert configurations", repository.count() - before);
         };
     }
+
+    private void saveIfMissing(AlertConfigRepository repository, AlertConfig config) {
+        if (repository.findByPipelineIsNullAndAlertType(config.getAlertType()).isEmpty()) {
+            repository.save(config);
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,57 @@
+package com.yourname.streamci.streamci.config;
+
+import com.yourname.streamci.streamci.model.Alert;
+import com.yourname.streamci.streamci.model.AlertRule;
+import com.yourname.streamci.streamci.repository.AlertRuleRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+@Configuration
+public class AlertRuleInitializer {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertRuleInitializer.class);
+
+    @Value("${alerts.rules.seed-defaults:true}")
+    private boolean seedDefaults;
+
+    @Bean
+    CommandLineRunner initAlertRules(AlertRuleRepository repository) {
+        return args -> {
+            if (!seedDefaults || repository.count() > 0) {
+                logger.info("Skipping default alert rule initialization");
+                return;
+            }
+
+            logger.info("Initializing default alert rules");
+
+            // failure burst on main
+            repository.save(AlertRule.builder()
+                    .name("Failure burst on main")
+                    .branch("main")
+                    .metric(AlertRule.RuleMetric.FAILURE_COUNT)
+                    .windowMinutes(10)
+                    .threshold(3.0)
+                    .severity(Alert.AlertSeverity.CRITICAL)
+                    .cooldownMinutes(15)
+                    .build());
+
+            // p90 duration regression vs last week
+            repository.save(AlertRule.builder()
+                    .name("p90 duration regression")
+                    .metric(AlertRule.RuleMetric.P90_DURATION_CHANGE)
+                    .windowMinutes(60)
+                    .baselineMinutes(7 * 24 * 60)
+                    .threshold(50.0)
+                    .minSamples(5)
+                    .severity(Alert.AlertSeverity.WARNING)
+                    .cooldownMinutes(60)
+                    .build());
+
+            logger.info("Created {} default alert rules", repository.count());
+        };
+    }
+}
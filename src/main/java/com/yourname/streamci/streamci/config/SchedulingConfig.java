@@ -1,10 +1,30 @@
 package com.yourname.streamci.streamci.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableScheduling
 public class SchedulingConfig {
     // enables @Scheduled annotations
-}
\ No newline at end of file
+
+    // per-pipeline pattern analysis does blocking db reads, so it gets its own small pool
+    // instead of the common fork-join pool. a full queue runs the task on the scheduler thread
+    @Bean(name = "patternAnalysisExecutor")
+    public Executor patternAnalysisExecutor(@Value("${patterns.analysis.threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(500);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("Patterns-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,7 +1,10 @@
 package com.yourname.streamci.streamci.controller;
 
+import com.yourname.streamci.streamci.dto.request.BacktestRequest;
 import com.yourname.streamci.streamci.model.Alert;
 import com.yourname.streamci.streamci.model.AlertConfig;
+import com.yourname.streamci.streamci.service.ActiveAlertIndex;
+import com.yourname.streamci.streamci.service.AlertBacktestService;
 import com.yourname.streamci.streamci.service.AlertService;
 import com.yourname.streamci.streamci.repository.AlertRepository;
 import com.yourname.streamci.streamci.repository.AlertConfigRepository;
@@ -19,13 +22,19 @@ public class AlertController {
     private final AlertService alertService;
     private final AlertRepository alertRepository;
     private final AlertConfigRepository configRepository;
+    private final AlertBacktestService backtestService;
+    private final ActiveAlertIndex activeAlertIndex;
 
     public AlertController(AlertService alertService,
                            AlertRepository alertRepository,
-                           AlertConfigRepository configRepository) {
+                           AlertConfigRepository configRepository,
+                           AlertBacktestService backtestService,
+                           ActiveAlertIndex activeAlertIndex) {
         this.alertService = alertService;
         this.alertRepository = alertRepository;
         this.configRepository = configRepository;
+        this.backtestService = backtestService;
+        this.activeAlertIndex = activeAlertIndex;
     }
 
     // get all active alerts
@@ -73,38 +82,15 @@ public class AlertController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // get alert statistics
+    // get alert statistics, served from the in-memory counters (polled by every dashboard tab)
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Object>> getAlertStats() {
         Map<String, Object> stats = new HashMap<>();
 
-        List<Alert> activeAlerts = alertService.getActiveAlerts();
-
-        // count by severity
-        Map<String, Long> bySeverity = new HashMap<>();
-        for (Alert.AlertSeverity severity : Alert.AlertSeverity.values()) {
-            long count = activeAlerts.stream()
-                    .filter(a -> a.getSeverity() == severity)
-                    .count();
-            bySeverity.put(severity.toString(), count);
-        }
-
-        // count by type
-        Map<String, Long> byType = new HashMap<>();
-        for (Alert.AlertType type : Alert.AlertType.values()) {
-            long count = activeAlerts.stream()
-                    .filter(a -> a.getType() == type)
-                    .count();
-            byType.put(type.toString(), count);
-        }
-
-        stats.put("total_active", activeAlerts.size());
-        stats.put("by_severity", bySeverity);
-        stats.put("by_type", byType);
-        stats.put("critical_count", activeAlerts.stream()
-                .filter(a -> a.getSeverity() == Alert.AlertSeverity.CRITICAL ||
-                        a.getSeverity() == Alert.AlertSeverity.EMERGENCY)
-                .count());
+        stats.put("total_active", activeAlertIndex.size());
+        stats.put("by_severity", activeAlertIndex.countsBySeverity());
+        stats.put("by_type", activeAlertIndex.countsByType());
+        stats.put("critical_count", activeAlertIndex.criticalCount());
 
         return ResponseEntity.ok(stats);
     }
@@ -121,4 +107,14 @@ public class AlertController {
         AlertConfig saved = configRepository.save(config);
         return ResponseEntity.ok(saved);
     }
+
+    // replay candidate rules / thresholds over history to see what would have fired
+    @PostMapping("/backtest")
+    public ResponseEntity<?> backtest(@RequestBody BacktestRequest request) {
+        try {
+            return ResponseEntity.ok(backtestService.backtest(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.yourname.streamci.streamci.controller;
+
+import com.yourname.streamci.streamci.model.AlertRule;
+import com.yourname.streamci.streamci.repository.AlertRuleRepository;
+import com.yourname.streamci.streamci.service.AlertRuleEngine;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/alerts/rules")
+public class AlertRuleController {
+
+    private final AlertRuleRepository ruleRepository;
+    private final AlertRuleEngine ruleEngine;
+
+    public AlertRuleController(AlertRuleRepository ruleRepository, AlertRuleEngine ruleEngine) {
+        this.ruleRepository = ruleRepository;
+        this.ruleEngine = ruleEngine;
+    }
+
+    // list all rules (enabled and disabled)
+    @GetMapping
+    public ResponseEntity<List<AlertRule>> getRules() {
+        return ResponseEntity.ok(ruleRepository.findAll());
+    }
+
+    // create or update a rule, the engine picks it up immediately
+    @PostMapping
+    public ResponseEntity<AlertRule> saveRule(@RequestBody AlertRule rule) {
+        if (rule.getMetric() == null || rule.getThreshold() == null) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (rule.getName() == null) {
+            rule.setName(rule.getMetric().name().toLowerCase());
+        }
+
+        AlertRule saved = ruleRepository.save(rule);
+        ruleEngine.reloadRules();
+        return ResponseEntity.ok(saved);
+    }
+
+    @DeleteMapping("/{ruleId}")
+    public ResponseEntity<Void> deleteRule(@PathVariable Long ruleId) {
+        if (!ruleRepository.existsById(ruleId)) {
+            return ResponseEntity.notFound().build();
+        }
+        ruleRepository.deleteById(ruleId);
+        ruleEngine.reloadRules();
+        return ResponseEntity.noContent().build();
+    }
+
+    // live window values per rule for a pipeline
+    @GetMapping("/state/{pipelineId}")
+    public ResponseEntity<List<Map<String, Object>>> getRuleState(@PathVariable Integer pipelineId) {
+        return ResponseEntity.ok(ruleEngine.getRuleState(pipelineId));
+    }
+}
@@ -8,13 +8,18 @@ import com.yourname.streamci.streamci.dto.response.BuildResponse;
 import com.yourname.streamci.streamci.model.Build;
 import com.yourname.streamci.streamci.model.Pipeline;
 import com.yourname.streamci.streamci.service.BuildService;
+import com.yourname.streamci.streamci.service.FailureSignatureIndex;
 import com.yourname.streamci.streamci.service.PipelineService;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -23,13 +28,16 @@ public class BuildController {
     private final BuildService buildService;
     private final PipelineService pipelineService;
     private final DtoMapper dtoMapper;
+    private final FailureSignatureIndex signatureIndex;
 
     public BuildController(BuildService buildService,
                           PipelineService pipelineService,
-                          DtoMapper dtoMapper){
+                          DtoMapper dtoMapper,
+                          FailureSignatureIndex signatureIndex){
         this.buildService = buildService;
         this.pipelineService = pipelineService;
         this.dtoMapper = dtoMapper;
+        this.signatureIndex = signatureIndex;
     }
 
     @GetMapping("/api/builds")
@@ -92,6 +100,31 @@ public class BuildController {
         return ResponseEntity.ok(response);
     }
 
+    // plain-text tail of a failed job's log, filed under its failure signature cluster
+    @PostMapping(value = "/api/builds/{buildId}/failure-log", consumes = MediaType.TEXT_PLAIN_VALUE)
+    public ResponseEntity<Map<String, Object>> addFailureLog(@PathVariable Long buildId,
+                                                             @RequestBody String log){
+        Optional<Build> build = buildService.getBuildById(buildId);
+        if (build.isEmpty()){
+            return ResponseEntity.notFound().build();
+        }
+
+        LocalDateTime at = build.get().getEndTime() != null ? build.get().getEndTime() : LocalDateTime.now();
+        Optional<FailureSignatureIndex.Match> match =
+                signatureIndex.ingest(build.get().getPipeline().getId(), log, at);
+        if (match.isEmpty()){
+            return ResponseEntity.badRequest().body(Map.of("error", "log has no content to match"));
+        }
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("build_id", buildId);
+        response.put("pattern_id", match.get().patternId());
+        response.put("new_cluster", match.get().created());
+        response.put("similarity", match.get().similarity());
+        response.put("headline", match.get().headline());
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/api/builds/{buildId}")
     public ResponseEntity<Void> deleteBuild(@PathVariable Long buildId){
         boolean isDeleted = buildService.deleteBuild(buildId);
@@ -3,7 +3,7 @@ package com.yourname.streamci.streamci.controller;
 import com.yourname.streamci.streamci.model.*;
 import com.yourname.streamci.streamci.service.*;
 import com.yourname.streamci.streamci.repository.*;
-import org.springframework.cache.annotation.Cacheable;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
@@ -20,25 +20,31 @@ public class DashboardController {
 
     private static final Logger logger = LoggerFactory.getLogger(DashboardController.class);
 
-    private final PipelineService pipelineService;
     private final MetricsService metricsService;
     private final DashboardService dashboardService;
-    private final AlertService alertService;
     private final QueueTrackerRepository queueTrackerRepository;
-    private final EventCounter eventCounter;
+    private final EventRateMeter eventRateMeter;
+    private final ActiveAlertIndex activeAlertIndex;
+    private final DashboardProjection dashboardProjection;
+    private final ResponseCache responseCache;
+    private final DataVersions dataVersions;
 
-    public DashboardController(PipelineService pipelineService,
-                               MetricsService metricsService,
+    public DashboardController(MetricsService metricsService,
                                DashboardService dashboardService,
-                               AlertService alertService,
                                QueueTrackerRepository queueTrackerRepository,
-                               EventCounter eventCounter) {
-        this.pipelineService = pipelineService;
+                               EventRateMeter eventRateMeter,
+                               ActiveAlertIndex activeAlertIndex,
+                               DashboardProjection dashboardProjection,
+                               ResponseCache responseCache,
+                               DataVersions dataVersions) {
         this.metricsService = metricsService;
         this.dashboardService = dashboardService;
-        this.alertService = alertService;
         this.queueTrackerRepository = queueTrackerRepository;
-        this.eventCounter = eventCounter;
+        this.eventRateMeter = eventRateMeter;
+        this.activeAlertIndex = activeAlertIndex;
+        this.dashboardProjection = dashboardProjection;
+        this.responseCache = responseCache;
+        this.dataVersions = dataVersions;
     }
 
     /**
@@ -47,56 +53,51 @@ public class DashboardController {
      * Returns all key metrics in one consolidated response
      */
     @GetMapping("/summary")
-//    @Cacheable("dashboard-summary")
-    public ResponseEntity<Map<String, Object>> getDashboardSummary() {
+    public ResponseEntity<Map<String, Object>> getDashboardSummary(HttpServletRequest request) {
+        return responseCache.serve(request, dataVersions.global(), this::computeDashboardSummary);
+    }
+
+    private ResponseEntity<Map<String, Object>> computeDashboardSummary() {
         logger.info("Fetching dashboard summary");
 
         Map<String, Object> summary = new HashMap<>();
 
-        // event counter metrics
-        summary.put("events_per_minute", eventCounter.getEventsPerMinute());
-        summary.put("total_events_processed", eventCounter.getTotalEvents());
-        summary.put("uptime_minutes", eventCounter.getUptimeMinutes());
+        // sliding-window webhook event rates, as of when this body was cached - /events is the live view
+        summary.put("events_per_minute", eventRateMeter.getEventsPerMinute());
+        summary.put("total_events_processed", eventRateMeter.getTotalEvents());
+        summary.put("uptime_minutes", eventRateMeter.getUptimeMinutes());
+        summary.put("event_rates", eventRateMeter.snapshot());
 
         summary.put("timestamp", LocalDateTime.now());
         summary.put("status", "success");
 
-        try {
-            // Get all pipelines for overview
-            List<Pipeline> allPipelines = pipelineService.getAllPipelines();
-            summary.put("total_pipelines", allPipelines.size());
-
-            // Aggregate metrics across all pipelines
-            Map<String, Object> aggregatedMetrics = dashboardService.calculateAggregatedMetrics(allPipelines);
-            summary.put("overview", aggregatedMetrics);
+        // pipelines, metrics, queue and 24 hour activity come from the projection,
+        // the alert list and per-pipeline alert counts from the active alert index
+        summary.putAll(dashboardProjection.snapshot());
 
-            // get recent activity (last 24 hours)
-            Map<String, Object> recentActivity = dashboardService.getRecentActivity();
-            summary.put("recent_activity", recentActivity);
+        // alert tiles read the materialized counters
+        Map<String, Object> alertCounts = new HashMap<>();
+        alertCounts.put("total_active", activeAlertIndex.size());
+        alertCounts.put("critical_count", activeAlertIndex.criticalCount());
+        alertCounts.put("by_severity", activeAlertIndex.countsBySeverity());
+        summary.put("alert_counts", alertCounts);
 
-            // get current alerts
-            List<Alert> activeAlerts = alertService.getActiveAlerts();
-            summary.put("active_alerts", dashboardService.formatAlerts(activeAlerts));
-
-            // get queue status
-            Map<String, Object> queueOverview = dashboardService.getQueueOverview(allPipelines);
-            summary.put("queue_status", queueOverview);
-
-            // get pipeline-specific summaries
-            List<Map<String, Object>> pipelineSummaries = allPipelines.stream()
-                    .map(dashboardService::createPipelineSummary)
-                    .collect(Collectors.toList());
-            summary.put("pipelines", pipelineSummaries);
-
-            logger.info("Dashboard summary calculated for {} pipelines", allPipelines.size());
-            return ResponseEntity.ok(summary);
+        return ResponseEntity.ok(summary);
+    }
 
-        } catch (Exception e) {
-            logger.error("Error calculating dashboard summary: {}", e.getMessage(), e);
-            summary.put("status", "error");
-            summary.put("error", e.getMessage());
-            return ResponseEntity.internalServerError().body(summary);
-        }
+    /**
+     * EVENT RATES ENDPOINT
+     * GET /api/dashboard/events - sliding-window webhook event rates, never cached
+     */
+    @GetMapping("/events")
+    public ResponseEntity<Map<String, Object>> getEventRates() {
+        Map<String, Object> events = new HashMap<>();
+        events.put("events_per_minute", eventRateMeter.getEventsPerMinute());
+        events.put("total_events_processed", eventRateMeter.getTotalEvents());
+        events.put("uptime_minutes", eventRateMeter.getUptimeMinutes());
+        events.put("event_rates", eventRateMeter.snapshot());
+        events.put("timestamp", LocalDateTime.now());
+        return ResponseEntity.ok(events);
     }
 
     /**
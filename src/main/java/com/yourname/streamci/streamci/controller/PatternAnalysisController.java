@@ -1,10 +1,20 @@
 package com.yourname.streamci.streamci.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yourname.streamci.streamci.dto.request.PredictionTarget;
 import com.yourname.streamci.streamci.model.*;
 import com.yourname.streamci.streamci.service.*;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -13,13 +23,34 @@ import java.util.HashMap;
 @RequestMapping("/api")
 public class PatternAnalysisController {
 
+    private static final int MAX_BATCH_TARGETS = 1000;
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final PatternAnalysisService patternService;
     private final BuildSuccessPredictor successPredictor;
+    private final OutcomeModelService outcomeModel;
+    private final ChangePointDetector changePointDetector;
+    private final FailureSignatureIndex signatureIndex;
+    private final ResponseCache responseCache;
+    private final DataVersions dataVersions;
+    private final ObjectMapper objectMapper;
 
     public PatternAnalysisController(PatternAnalysisService patternService,
-                                     BuildSuccessPredictor successPredictor) {
+                                     BuildSuccessPredictor successPredictor,
+                                     OutcomeModelService outcomeModel,
+                                     ChangePointDetector changePointDetector,
+                                     FailureSignatureIndex signatureIndex,
+                                     ResponseCache responseCache,
+                                     DataVersions dataVersions,
+                                     ObjectMapper objectMapper) {
         this.patternService = patternService;
         this.successPredictor = successPredictor;
+        this.outcomeModel = outcomeModel;
+        this.changePointDetector = changePointDetector;
+        this.signatureIndex = signatureIndex;
+        this.responseCache = responseCache;
+        this.dataVersions = dataVersions;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping("/analysis/patterns")
@@ -52,6 +83,65 @@ public class PatternAnalysisController {
         return ResponseEntity.ok(response);
     }
 
+    @GetMapping("/analysis/failure-rules")
+    public ResponseEntity<Map<String, Object>> getFailureRules(
+            @RequestParam Integer pipelineId,
+            @RequestParam(defaultValue = "90") int days) {
+
+        List<PatternDetectionResult> rules = patternService.mineFailureRules(pipelineId, days);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("pipeline_id", pipelineId);
+        response.put("analysis_period_days", days);
+        response.put("rules_found", rules.size());
+        response.put("rules", rules);
+        response.put("timestamp", java.time.LocalDateTime.now());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/analysis/log-signatures")
+    public ResponseEntity<Map<String, Object>> getLogSignatures(@RequestParam Integer pipelineId) {
+        List<Map<String, Object>> clusters = signatureIndex.clusters(pipelineId).stream()
+                .map(pattern -> {
+                    Map<String, Object> cluster = new HashMap<>();
+                    cluster.put("pattern_id", pattern.getId());
+                    cluster.put("description", pattern.getDescription());
+                    cluster.put("occurrences", pattern.getFrequency());
+                    cluster.put("mean_similarity", pattern.getConfidence());
+                    cluster.put("sample", pattern.getDetails());
+                    cluster.put("first_seen", pattern.getDetectedAt());
+                    cluster.put("last_seen", pattern.getLastOccurrence());
+                    return cluster;
+                })
+                .toList();
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("pipeline_id", pipelineId);
+        response.put("clusters_found", clusters.size());
+        response.put("clusters", clusters);
+        response.put("timestamp", java.time.LocalDateTime.now());
+
+        return ResponseEntity.ok(response);
+    }
+
+    @GetMapping("/analysis/change-points")
+    public ResponseEntity<Map<String, Object>> getChangePoints(
+            @RequestParam Integer pipelineId,
+            @RequestParam(defaultValue = "30") int days) {
+
+        List<ChangePoint> changePoints = changePointDetector.recentChangePoints(pipelineId, days);
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("pipeline_id", pipelineId);
+        response.put("analysis_period_days", days);
+        response.put("change_points_found", changePoints.size());
+        response.put("change_points", changePoints);
+        response.put("timestamp", java.time.LocalDateTime.now());
+
+        return ResponseEntity.ok(response);
+    }
+
     @GetMapping("/analysis/correlations")
     public ResponseEntity<Map<String, Object>> getCorrelations(
             @RequestParam Integer pipelineId,
@@ -98,8 +188,72 @@ public class PatternAnalysisController {
         return ResponseEntity.ok(prediction);
     }
 
+    /**
+     * one prediction per target, streamed as newline-delimited json while they're scored
+     * each line carries the target's index since results come back grouped by pipeline
+     */
+    @PostMapping("/predictions/success/batch")
+    public ResponseEntity<StreamingResponseBody> predictSuccessBatch(@RequestBody List<PredictionTarget> targets) {
+        // validated up front, a streamed response can't turn into a 400 halfway
+        try {
+            validateTargets(targets);
+        } catch (IllegalArgumentException e) {
+            Map<String, Object> error = Map.of("error", e.getMessage());
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> out.write(objectMapper.writeValueAsBytes(error)));
+        }
+
+        StreamingResponseBody body = out -> successPredictor.predictBatch(targets, (index, prediction) -> {
+            PredictionTarget target = targets.get(index);
+            Map<String, Object> line = new HashMap<>();
+            line.put("index", index);
+            line.put("pipeline_id", target.getPipelineId());
+            line.put("committer", target.getCommitter());
+            line.put("branch", target.getBranch());
+            line.put("probability", prediction.getProbability());
+            line.put("confidence", prediction.getConfidence());
+            line.put("reasoning", prediction.getReasoning());
+            line.put("factors", prediction.getFactors());
+            try {
+                out.write(objectMapper.writeValueAsBytes(line));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    // learned model only, one entry per target in request order
+    @PostMapping("/predictions/model/score")
+    public ResponseEntity<?> scoreWithModel(@RequestBody List<PredictionTarget> targets) {
+        try {
+            validateTargets(targets);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+        return ResponseEntity.ok(outcomeModel.scoreBatch(targets, java.time.LocalDateTime.now()));
+    }
+
+    @GetMapping("/predictions/model/{pipelineId}")
+    public ResponseEntity<Map<String, Object>> getModelReport(@PathVariable Integer pipelineId) {
+        return ResponseEntity.ok(outcomeModel.report(pipelineId));
+    }
+
     @GetMapping("/analysis/summary")
-    public ResponseEntity<Map<String, Object>> getAnalysisSummary(@RequestParam Integer pipelineId) {
+    public ResponseEntity<Map<String, Object>> getAnalysisSummary(@RequestParam Integer pipelineId,
+                                                                  HttpServletRequest request) {
+        return responseCache.serve(request, summaryVersion(pipelineId), () -> computeAnalysisSummary(pipelineId));
+    }
+
+    // the prediction uses the success rate of the current hour of day, so a cached summary
+    // is only good for the hour it was computed in even if no build came in since
+    private long summaryVersion(Integer pipelineId) {
+        long hour = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).toEpochSecond(ZoneOffset.UTC) / 3600;
+        return (hour << 32) | (dataVersions.of(pipelineId) & 0xFFFFFFFFL);
+    }
+
+    private ResponseEntity<Map<String, Object>> computeAnalysisSummary(Integer pipelineId) {
         List<PatternDetectionResult> patterns = patternService.analyzeFailurePatterns(pipelineId, 7);
         List<FlakyTestResult> flakyTests = patternService.detectFlakyTests(pipelineId);
         SuccessPrediction prediction = successPredictor.predictNextBuildSuccess(pipelineId);
@@ -123,4 +277,16 @@ public class PatternAnalysisController {
 
         return ResponseEntity.ok(summary);
     }
+
+    private void validateTargets(List<PredictionTarget> targets) {
+        if (targets == null || targets.isEmpty()) {
+            throw new IllegalArgumentException("at least one target is required");
+        }
+        if (targets.size() > MAX_BATCH_TARGETS) {
+            throw new IllegalArgumentException("at most " + MAX_BATCH_TARGETS + " targets per request");
+        }
+        if (targets.stream().anyMatch(target -> target == null || target.getPipelineId() == null)) {
+            throw new IllegalArgumentException("every target needs a pipelineId");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package com.yourname.streamci.streamci.controller;
+
+import com.yourname.streamci.streamci.model.SloDefinition;
+import com.yourname.streamci.streamci.repository.SloDefinitionRepository;
+import com.yourname.streamci.streamci.service.SloService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/slos")
+public class SloController {
+
+    private final SloDefinitionRepository sloRepository;
+    private final SloService sloService;
+
+    public SloController(SloDefinitionRepository sloRepository, SloService sloService) {
+        this.sloRepository = sloRepository;
+        this.sloService = sloService;
+    }
+
+    // list all slo definitions (enabled and disabled)
+    @GetMapping
+    public ResponseEntity<List<SloDefinition>> getSlos() {
+        return ResponseEntity.ok(sloRepository.findAll());
+    }
+
+    // create or update an slo, evaluation picks it up immediately
+    @PostMapping
+    public ResponseEntity<?> saveSlo(@RequestBody SloDefinition slo) {
+        if (slo.getPipelineId() == null || slo.getIndicator() == null || slo.getTarget() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "pipelineId, indicator and target are required"));
+        }
+        if (slo.getTarget() <= 0 || slo.getTarget() >= 100) {
+            return ResponseEntity.badRequest().body(Map.of("error", "target must be between 0 and 100 (exclusive)"));
+        }
+        if (slo.getIndicator() == SloDefinition.SloIndicator.DURATION && slo.getDurationThresholdSeconds() == null) {
+            return ResponseEntity.badRequest().body(Map.of("error", "durationThresholdSeconds is required for DURATION"));
+        }
+        if ((slo.getBudgetDays() != null && slo.getBudgetDays() <= 0)
+                || (slo.getMinEvents() != null && slo.getMinEvents() < 0)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "budgetDays must be positive and minEvents not negative"));
+        }
+        if (slo.getName() == null) {
+            slo.setName(String.format("%s %.1f%%", slo.getIndicator().name().toLowerCase(), slo.getTarget()));
+        }
+
+        SloDefinition saved = sloRepository.save(slo);
+        sloService.reloadSlos();
+        return ResponseEntity.ok(saved);
+    }
+
+    @DeleteMapping("/{sloId}")
+    public ResponseEntity<Void> deleteSlo(@PathVariable Long sloId) {
+        if (!sloRepository.existsById(sloId)) {
+            return ResponseEntity.notFound().build();
+        }
+        sloRepository.deleteById(sloId);
+        sloService.reloadSlos();
+        return ResponseEntity.noContent().build();
+    }
+
+    // error budget remaining and burn rates of every enabled slo
+    @GetMapping("/status")
+    public ResponseEntity<List<Map<String, Object>>> getAllStatus() {
+        return ResponseEntity.ok(sloService.getAllStatus());
+    }
+
+    @GetMapping("/pipeline/{pipelineId}/status")
+    public ResponseEntity<List<Map<String, Object>>> getPipelineStatus(@PathVariable Integer pipelineId) {
+        return ResponseEntity.ok(sloService.getStatus(pipelineId));
+    }
+}
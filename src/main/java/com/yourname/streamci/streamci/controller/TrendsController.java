@@ -3,19 +3,23 @@ package com.yourname.streamci.streamci.controller;
 import com.yourname.streamci.streamci.model.*;
 import com.yourname.streamci.streamci.service.*;
 import com.yourname.streamci.streamci.repository.*;
+import com.yourname.streamci.streamci.util.Granularity;
+import com.yourname.streamci.streamci.util.Lttb;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.format.DateTimeFormatter;
-import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
 import java.util.stream.Collectors;
 import java.util.Objects;
-import java.util.Comparator;
-import java.util.DoubleSummaryStatistics;
 
 @RestController
 @RequestMapping("/api/trends")
@@ -25,39 +29,62 @@ public class TrendsController {
 
     private final PipelineService pipelineService;
     private final MetricsService metricsService;
-    private final BuildRepository buildRepository;
+    private final BuildRollupService rollupService;
     private final PipelineMetricsRepository metricsRepository;
     private final QueueMetricsRepository queueMetricsRepository;
+    private final ResponseCache responseCache;
+    private final DataVersions dataVersions;
+
+    // hard cap on points per series, maxPoints can only lower it
+    @Value("${trends.max-points:1000}")
+    private int maxPointsLimit = 1000;
 
     public TrendsController(PipelineService pipelineService,
                             MetricsService metricsService,
-                            BuildRepository buildRepository,
+                            BuildRollupService rollupService,
                             PipelineMetricsRepository metricsRepository,
-                            QueueMetricsRepository queueMetricsRepository) {
+                            QueueMetricsRepository queueMetricsRepository,
+                            ResponseCache responseCache,
+                            DataVersions dataVersions) {
         this.pipelineService = pipelineService;
         this.metricsService = metricsService;
-        this.buildRepository = buildRepository;
+        this.rollupService = rollupService;
         this.metricsRepository = metricsRepository;
         this.queueMetricsRepository = queueMetricsRepository;
+        this.responseCache = responseCache;
+        this.dataVersions = dataVersions;
     }
 
     /**
      * Main trends endpoint - GET /api/trends?days=7
-     * Returns comprehensive trend data for charting
+     * Returns comprehensive trend data for charting, metrics snapshots averaged per
+     * minute / hourly / daily / weekly bucket and downsampled to at most maxPoints
      */
     @GetMapping
     public ResponseEntity<Map<String, Object>> getTrends(
             @RequestParam(defaultValue = "7") int days,
             @RequestParam(required = false) Integer pipelineId,
-            @RequestParam(defaultValue = "hourly") String granularity) {
+            @RequestParam(defaultValue = "hourly") String granularity,
+            @RequestParam(required = false) Integer maxPoints,
+            HttpServletRequest request) {
+        return responseCache.serve(request, dataVersions.of(pipelineId),
+                () -> computeTrends(days, pipelineId, granularity, maxPoints));
+    }
+
+    private ResponseEntity<Map<String, Object>> computeTrends(int days, Integer pipelineId,
+            String granularity, Integer maxPoints) {
 
         logger.info("Getting trends for {} days, pipeline: {}, granularity: {}",
                 days, pipelineId, granularity);
 
+        Granularity bucketSize = Granularity.parse(granularity, Granularity.HOURLY);
+        int pointBudget = pointBudget(maxPoints);
+
         Map<String, Object> response = new HashMap<>();
         response.put("timestamp", LocalDateTime.now());
         response.put("period_days", days);
-        response.put("granularity", granularity);
+        response.put("granularity", bucketSize.label());
+        response.put("max_points", pointBudget);
 
         try {
             LocalDateTime startDate = LocalDateTime.now().minusDays(days);
@@ -66,10 +93,10 @@ public class TrendsController {
             if (pipelineId != null) {
                 // Single pipeline trends
                 response.put("pipeline_id", pipelineId);
-                response.putAll(calculateSinglePipelineTrends(pipelineId, startDate, endDate, granularity));
+                response.putAll(calculateSinglePipelineTrends(pipelineId, startDate, endDate, bucketSize, pointBudget));
             } else {
                 // Global trends across all pipelines
-                response.putAll(calculateGlobalTrends(startDate, endDate, granularity));
+                response.putAll(calculateGlobalTrends(startDate, endDate, bucketSize, pointBudget));
             }
 
             return ResponseEntity.ok(response);
@@ -87,22 +114,33 @@ public class TrendsController {
     @GetMapping("/success-rate")
     public ResponseEntity<Map<String, Object>> getSuccessRateTrends(
             @RequestParam(defaultValue = "7") int days,
-            @RequestParam(required = false) Integer pipelineId) {
+            @RequestParam(required = false) Integer pipelineId,
+            @RequestParam(defaultValue = "hourly") String granularity,
+            @RequestParam(required = false) Integer maxPoints,
+            HttpServletRequest request) {
+        return responseCache.serve(request, dataVersions.of(pipelineId),
+                () -> computeSuccessRateTrends(days, pipelineId, granularity, maxPoints));
+    }
+
+    private ResponseEntity<Map<String, Object>> computeSuccessRateTrends(int days, Integer pipelineId,
+            String granularity, Integer maxPoints) {
 
         Map<String, Object> response = new HashMap<>();
         LocalDateTime startDate = LocalDateTime.now().minusDays(days);
+        Granularity bucketSize = rollupGranularity(granularity, Granularity.HOURLY);
 
         try {
             List<Map<String, Object>> successRateData;
 
             if (pipelineId != null) {
-                successRateData = calculateSuccessRateByTimeRange(pipelineId, startDate);
+                successRateData = calculateSuccessRateByTimeRange(pipelineId, startDate, bucketSize, pointBudget(maxPoints));
                 response.put("pipeline_id", pipelineId);
             } else {
-                successRateData = calculateGlobalSuccessRateByTimeRange(startDate);
+                successRateData = calculateGlobalSuccessRateByTimeRange(startDate, bucketSize, pointBudget(maxPoints));
             }
 
             response.put("success_rate_data", successRateData);
+            response.put("granularity", bucketSize.label());
             response.put("timestamp", LocalDateTime.now());
 
             return ResponseEntity.ok(response);
@@ -120,20 +158,32 @@ public class TrendsController {
     @GetMapping("/duration")
     public ResponseEntity<Map<String, Object>> getDurationTrends(
             @RequestParam(defaultValue = "7") int days,
-            @RequestParam(required = false) Integer pipelineId) {
+            @RequestParam(required = false) Integer pipelineId,
+            @RequestParam(defaultValue = "daily") String granularity,
+            @RequestParam(required = false) Integer maxPoints,
+            HttpServletRequest request) {
+        return responseCache.serve(request, dataVersions.of(pipelineId),
+                () -> computeDurationTrends(days, pipelineId, granularity, maxPoints));
+    }
+
+    private ResponseEntity<Map<String, Object>> computeDurationTrends(int days, Integer pipelineId,
+            String granularity, Integer maxPoints) {
 
         Map<String, Object> response = new HashMap<>();
         LocalDateTime startDate = LocalDateTime.now().minusDays(days);
+        Granularity bucketSize = rollupGranularity(granularity, Granularity.DAILY);
 
         try {
-            List<Map<String, Object>> durationData = calculateDurationTrends(pipelineId, startDate);
+            List<BuildRollupService.Bucket> buckets = durationBuckets(pipelineId, startDate, bucketSize);
 
-            response.put("duration_data", durationData);
+            response.put("duration_data", durationPoints(downsample(buckets,
+                    BuildRollupService.Bucket::getAvgDuration, pointBudget(maxPoints)), bucketSize));
             response.put("pipeline_id", pipelineId);
+            response.put("granularity", bucketSize.label());
             response.put("timestamp", LocalDateTime.now());
 
-            // Calculate duration statistics
-            response.put("statistics", calculateDurationStatistics(durationData));
+            // Calculate duration statistics over every bucket, not just the charted ones
+            response.put("statistics", calculateDurationStatistics(durationPoints(buckets, bucketSize)));
 
             return ResponseEntity.ok(response);
 
@@ -150,16 +200,28 @@ public class TrendsController {
     @GetMapping("/frequency")
     public ResponseEntity<Map<String, Object>> getBuildFrequencyTrends(
             @RequestParam(defaultValue = "7") int days,
-            @RequestParam(required = false) Integer pipelineId) {
+            @RequestParam(required = false) Integer pipelineId,
+            @RequestParam(defaultValue = "daily") String granularity,
+            @RequestParam(required = false) Integer maxPoints,
+            HttpServletRequest request) {
+        return responseCache.serve(request, dataVersions.of(pipelineId),
+                () -> computeBuildFrequencyTrends(days, pipelineId, granularity, maxPoints));
+    }
+
+    private ResponseEntity<Map<String, Object>> computeBuildFrequencyTrends(int days, Integer pipelineId,
+            String granularity, Integer maxPoints) {
 
         Map<String, Object> response = new HashMap<>();
         LocalDateTime startDate = LocalDateTime.now().minusDays(days);
+        Granularity bucketSize = rollupGranularity(granularity, Granularity.DAILY);
 
         try {
-            List<Map<String, Object>> frequencyData = calculateBuildFrequency(pipelineId, startDate);
+            List<Map<String, Object>> frequencyData = calculateBuildFrequency(
+                    pipelineId, startDate, bucketSize, pointBudget(maxPoints));
 
             response.put("frequency_data", frequencyData);
             response.put("pipeline_id", pipelineId);
+            response.put("granularity", bucketSize.label());
             response.put("timestamp", LocalDateTime.now());
 
             return ResponseEntity.ok(response);
@@ -177,7 +239,12 @@ public class TrendsController {
     @GetMapping("/queue")
     public ResponseEntity<Map<String, Object>> getQueueTrends(
             @RequestParam(defaultValue = "1") int days,
-            @RequestParam(required = false) Integer pipelineId) {
+            @RequestParam(required = false) Integer pipelineId,
+            HttpServletRequest request) {
+        return responseCache.serve(request, dataVersions.of(pipelineId), () -> computeQueueTrends(days, pipelineId));
+    }
+
+    private ResponseEntity<Map<String, Object>> computeQueueTrends(int days, Integer pipelineId) {
 
         Map<String, Object> response = new HashMap<>();
         LocalDateTime startDate = LocalDateTime.now().minusDays(days);
@@ -204,30 +271,39 @@ public class TrendsController {
     @GetMapping("/compare")
     public ResponseEntity<Map<String, Object>> getComparativeTrends(
             @RequestParam List<Integer> pipelineIds,
-            @RequestParam(defaultValue = "7") int days) {
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) Integer maxPoints,
+            HttpServletRequest request) {
+        return responseCache.serve(request, dataVersions.of(pipelineIds),
+                () -> computeComparativeTrends(pipelineIds, days, maxPoints));
+    }
+
+    private ResponseEntity<Map<String, Object>> computeComparativeTrends(List<Integer> pipelineIds, int days,
+            Integer maxPoints) {
 
         Map<String, Object> response = new HashMap<>();
         LocalDateTime startDate = LocalDateTime.now().minusDays(days);
+        int pointBudget = pointBudget(maxPoints);
 
         try {
-            List<Map<String, Object>> comparativeData = new ArrayList<>();
+            // one query for the names, one for every pipeline's rollups
+            Map<Integer, String> names = new HashMap<>();
+            pipelineService.getPipelinesByIds(pipelineIds).forEach(pipeline -> names.put(pipeline.getId(), pipeline.getName()));
+            Map<Integer, BuildRollupService.Series> series = rollupService.byPipeline(pipelineIds, startDate);
 
+            List<Map<String, Object>> comparativeData = new ArrayList<>();
             for (Integer pipelineId : pipelineIds) {
+                BuildRollupService.Series pipelineSeries = series.get(pipelineId);
                 Map<String, Object> pipelineData = new HashMap<>();
                 pipelineData.put("pipeline_id", pipelineId);
-
-                // Get pipeline name
-                Optional<Pipeline> pipeline = pipelineService.getPipelineById(pipelineId);
-                pipelineData.put("pipeline_name", pipeline.map(Pipeline::getName).orElse("Unknown"));
-
-                // Get success rate trend
-                List<Map<String, Object>> successRateData = calculateSuccessRateByTimeRange(pipelineId, startDate);
-                pipelineData.put("success_rate_trend", successRateData);
-
-                // Get duration trend
-                List<Map<String, Object>> durationData = calculateDurationTrends(pipelineId, startDate);
-                pipelineData.put("duration_trend", durationData);
-
+                pipelineData.put("pipeline_name", names.getOrDefault(pipelineId, "Unknown"));
+                pipelineData.put("success_rate_trend", successRatePoints(downsample(pipelineSeries.hourly(),
+                        BuildRollupService.Bucket::getSuccessRate, pointBudget)));
+                List<BuildRollupService.Bucket> durationDays = pipelineSeries.daily().stream()
+                        .filter(bucket -> bucket.getDurationCount() > 0)
+                        .collect(Collectors.toList());
+                pipelineData.put("duration_trend", durationPoints(downsample(durationDays,
+                        BuildRollupService.Bucket::getAvgDuration, pointBudget), Granularity.DAILY));
                 comparativeData.add(pipelineData);
             }
 
@@ -249,33 +325,48 @@ public class TrendsController {
     private Map<String, Object> calculateSinglePipelineTrends(Integer pipelineId,
                                                               LocalDateTime startDate,
                                                               LocalDateTime endDate,
-                                                              String granularity) {
+                                                              Granularity granularity,
+                                                              int pointBudget) {
         Map<String, Object> trends = new HashMap<>();
 
         // Get metrics history
         List<PipelineMetrics> metricsHistory = metricsRepository
                 .findByPipelineIdAndCalculatedAtBetween(pipelineId, startDate, endDate);
 
+        // average the snapshots that share a bucket
+        Map<LocalDateTime, SnapshotBucket> buckets = new TreeMap<>();
+        for (PipelineMetrics metrics : metricsHistory) {
+            buckets.computeIfAbsent(granularity.bucketStart(metrics.getCalculatedAt()), SnapshotBucket::new)
+                    .add(metrics);
+        }
+
         // Success rate over time
-        List<Map<String, Object>> successRatePoints = metricsHistory.stream()
-                .map(m -> {
+        List<SnapshotBucket> rateBuckets = buckets.values().stream()
+                .filter(bucket -> bucket.rateCount > 0)
+                .collect(Collectors.toList());
+        List<Map<String, Object>> successRatePoints = downsample(rateBuckets, bucket -> bucket.start,
+                SnapshotBucket::avgSuccessRate, pointBudget).stream()
+                .map(bucket -> {
                     Map<String, Object> point = new HashMap<>();
-                    point.put("timestamp", m.getCalculatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-                    point.put("success_rate", m.getSuccessRate());
-                    point.put("total_builds", m.getTotalBuilds());
+                    point.put("timestamp", granularity.format(bucket.start));
+                    point.put("success_rate", bucket.avgSuccessRate());
+                    point.put("total_builds", bucket.totalBuilds);
                     return point;
                 })
                 .collect(Collectors.toList());
 
         // Duration trends
-        List<Map<String, Object>> durationPoints = metricsHistory.stream()
-                .filter(m -> m.getAvgDurationSeconds() != null)
-                .map(m -> {
+        List<SnapshotBucket> durationBuckets = buckets.values().stream()
+                .filter(bucket -> bucket.durationCount > 0)
+                .collect(Collectors.toList());
+        List<Map<String, Object>> durationPoints = downsample(durationBuckets, bucket -> bucket.start,
+                SnapshotBucket::avgDuration, pointBudget).stream()
+                .map(bucket -> {
                     Map<String, Object> point = new HashMap<>();
-                    point.put("timestamp", m.getCalculatedAt().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
-                    point.put("avg_duration_seconds", m.getAvgDurationSeconds());
-                    point.put("min_duration_seconds", m.getMinDurationSeconds());
-                    point.put("max_duration_seconds", m.getMaxDurationSeconds());
+                    point.put("timestamp", granularity.format(bucket.start));
+                    point.put("avg_duration_seconds", Math.round(bucket.avgDuration()));
+                    point.put("min_duration_seconds", bucket.minDuration);
+                    point.put("max_duration_seconds", bucket.maxDuration);
                     return point;
                 })
                 .collect(Collectors.toList());
@@ -289,191 +380,130 @@ public class TrendsController {
 
     private Map<String, Object> calculateGlobalTrends(LocalDateTime startDate,
                                                       LocalDateTime endDate,
-                                                      String granularity) {
+                                                      Granularity granularity,
+                                                      int pointBudget) {
         Map<String, Object> trends = new HashMap<>();
 
-        // Get all pipelines
-        List<Pipeline> allPipelines = pipelineService.getAllPipelines();
-
-        // Aggregate metrics by time buckets
-        Map<String, List<Double>> successRatesByTime = new TreeMap<>();
-        Map<String, List<Long>> durationsByTime = new TreeMap<>();
-
-        for (Pipeline pipeline : allPipelines) {
-            List<PipelineMetrics> metricsHistory = metricsRepository
-                    .findByPipelineIdAndCalculatedAtBetween(pipeline.getId(), startDate, endDate);
+        // every pipeline's snapshots in one query, bucketed in a single pass
+        Map<LocalDateTime, List<Double>> successRatesByTime = new TreeMap<>();
+        Map<LocalDateTime, List<Long>> durationsByTime = new TreeMap<>();
 
-            for (PipelineMetrics metrics : metricsHistory) {
-                String timeKey = formatTimeKey(metrics.getCalculatedAt(), granularity);
+        for (Object[] row : metricsRepository.findTrendRowsBetween(startDate, endDate)) {
+            LocalDateTime bucketStart = granularity.bucketStart((LocalDateTime) row[1]);
 
-                successRatesByTime.computeIfAbsent(timeKey, k -> new ArrayList<>())
-                        .add(metrics.getSuccessRate());
+            if (row[2] != null) {
+                successRatesByTime.computeIfAbsent(bucketStart, k -> new ArrayList<>())
+                        .add((Double) row[2]);
+            }
 
-                if (metrics.getAvgDurationSeconds() != null) {
-                    durationsByTime.computeIfAbsent(timeKey, k -> new ArrayList<>())
-                            .add(metrics.getAvgDurationSeconds());
-                }
+            if (row[3] != null) {
+                durationsByTime.computeIfAbsent(bucketStart, k -> new ArrayList<>())
+                        .add((Long) row[3]);
             }
         }
 
         // Calculate averages for each time bucket
-        List<Map<String, Object>> globalSuccessRate = successRatesByTime.entrySet().stream()
-                .map(entry -> {
+        List<AveragePoint> successRates = successRatesByTime.entrySet().stream()
+                .map(entry -> new AveragePoint(entry.getKey(),
+                        entry.getValue().stream().mapToDouble(Double::doubleValue).average().orElse(0),
+                        entry.getValue().size()))
+                .collect(Collectors.toList());
+        List<AveragePoint> durations = durationsByTime.entrySet().stream()
+                .map(entry -> new AveragePoint(entry.getKey(),
+                        entry.getValue().stream().mapToLong(Long::longValue).average().orElse(0),
+                        entry.getValue().size()))
+                .collect(Collectors.toList());
+
+        List<Map<String, Object>> globalSuccessRate = downsample(successRates, AveragePoint::start,
+                AveragePoint::average, pointBudget).stream()
+                .map(average -> {
                     Map<String, Object> point = new HashMap<>();
-                    point.put("timestamp", entry.getKey());
-                    point.put("avg_success_rate", entry.getValue().stream()
-                            .mapToDouble(Double::doubleValue)
-                            .average()
-                            .orElse(0));
-                    point.put("pipeline_count", entry.getValue().size());
+                    point.put("timestamp", granularity.format(average.start()));
+                    point.put("avg_success_rate", average.average());
+                    point.put("pipeline_count", average.count());
                     return point;
                 })
                 .collect(Collectors.toList());
 
-        List<Map<String, Object>> globalDuration = durationsByTime.entrySet().stream()
-                .map(entry -> {
+        List<Map<String, Object>> globalDuration = downsample(durations, AveragePoint::start,
+                AveragePoint::average, pointBudget).stream()
+                .map(average -> {
                     Map<String, Object> point = new HashMap<>();
-                    point.put("timestamp", entry.getKey());
-                    point.put("avg_duration_seconds", entry.getValue().stream()
-                            .mapToLong(Long::longValue)
-                            .average()
-                            .orElse(0));
-                    point.put("pipeline_count", entry.getValue().size());
+                    point.put("timestamp", granularity.format(average.start()));
+                    point.put("avg_duration_seconds", average.average());
+                    point.put("pipeline_count", average.count());
                     return point;
                 })
                 .collect(Collectors.toList());
 
         trends.put("global_success_rate_trend", globalSuccessRate);
         trends.put("global_duration_trend", globalDuration);
-        trends.put("total_pipelines", allPipelines.size());
+        trends.put("total_pipelines", pipelineService.countPipelines());
 
         return trends;
     }
 
-    private List<Map<String, Object>> calculateSuccessRateByTimeRange(Integer pipelineId, LocalDateTime startDate) {
-        // performance optimization: query by pipeline and date range instead of loading all
-        List<Build> builds = buildRepository.findByPipelineIdAndStartTimeAfter(pipelineId, startDate);
-
-        // Group by hour
-        Map<String, List<Build>> buildsByHour = builds.stream()
-                .collect(Collectors.groupingBy(b ->
-                        b.getStartTime().truncatedTo(ChronoUnit.HOURS).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-                ));
-
-        return buildsByHour.entrySet().stream()
-                .map(entry -> {
-                    List<Build> hourlyBuilds = entry.getValue();
-                    long successful = hourlyBuilds.stream()
-                            .filter(b -> "success".equals(b.getStatus()))
-                            .count();
+    // success rate from the rollups, cost is one row per pipeline-hour
+    private List<Map<String, Object>> calculateSuccessRateByTimeRange(Integer pipelineId, LocalDateTime startDate,
+                                                                      Granularity granularity, int pointBudget) {
+        return successRatePoints(downsample(rollupService.buckets(pipelineId, startDate, granularity),
+                BuildRollupService.Bucket::getSuccessRate, pointBudget));
+    }
 
+    private List<Map<String, Object>> successRatePoints(List<BuildRollupService.Bucket> buckets) {
+        return buckets.stream()
+                .map(bucket -> {
                     Map<String, Object> point = new HashMap<>();
-                    point.put("timestamp", entry.getKey());
-                    point.put("total_builds", hourlyBuilds.size());
-                    point.put("successful_builds", successful);
-                    point.put("success_rate", hourlyBuilds.size() > 0 ?
-                            (successful * 100.0 / hourlyBuilds.size()) : 0);
-
+                    point.put("timestamp", bucket.getStart().format(DateTimeFormatter.ISO_LOCAL_DATE_TIME));
+                    point.put("total_builds", bucket.getTotalBuilds());
+                    point.put("successful_builds", bucket.getSuccessCount());
+                    point.put("success_rate", bucket.getSuccessRate());
                     return point;
                 })
-                .sorted(Comparator.comparing(p -> (String) p.get("timestamp")))
                 .collect(Collectors.toList());
     }
 
-    private List<Map<String, Object>> calculateGlobalSuccessRateByTimeRange(LocalDateTime startDate) {
-        // Get all builds across all pipelines
-        // performance optimization: query by date range instead of loading all
-        List<Build> allBuilds = buildRepository.findByStartTimeAfter(startDate);
-
-        // Group by hour
-        Map<String, List<Build>> buildsByHour = allBuilds.stream()
-                .collect(Collectors.groupingBy(b ->
-                        b.getStartTime().truncatedTo(ChronoUnit.HOURS).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
-                ));
-
-        return buildsByHour.entrySet().stream()
-                .map(entry -> {
-                    List<Build> hourlyBuilds = entry.getValue();
-                    long successful = hourlyBuilds.stream()
-                            .filter(b -> "success".equals(b.getStatus()))
-                            .count();
-
-                    Map<String, Object> point = new HashMap<>();
-                    point.put("timestamp", entry.getKey());
-                    point.put("total_builds", hourlyBuilds.size());
-                    point.put("successful_builds", successful);
-                    point.put("success_rate", hourlyBuilds.size() > 0 ?
-                            (successful * 100.0 / hourlyBuilds.size()) : 0);
-
-                    return point;
-                })
-                .sorted(Comparator.comparing(p -> (String) p.get("timestamp")))
-                .collect(Collectors.toList());
+    private List<Map<String, Object>> calculateGlobalSuccessRateByTimeRange(LocalDateTime startDate,
+                                                                            Granularity granularity, int pointBudget) {
+        return calculateSuccessRateByTimeRange(null, startDate, granularity, pointBudget);
     }
 
-    private List<Map<String, Object>> calculateDurationTrends(Integer pipelineId, LocalDateTime startDate) {
-        // performance optimization: query by date range instead of loading all
-        List<Build> builds;
-        if (pipelineId != null) {
-            builds = buildRepository.findByPipelineIdAndStartTimeAfter(pipelineId, startDate);
-        } else {
-            builds = buildRepository.findByStartTimeAfter(startDate);
-        }
-        // filter out builds without duration
-        builds = builds.stream()
-                .filter(b -> b.getDuration() != null)
+    private List<BuildRollupService.Bucket> durationBuckets(Integer pipelineId, LocalDateTime startDate,
+                                                            Granularity granularity) {
+        return rollupService.buckets(pipelineId, startDate, granularity).stream()
+                .filter(bucket -> bucket.getDurationCount() > 0)
                 .collect(Collectors.toList());
+    }
 
-        // Group by day for duration trends
-        Map<String, List<Build>> buildsByDay = builds.stream()
-                .collect(Collectors.groupingBy(b ->
-                        b.getStartTime().toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE)
-                ));
-
-        return buildsByDay.entrySet().stream()
-                .map(entry -> {
-                    List<Build> dailyBuilds = entry.getValue();
-                    DoubleSummaryStatistics stats = dailyBuilds.stream()
-                            .mapToDouble(Build::getDuration)
-                            .summaryStatistics();
-
+    private List<Map<String, Object>> durationPoints(List<BuildRollupService.Bucket> buckets, Granularity granularity) {
+        return buckets.stream()
+                .filter(bucket -> bucket.getDurationCount() > 0)
+                .map(bucket -> {
                     Map<String, Object> point = new HashMap<>();
-                    point.put("date", entry.getKey());
-                    point.put("avg_duration", stats.getAverage());
-                    point.put("min_duration", stats.getMin());
-                    point.put("max_duration", stats.getMax());
-                    point.put("build_count", stats.getCount());
-
+                    point.put("date", bucket.getStart().toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE));
+                    point.put("timestamp", granularity.format(bucket.getStart()));
+                    point.put("avg_duration", bucket.getAvgDuration());
+                    point.put("min_duration", (double) bucket.getMinDuration());
+                    point.put("max_duration", (double) bucket.getMaxDuration());
+                    point.put("p50_duration", Math.round(bucket.durationQuantile(0.5)));
+                    point.put("p95_duration", Math.round(bucket.durationQuantile(0.95)));
+                    point.put("build_count", (long) bucket.getDurationCount());
                     return point;
                 })
-                .sorted(Comparator.comparing(p -> (String) p.get("date")))
                 .collect(Collectors.toList());
     }
 
-    private List<Map<String, Object>> calculateBuildFrequency(Integer pipelineId, LocalDateTime startDate) {
-        // performance optimization: query by date range instead of loading all
-        List<Build> builds;
-        if (pipelineId != null) {
-            builds = buildRepository.findByPipelineIdAndStartTimeAfter(pipelineId, startDate);
-        } else {
-            builds = buildRepository.findByStartTimeAfter(startDate);
-        }
-
-        // Group by day
-        Map<String, Long> buildCountByDay = builds.stream()
-                .collect(Collectors.groupingBy(
-                        b -> b.getStartTime().toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE),
-                        Collectors.counting()
-                ));
-
-        return buildCountByDay.entrySet().stream()
-                .map(entry -> {
+    private List<Map<String, Object>> calculateBuildFrequency(Integer pipelineId, LocalDateTime startDate,
+                                                              Granularity granularity, int pointBudget) {
+        List<BuildRollupService.Bucket> buckets = rollupService.buckets(pipelineId, startDate, granularity);
+        return downsample(buckets, BuildRollupService.Bucket::getTotalBuilds, pointBudget).stream()
+                .map(bucket -> {
                     Map<String, Object> point = new HashMap<>();
-                    point.put("date", entry.getKey());
-                    point.put("build_count", entry.getValue());
+                    point.put("date", bucket.getStart().toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE));
+                    point.put("timestamp", granularity.format(bucket.getStart()));
+                    point.put("build_count", (long) bucket.getTotalBuilds());
                     return point;
                 })
-                .sorted(Comparator.comparing(p -> (String) p.get("date")))
                 .collect(Collectors.toList());
     }
 
@@ -547,16 +577,77 @@ public class TrendsController {
         return stats;
     }
 
-    private String formatTimeKey(LocalDateTime dateTime, String granularity) {
-        switch (granularity.toLowerCase()) {
-            case "hourly":
-                return dateTime.truncatedTo(ChronoUnit.HOURS).format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
-            case "daily":
-                return dateTime.toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE);
-            case "weekly":
-                return dateTime.toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE); // Simplified
-            default:
-                return dateTime.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    // requested maxPoints, never above the configured limit and never below the three lttb needs
+    private int pointBudget(Integer maxPoints) {
+        return maxPoints == null ? maxPointsLimit : Math.max(3, Math.min(maxPoints, maxPointsLimit));
+    }
+
+    // rollups are hourly, so a minute series from them would come back hourly anyway
+    private static Granularity rollupGranularity(String granularity, Granularity fallback) {
+        return Granularity.parse(granularity, fallback).atLeast(Granularity.HOURLY);
+    }
+
+    private static List<BuildRollupService.Bucket> downsample(List<BuildRollupService.Bucket> buckets,
+                                                              ToDoubleFunction<BuildRollupService.Bucket> value,
+                                                              int pointBudget) {
+        return downsample(buckets, BuildRollupService.Bucket::getStart, value, pointBudget);
+    }
+
+    // shape-preserving (lttb) downsampling of a time-ordered series to the point budget
+    private static <T> List<T> downsample(List<T> series, Function<T, LocalDateTime> time,
+                                          ToDoubleFunction<T> value, int pointBudget) {
+        return Lttb.downsample(series, point -> time.apply(point).toEpochSecond(ZoneOffset.UTC), value, pointBudget);
+    }
+
+    private record AveragePoint(LocalDateTime start, double average, int count) {
+    }
+
+    // one pipeline's metrics snapshots that fall in the same bucket
+    private static class SnapshotBucket {
+        private final LocalDateTime start;
+        private int rateCount;
+        private double rateSum;
+        private Integer totalBuilds;
+        private int durationCount;
+        private long durationSum;
+        private Long minDuration;
+        private Long maxDuration;
+
+        SnapshotBucket(LocalDateTime start) {
+            this.start = start;
+        }
+
+        void add(PipelineMetrics metrics) {
+            if (metrics.getSuccessRate() != null) {
+                rateCount++;
+                rateSum += metrics.getSuccessRate();
+            }
+            // totals are cumulative, the newest snapshot's count is the bucket's
+            if (metrics.getTotalBuilds() != null && (totalBuilds == null || metrics.getTotalBuilds() > totalBuilds)) {
+                totalBuilds = metrics.getTotalBuilds();
+            }
+            if (metrics.getAvgDurationSeconds() != null) {
+                durationCount++;
+                durationSum += metrics.getAvgDurationSeconds();
+                minDuration = min(minDuration, metrics.getMinDurationSeconds());
+                maxDuration = max(maxDuration, metrics.getMaxDurationSeconds());
+            }
+        }
+
+        double avgSuccessRate() {
+            return rateCount == 0 ? 0.0 : rateSum / rateCount;
+        }
+
+        double avgDuration() {
+            return durationCount == 0 ? 0.0 : (double) durationSum / durationCount;
+        }
+
+        private static Long min(Long current, Long value) {
+            return value == null ? current : current == null ? value : Math.min(current, value);
+        }
+
+        private static Long max(Long current, Long value) {
+            return value == null ? current : current == null ? value : Math.max(current, value);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,34 @@
+package com.yourname.streamci.streamci.dto.request;
+
+import com.yourname.streamci.streamci.model.AlertConfig;
+import com.yourname.streamci.streamci.model.AlertRule;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * request dto for replaying candidate alert rules over stored history
+ * rules are replayed over builds, configs over pipeline metrics. nothing is saved
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BacktestRequest {
+
+    // how far back to replay
+    @Builder.Default
+    private Integer days = 30;
+
+    // restrict to these pipelines, null or empty means all
+    private List<Integer> pipelineIds;
+
+    // candidate rules, ids are optional and only echoed back
+    private List<AlertRule> rules;
+
+    // candidate thresholds for the metrics-based checks
+    private List<AlertConfig> configs;
+}
@@ -0,0 +1,21 @@
+package com.yourname.streamci.streamci.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * one (pipeline, committer, branch) combination to score
+ * committer and branch are optional, the model then only uses the pipeline-wide features
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PredictionTarget {
+
+    private Integer pipelineId;
+    private String committer;
+    private String branch;
+}
@@ -0,0 +1,18 @@
+package com.yourname.streamci.streamci.event;
+
+import com.yourname.streamci.streamci.model.Alert;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class AlertChangedEvent extends ApplicationEvent {
+    private final Alert alert;
+    private final boolean removed;
+
+    public AlertChangedEvent(Object source, Alert alert, boolean removed) {
+        super(source);
+        this.alert = alert;
+        this.removed = removed;
+    }
+
+}
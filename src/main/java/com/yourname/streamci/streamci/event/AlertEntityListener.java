@@ -0,0 +1,31 @@
+package com.yourname.streamci.streamci.event;
+
+import com.yourname.streamci.streamci.model.Alert;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * jpa entity listener that publishes every alert insert/update/delete as an AlertChangedEvent
+ * so in-memory views of active alerts stay in sync with whoever wrote the row
+ */
+public class AlertEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public AlertEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onAlertSaved(Alert alert) {
+        eventPublisher.publishEvent(new AlertChangedEvent(this, alert, false));
+    }
+
+    @PostRemove
+    public void onAlertRemoved(Alert alert) {
+        eventPublisher.publishEvent(new AlertChangedEvent(this, alert, true));
+    }
+}
@@ -0,0 +1,37 @@
+package com.yourname.streamci.streamci.event;
+
+import com.yourname.streamci.streamci.model.Build;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * jpa entity listener that turns every persisted build into a BuildIngestedEvent,
+ * no matter which path saved it (webhook, github sync, api), and updates/deletes
+ * into a BuildModifiedEvent
+ * listeners should use @TransactionalEventListener so they only see committed builds
+ */
+public class BuildEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public BuildEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onBuildPersisted(Build build) {
+        eventPublisher.publishEvent(new BuildIngestedEvent(this, build));
+    }
+
+    @PostUpdate
+    public void onBuildUpdated(Build build) {
+        eventPublisher.publishEvent(new BuildModifiedEvent(this, build, false));
+    }
+
+    @PostRemove
+    public void onBuildRemoved(Build build) {
+        eventPublisher.publishEvent(new BuildModifiedEvent(this, build, true));
+    }
+}
@@ -0,0 +1,18 @@
+package com.yourname.streamci.streamci.event;
+
+import com.yourname.streamci.streamci.model.Build;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+@Getter
+public class BuildIngestedEvent extends ApplicationEvent {
+    private final Build build;
+    private final Integer pipelineId;
+
+    public BuildIngestedEvent(Object source, Build build) {
+        super(source);
+        this.build = build;
+        this.pipelineId = build.getPipeline() != null ? build.getPipeline().getId() : null;
+    }
+
+}
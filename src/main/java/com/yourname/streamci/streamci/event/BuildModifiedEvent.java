@@ -0,0 +1,36 @@
+package com.yourname.streamci.streamci.event;
+
+import com.yourname.streamci.streamci.model.Build;
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * an already ingested build was updated or deleted - consumers that only append
+ * (feature store, counters) use it to invalidate what they derived from the build
+ * previousStatus / previousStartTime are the values before the update, null if unknown
+ */
+@Getter
+public class BuildModifiedEvent extends ApplicationEvent {
+    private final Build build;
+    private final Integer pipelineId;
+    private final boolean removed;
+    private final String previousStatus;
+    private final LocalDateTime previousStartTime;
+
+    public BuildModifiedEvent(Object source, Build build, boolean removed) {
+        super(source);
+        this.build = build;
+        this.pipelineId = build.getPipeline() != null ? build.getPipeline().getId() : null;
+        this.removed = removed;
+        this.previousStatus = build.getPersistedStatus();
+        this.previousStartTime = build.getPersistedStartTime();
+    }
+
+    public boolean isStatusChanged() {
+        return removed || !Objects.equals(previousStatus, build.getStatus());
+    }
+
+}
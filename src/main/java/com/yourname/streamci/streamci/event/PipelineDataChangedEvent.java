@@ -0,0 +1,24 @@
+package com.yourname.streamci.streamci.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * a pipeline row or one of its metrics / queue rows was written - read-side caches
+ * use it to know their copy of that pipeline is out of date, projections apply the
+ * entity itself
+ */
+@Getter
+public class PipelineDataChangedEvent extends ApplicationEvent {
+    private final Integer pipelineId;
+    private final Object entity;
+    private final boolean removed;
+
+    public PipelineDataChangedEvent(Object source, Integer pipelineId, Object entity, boolean removed) {
+        super(source);
+        this.pipelineId = pipelineId;
+        this.entity = entity;
+        this.removed = removed;
+    }
+
+}
@@ -0,0 +1,48 @@
+package com.yourname.streamci.streamci.event;
+
+import com.yourname.streamci.streamci.model.*;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * jpa entity listener for pipelines and the per-pipeline rows derived from builds
+ * (metrics snapshots, queue trackers, queue metrics), publishes a PipelineDataChangedEvent
+ * whichever path wrote the row
+ */
+public class PipelineDataEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PipelineDataEntityListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onChanged(Object entity) {
+        eventPublisher.publishEvent(new PipelineDataChangedEvent(this, pipelineId(entity), entity, false));
+    }
+
+    @PostRemove
+    public void onRemoved(Object entity) {
+        eventPublisher.publishEvent(new PipelineDataChangedEvent(this, pipelineId(entity), entity, true));
+    }
+
+    private static Integer pipelineId(Object entity) {
+        Pipeline pipeline;
+        if (entity instanceof Pipeline p) {
+            pipeline = p;
+        } else if (entity instanceof PipelineMetrics metrics) {
+            pipeline = metrics.getPipeline();
+        } else if (entity instanceof QueueTracker tracker) {
+            pipeline = tracker.getPipeline();
+        } else if (entity instanceof QueueMetrics metrics) {
+            pipeline = metrics.getPipeline();
+        } else {
+            pipeline = null;
+        }
+        return pipeline != null ? pipeline.getId() : null;
+    }
+}
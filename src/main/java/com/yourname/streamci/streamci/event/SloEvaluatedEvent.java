@@ -0,0 +1,19 @@
+package com.yourname.streamci.streamci.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Map;
+
+@Getter
+public class SloEvaluatedEvent extends ApplicationEvent {
+    private final Integer pipelineId;
+    private final Map<String, Object> status;
+
+    public SloEvaluatedEvent(Object source, Integer pipelineId, Map<String, Object> status) {
+        super(source);
+        this.pipelineId = pipelineId;
+        this.status = status;
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.yourname.streamci.streamci.model;
 
+import com.yourname.streamci.streamci.event.AlertEntityListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,11 +9,12 @@ import lombok.Builder;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(AlertEntityListener.class)
 @Table(name = "alerts")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 public class Alert {
 
     @Id
@@ -69,7 +71,10 @@ public class Alert {
         HIGH_FAILURE_RATE,
         STALE_PIPELINE,
         PERFORMANCE_DEGRADATION,
-        UNUSUAL_ACTIVITY
+        UNUSUAL_ACTIVITY,
+        ANOMALY,          // z-score excursion from the pipeline's own baseline
+        SLO_BURN_RATE,    // error budget being spent faster than the SLO allows
+        CHANGE_POINT      // sustained shift in failure rate or duration (CUSUM)
     }
 
     public enum AlertSeverity {
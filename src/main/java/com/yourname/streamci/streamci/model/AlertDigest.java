@@ -0,0 +1,27 @@
+package com.yourname.streamci.streamci.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * one notification standing in for a group of correlated alerts (alert storm)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertDigest {
+    private Alert.AlertType type;
+    private Alert.AlertSeverity maxSeverity;
+    private String cause; // shared signal, e.g. "failures around 14:00" or "committer alice"
+    private Integer alertCount; // alerts folded into this digest (excludes the first one, sent immediately)
+    private List<Long> alertIds;
+    private List<String> pipelineNames;
+    private LocalDateTime windowStart;
+    private LocalDateTime windowEnd;
+}
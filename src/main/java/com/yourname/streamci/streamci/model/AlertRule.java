@@ -0,0 +1,91 @@
+package com.yourname.streamci.streamci.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import java.time.LocalDateTime;
+
+/**
+ * user-defined alert rule evaluated by the rule engine on every build/queue event
+ * e.g. "FAILURE_COUNT >= 3 in 10 minutes on main" or
+ * "P90_DURATION_CHANGE >= 50 (%) over 60 minutes vs a 7 day baseline"
+ */
+@Entity
+@Table(name = "alert_rules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AlertRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String name;
+
+    private Integer pipelineId; // null means every pipeline
+
+    private String branch; // null means every branch
+
+    @Enumerated(EnumType.STRING)
+    private RuleMetric metric;
+
+    private Integer windowMinutes; // sliding window the metric is aggregated over
+    private Integer baselineMinutes; // only used by *_CHANGE metrics
+
+    private Double threshold; // rule fires when metric >= threshold
+    private Integer minSamples; // don't evaluate until the window has this many builds
+
+    @Enumerated(EnumType.STRING)
+    private Alert.AlertSeverity severity;
+
+    private Integer cooldownMinutes;
+    private Boolean enabled;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public enum RuleMetric {
+        FAILURE_COUNT(Alert.AlertType.HIGH_FAILURE_RATE),        // failed builds in window
+        FAILURE_RATE(Alert.AlertType.HIGH_FAILURE_RATE),         // % failed builds in window
+        P90_DURATION_CHANGE(Alert.AlertType.PERFORMANCE_DEGRADATION), // % change of p90 vs baseline
+        QUEUE_DEPTH(Alert.AlertType.QUEUE_BACKUP);               // builds currently queued
+
+        private final Alert.AlertType alertType;
+
+        RuleMetric(Alert.AlertType alertType) {
+            this.alertType = alertType;
+        }
+
+        public Alert.AlertType getAlertType() {
+            return alertType;
+        }
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+        applyDefaults();
+    }
+
+    // a rule posted again with its id is merged, not persisted, so updates need the defaults too
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+        if (createdAt == null) createdAt = updatedAt;
+        applyDefaults();
+    }
+
+    private void applyDefaults() {
+        if (enabled == null) enabled = true;
+        if (windowMinutes == null) windowMinutes = 10;
+        if (baselineMinutes == null) baselineMinutes = 7 * 24 * 60;
+        if (minSamples == null) minSamples = 1;
+        if (severity == null) severity = Alert.AlertSeverity.WARNING;
+        if (cooldownMinutes == null) cooldownMinutes = 15;
+    }
+}
@@ -1,18 +1,25 @@
 package com.yourname.streamci.streamci.model;
 
 import com.fasterxml.jackson.annotation.JsonBackReference;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.yourname.streamci.streamci.event.BuildEntityListener;
 import jakarta.persistence.*;
 import org.springframework.data.annotation.LastModifiedDate;
 
 import java.time.LocalDateTime;
 
+import lombok.AccessLevel;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
 
 
 @Entity
+@EntityListeners(BuildEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -43,6 +50,22 @@ public class Build {
     private String committer;
     private String branch;
 
+    // status and start time as last read from / written to the database, so a
+    // BuildModifiedEvent can tell what an update actually changed
+    @Transient
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private String persistedStatus;
+
+    @Transient
+    @JsonIgnore
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private LocalDateTime persistedStartTime;
+
     @PrePersist
     protected void onCreate() {
         if (createdAt == null) {
@@ -56,4 +79,13 @@ public class Build {
         }
     }
 
+    // entity listeners run first, so BuildEntityListener still sees the previous values
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    protected void rememberPersistedState() {
+        persistedStatus = status;
+        persistedStartTime = startTime;
+    }
+
 }
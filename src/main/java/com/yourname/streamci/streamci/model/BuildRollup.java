@@ -0,0 +1,44 @@
+package com.yourname.streamci.streamci.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import java.time.LocalDateTime;
+
+/**
+ * one pipeline's builds in one hour (by start time), pre-aggregated for the trends api
+ * durations are summarized by count / sum / min / max plus a DurationSketch for percentiles
+ */
+@Entity
+@Table(name = "build_rollups", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_build_rollups_bucket", columnNames = {"pipeline_id", "bucket_start"})
+}, indexes = {
+        @Index(name = "idx_build_rollups_bucket", columnList = "bucket_start")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BuildRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Integer pipelineId;
+    private LocalDateTime bucketStart; // truncated to the hour
+
+    private Integer totalBuilds;
+    private Integer successCount;
+    private Integer failureCount;
+
+    private Integer durationCount; // builds that reported a duration
+    private Long durationSum;      // seconds
+    private Long durationMin;
+    private Long durationMax;
+
+    @Column(length = 256)
+    private byte[] durationSketch;
+}
@@ -0,0 +1,44 @@
+package com.yourname.streamci.streamci.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import java.time.LocalDateTime;
+
+/**
+ * a detected regression in a pipeline's failure rate or build duration
+ * the change started at changeStartedAt / firstBadCommit; lastGoodCommit..detectedCommit
+ * is the commit range that was in effect while it built up
+ */
+@Entity
+@Table(name = "change_points", indexes = {
+        @Index(name = "idx_change_points_pipeline_detected", columnList = "pipelineId, detectedAt")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ChangePoint {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Integer pipelineId;
+
+    private String metric; // failure_rate or duration
+
+    private Double baselineValue; // failure rate % or seconds before the change
+    private Double shiftedValue;  // same unit, average since the change started
+    private Double cusumScore;
+    private Integer buildsSinceChange;
+
+    private LocalDateTime changeStartedAt;
+    private LocalDateTime detectedAt;
+
+    private String lastGoodCommit;
+    private String firstBadCommit;
+    private String detectedCommit;
+}
@@ -0,0 +1,50 @@
+package com.yourname.streamci.streamci.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import java.time.LocalDateTime;
+
+/**
+ * one file touched by one commit of a push
+ * headSha is the push's resulting head commit, which is what the workflow run
+ * builds, so builds join on build.commitHash = headSha
+ */
+@Entity
+@Table(name = "commit_file_changes", indexes = {
+        @Index(name = "idx_commit_files_pipeline_head", columnList = "pipelineId, headSha")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommitFileChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Integer pipelineId;
+
+    private String headSha;
+    private String commitSha;
+
+    @Column(length = 1024)
+    private String path;
+
+    @Enumerated(EnumType.STRING)
+    private ChangeType changeType;
+
+    private LocalDateTime pushedAt;
+
+    public enum ChangeType {
+        ADDED, MODIFIED, REMOVED
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        if (pushedAt == null) pushedAt = LocalDateTime.now();
+    }
+}
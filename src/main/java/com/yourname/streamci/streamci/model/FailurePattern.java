@@ -5,10 +5,17 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.HexFormat;
 
 @Entity
-@Table(name = "failure_patterns")
+@Table(name = "failure_patterns", uniqueConstraints = {
+        // the key the scheduler upserts on, see FailurePatternBulkRepository
+        @UniqueConstraint(name = "uk_failure_patterns_key", columnNames = {"pipeline_id", "pattern_type", "pattern_key"})
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -25,11 +32,19 @@ public class FailurePattern {
 
     private String patternType;
     private String description;
+
+    // sha-256 of the full description, which may be longer than the column keeps
+    @Column(length = 64)
+    private String patternKey;
     private Double confidence;
     private Integer frequency;
     private String recommendation;
     private String details;
 
+    // minhash of the log excerpts, only set on log_signature clusters (see FailureSignatureIndex)
+    @Column(length = 512)
+    private byte[] signature;
+
     private LocalDateTime detectedAt;
     private LocalDateTime lastOccurrence;
 
@@ -38,5 +53,18 @@ public class FailurePattern {
         if (detectedAt == null) {
             detectedAt = LocalDateTime.now();
         }
+        if (patternKey == null && description != null) {
+            patternKey = keyOf(description);
+        }
+    }
+
+    public static String keyOf(String description) {
+        if (description == null) return null;
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(description.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
     }
 }
\ No newline at end of file
@@ -14,5 +14,7 @@ public class FlakyTestResult {
     private Double failureRate;
     private Integer totalRuns;
     private Integer failures;
+    private Double flakinessScore;      // decay-weighted share of re-run commits with mixed outcomes
+    private Integer divergentCommits;   // commits that both passed and failed
     private String recommendation;
 }
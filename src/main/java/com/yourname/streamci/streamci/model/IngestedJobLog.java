@@ -0,0 +1,39 @@
+package com.yourname.streamci.streamci.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import java.time.LocalDateTime;
+
+/**
+ * a github actions job whose failure log was filed with the signature index
+ * kept so a re-sync, also after a restart, doesn't count the same failure twice
+ */
+@Entity
+@Table(name = "ingested_job_logs", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_ingested_job_logs_job", columnNames = "jobId")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IngestedJobLog {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private Long jobId;
+    private Integer pipelineId;
+    private Long patternId; // cluster the log was filed under, null if it had nothing to match
+    private LocalDateTime ingestedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (ingestedAt == null) {
+            ingestedAt = LocalDateTime.now();
+        }
+    }
+}
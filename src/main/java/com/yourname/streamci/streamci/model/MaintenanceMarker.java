@@ -0,0 +1,25 @@
+package com.yourname.streamci.streamci.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import java.time.LocalDateTime;
+
+/**
+ * a one-off data job (a backfill) that has run to completion, keyed by job name
+ */
+@Entity
+@Table(name = "maintenance_markers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MaintenanceMarker {
+
+    @Id
+    private String name;
+
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,54 @@
+package com.yourname.streamci.streamci.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import java.time.LocalDateTime;
+
+/**
+ * persisted state of one pipeline's online build outcome model
+ * weights are the raw float vector (4 bytes per feature), the rest is the running
+ * state the features are computed from and the held-out scoring totals
+ */
+@Entity
+@Table(name = "outcome_models")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutcomeModel {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(unique = true)
+    private Integer pipelineId;
+
+    @Column(length = 8192)
+    private byte[] weights;
+
+    private Long trainedCount; // sgd steps taken
+    private Long trainedSuccesses;
+
+    private Integer streak; // +n successes or -n failures in a row
+    private Double durationEwma; // seconds
+    private Long lastBuildId;
+
+    // held-out builds are scored but never trained on
+    private Long heldOutCount;
+    private Long heldOutCorrect;
+    private Double brierSum;
+    private Double logLossSum;
+    private Double baselineBrierSum; // same builds scored with the running success rate
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -1,5 +1,6 @@
 package com.yourname.streamci.streamci.model;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
+import com.yourname.streamci.streamci.event.PipelineDataEntityListener;
 import jakarta.persistence.*;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
@@ -12,7 +13,8 @@ import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
 @Entity
-@EntityListeners(org.springframework.data.jpa.domain.support.AuditingEntityListener.class)
+@EntityListeners({org.springframework.data.jpa.domain.support.AuditingEntityListener.class,
+        PipelineDataEntityListener.class})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,5 +1,6 @@
 package com.yourname.streamci.streamci.model;
 
+import com.yourname.streamci.streamci.event.PipelineDataEntityListener;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.NoArgsConstructor;
@@ -8,6 +9,7 @@ import lombok.Builder;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(PipelineDataEntityListener.class)
 @Table(name = "pipeline_metrics")
 @Data
 @NoArgsConstructor
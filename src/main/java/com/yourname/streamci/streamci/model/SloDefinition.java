@@ -0,0 +1,72 @@
+package com.yourname.streamci.streamci.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import java.time.LocalDateTime;
+
+/**
+ * service level objective for a pipeline, e.g. "95% of main builds green" or
+ * "90% of main builds finish within 900s" (a p90 < 15 min objective)
+ * the error budget is (100 - target)% of the builds in budgetDays
+ */
+@Entity
+@Table(name = "slo_definitions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SloDefinition {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String name;
+
+    private Integer pipelineId;
+
+    private String branch; // null means every branch
+
+    @Enumerated(EnumType.STRING)
+    private SloIndicator indicator;
+
+    private Double target; // percent of good builds, e.g. 95.0
+    private Long durationThresholdSeconds; // only used by DURATION
+
+    private Integer budgetDays; // error budget period
+    private Integer minEvents; // a burn window needs this many builds before it can fire
+
+    private Boolean enabled;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+
+    public enum SloIndicator {
+        SUCCESS_RATE, // good = build succeeded (cancelled/running builds don't count)
+        DURATION      // good = build finished within durationThresholdSeconds
+    }
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+        applyDefaults();
+    }
+
+    // an slo posted again with its id is merged, not persisted, so updates need the defaults too
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+        if (createdAt == null) createdAt = updatedAt;
+        applyDefaults();
+    }
+
+    private void applyDefaults() {
+        if (enabled == null) enabled = true;
+        if (budgetDays == null) budgetDays = 30;
+        if (minEvents == null) minEvents = 5;
+    }
+}
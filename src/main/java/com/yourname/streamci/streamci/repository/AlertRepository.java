@@ -38,4 +38,12 @@ public interface AlertRepository extends JpaRepository<Alert, Long> {
     // performance optimization: count alerts by date range instead of loading all
     @Query("SELECT COUNT(a) FROM Alert a WHERE a.createdAt >= :startDate")
     long countByCreatedAtAfter(@Param("startDate") LocalDateTime startDate);
-}
\ No newline at end of file
+
+    @Query("SELECT a.id, a.createdAt FROM Alert a WHERE a.createdAt >= :startDate")
+    List<Object[]> findCreatedSince(@Param("startDate") LocalDateTime startDate);
+
+    // active alert counters are reconciled against this
+    @Query("SELECT a.severity, a.type, COUNT(a) FROM Alert a WHERE a.status = 'ACTIVE' " +
+            "GROUP BY a.severity, a.type")
+    List<Object[]> countActiveBySeverityAndType();
+}
@@ -0,0 +1,12 @@
+package com.yourname.streamci.streamci.repository;
+
+import com.yourname.streamci.streamci.model.AlertRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+public interface AlertRuleRepository extends JpaRepository<AlertRule, Long> {
+
+    List<AlertRule> findByEnabledTrue();
+
+    List<AlertRule> findByPipelineIdOrPipelineIdIsNull(Integer pipelineId);
+}
@@ -1,6 +1,7 @@
 package com.yourname.streamci.streamci.repository;
 
 import com.yourname.streamci.streamci.model.Build;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -58,12 +59,53 @@ public interface BuildRepository extends JpaRepository<Build, Long> {
     @Query("SELECT b FROM Build b WHERE b.startTime >= :startDate ORDER BY b.startTime DESC")
     List<Build> findByStartTimeAfter(@Param("startDate") LocalDateTime startDate);
 
+    // id, start time and status only, seeds the dashboard's 24 hour activity window
+    @Query("SELECT b.buildId, b.startTime, b.status FROM Build b WHERE b.startTime >= :startDate")
+    List<Object[]> findActivityRowsSince(@Param("startDate") LocalDateTime startDate);
+
     // performance optimization: query builds by date range for specific pipeline
     @Query("SELECT b FROM Build b WHERE b.pipeline.id = :pipelineId " +
             "AND b.startTime >= :startDate ORDER BY b.startTime DESC")
     List<Build> findByPipelineIdAndStartTimeAfter(@Param("pipelineId") Integer pipelineId,
                                                    @Param("startDate") LocalDateTime startDate);
 
+    // newest builds of the pipeline whatever their age, builds without a start time last
+    @Query("SELECT b FROM Build b WHERE b.pipeline.id = :pipelineId " +
+            "ORDER BY b.startTime DESC NULLS LAST, b.buildId DESC")
+    List<Build> findLatestByPipelineId(@Param("pipelineId") Integer pipelineId, Pageable page);
+
+    // builds inserted after the given one, in insert order, for models restored from a flush
+    @Query("SELECT b FROM Build b WHERE b.pipeline.id = :pipelineId " +
+            "AND b.buildId > :buildId ORDER BY b.buildId")
+    List<Build> findByPipelineIdAndBuildIdAfter(@Param("pipelineId") Integer pipelineId,
+                                                @Param("buildId") Long buildId);
+
+    // every build of the pipeline, whatever its age, for the predictor's data-point count
+    long countByPipelineId(Integer pipelineId);
+
+    // backtesting: only the columns a replay needs, for every pipeline in one pass
+    @Query("SELECT b.pipeline.id, b.startTime, b.endTime, b.status, b.duration, b.branch FROM Build b " +
+            "WHERE b.startTime >= :startDate")
+    List<Object[]> findReplayRowsSince(@Param("startDate") LocalDateTime startDate);
+
+    // columnar store: the scan columns of every build in id order, one keyset page at a time
+    @Query("SELECT b.buildId, b.pipeline.id, b.startTime, b.endTime, b.createdAt, b.status, b.duration, " +
+            "b.committer, b.branch FROM Build b WHERE b.buildId > :afterId ORDER BY b.buildId")
+    List<Object[]> findColumnRowsAfter(@Param("afterId") Long afterId, Pageable page);
+
+    // rollups: status and duration of one pipeline's builds started in [from, to)
+    @Query("SELECT b.status, b.duration FROM Build b WHERE b.pipeline.id = :pipelineId " +
+            "AND b.startTime >= :from AND b.startTime < :to")
+    List<Object[]> findOutcomesStartedBetween(@Param("pipelineId") Integer pipelineId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
+
+    // file correlation: outcomes of builds whose head commit has recorded file changes, oldest first
+    @Query("SELECT b.buildId, b.commitHash, b.status FROM Build b WHERE b.pipeline.id = :pipelineId " +
+            "AND b.commitHash IN (SELECT c.headSha FROM CommitFileChange c WHERE c.pipelineId = :pipelineId) " +
+            "ORDER BY b.buildId")
+    List<Object[]> findOutcomesWithFileChanges(@Param("pipelineId") Integer pipelineId);
+
     // performance optimization: query builds by date range with status filter
     @Query("SELECT b FROM Build b WHERE b.startTime >= :startDate " +
             "AND b.status = :status ORDER BY b.startTime DESC")
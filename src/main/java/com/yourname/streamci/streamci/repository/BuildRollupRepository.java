@@ -0,0 +1,31 @@
+package com.yourname.streamci.streamci.repository;
+
+import com.yourname.streamci.streamci.model.BuildRollup;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface BuildRollupRepository extends JpaRepository<BuildRollup, Long> {
+
+    Optional<BuildRollup> findByPipelineIdAndBucketStart(Integer pipelineId, LocalDateTime bucketStart);
+
+    // row-locked until the caller's transaction ends, serializes writers of one pipeline-hour
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM BuildRollup r WHERE r.pipelineId = :pipelineId AND r.bucketStart = :bucketStart")
+    Optional<BuildRollup> findForUpdate(@Param("pipelineId") Integer pipelineId,
+                                        @Param("bucketStart") LocalDateTime bucketStart);
+
+    List<BuildRollup> findByPipelineIdAndBucketStartGreaterThanEqualOrderByBucketStart(
+            Integer pipelineId, LocalDateTime since);
+
+    List<BuildRollup> findByBucketStartGreaterThanEqualOrderByBucketStart(LocalDateTime since);
+
+    List<BuildRollup> findByPipelineIdInAndBucketStartGreaterThanEqualOrderByBucketStart(
+            Collection<Integer> pipelineIds, LocalDateTime since);
+}
@@ -0,0 +1,11 @@
+package com.yourname.streamci.streamci.repository;
+
+import com.yourname.streamci.streamci.model.ChangePoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface ChangePointRepository extends JpaRepository<ChangePoint, Long> {
+
+    List<ChangePoint> findByPipelineIdAndDetectedAtAfterOrderByDetectedAtDesc(Integer pipelineId, LocalDateTime since);
+}
@@ -0,0 +1,15 @@
+package com.yourname.streamci.streamci.repository;
+
+import com.yourname.streamci.streamci.model.CommitFileChange;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import java.util.List;
+
+public interface CommitFileChangeRepository extends JpaRepository<CommitFileChange, Long> {
+
+    // (headSha, path) pairs in the order they were pushed, enough to rebuild the correlation index
+    @Query("SELECT c.headSha, c.path FROM CommitFileChange c WHERE c.pipelineId = :pipelineId " +
+            "GROUP BY c.headSha, c.path ORDER BY MAX(c.id)")
+    List<Object[]> findPathsByPipelineId(@Param("pipelineId") Integer pipelineId);
+}
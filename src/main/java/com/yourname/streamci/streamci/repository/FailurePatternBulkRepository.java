@@ -0,0 +1,194 @@
+package com.yourname.streamci.streamci.repository;
+
+import com.yourname.streamci.streamci.model.FailurePattern;
+import com.yourname.streamci.streamci.model.PatternDetectionResult;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * batched upsert of detected patterns keyed by (pipeline, type, pattern_key)
+ * pattern_key is a hash of the full description (FailurePattern.keyOf), the stored
+ * description is cut to the column width, so two long rules that share a prefix stay two
+ * patterns. one jdbc batch per scheduler run instead of a lookup + save per pattern.
+ * postgres uses INSERT .. ON CONFLICT against uk_failure_patterns_key, other databases
+ * (h2 in tests) the standard MERGE. ddl-auto can't add that constraint to a table that
+ * already holds duplicate keys, so when it's missing each row is an UPDATE by key, then an
+ * INSERT if nothing matched. an existing row keeps its details, detectedAt moves to
+ * this run so retention and findRecentPatterns treat a still-detected pattern as current.
+ * rows from before pattern_key existed get theirs from their description on first use
+ */
+@Repository
+public class FailurePatternBulkRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(FailurePatternBulkRepository.class);
+
+    private static final int MAX_TEXT = 255;
+
+    private static final String POSTGRES_UPSERT =
+            "INSERT INTO failure_patterns (pipeline_id, pattern_type, pattern_key, description, confidence, " +
+            "frequency, recommendation, details, detected_at, last_occurrence) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (pipeline_id, pattern_type, pattern_key) DO UPDATE SET " +
+            "confidence = EXCLUDED.confidence, frequency = EXCLUDED.frequency, " +
+            "recommendation = EXCLUDED.recommendation, detected_at = EXCLUDED.detected_at, " +
+            "last_occurrence = EXCLUDED.last_occurrence";
+
+    private static final String STANDARD_MERGE =
+            "MERGE INTO failure_patterns t USING (VALUES (CAST(? AS INTEGER), CAST(? AS VARCHAR(255)), " +
+            "CAST(? AS VARCHAR(64)), CAST(? AS VARCHAR(255)), CAST(? AS DOUBLE PRECISION), CAST(? AS INTEGER), " +
+            "CAST(? AS VARCHAR(255)), CAST(? AS VARCHAR(255)), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP))) " +
+            "AS s (pipeline_id, pattern_type, pattern_key, description, confidence, frequency, recommendation, " +
+            "details, detected_at, last_occurrence) " +
+            "ON t.pipeline_id = s.pipeline_id AND t.pattern_type = s.pattern_type AND t.pattern_key = s.pattern_key " +
+            "WHEN MATCHED THEN UPDATE SET confidence = s.confidence, frequency = s.frequency, " +
+            "recommendation = s.recommendation, detected_at = s.detected_at, last_occurrence = s.last_occurrence " +
+            "WHEN NOT MATCHED THEN INSERT (pipeline_id, pattern_type, pattern_key, description, confidence, " +
+            "frequency, recommendation, details, detected_at, last_occurrence) VALUES (s.pipeline_id, " +
+            "s.pattern_type, s.pattern_key, s.description, s.confidence, s.frequency, s.recommendation, s.details, " +
+            "s.detected_at, s.last_occurrence)";
+
+    private static final String UPDATE_BY_KEY =
+            "UPDATE failure_patterns SET confidence = ?, frequency = ?, recommendation = ?, detected_at = ?, " +
+            "last_occurrence = ? WHERE pipeline_id = ? AND pattern_type = ? AND pattern_key = ?";
+
+    private static final String INSERT =
+            "INSERT INTO failure_patterns (pipeline_id, pattern_type, pattern_key, description, confidence, " +
+            "frequency, recommendation, details, detected_at, last_occurrence) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SET_KEY = "UPDATE failure_patterns SET pattern_key = ? WHERE id = ?";
+
+    private static final Set<String> KEY_COLUMNS = Set.of("pipeline_id", "pattern_type", "pattern_key");
+
+    private final JdbcTemplate jdbcTemplate;
+    private volatile String upsertSql; // "" when the table has no unique key to upsert on
+
+    public FailurePatternBulkRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * a detected pattern and the pipeline it belongs to
+     */
+    public record PatternRow(Integer pipelineId, PatternDetectionResult pattern) {
+    }
+
+    public int upsertAll(List<PatternRow> rows) {
+        if (rows.isEmpty()) return 0;
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        String sql = upsertSql();
+        if (sql.isEmpty()) {
+            return updateOrInsert(rows, now);
+        }
+
+        int[][] counts = jdbcTemplate.batchUpdate(sql, rows, rows.size(), (ps, row) -> {
+            PatternDetectionResult pattern = row.pattern();
+            ps.setInt(1, row.pipelineId());
+            ps.setString(2, pattern.getPatternType());
+            ps.setString(3, FailurePattern.keyOf(pattern.getDescription()));
+            ps.setString(4, truncate(pattern.getDescription()));
+            ps.setObject(5, pattern.getConfidence());
+            ps.setObject(6, pattern.getFrequency());
+            ps.setString(7, truncate(pattern.getRecommendation()));
+            ps.setString(8, pattern.getDetails() != null ? truncate(pattern.getDetails().toString()) : "");
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, pattern.getLastOccurrence() != null ? Timestamp.valueOf(pattern.getLastOccurrence()) : null);
+        });
+
+        int upserted = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // some drivers report SUCCESS_NO_INFO (-2) for batched statements
+                upserted += count > 0 ? count : 1;
+            }
+        }
+        return upserted;
+    }
+
+    // one statement or two per row, the find-then-save path without the entity round trip
+    private int updateOrInsert(List<PatternRow> rows, Timestamp now) {
+        for (PatternRow row : rows) {
+            PatternDetectionResult pattern = row.pattern();
+            Timestamp lastOccurrence = pattern.getLastOccurrence() != null ? Timestamp.valueOf(pattern.getLastOccurrence()) : null;
+            String key = FailurePattern.keyOf(pattern.getDescription());
+            String recommendation = truncate(pattern.getRecommendation());
+
+            int updated = jdbcTemplate.update(UPDATE_BY_KEY, pattern.getConfidence(), pattern.getFrequency(),
+                    recommendation, now, lastOccurrence, row.pipelineId(), pattern.getPatternType(), key);
+            if (updated == 0) {
+                jdbcTemplate.update(INSERT, row.pipelineId(), pattern.getPatternType(), key, truncate(pattern.getDescription()),
+                        pattern.getConfidence(), pattern.getFrequency(), recommendation,
+                        pattern.getDetails() != null ? truncate(pattern.getDetails().toString()) : "", now, lastOccurrence);
+            }
+        }
+        return rows.size();
+    }
+
+    // failure_patterns columns are varchar(255), mined rules can run longer
+    private static String truncate(String value) {
+        return value != null && value.length() > MAX_TEXT ? value.substring(0, MAX_TEXT) : value;
+    }
+
+    private String upsertSql() {
+        if (upsertSql == null) {
+            backfillKeys();
+            upsertSql = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+                DatabaseMetaData metaData = connection.getMetaData();
+                String product = metaData.getDatabaseProductName();
+                if (!hasUniqueKey(metaData)) {
+                    logger.warn("failure_patterns has no unique key on (pipeline_id, pattern_type, pattern_key), " +
+                            "probably duplicate rows stopped ddl-auto from adding uk_failure_patterns_key. " +
+                            "Patterns are saved row by row until the duplicates are removed and the app restarted");
+                    return "";
+                }
+                logger.debug("Using {} pattern upsert for {}", "PostgreSQL".equalsIgnoreCase(product) ? "ON CONFLICT" : "MERGE", product);
+                return "PostgreSQL".equalsIgnoreCase(product) ? POSTGRES_UPSERT : STANDARD_MERGE;
+            });
+        }
+        return upsertSql;
+    }
+
+    // rows saved before pattern_key existed, keyed by their (possibly cut) description. a row whose
+    // key is already taken stays unkeyed and is never matched again, retention removes it in time
+    private void backfillKeys() {
+        List<Map<String, Object>> unkeyed = jdbcTemplate.queryForList(
+                "SELECT id, description FROM failure_patterns WHERE pattern_key IS NULL");
+        int keyed = 0;
+        for (Map<String, Object> row : unkeyed) {
+            try {
+                keyed += jdbcTemplate.update(SET_KEY, FailurePattern.keyOf((String) row.get("description")), row.get("id"));
+            } catch (DataIntegrityViolationException e) {
+                logger.debug("failure pattern {} duplicates a keyed pattern, left unkeyed", row.get("id"));
+            }
+        }
+        if (keyed > 0) {
+            logger.info("Keyed {} failure patterns saved before pattern_key existed", keyed);
+        }
+    }
+
+    // any unique index over exactly the key columns, whatever it is called
+    private static boolean hasUniqueKey(DatabaseMetaData metaData) throws SQLException {
+        String table = metaData.storesUpperCaseIdentifiers() ? "FAILURE_PATTERNS" : "failure_patterns";
+        Map<String, Set<String>> columnsByIndex = new HashMap<>();
+        try (ResultSet indexes = metaData.getIndexInfo(null, null, table, true, false)) {
+            while (indexes.next()) {
+                String index = indexes.getString("INDEX_NAME");
+                String column = indexes.getString("COLUMN_NAME");
+                if (index != null && column != null) {
+                    columnsByIndex.computeIfAbsent(index, key -> new HashSet<>()).add(column.toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return columnsByIndex.containsValue(KEY_COLUMNS);
+    }
+}
@@ -2,8 +2,10 @@ package com.yourname.streamci.streamci.repository;
 
 import com.yourname.streamci.streamci.model.FailurePattern;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -27,4 +29,19 @@ public interface FailurePatternRepository extends JpaRepository<FailurePattern,
     List<String> findDistinctPatternTypes(@Param("pipelineId") Integer pipelineId);
 
     void deleteByPipelineIdAndDetectedAtBefore(Integer pipelineId, LocalDateTime before);
+
+    // retention for every pipeline in one statement, log signature clusters are the
+    // signature index itself and are kept
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM FailurePattern fp WHERE fp.detectedAt < :before AND fp.patternType <> 'log_signature'")
+    int deleteAllDetectedBefore(@Param("before") LocalDateTime before);
+
+    // one more excerpt joined a cluster, confidence is the running mean match similarity
+    @Modifying
+    @Transactional
+    @Query("UPDATE FailurePattern fp SET fp.confidence = (fp.confidence * fp.frequency + :similarity) / (fp.frequency + 1), " +
+            "fp.frequency = fp.frequency + 1, fp.lastOccurrence = :at WHERE fp.id = :id")
+    int recordOccurrence(@Param("id") Long id, @Param("similarity") double similarity,
+                         @Param("at") LocalDateTime at);
 }
\ No newline at end of file
@@ -0,0 +1,9 @@
+package com.yourname.streamci.streamci.repository;
+
+import com.yourname.streamci.streamci.model.IngestedJobLog;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface IngestedJobLogRepository extends JpaRepository<IngestedJobLog, Long> {
+
+    boolean existsByJobId(Long jobId);
+}
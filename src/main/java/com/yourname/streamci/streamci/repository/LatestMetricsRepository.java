@@ -0,0 +1,87 @@
+package com.yourname.streamci.streamci.repository;
+
+import com.yourname.streamci.streamci.model.PipelineMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * latest metrics snapshot of many pipelines in one query instead of a correlated
+ * MAX(calculatedAt) lookup per pipeline. postgres uses DISTINCT ON over
+ * (pipeline_id, calculated_at desc), other databases (h2 in tests) a grouped
+ * (pipeline, max time) IN subquery. ties on calculatedAt go to the highest id
+ */
+@Repository
+public class LatestMetricsRepository {
+
+    private static final Logger logger = LoggerFactory.getLogger(LatestMetricsRepository.class);
+
+    private static final String DISTINCT_ON =
+            "SELECT DISTINCT ON (pipeline_id) * FROM pipeline_metrics %s" +
+            "ORDER BY pipeline_id, calculated_at DESC, id DESC";
+
+    private static final String GROUPED_MAX =
+            "SELECT pm FROM PipelineMetrics pm WHERE (pm.pipeline.id, pm.calculatedAt) IN " +
+            "(SELECT pm2.pipeline.id, MAX(pm2.calculatedAt) FROM PipelineMetrics pm2 %s" +
+            "GROUP BY pm2.pipeline.id)";
+
+    private final EntityManager entityManager;
+    private final JdbcTemplate jdbcTemplate;
+    private volatile Boolean distinctOn;
+
+    public LatestMetricsRepository(EntityManager entityManager, JdbcTemplate jdbcTemplate) {
+        this.entityManager = entityManager;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<PipelineMetrics> findLatestForAll() {
+        return find(null);
+    }
+
+    public List<PipelineMetrics> findLatestFor(Collection<Integer> pipelineIds) {
+        if (pipelineIds.isEmpty()) return List.of();
+        return find(pipelineIds);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<PipelineMetrics> find(Collection<Integer> pipelineIds) {
+        Query query;
+        if (distinctOn()) {
+            query = entityManager.createNativeQuery(String.format(DISTINCT_ON,
+                    pipelineIds != null ? "WHERE pipeline_id IN (:pipelineIds) " : ""), PipelineMetrics.class);
+        } else {
+            query = entityManager.createQuery(String.format(GROUPED_MAX,
+                    pipelineIds != null ? "WHERE pm2.pipeline.id IN :pipelineIds " : ""), PipelineMetrics.class);
+        }
+        if (pipelineIds != null) {
+            query.setParameter("pipelineIds", pipelineIds);
+        }
+        return onePerPipeline(query.getResultList());
+    }
+
+    // the grouped form returns every row sharing the max time
+    private static List<PipelineMetrics> onePerPipeline(List<PipelineMetrics> rows) {
+        Map<Integer, PipelineMetrics> latest = new LinkedHashMap<>();
+        for (PipelineMetrics row : rows) {
+            latest.merge(row.getPipeline().getId(), row,
+                    (current, other) -> other.getId() > current.getId() ? other : current);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private boolean distinctOn() {
+        if (distinctOn == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            distinctOn = "PostgreSQL".equalsIgnoreCase(product);
+            logger.debug("Using {} latest metrics query for {}", distinctOn ? "DISTINCT ON" : "grouped max", product);
+        }
+        return distinctOn;
+    }
+}
@@ -0,0 +1,7 @@
+package com.yourname.streamci.streamci.repository;
+
+import com.yourname.streamci.streamci.model.MaintenanceMarker;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface MaintenanceMarkerRepository extends JpaRepository<MaintenanceMarker, String> {
+}
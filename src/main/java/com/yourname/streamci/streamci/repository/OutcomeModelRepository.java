@@ -0,0 +1,10 @@
+package com.yourname.streamci.streamci.repository;
+
+import com.yourname.streamci.streamci.model.OutcomeModel;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.Optional;
+
+public interface OutcomeModelRepository extends JpaRepository<OutcomeModel, Long> {
+
+    Optional<OutcomeModel> findByPipelineId(Integer pipelineId);
+}
@@ -18,12 +18,19 @@ public interface PipelineMetricsRepository extends JpaRepository<PipelineMetrics
             LocalDateTime end
     );
 
-    @Query("SELECT pm FROM PipelineMetrics pm WHERE pm.pipeline.id = :pipelineId " +
-            "AND pm.calculatedAt = (SELECT MAX(pm2.calculatedAt) FROM PipelineMetrics pm2 " +
-            "WHERE pm2.pipeline.id = :pipelineId)")
-    Optional<PipelineMetrics> findLatestByPipelineId(@Param("pipelineId") Integer pipelineId);
-
     // performance optimization: query by date range instead of loading all
     @Query("SELECT pm FROM PipelineMetrics pm WHERE pm.calculatedAt >= :startDate ORDER BY pm.calculatedAt ASC")
     List<PipelineMetrics> findByCalculatedAtAfter(@Param("startDate") LocalDateTime startDate);
-}
\ No newline at end of file
+
+    // global trends: the charted columns of every pipeline's snapshots in one query, oldest first
+    @Query("SELECT pm.pipeline.id, pm.calculatedAt, pm.successRate, pm.avgDurationSeconds FROM PipelineMetrics pm " +
+            "WHERE pm.calculatedAt BETWEEN :startDate AND :endDate ORDER BY pm.calculatedAt ASC")
+    List<Object[]> findTrendRowsBetween(@Param("startDate") LocalDateTime startDate,
+                                        @Param("endDate") LocalDateTime endDate);
+
+    // backtesting: the columns the metrics-based alert checks read, oldest first
+    @Query("SELECT pm.pipeline.id, pm.calculatedAt, pm.successRate, pm.totalBuilds, pm.consecutiveFailures, " +
+            "pm.avgDurationSeconds, pm.avgDurationChange FROM PipelineMetrics pm " +
+            "WHERE pm.calculatedAt >= :startDate ORDER BY pm.calculatedAt ASC")
+    List<Object[]> findReplayRowsSince(@Param("startDate") LocalDateTime startDate);
+}
@@ -26,4 +26,9 @@ public interface QueueMetricsRepository extends JpaRepository<QueueMetrics, Long
     // performance optimization: query by date range instead of loading all
     @Query("SELECT q FROM QueueMetrics q WHERE q.timestamp >= :startDate ORDER BY q.timestamp ASC")
     List<QueueMetrics> findByTimestampAfter(@Param("startDate") LocalDateTime startDate);
+
+    // backtesting: queue depth snapshots only, oldest first
+    @Query("SELECT q.pipeline.id, q.timestamp, q.currentQueueDepth FROM QueueMetrics q " +
+            "WHERE q.timestamp >= :startDate ORDER BY q.timestamp ASC")
+    List<Object[]> findReplayRowsSince(@Param("startDate") LocalDateTime startDate);
 }
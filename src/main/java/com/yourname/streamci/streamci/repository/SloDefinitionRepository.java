@@ -0,0 +1,12 @@
+package com.yourname.streamci.streamci.repository;
+
+import com.yourname.streamci.streamci.model.SloDefinition;
+import org.springframework.data.jpa.repository.JpaRepository;
+import java.util.List;
+
+public interface SloDefinitionRepository extends JpaRepository<SloDefinition, Long> {
+
+    List<SloDefinition> findByEnabledTrue();
+
+    List<SloDefinition> findByPipelineId(Integer pipelineId);
+}
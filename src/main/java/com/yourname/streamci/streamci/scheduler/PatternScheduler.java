@@ -1,11 +1,14 @@
 package com.yourname.streamci.streamci.scheduler;
 
+import com.yourname.streamci.streamci.service.BuildSnapshot;
 import com.yourname.streamci.streamci.service.PatternAnalysisService;
 import com.yourname.streamci.streamci.service.PipelineService;
 import com.yourname.streamci.streamci.model.Pipeline;
 import com.yourname.streamci.streamci.model.PatternDetectionResult;
-import com.yourname.streamci.streamci.model.FailurePattern;
+import com.yourname.streamci.streamci.repository.FailurePatternBulkRepository;
 import com.yourname.streamci.streamci.repository.FailurePatternRepository;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.slf4j.Logger;
@@ -13,6 +16,9 @@ import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
 
 @Component
 public class PatternScheduler {
@@ -22,13 +28,22 @@ public class PatternScheduler {
     private final PatternAnalysisService patternService;
     private final PipelineService pipelineService;
     private final FailurePatternRepository patternRepository;
+    private final FailurePatternBulkRepository bulkRepository;
+    private final Executor analysisExecutor;
+
+    @Value("${patterns.rules.lookback-days:365}")
+    private int ruleLookbackDays = 365;
 
     public PatternScheduler(PatternAnalysisService patternService,
                             PipelineService pipelineService,
-                            FailurePatternRepository patternRepository) {
+                            FailurePatternRepository patternRepository,
+                            FailurePatternBulkRepository bulkRepository,
+                            @Qualifier("patternAnalysisExecutor") Executor analysisExecutor) {
         this.patternService = patternService;
         this.pipelineService = pipelineService;
         this.patternRepository = patternRepository;
+        this.bulkRepository = bulkRepository;
+        this.analysisExecutor = analysisExecutor;
     }
 
     @Scheduled(fixedDelay = 900000, initialDelay = 60000)
@@ -38,14 +53,13 @@ public class PatternScheduler {
         try {
             List<Pipeline> pipelines = pipelineService.getAllPipelines();
 
-            for (Pipeline pipeline : pipelines) {
-                try {
-                    analyzeAndStorePatternsForPipeline(pipeline);
-                } catch (Exception e) {
-                    logger.error("failed to analyze patterns for pipeline {}: {}",
-                            pipeline.getId(), e.getMessage());
-                }
-            }
+            // each pipeline is one bounded query plus array counting, independent of the others
+            List<FailurePatternBulkRepository.PatternRow> rows =
+                    forEachPipeline(pipelines, this::analyzePipeline, "analyze patterns");
+
+            // every pattern of the run in one batched upsert
+            int saved = bulkRepository.upsertAll(rows);
+            logger.debug("upserted {} patterns", saved);
 
             logger.info("completed pattern analysis for {} pipelines", pipelines.size());
 
@@ -54,17 +68,36 @@ public class PatternScheduler {
         }
     }
 
+    // full-history rule mining is heavier than the 15 minute pass, so it runs nightly
+    @Scheduled(cron = "0 30 1 * * *")
+    public void mineFailureRules() {
+        logger.info("starting nightly failure rule mining");
+
+        try {
+            List<Pipeline> pipelines = pipelineService.getAllPipelines();
+
+            List<FailurePatternBulkRepository.PatternRow> rows = forEachPipeline(pipelines,
+                    pipeline -> patternService.mineFailureRules(pipeline.getId(), ruleLookbackDays).stream()
+                            .map(rule -> new FailurePatternBulkRepository.PatternRow(pipeline.getId(), rule))
+                            .toList(),
+                    "mine failure rules");
+
+            int saved = bulkRepository.upsertAll(rows);
+            logger.info("mined {} failure rules across {} pipelines", saved, pipelines.size());
+
+        } catch (Exception e) {
+            logger.error("error in failure rule mining: {}", e.getMessage());
+        }
+    }
+
     @Scheduled(cron = "0 0 2 * * *")
     public void cleanupOldPatterns() {
         logger.info("cleaning up old pattern data");
 
         try {
-            List<Pipeline> pipelines = pipelineService.getAllPipelines();
             LocalDateTime cutoff = LocalDateTime.now().minusDays(30);
-
-            for (Pipeline pipeline : pipelines) {
-                patternRepository.deleteByPipelineIdAndDetectedAtBefore(pipeline.getId(), cutoff);
-            }
+            int deleted = patternRepository.deleteAllDetectedBefore(cutoff);
+            logger.debug("deleted {} old patterns", deleted);
 
             logger.info("cleaned up pattern data older than 30 days");
 
@@ -73,42 +106,37 @@ public class PatternScheduler {
         }
     }
 
-    private void analyzeAndStorePatternsForPipeline(Pipeline pipeline) {
-        List<PatternDetectionResult> patterns = patternService.analyzeFailurePatterns(pipeline.getId(), 7);
+    // runs the work for every pipeline on the analysis pool, a failing pipeline contributes nothing
+    private List<FailurePatternBulkRepository.PatternRow> forEachPipeline(
+            List<Pipeline> pipelines,
+            Function<Pipeline, List<FailurePatternBulkRepository.PatternRow>> work,
+            String what) {
+        List<CompletableFuture<List<FailurePatternBulkRepository.PatternRow>>> futures = pipelines.stream()
+                .map(pipeline -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return work.apply(pipeline);
+                    } catch (Exception e) {
+                        logger.error("failed to {} for pipeline {}: {}", what, pipeline.getId(), e.getMessage());
+                        return List.<FailurePatternBulkRepository.PatternRow>of();
+                    }
+                }, analysisExecutor))
+                .toList();
+
+        return futures.stream()
+                .flatMap(future -> future.join().stream())
+                .toList();
+    }
 
-        logger.debug("found {} patterns for pipeline {}", patterns.size(), pipeline.getName());
+    private List<FailurePatternBulkRepository.PatternRow> analyzePipeline(Pipeline pipeline) {
+        BuildSnapshot snapshot = patternService.loadSnapshot(pipeline.getId(), 7);
+        List<PatternDetectionResult> patterns = patternService.analyzeFailurePatterns(snapshot);
 
-        for (PatternDetectionResult pattern : patterns) {
-            if (pattern.getConfidence() > 0.6) {
-                saveOrUpdatePattern(pipeline, pattern);
-            }
-        }
-    }
+        logger.debug("found {} patterns for pipeline {} in {} builds",
+                patterns.size(), pipeline.getName(), snapshot.size());
 
-    private void saveOrUpdatePattern(Pipeline pipeline, PatternDetectionResult pattern) {
-        var existing = patternRepository.findByPipelineIdAndPatternTypeAndDescription(
-                pipeline.getId(), pattern.getPatternType(), pattern.getDescription());
-
-        if (existing.isPresent()) {
-            FailurePattern existingPattern = existing.get();
-            existingPattern.setConfidence(pattern.getConfidence());
-            existingPattern.setFrequency(pattern.getFrequency());
-            existingPattern.setLastOccurrence(pattern.getLastOccurrence());
-            existingPattern.setRecommendation(pattern.getRecommendation());
-            patternRepository.save(existingPattern);
-        } else {
-            FailurePattern newPattern = FailurePattern.builder()
-                    .pipeline(pipeline)
-                    .patternType(pattern.getPatternType())
-                    .description(pattern.getDescription())
-                    .confidence(pattern.getConfidence())
-                    .frequency(pattern.getFrequency())
-                    .recommendation(pattern.getRecommendation())
-                    .lastOccurrence(pattern.getLastOccurrence())
-                    .details(pattern.getDetails() != null ? pattern.getDetails().toString() : "")
-                    .build();
-
-            patternRepository.save(newPattern);
-        }
+        return patterns.stream()
+                .filter(pattern -> pattern.getConfidence() > 0.6)
+                .map(pattern -> new FailurePatternBulkRepository.PatternRow(pipeline.getId(), pattern))
+                .toList();
     }
 }
\ No newline at end of file
@@ -0,0 +1,316 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.AlertChangedEvent;
+import com.yourname.streamci.streamci.model.Alert;
+import com.yourname.streamci.streamci.repository.AlertRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * in-memory index of ACTIVE alerts, keyed by fingerprint and by pipeline
+ * lets AlertService make dedup / renotify / auto-resolve decisions without
+ * querying the alerts table on every check
+ *
+ * rebuilt from the database at startup and every 10 minutes, kept current in
+ * between from AlertChangedEvent (published by the alert entity listener after commit).
+ * writers reserve their alert until their transaction completes, so dedup sees
+ * uncommitted alerts but a rollback never reaches the index or its counters.
+ * the index holds its own copies, never the entities callers go on mutating
+ *
+ * also keeps per-severity / per-type counters of active alerts so stats and dashboard
+ * tiles don't load every alert. counters move on state transitions and are checked
+ * against a GROUP BY every minute. drift that is still there on the next check (so it
+ * isn't just a commit whose event hasn't arrived yet) triggers a rebuild. updates wait
+ * while a rebuild reloads, so none are lost to it
+ */
+@Component
+public class ActiveAlertIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ActiveAlertIndex.class);
+    private static final int LOCK_STRIPES = 64;
+
+    private final AlertRepository alertRepository;
+
+    private final Map<Long, Alert> byId = new ConcurrentHashMap<>();
+    private final Map<String, Alert> byFingerprint = new ConcurrentHashMap<>();
+    private final Map<Integer, Map<Long, Alert>> byPipeline = new ConcurrentHashMap<>();
+    private final Map<String, Alert> pending = new ConcurrentHashMap<>();
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    // what each indexed alert is currently counted as - entities are mutated in place,
+    // so the one in the event can't tell us which bucket to decrement
+    private final Map<Long, Counted> counted = new ConcurrentHashMap<>();
+    private final AtomicLongArray severityCounts = new AtomicLongArray(Alert.AlertSeverity.values().length);
+    private final AtomicLongArray typeCounts = new AtomicLongArray(Alert.AlertType.values().length);
+
+    // apply/remove share the read side, rebuild takes the write side
+    private final ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+    private volatile boolean driftSeen;
+
+    public ActiveAlertIndex(AlertRepository alertRepository) {
+        this.alertRepository = alertRepository;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+        verifyCounters();
+    }
+
+    // safety net for writes that bypass jpa (bulk sql, manual fixes)
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000)
+    public void reconcile() {
+        rebuild();
+    }
+
+    // the query runs under the write lock too, so a commit that lands after it is applied afterwards
+    public void rebuild() {
+        rebuildLock.writeLock().lock();
+        try {
+            List<Alert> active = alertRepository.findByStatusOrderByCreatedAtDesc(Alert.AlertStatus.ACTIVE);
+
+            byId.clear();
+            byFingerprint.clear();
+            byPipeline.clear();
+            counted.clear();
+            for (int i = 0; i < severityCounts.length(); i++) severityCounts.set(i, 0);
+            for (int i = 0; i < typeCounts.length(); i++) typeCounts.set(i, 0);
+            // oldest first so the newest alert wins if legacy duplicates share a fingerprint
+            for (int i = active.size() - 1; i >= 0; i--) {
+                apply(active.get(i));
+            }
+            driftSeen = false;
+
+            logger.info("Active alert index rebuilt: {} alerts, {} fingerprints",
+                    active.size(), byFingerprint.size());
+        } finally {
+            rebuildLock.writeLock().unlock();
+        }
+    }
+
+    // cheap drift check, catches bulk deletes/updates long before the next full reconcile
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void verifyCounters() {
+        Map<Alert.AlertSeverity, Long> bySeverity = new EnumMap<>(Alert.AlertSeverity.class);
+        Map<Alert.AlertType, Long> byType = new EnumMap<>(Alert.AlertType.class);
+        for (Object[] row : alertRepository.countActiveBySeverityAndType()) {
+            long count = ((Number) row[2]).longValue();
+            if (row[0] != null) bySeverity.merge((Alert.AlertSeverity) row[0], count, Long::sum);
+            if (row[1] != null) byType.merge((Alert.AlertType) row[1], count, Long::sum);
+        }
+
+        boolean drift = false;
+        for (Alert.AlertSeverity severity : Alert.AlertSeverity.values()) {
+            drift |= bySeverity.getOrDefault(severity, 0L) != severityCounts.get(severity.ordinal());
+        }
+        for (Alert.AlertType type : Alert.AlertType.values()) {
+            drift |= byType.getOrDefault(type, 0L) != typeCounts.get(type.ordinal());
+        }
+
+        if (!drift) {
+            driftSeen = false;
+        } else if (!driftSeen) {
+            driftSeen = true;
+            logger.debug("Active alert counters differ from the database, checking again next cycle");
+        } else {
+            logger.warn("Active alert counters drifted from the database ({} vs {}), rebuilding index",
+                    countsBySeverity(), bySeverity);
+            rebuild();
+        }
+    }
+
+    // ahead of the other listeners, the dashboard projection reads the index when it refreshes
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlertChanged(AlertChangedEvent event) {
+        if (event.isRemoved()) {
+            remove(event.getAlert());
+        } else {
+            apply(event.getAlert());
+        }
+    }
+
+    /**
+     * record the committed state of an alert, active alerts are indexed and anything
+     * else (acknowledged, resolved...) is dropped
+     */
+    public void apply(Alert alert) {
+        if (alert == null || alert.getId() == null) return;
+
+        if (alert.getStatus() != Alert.AlertStatus.ACTIVE) {
+            remove(alert);
+            return;
+        }
+
+        rebuildLock.readLock().lock();
+        try {
+            index(snapshot(alert));
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void index(Alert alert) {
+        byId.put(alert.getId(), alert);
+
+        Counted now = new Counted(alert.getSeverity(), alert.getType());
+        counted.compute(alert.getId(), (id, previous) -> {
+            if (!now.equals(previous)) {
+                if (previous != null) count(previous, -1);
+                count(now, 1);
+            }
+            return now;
+        });
+
+        Integer pipelineId = pipelineId(alert);
+        if (pipelineId != null) {
+            byPipeline.computeIfAbsent(pipelineId, id -> new ConcurrentHashMap<>())
+                    .put(alert.getId(), alert);
+        }
+        if (alert.getFingerprint() != null) {
+            byFingerprint.merge(alert.getFingerprint(), alert,
+                    (current, updated) -> updated.getId() >= current.getId() ? updated : current);
+        }
+    }
+
+    public void remove(Alert alert) {
+        if (alert == null || alert.getId() == null) return;
+
+        rebuildLock.readLock().lock();
+        try {
+            unindex(alert);
+        } finally {
+            rebuildLock.readLock().unlock();
+        }
+    }
+
+    private void unindex(Alert alert) {
+        byId.remove(alert.getId());
+        counted.computeIfPresent(alert.getId(), (id, previous) -> {
+            count(previous, -1);
+            return null;
+        });
+
+        Integer pipelineId = pipelineId(alert);
+        if (pipelineId != null) {
+            Map<Long, Alert> alerts = byPipeline.get(pipelineId);
+            if (alerts != null) {
+                alerts.remove(alert.getId());
+            }
+        }
+        if (alert.getFingerprint() != null) {
+            byFingerprint.computeIfPresent(alert.getFingerprint(),
+                    (fingerprint, current) -> current.getId().equals(alert.getId()) ? null : current);
+        }
+    }
+
+    /**
+     * make an alert written in the current transaction visible to findActive until
+     * the transaction completes, by then a commit has reached apply() via the event
+     */
+    public void reserve(Alert alert) {
+        if (alert.getFingerprint() == null || !TransactionSynchronizationManager.isSynchronizationActive()) return;
+
+        Alert snapshot = snapshot(alert);
+        pending.put(snapshot.getFingerprint(), snapshot);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                pending.remove(snapshot.getFingerprint(), snapshot);
+            }
+        });
+    }
+
+    public Optional<Alert> findActive(String fingerprint) {
+        Alert reserved = pending.get(fingerprint);
+        if (reserved != null) {
+            return reserved.getStatus() == Alert.AlertStatus.ACTIVE ? Optional.of(snapshot(reserved)) : Optional.empty();
+        }
+        return Optional.ofNullable(byFingerprint.get(fingerprint)).map(this::snapshot);
+    }
+
+    public List<Alert> findActiveForPipeline(Integer pipelineId) {
+        Map<Long, Alert> alerts = byPipeline.get(pipelineId);
+        return alerts == null ? List.of() : alerts.values().stream().map(this::snapshot).toList();
+    }
+
+    public int size() {
+        return counted.size();
+    }
+
+    public int countForPipeline(Integer pipelineId) {
+        Map<Long, Alert> alerts = byPipeline.get(pipelineId);
+        return alerts == null ? 0 : alerts.size();
+    }
+
+    // newest active alerts first, for the dashboard list
+    public List<Alert> newestActive(int limit) {
+        return byId.values().stream()
+                .sorted(Comparator.comparing(Alert::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder()))
+                        .thenComparing(Alert::getId, Comparator.reverseOrder()))
+                .limit(limit)
+                .map(this::snapshot)
+                .toList();
+    }
+
+    // every severity is present, zero when nothing is active
+    public Map<String, Long> countsBySeverity() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Alert.AlertSeverity severity : Alert.AlertSeverity.values()) {
+            counts.put(severity.toString(), severityCounts.get(severity.ordinal()));
+        }
+        return counts;
+    }
+
+    public Map<String, Long> countsByType() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Alert.AlertType type : Alert.AlertType.values()) {
+            counts.put(type.toString(), typeCounts.get(type.ordinal()));
+        }
+        return counts;
+    }
+
+    public long criticalCount() {
+        return severityCounts.get(Alert.AlertSeverity.CRITICAL.ordinal())
+                + severityCounts.get(Alert.AlertSeverity.EMERGENCY.ordinal());
+    }
+
+    // callers hold this while deciding insert vs update so two threads can't both insert a fingerprint
+    public Object lockFor(String fingerprint) {
+        return locks[Math.floorMod(fingerprint.hashCode(), LOCK_STRIPES)];
+    }
+
+    private Alert snapshot(Alert alert) {
+        return alert.toBuilder().build();
+    }
+
+    private Integer pipelineId(Alert alert) {
+        return alert.getPipeline() != null ? alert.getPipeline().getId() : null;
+    }
+
+    private void count(Counted key, int delta) {
+        if (key.severity() != null) severityCounts.addAndGet(key.severity().ordinal(), delta);
+        if (key.type() != null) typeCounts.addAndGet(key.type().ordinal(), delta);
+    }
+
+    private record Counted(Alert.AlertSeverity severity, Alert.AlertType type) {
+    }
+}
@@ -0,0 +1,620 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.dto.request.BacktestRequest;
+import com.yourname.streamci.streamci.model.Alert;
+import com.yourname.streamci.streamci.model.AlertConfig;
+import com.yourname.streamci.streamci.model.AlertRule;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.repository.PipelineMetricsRepository;
+import com.yourname.streamci.streamci.repository.QueueMetricsRepository;
+import com.yourname.streamci.streamci.util.RollingWindow;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * replays candidate alert rules and thresholds over stored history, nothing is saved
+ *
+ * history is loaded once as narrow projections and turned into per-pipeline primitive
+ * columns sorted by time. every pipeline is replayed independently (in parallel):
+ * rules slide two-pointer windows over the build columns, configs step through the
+ * metrics snapshots the way the live checks saw them. an alert "fires" on the rising
+ * edge of its condition, renotifications after the cooldown are counted separately
+ *
+ * builds are loaded from far enough before the replayed range to fill each rule's
+ * windows, so the first replayed builds are judged against the history the live engine
+ * would have had. only builds inside the range can fire
+ */
+@Service
+public class AlertBacktestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertBacktestService.class);
+
+    static final int MAX_DAYS = 365;
+    private static final int MAX_FIRINGS_REPORTED = 200;
+
+    // config types whose live check only reads PipelineMetrics, so they can be replayed
+    private static final Set<Alert.AlertType> REPLAYABLE_CONFIGS = EnumSet.of(
+            Alert.AlertType.SUCCESS_RATE_DROP,
+            Alert.AlertType.CONSECUTIVE_FAILURES,
+            Alert.AlertType.DURATION_INCREASE);
+
+    private final BuildRepository buildRepository;
+    private final PipelineMetricsRepository metricsRepository;
+    private final QueueMetricsRepository queueMetricsRepository;
+
+    public AlertBacktestService(BuildRepository buildRepository,
+                                PipelineMetricsRepository metricsRepository,
+                                QueueMetricsRepository queueMetricsRepository) {
+        this.buildRepository = buildRepository;
+        this.metricsRepository = metricsRepository;
+        this.queueMetricsRepository = queueMetricsRepository;
+    }
+
+    public Map<String, Object> backtest(BacktestRequest request) {
+        long started = System.nanoTime();
+
+        int days = request.getDays() != null ? request.getDays() : 30;
+        if (days < 1 || days > MAX_DAYS) {
+            throw new IllegalArgumentException("days must be between 1 and " + MAX_DAYS);
+        }
+
+        List<AlertRule> rules = request.getRules() != null ? request.getRules() : List.of();
+        List<AlertConfig> configs = request.getConfigs() != null ? request.getConfigs() : List.of();
+        if (rules.isEmpty() && configs.isEmpty()) {
+            throw new IllegalArgumentException("at least one rule or config is required");
+        }
+        rules.forEach(this::applyRuleDefaults);
+        for (AlertConfig config : configs) {
+            if (config.getAlertType() == null) {
+                throw new IllegalArgumentException("config alertType is required");
+            }
+        }
+
+        Set<Integer> pipelineFilter = request.getPipelineIds() == null || request.getPipelineIds().isEmpty() ?
+                null : new HashSet<>(request.getPipelineIds());
+        LocalDateTime since = LocalDateTime.now().minusDays(days);
+        ZoneId zone = ZoneId.systemDefault();
+
+        boolean needBuilds = rules.stream().anyMatch(rule -> rule.getMetric() != AlertRule.RuleMetric.QUEUE_DEPTH);
+        boolean needQueue = rules.stream().anyMatch(rule -> rule.getMetric() == AlertRule.RuleMetric.QUEUE_DEPTH);
+        boolean needMetrics = configs.stream().anyMatch(config -> REPLAYABLE_CONFIGS.contains(config.getAlertType()));
+
+        // the longest history a rule reads: its window, plus the baseline behind it for p90 rules
+        long historyMinutes = rules.stream()
+                .filter(rule -> rule.getMetric() != AlertRule.RuleMetric.QUEUE_DEPTH)
+                .mapToLong(rule -> rule.getWindowMinutes() + (rule.getMetric() == AlertRule.RuleMetric.P90_DURATION_CHANGE
+                        ? rule.getBaselineMinutes() : 0))
+                .max()
+                .orElse(0);
+        long from = epochSecond(since, zone);
+
+        Map<Integer, BuildColumns> builds = needBuilds ?
+                loadBuilds(since.minusMinutes(historyMinutes), pipelineFilter, zone) : Map.of();
+        Map<Integer, QueueColumns> queue = needQueue ?
+                loadQueue(since, pipelineFilter, zone) : Map.of();
+        Map<Integer, MetricsColumns> metrics = needMetrics ?
+                loadMetrics(since, pipelineFilter, zone) : Map.of();
+
+        Set<Integer> pipelineIds = new TreeSet<>();
+        pipelineIds.addAll(builds.keySet());
+        pipelineIds.addAll(queue.keySet());
+        pipelineIds.addAll(metrics.keySet());
+
+        // pipelines share nothing, so each one replays every candidate on its own thread
+        List<PipelineOutcome> outcomes = pipelineIds.parallelStream()
+                .map(pipelineId -> replayPipeline(pipelineId, builds.get(pipelineId), queue.get(pipelineId),
+                        metrics.get(pipelineId), rules, configs, from))
+                .toList();
+
+        List<Map<String, Object>> ruleResults = new ArrayList<>();
+        for (int r = 0; r < rules.size(); r++) {
+            final int index = r;
+            Map<String, Object> entry = summarize(outcomes.stream().map(o -> o.rules[index]).toList(), zone);
+            AlertRule rule = rules.get(r);
+            entry.put("rule_id", rule.getId());
+            entry.put("name", rule.getName());
+            entry.put("metric", rule.getMetric());
+            entry.put("branch", rule.getBranch());
+            entry.put("pipeline_id", rule.getPipelineId());
+            entry.put("threshold", rule.getThreshold());
+            entry.put("window_minutes", rule.getWindowMinutes());
+            ruleResults.add(entry);
+        }
+
+        List<Map<String, Object>> configResults = new ArrayList<>();
+        for (int c = 0; c < configs.size(); c++) {
+            final int index = c;
+            AlertConfig config = configs.get(c);
+            Map<String, Object> entry = summarize(outcomes.stream().map(o -> o.configs[index]).toList(), zone);
+            entry.put("alert_type", config.getAlertType());
+            entry.put("warning_threshold", config.getWarningThreshold());
+            entry.put("critical_threshold", config.getCriticalThreshold());
+            entry.put("supported", REPLAYABLE_CONFIGS.contains(config.getAlertType()));
+            configResults.add(entry);
+        }
+
+        long elapsedMs = (System.nanoTime() - started) / 1_000_000;
+        long buildRows = builds.values().stream().mapToLong(columns -> columns.countFrom(from)).sum();
+        long metricsRows = metrics.values().stream().mapToLong(columns -> columns.at.length).sum();
+        long queueRows = queue.values().stream().mapToLong(columns -> columns.at.length).sum();
+
+        logger.info("Backtest of {} rules and {} configs over {} days: {} pipelines, {} builds, {} metrics rows in {}ms",
+                rules.size(), configs.size(), days, pipelineIds.size(), buildRows, metricsRows, elapsedMs);
+
+        Map<String, Object> result = new HashMap<>();
+        result.put("days", days);
+        result.put("since", since);
+        result.put("pipelines_replayed", pipelineIds.size());
+        result.put("builds_replayed", buildRows);
+        result.put("metrics_replayed", metricsRows);
+        result.put("queue_snapshots_replayed", queueRows);
+        result.put("rules", ruleResults);
+        result.put("configs", configResults);
+        result.put("elapsed_ms", elapsedMs);
+        return result;
+    }
+
+    // same defaults AlertRule gets on persist, candidates are never saved
+    private void applyRuleDefaults(AlertRule rule) {
+        if (rule.getMetric() == null || rule.getThreshold() == null) {
+            throw new IllegalArgumentException("rule metric and threshold are required");
+        }
+        if (rule.getWindowMinutes() == null) rule.setWindowMinutes(10);
+        if (rule.getBaselineMinutes() == null) rule.setBaselineMinutes(7 * 24 * 60);
+        if (rule.getMinSamples() == null) rule.setMinSamples(1);
+        if (rule.getCooldownMinutes() == null) rule.setCooldownMinutes(15);
+        if (rule.getName() == null) rule.setName(rule.getMetric().name());
+        if (rule.getWindowMinutes() <= 0 || rule.getBaselineMinutes() <= 0) {
+            throw new IllegalArgumentException("rule windows must be positive");
+        }
+    }
+
+    private PipelineOutcome replayPipeline(Integer pipelineId, BuildColumns builds, QueueColumns queue,
+                                           MetricsColumns metrics, List<AlertRule> rules,
+                                           List<AlertConfig> configs, long from) {
+        Firings[] ruleFirings = new Firings[rules.size()];
+        for (int r = 0; r < rules.size(); r++) {
+            AlertRule rule = rules.get(r);
+            Firings firings = new Firings(pipelineId, rule.getCooldownMinutes(), from);
+            if (rule.getPipelineId() == null || rule.getPipelineId().equals(pipelineId)) {
+                replayRule(rule, builds, queue, firings);
+            }
+            ruleFirings[r] = firings;
+        }
+
+        Firings[] configFirings = new Firings[configs.size()];
+        for (int c = 0; c < configs.size(); c++) {
+            AlertConfig config = configs.get(c);
+            Firings firings = new Firings(pipelineId,
+                    config.getCooldownMinutes() != null ? config.getCooldownMinutes() : 15, from);
+            if (metrics != null) {
+                replayConfig(config, metrics, firings);
+            }
+            configFirings[c] = firings;
+        }
+
+        return new PipelineOutcome(ruleFirings, configFirings);
+    }
+
+    private void replayRule(AlertRule rule, BuildColumns builds, QueueColumns queue, Firings firings) {
+        if (rule.getMetric() == AlertRule.RuleMetric.QUEUE_DEPTH) {
+            if (queue == null) return;
+            // a queue depth is a single reading, so minSamples > 1 never fires (same as live)
+            for (int i = 0; i < queue.at.length; i++) {
+                double depth = queue.depth[i];
+                firings.step(queue.at[i], rule.getMinSamples() <= 1 && depth >= rule.getThreshold(), depth);
+            }
+            return;
+        }
+        if (builds == null) return;
+
+        BuildColumns columns = rule.getBranch() != null ? builds.onBranch(rule.getBranch()) : builds;
+        if (rule.getMetric() == AlertRule.RuleMetric.P90_DURATION_CHANGE) {
+            replayDurationChange(rule, columns, firings);
+        } else {
+            replayFailures(rule, columns, firings);
+        }
+    }
+
+    // FAILURE_COUNT / FAILURE_RATE: one pointer adds the new build, the other drops expired ones
+    private void replayFailures(AlertRule rule, BuildColumns columns, Firings firings) {
+        long window = rule.getWindowMinutes() * 60L;
+        boolean rate = rule.getMetric() == AlertRule.RuleMetric.FAILURE_RATE;
+        long[] at = columns.at;
+        boolean[] failed = columns.failed;
+
+        int oldest = 0;
+        int failures = 0;
+        for (int i = 0; i < at.length; i++) {
+            if (failed[i]) failures++;
+            while (at[oldest] <= at[i] - window) {
+                if (failed[oldest]) failures--;
+                oldest++;
+            }
+
+            int count = i - oldest + 1;
+            double value = rate ? failures * 100.0 / count : failures;
+            firings.step(at[i], count >= rule.getMinSamples() && value >= rule.getThreshold(), value);
+        }
+    }
+
+    // P90_DURATION_CHANGE: like AlertRuleEngine, a build only joins the baseline once it has aged
+    // out of the recent window, and the baseline spans window + baseline so it ends where the
+    // window starts. recentOldest doubles as the pointer that promotes builds into the baseline
+    private void replayDurationChange(AlertRule rule, BuildColumns columns, Firings firings) {
+        long window = rule.getWindowMinutes() * 60L;
+        long baselineWindow = window + rule.getBaselineMinutes() * 60L;
+        long[] at = columns.at;
+        int[] bins = columns.durationBin;
+
+        int[] recent = new int[RollingWindow.HISTOGRAM_BINS];
+        int[] baseline = new int[RollingWindow.HISTOGRAM_BINS];
+        int recentCount = 0;
+        int baselineCount = 0;
+        int recentOldest = 0;
+        int baselineOldest = 0;
+
+        for (int i = 0; i < at.length; i++) {
+            if (bins[i] >= 0) {
+                recent[bins[i]]++;
+                recentCount++;
+            }
+            while (at[recentOldest] <= at[i] - window) {
+                if (bins[recentOldest] >= 0) {
+                    recent[bins[recentOldest]]--;
+                    recentCount--;
+                    baseline[bins[recentOldest]]++;
+                    baselineCount++;
+                }
+                recentOldest++;
+            }
+            while (baselineOldest < recentOldest && at[baselineOldest] <= at[i] - baselineWindow) {
+                if (bins[baselineOldest] >= 0) {
+                    baseline[bins[baselineOldest]]--;
+                    baselineCount--;
+                }
+                baselineOldest++;
+            }
+
+            double base = quantile(baseline, baselineCount, 0.9);
+            double value = base == 0 ? 0.0 : (quantile(recent, recentCount, 0.9) - base) / base * 100;
+            int samples = Math.min(recentCount, baselineCount);
+            firings.step(at[i], samples >= rule.getMinSamples() && value >= rule.getThreshold(), value);
+        }
+    }
+
+    // mirrors the checks in AlertService, including their fallback thresholds
+    private void replayConfig(AlertConfig config, MetricsColumns metrics, Firings firings) {
+        long[] at = metrics.at;
+
+        switch (config.getAlertType()) {
+            case SUCCESS_RATE_DROP -> {
+                double threshold = config.getCriticalThreshold() != null ? config.getCriticalThreshold() : 80.0;
+                for (int i = 0; i < at.length; i++) {
+                    double successRate = metrics.successRate[i];
+                    boolean condition = !Double.isNaN(successRate) && successRate < threshold
+                            && metrics.totalBuilds[i] >= 5;
+                    firings.step(at[i], condition, successRate);
+                }
+            }
+            case CONSECUTIVE_FAILURES -> {
+                int threshold = config.getWarningThreshold() != null ? config.getWarningThreshold().intValue() : 3;
+                for (int i = 0; i < at.length; i++) {
+                    firings.step(at[i], metrics.consecutiveFailures[i] >= threshold, metrics.consecutiveFailures[i]);
+                }
+            }
+            case DURATION_INCREASE -> {
+                double threshold = config.getWarningThreshold() != null ? config.getWarningThreshold() : 50.0;
+                for (int i = 0; i < at.length; i++) {
+                    double average = metrics.avgDuration[i];
+                    double change = metrics.avgDurationChange[i];
+                    double previous = average - change;
+                    boolean valid = average > 0 && previous > 0;
+                    double increase = valid ? change / previous * 100 : 0.0;
+                    firings.step(at[i], valid && increase > threshold, increase);
+                }
+            }
+            default -> {
+                // needs state that isn't stored historically (stale checks, anomaly baselines)
+            }
+        }
+    }
+
+    private Map<String, Object> summarize(List<Firings> perPipeline, ZoneId zone) {
+        List<Firing> all = new ArrayList<>();
+        List<Integer> affected = new ArrayList<>();
+        long notifications = 0;
+
+        for (Firings firings : perPipeline) {
+            if (firings.events.isEmpty()) continue;
+            all.addAll(firings.events);
+            affected.add(firings.pipelineId);
+            notifications += firings.notifications;
+        }
+        all.sort(Comparator.comparingLong(Firing::at).thenComparing(Firing::pipelineId));
+
+        List<Map<String, Object>> reported = new ArrayList<>();
+        for (Firing firing : all.subList(0, Math.min(all.size(), MAX_FIRINGS_REPORTED))) {
+            Map<String, Object> event = new HashMap<>();
+            event.put("pipeline_id", firing.pipelineId());
+            event.put("fired_at", LocalDateTime.ofInstant(Instant.ofEpochSecond(firing.at()), zone));
+            event.put("value", Math.round(firing.value() * 100.0) / 100.0);
+            reported.add(event);
+        }
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("alerts_fired", all.size());
+        summary.put("notifications", notifications);
+        summary.put("pipelines_affected", affected.size());
+        summary.put("pipeline_ids", affected);
+        summary.put("firings", reported);
+        summary.put("firings_truncated", all.size() > MAX_FIRINGS_REPORTED);
+        return summary;
+    }
+
+    private Map<Integer, BuildColumns> loadBuilds(LocalDateTime since, Set<Integer> pipelineFilter, ZoneId zone) {
+        Map<Integer, List<Object[]>> rows = groupByPipeline(buildRepository.findReplayRowsSince(since), pipelineFilter);
+        Map<Integer, BuildColumns> columns = new ConcurrentHashMap<>();
+        rows.entrySet().parallelStream()
+                .forEach(entry -> columns.put(entry.getKey(), BuildColumns.from(entry.getValue(), zone)));
+        return columns;
+    }
+
+    private Map<Integer, MetricsColumns> loadMetrics(LocalDateTime since, Set<Integer> pipelineFilter, ZoneId zone) {
+        Map<Integer, List<Object[]>> rows = groupByPipeline(metricsRepository.findReplayRowsSince(since), pipelineFilter);
+        Map<Integer, MetricsColumns> columns = new HashMap<>();
+        rows.forEach((pipelineId, pipelineRows) -> columns.put(pipelineId, MetricsColumns.from(pipelineRows, zone)));
+        return columns;
+    }
+
+    private Map<Integer, QueueColumns> loadQueue(LocalDateTime since, Set<Integer> pipelineFilter, ZoneId zone) {
+        Map<Integer, List<Object[]>> rows = groupByPipeline(queueMetricsRepository.findReplayRowsSince(since), pipelineFilter);
+        Map<Integer, QueueColumns> columns = new HashMap<>();
+        rows.forEach((pipelineId, pipelineRows) -> columns.put(pipelineId, QueueColumns.from(pipelineRows, zone)));
+        return columns;
+    }
+
+    // every replay projection starts with pipeline id
+    private static Map<Integer, List<Object[]>> groupByPipeline(List<Object[]> rows, Set<Integer> pipelineFilter) {
+        Map<Integer, List<Object[]>> grouped = new HashMap<>();
+        for (Object[] row : rows) {
+            Integer pipelineId = (Integer) row[0];
+            if (pipelineId == null || (pipelineFilter != null && !pipelineFilter.contains(pipelineId))) continue;
+            grouped.computeIfAbsent(pipelineId, id -> new ArrayList<>()).add(row);
+        }
+        return grouped;
+    }
+
+    // approximate quantile over a RollingWindow-compatible histogram
+    private static double quantile(int[] histogram, int total, double q) {
+        if (total == 0) return 0.0;
+
+        long target = Math.max(1, (long) Math.ceil(q * total));
+        long seen = 0;
+        for (int bin = 0; bin < histogram.length; bin++) {
+            seen += histogram[bin];
+            if (seen >= target) {
+                return RollingWindow.binValue(bin);
+            }
+        }
+        return RollingWindow.binValue(histogram.length - 1);
+    }
+
+    /**
+     * order of indexes that sorts keys ascending. packs (key - min, index) into one long
+     * so a primitive sort does the work, falls back to a boxed sort for huge inputs
+     */
+    static int[] sortedOrder(long[] keys) {
+        int n = keys.length;
+        int[] order = new int[n];
+
+        boolean sorted = true;
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            min = Math.min(min, keys[i]);
+            if (i > 0 && keys[i] < keys[i - 1]) sorted = false;
+        }
+        if (sorted) return order;
+
+        if (n < (1 << 24)) {
+            long[] packed = new long[n];
+            for (int i = 0; i < n; i++) {
+                packed[i] = ((keys[i] - min) << 24) | i;
+            }
+            Arrays.sort(packed);
+            for (int i = 0; i < n; i++) {
+                order[i] = (int) (packed[i] & 0xFFFFFF);
+            }
+            return order;
+        }
+
+        Integer[] boxed = new Integer[n];
+        for (int i = 0; i < n; i++) boxed[i] = i;
+        Arrays.sort(boxed, Comparator.comparingLong(i -> keys[i]));
+        for (int i = 0; i < n; i++) order[i] = boxed[i];
+        return order;
+    }
+
+    private static long epochSecond(LocalDateTime time, ZoneId zone) {
+        return time.atZone(zone).toEpochSecond();
+    }
+
+    private record Firing(int pipelineId, long at, double value) {
+    }
+
+    private record PipelineOutcome(Firings[] rules, Firings[] configs) {
+    }
+
+    /**
+     * rising-edge tracker for one candidate on one pipeline
+     */
+    private static class Firings {
+        private final int pipelineId;
+        private final long cooldownSeconds;
+        private final long from;
+        private final List<Firing> events = new ArrayList<>();
+        private int notifications;
+        private boolean firing;
+        private long lastNotified;
+
+        Firings(int pipelineId, int cooldownMinutes, long from) {
+            this.pipelineId = pipelineId;
+            this.cooldownSeconds = cooldownMinutes * 60L;
+            this.from = from;
+        }
+
+        void step(long at, boolean condition, double value) {
+            // history before the replayed range only sets the state the range starts in
+            if (at < from) {
+                if (condition && (!firing || (cooldownSeconds > 0 && at - lastNotified >= cooldownSeconds))) {
+                    lastNotified = at;
+                }
+                firing = condition;
+                return;
+            }
+            if (condition) {
+                if (!firing) {
+                    events.add(new Firing(pipelineId, at, value));
+                    notifications++;
+                    lastNotified = at;
+                } else if (cooldownSeconds > 0 && at - lastNotified >= cooldownSeconds) {
+                    // still firing after the cooldown, the live path renotifies
+                    notifications++;
+                    lastNotified = at;
+                }
+            }
+            firing = condition;
+        }
+    }
+
+    /**
+     * one pipeline's builds as parallel arrays, ordered by completion time
+     */
+    private static class BuildColumns {
+        private final long[] at;
+        private final boolean[] failed;
+        private final int[] durationBin; // -1 when the build has no duration
+        private final String[] branch;
+
+        private BuildColumns(int size) {
+            this.at = new long[size];
+            this.failed = new boolean[size];
+            this.durationBin = new int[size];
+            this.branch = new String[size];
+        }
+
+        // row: pipeline id, start time, end time, status, duration, branch
+        static BuildColumns from(List<Object[]> rows, ZoneId zone) {
+            long[] times = new long[rows.size()];
+            for (int i = 0; i < times.length; i++) {
+                Object[] row = rows.get(i);
+                LocalDateTime end = (LocalDateTime) row[2];
+                times[i] = epochSecond(end != null ? end : (LocalDateTime) row[1], zone);
+            }
+
+            int[] order = sortedOrder(times);
+            BuildColumns columns = new BuildColumns(times.length);
+            for (int i = 0; i < order.length; i++) {
+                Object[] row = rows.get(order[i]);
+                Long duration = (Long) row[4];
+                columns.at[i] = times[order[i]];
+                columns.failed[i] = "failure".equals(row[3]);
+                columns.durationBin[i] = duration != null && duration >= 0 ?
+                        RollingWindow.histogramBin(duration) : -1;
+                columns.branch[i] = (String) row[5];
+            }
+            return columns;
+        }
+
+        int countFrom(long from) {
+            int count = 0;
+            for (long time : at) {
+                if (time >= from) count++;
+            }
+            return count;
+        }
+
+        BuildColumns onBranch(String name) {
+            int size = 0;
+            for (String value : branch) {
+                if (name.equals(value)) size++;
+            }
+
+            BuildColumns filtered = new BuildColumns(size);
+            int next = 0;
+            for (int i = 0; i < at.length; i++) {
+                if (!name.equals(branch[i])) continue;
+                filtered.at[next] = at[i];
+                filtered.failed[next] = failed[i];
+                filtered.durationBin[next] = durationBin[i];
+                filtered.branch[next] = branch[i];
+                next++;
+            }
+            return filtered;
+        }
+    }
+
+    /**
+     * one pipeline's metrics snapshots, NaN where a value was never calculated
+     */
+    private static class MetricsColumns {
+        private long[] at;
+        private double[] successRate;
+        private int[] totalBuilds;
+        private int[] consecutiveFailures;
+        private double[] avgDuration;
+        private double[] avgDurationChange;
+
+        // row: pipeline id, calculated at, success rate, total builds, consecutive failures,
+        // avg duration, avg duration change - already ordered by calculated at
+        static MetricsColumns from(List<Object[]> rows, ZoneId zone) {
+            int size = rows.size();
+            MetricsColumns columns = new MetricsColumns();
+            columns.at = new long[size];
+            columns.successRate = new double[size];
+            columns.totalBuilds = new int[size];
+            columns.consecutiveFailures = new int[size];
+            columns.avgDuration = new double[size];
+            columns.avgDurationChange = new double[size];
+
+            for (int i = 0; i < size; i++) {
+                Object[] row = rows.get(i);
+                columns.at[i] = epochSecond((LocalDateTime) row[1], zone);
+                columns.successRate[i] = row[2] != null ? (Double) row[2] : Double.NaN;
+                columns.totalBuilds[i] = row[3] != null ? (Integer) row[3] : 0;
+                columns.consecutiveFailures[i] = row[4] != null ? (Integer) row[4] : 0;
+                columns.avgDuration[i] = row[5] != null ? (Long) row[5] : Double.NaN;
+                columns.avgDurationChange[i] = row[6] != null ? (Long) row[6] : Double.NaN;
+            }
+            return columns;
+        }
+    }
+
+    /**
+     * one pipeline's queue depth snapshots, already ordered by timestamp
+     */
+    private static class QueueColumns {
+        private long[] at;
+        private double[] depth;
+
+        static QueueColumns from(List<Object[]> rows, ZoneId zone) {
+            QueueColumns columns = new QueueColumns();
+            columns.at = new long[rows.size()];
+            columns.depth = new double[rows.size()];
+            for (int i = 0; i < rows.size(); i++) {
+                Object[] row = rows.get(i);
+                columns.at[i] = epochSecond((LocalDateTime) row[1], zone);
+                columns.depth[i] = row[2] != null ? (Integer) row[2] : 0;
+            }
+            return columns;
+        }
+    }
+}
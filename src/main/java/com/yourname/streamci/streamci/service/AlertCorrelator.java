@@ -0,0 +1,271 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.AlertChangedEvent;
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.model.Alert;
+import com.yourname.streamci.streamci.model.AlertConfig;
+import com.yourname.streamci.streamci.model.AlertDigest;
+import com.yourname.streamci.streamci.model.Build;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * correlation stage between AlertService and NotificationService
+ *
+ * when a shared dependency breaks, many pipelines raise the same alert type in the
+ * same cycle. alerts are grouped by type + time window + a shared cause signal
+ * (the hour of the pipeline's latest failure, or the committer behind it).
+ * the first alert of a group is sent immediately, the rest are held and sent as one
+ * digest per set of notification channels when the window closes. alerts resolved
+ * before then are left out. all group state is in memory, and notifications are
+ * only sent after the correlator's lock is released
+ */
+@Component
+public class AlertCorrelator {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertCorrelator.class);
+
+    private final NotificationService notificationService;
+
+    @Value("${alerts.grouping.enabled:true}")
+    private boolean groupingEnabled = true;
+
+    @Value("${alerts.grouping.window-minutes:5}")
+    private int windowMinutes = 5;
+
+    // latest failure per pipeline, used as the cause signal
+    private final Map<Integer, FailureSignal> lastFailures = new ConcurrentHashMap<>();
+
+    // open groups, indexed by every cause key they cover
+    private final Map<String, AlertGroup> openGroups = new HashMap<>();
+
+    public AlertCorrelator(NotificationService notificationService) {
+        this.notificationService = notificationService;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildIngested(BuildIngestedEvent event) {
+        Build build = event.getBuild();
+        if (event.getPipelineId() == null || !"failure".equals(build.getStatus())) return;
+
+        LocalDateTime failedAt = build.getEndTime() != null ? build.getEndTime() :
+                build.getStartTime() != null ? build.getStartTime() : LocalDateTime.now();
+        lastFailures.put(event.getPipelineId(), new FailureSignal(failedAt, build.getCommitter()));
+    }
+
+    // a held alert that is resolved or acknowledged before its group closes drops out of the digest
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlertChanged(AlertChangedEvent event) {
+        Alert alert = event.getAlert();
+        if (alert.getId() == null || (!event.isRemoved() && alert.getStatus() == Alert.AlertStatus.ACTIVE)) return;
+
+        synchronized (this) {
+            for (AlertGroup group : openGroups.values()) {
+                group.suppressed.remove(alert.getId());
+            }
+        }
+    }
+
+    /**
+     * route an alert notification through the correlation stage
+     * returns true when it was sent right away, false when it was folded into a group
+     */
+    public boolean submit(Alert alert, AlertConfig config) {
+        List<Runnable> sends = new ArrayList<>();
+        boolean immediate;
+
+        synchronized (this) {
+            immediate = route(alert, config, sends);
+        }
+        sends.forEach(Runnable::run);
+        return immediate;
+    }
+
+    @Scheduled(fixedDelay = 30000, initialDelay = 30000)
+    public void flushExpiredGroups() {
+        flush(LocalDateTime.now(), false);
+    }
+
+    /**
+     * send digests for closed groups, force = true closes every open group
+     * returns the number of digests sent
+     */
+    public int flush(LocalDateTime now, boolean force) {
+        List<Runnable> sends = new ArrayList<>();
+        synchronized (this) {
+            closeGroups(now, force, sends);
+        }
+        sends.forEach(Runnable::run);
+        return sends.size();
+    }
+
+    public synchronized int getOpenGroupCount() {
+        return (int) openGroups.values().stream().distinct().count();
+    }
+
+    // decides under the lock, anything to send is added to sends
+    private boolean route(Alert alert, AlertConfig config, List<Runnable> sends) {
+        if (!groupingEnabled || alert.getType() == null) {
+            sends.add(() -> notificationService.sendAlert(alert, config));
+            return true;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        closeGroups(now, false, sends);
+
+        List<String> keys = causeKeys(alert);
+        AlertGroup group = keys.stream()
+                .map(openGroups::get)
+                .filter(Objects::nonNull)
+                .findFirst()
+                .orElse(null);
+
+        if (group == null) {
+            group = new AlertGroup(alert, now, keys);
+            for (String key : keys) {
+                openGroups.put(key, group);
+            }
+            sends.add(() -> notificationService.sendAlert(alert, config));
+            return true;
+        }
+
+        // the leader itself being renotified/escalated is not part of the storm
+        if (Objects.equals(group.leader.getId(), alert.getId())) {
+            sends.add(() -> notificationService.sendAlert(alert, config));
+            return true;
+        }
+
+        group.suppressed.put(alert.getId(), new Held(alert, config));
+        for (String key : keys) {
+            openGroups.putIfAbsent(key, group);
+        }
+        logger.debug("Alert {} folded into group {} ({} held)",
+                alert.getId(), group.describeCause(), group.suppressed.size());
+        return false;
+    }
+
+    private void closeGroups(LocalDateTime now, boolean force, List<Runnable> sends) {
+        Set<AlertGroup> closing = new LinkedHashSet<>();
+        for (AlertGroup group : openGroups.values()) {
+            if (force || group.isExpired(now, windowMinutes)) {
+                closing.add(group);
+            }
+        }
+        if (closing.isEmpty()) return;
+        openGroups.values().removeIf(closing::contains);
+
+        for (AlertGroup group : closing) {
+            // one digest per set of channels, each held alert keeps the config it was raised with
+            Map<Recipient, List<Held>> byRecipient = new LinkedHashMap<>();
+            for (Held held : group.suppressed.values()) {
+                if (held.alert().getStatus() != null && held.alert().getStatus() != Alert.AlertStatus.ACTIVE) continue;
+                byRecipient.computeIfAbsent(Recipient.of(held.config()), r -> new ArrayList<>()).add(held);
+            }
+
+            byRecipient.values().forEach(held -> {
+                AlertDigest digest = group.toDigest(held, now);
+                AlertConfig config = held.get(0).config();
+                sends.add(() -> {
+                    notificationService.sendDigest(digest, config);
+                    logger.info("Sent digest for {} {} alerts ({})",
+                            digest.getAlertCount(), digest.getType(), digest.getCause());
+                });
+            });
+        }
+    }
+
+    private List<String> causeKeys(Alert alert) {
+        String type = alert.getType().name();
+        Integer pipelineId = alert.getPipeline() != null ? alert.getPipeline().getId() : null;
+        FailureSignal signal = pipelineId != null ? lastFailures.get(pipelineId) : null;
+
+        List<String> keys = new ArrayList<>();
+        if (signal != null) {
+            keys.add(type + "|hour:" + signal.failedAt.truncatedTo(ChronoUnit.HOURS));
+            if (signal.committer != null && !"unknown".equals(signal.committer)) {
+                keys.add(type + "|committer:" + signal.committer);
+            }
+        } else {
+            // no failure signal (stale, queue, duration alerts) - group on type + window only
+            keys.add(type + "|any");
+        }
+        return keys;
+    }
+
+    private record FailureSignal(LocalDateTime failedAt, String committer) {
+    }
+
+    private record Held(Alert alert, AlertConfig config) {
+    }
+
+    // who a notification goes to, alerts whose configs share their channels share a digest
+    private record Recipient(boolean email, boolean slack, boolean webhook, String endpoint) {
+        static Recipient of(AlertConfig config) {
+            return new Recipient(Boolean.TRUE.equals(config.getNotifyEmail()),
+                    Boolean.TRUE.equals(config.getNotifySlack()),
+                    Boolean.TRUE.equals(config.getNotifyWebhook()),
+                    config.getNotificationEndpoint());
+        }
+    }
+
+    private static class AlertGroup {
+        private final Alert leader;
+        private final LocalDateTime openedAt;
+        private final List<String> keys;
+        private final Map<Long, Held> suppressed = new LinkedHashMap<>();
+
+        AlertGroup(Alert leader, LocalDateTime openedAt, List<String> keys) {
+            this.leader = leader;
+            this.openedAt = openedAt;
+            this.keys = keys;
+        }
+
+        boolean isExpired(LocalDateTime now, int windowMinutes) {
+            return !openedAt.plusMinutes(windowMinutes).isAfter(now);
+        }
+
+        String describeCause() {
+            return keys.stream()
+                    .map(key -> key.substring(key.indexOf('|') + 1))
+                    .map(key -> key.startsWith("hour:") ? "failures around " + key.substring(5) :
+                            key.startsWith("committer:") ? "committer " + key.substring(10) :
+                                    "same time window")
+                    .reduce((a, b) -> a + ", " + b)
+                    .orElse("same time window");
+        }
+
+        AlertDigest toDigest(List<Held> held, LocalDateTime now) {
+            List<Alert> alerts = held.stream().map(Held::alert).toList();
+            Alert.AlertSeverity maxSeverity = alerts.stream()
+                    .map(Alert::getSeverity)
+                    .filter(Objects::nonNull)
+                    .max(Comparator.naturalOrder())
+                    .orElse(Alert.AlertSeverity.WARNING);
+
+            List<String> pipelines = alerts.stream()
+                    .map(a -> a.getPipeline() != null ? a.getPipeline().getName() : "unknown")
+                    .distinct()
+                    .toList();
+
+            return AlertDigest.builder()
+                    .type(leader.getType())
+                    .maxSeverity(maxSeverity)
+                    .cause(describeCause())
+                    .alertCount(alerts.size())
+                    .alertIds(alerts.stream().map(Alert::getId).toList())
+                    .pipelineNames(pipelines)
+                    .windowStart(openedAt)
+                    .windowEnd(now)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.BuildModifiedEvent;
+import com.yourname.streamci.streamci.event.QueueStatusChangedEvent;
+import com.yourname.streamci.streamci.model.AlertRule;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.Pipeline;
+import com.yourname.streamci.streamci.repository.AlertRuleRepository;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.repository.PipelineRepository;
+import com.yourname.streamci.streamci.util.RollingWindow;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * evaluates alert rules incrementally as builds and queue changes arrive
+ * instead of waiting for the next metrics cycle
+ *
+ * each rule keeps per-pipeline sliding windows in memory, so an event costs
+ * O(1) per matching rule. the windows are warmed once per pipeline from the
+ * builds table and only appended to after that. rule state is only locked
+ * while it is updated, alerts are raised and resolved after the lock is released
+ */
+@Service
+public class AlertRuleEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(AlertRuleEngine.class);
+
+    private static final int WINDOW_BUCKETS = 30;
+    private static final int BASELINE_BUCKETS = 48;
+
+    private final AlertRuleRepository ruleRepository;
+    private final BuildRepository buildRepository;
+    private final PipelineRepository pipelineRepository;
+    private final AlertService alertService;
+
+    private volatile List<AlertRule> rules = List.of();
+    private final Map<Integer, PipelineState> states = new ConcurrentHashMap<>();
+
+    public AlertRuleEngine(AlertRuleRepository ruleRepository,
+                           BuildRepository buildRepository,
+                           PipelineRepository pipelineRepository,
+                           AlertService alertService) {
+        this.ruleRepository = ruleRepository;
+        this.buildRepository = buildRepository;
+        this.pipelineRepository = pipelineRepository;
+        this.alertService = alertService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reloadRules();
+    }
+
+    // recompile after rules change; windows are rebuilt lazily on the next event
+    public synchronized void reloadRules() {
+        rules = List.copyOf(ruleRepository.findByEnabledTrue());
+        states.clear();
+        logger.info("Loaded {} alert rules", rules.size());
+    }
+
+    public List<AlertRule> getRules() {
+        return rules;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildIngested(BuildIngestedEvent event) {
+        Build build = event.getBuild();
+        if (event.getPipelineId() == null || rules.isEmpty()) return;
+
+        try {
+            PipelineState state = stateFor(event.getPipelineId(), build.getBuildId(), null);
+            long now = epochSecond(LocalDateTime.now());
+
+            List<Decision> decisions = new ArrayList<>();
+            for (RuleState ruleState : state.rules) {
+                synchronized (ruleState) {
+                    if (!ruleState.matchesBranch(build.getBranch())) continue;
+
+                    ruleState.record(build, now);
+                    decide(ruleState, now).ifPresent(decisions::add);
+                }
+            }
+            apply(decisions, build.getPipeline());
+        } catch (Exception e) {
+            logger.error("Rule evaluation failed for pipeline {}: {}",
+                    event.getPipelineId(), e.getMessage());
+        }
+    }
+
+    // windows only append, so an updated or deleted build rewarms the pipeline from the builds table
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildModified(BuildModifiedEvent event) {
+        if (event.getPipelineId() == null || rules.isEmpty()) return;
+
+        try {
+            PipelineState previous = states.remove(event.getPipelineId());
+            PipelineState state = stateFor(event.getPipelineId(), null, previous);
+            long now = epochSecond(LocalDateTime.now());
+
+            List<Decision> decisions = new ArrayList<>();
+            for (RuleState ruleState : state.rules) {
+                if (ruleState.window == null) continue;
+
+                synchronized (ruleState) {
+                    decide(ruleState, now).ifPresent(decisions::add);
+                }
+            }
+            apply(decisions, null);
+        } catch (Exception e) {
+            logger.error("Rule re-evaluation failed for pipeline {}: {}",
+                    event.getPipelineId(), e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onQueueStatusChanged(QueueStatusChangedEvent event) {
+        if (event.getPipelineId() == null || rules.isEmpty()) return;
+
+        try {
+            PipelineState state = stateFor(event.getPipelineId(), null, null);
+            long now = epochSecond(LocalDateTime.now());
+
+            List<Decision> decisions = new ArrayList<>();
+            for (RuleState ruleState : state.rules) {
+                if (ruleState.rule.getMetric() != AlertRule.RuleMetric.QUEUE_DEPTH) continue;
+
+                synchronized (ruleState) {
+                    ruleState.queueDepth = event.getQueuedCount();
+                    decide(ruleState, now).ifPresent(decisions::add);
+                }
+            }
+            apply(decisions, null);
+        } catch (Exception e) {
+            logger.error("Queue rule evaluation failed for pipeline {}: {}",
+                    event.getPipelineId(), e.getMessage());
+        }
+    }
+
+    /**
+     * current value of every rule for a pipeline, mostly for debugging rules
+     */
+    public List<Map<String, Object>> getRuleState(Integer pipelineId) {
+        PipelineState state = states.get(pipelineId);
+        if (state == null) return List.of();
+
+        long now = epochSecond(LocalDateTime.now());
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (RuleState ruleState : state.rules) {
+            synchronized (ruleState) {
+                ruleState.advanceTo(now);
+                Map<String, Object> entry = new HashMap<>();
+                entry.put("rule_id", ruleState.rule.getId());
+                entry.put("name", ruleState.rule.getName());
+                entry.put("metric", ruleState.rule.getMetric());
+                entry.put("value", ruleState.currentValue());
+                entry.put("samples", ruleState.samples());
+                entry.put("threshold", ruleState.rule.getThreshold());
+                entry.put("firing", Boolean.TRUE.equals(ruleState.firing));
+                result.add(entry);
+            }
+        }
+        return result;
+    }
+
+    // called with the rule state locked, only updates the state and says what to tell the alert service
+    private Optional<Decision> decide(RuleState ruleState, long now) {
+        AlertRule rule = ruleState.rule;
+        ruleState.advanceTo(now);
+
+        double value = ruleState.currentValue();
+        if (ruleState.samples() >= rule.getMinSamples() && value >= rule.getThreshold()) {
+            ruleState.firing = true;
+            return Optional.of(new Decision(ruleState, true, value, describe(ruleState, value)));
+        }
+        // firing == null means we don't know yet (fresh state), an old alert may still be open
+        if (Boolean.FALSE.equals(ruleState.firing)) return Optional.empty();
+
+        ruleState.firing = false;
+        return Optional.of(new Decision(ruleState, false, value,
+                String.format("%s back under threshold (%.1f < %.1f)", rule.getName(), value, rule.getThreshold())));
+    }
+
+    private void apply(List<Decision> decisions, Pipeline pipeline) {
+        for (Decision decision : decisions) {
+            AlertRule rule = decision.ruleState().rule;
+            Integer pipelineId = decision.ruleState().pipelineId;
+
+            if (!decision.firing()) {
+                alertService.resolveByFingerprint(AlertService.ruleFingerprint(rule, pipelineId), decision.message());
+                continue;
+            }
+
+            Pipeline target = pipeline != null ? pipeline : pipelineRepository.findById(pipelineId).orElse(null);
+            if (target == null) continue;
+
+            alertService.raiseRuleAlert(rule, target, decision.value(), decision.message())
+                    .ifPresent(alert -> logger.info("Rule '{}' fired for pipeline {} (value {})",
+                            rule.getName(), pipelineId, String.format("%.1f", decision.value())));
+        }
+    }
+
+    private String describe(RuleState ruleState, double value) {
+        AlertRule rule = ruleState.rule;
+        String scope = rule.getBranch() != null ? " on " + rule.getBranch() : "";
+        return switch (rule.getMetric()) {
+            case FAILURE_COUNT -> String.format("%d failed builds in the last %d minutes%s (threshold: %.0f).",
+                    (long) value, rule.getWindowMinutes(), scope, rule.getThreshold());
+            case FAILURE_RATE -> String.format("%.1f%% of %d builds failed in the last %d minutes%s (threshold: %.1f%%).",
+                    value, ruleState.samples(), rule.getWindowMinutes(), scope, rule.getThreshold());
+            case P90_DURATION_CHANGE -> String.format(
+                    "p90 build duration is %.0fs over the last %d minutes%s, %.1f%% above the %.0fs baseline (threshold: %.1f%%).",
+                    ruleState.window.quantile(0.9), rule.getWindowMinutes(), scope, value,
+                    ruleState.baseline.quantile(0.9), rule.getThreshold());
+            case QUEUE_DEPTH -> String.format("%d builds queued (threshold: %.0f).",
+                    (long) value, rule.getThreshold());
+        };
+    }
+
+    private PipelineState stateFor(Integer pipelineId, Long excludeBuildId, PipelineState previous) {
+        PipelineState existing = states.get(pipelineId);
+        if (existing != null) return existing;
+
+        synchronized (this) {
+            existing = states.get(pipelineId);
+            if (existing != null) return existing;
+
+            PipelineState state = new PipelineState(pipelineId, rules, previous);
+            warm(state, excludeBuildId);
+            states.put(pipelineId, state);
+            return state;
+        }
+    }
+
+    // one bounded query per pipeline, so restarts don't lose the current window
+    private void warm(PipelineState state, Long excludeBuildId) {
+        long maxWindowMinutes = state.rules.stream()
+                .mapToLong(RuleState::historyMinutes)
+                .max()
+                .orElse(0);
+        if (maxWindowMinutes == 0) return;
+
+        LocalDateTime since = LocalDateTime.now().minusMinutes(maxWindowMinutes);
+        List<Build> history = buildRepository.findByPipelineIdAndStartTimeAfter(state.pipelineId, since);
+        long now = epochSecond(LocalDateTime.now());
+
+        // repository returns newest first, windows want oldest first
+        for (int i = history.size() - 1; i >= 0; i--) {
+            Build build = history.get(i);
+            if (Objects.equals(build.getBuildId(), excludeBuildId)) continue;
+
+            for (RuleState ruleState : state.rules) {
+                if (ruleState.matchesBranch(build.getBranch())) {
+                    ruleState.record(build, now);
+                }
+            }
+        }
+        logger.debug("Warmed rule state for pipeline {} from {} builds", state.pipelineId, history.size());
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static LocalDateTime eventTime(Build build) {
+        if (build.getEndTime() != null) return build.getEndTime();
+        if (build.getStartTime() != null) return build.getStartTime();
+        return build.getCreatedAt() != null ? build.getCreatedAt() : LocalDateTime.now();
+    }
+
+    private record Decision(RuleState ruleState, boolean firing, double value, String message) {
+    }
+
+    private record Sample(long at, boolean failed, long duration) {
+    }
+
+    private static class PipelineState {
+        private final Integer pipelineId;
+        private final List<RuleState> rules;
+
+        // previous carries firing flags and queue depth over when a pipeline is rewarmed
+        PipelineState(Integer pipelineId, List<AlertRule> allRules, PipelineState previous) {
+            this.pipelineId = pipelineId;
+            this.rules = allRules.stream()
+                    .filter(rule -> rule.getPipelineId() == null || rule.getPipelineId().equals(pipelineId))
+                    .filter(rule -> rule.getMetric() != null && rule.getThreshold() != null)
+                    .map(rule -> new RuleState(pipelineId, rule))
+                    .toList();
+
+            if (previous == null) return;
+            for (RuleState old : previous.rules) {
+                for (RuleState ruleState : rules) {
+                    if (!Objects.equals(ruleState.rule.getId(), old.rule.getId())) continue;
+                    synchronized (old) {
+                        ruleState.firing = old.firing;
+                        ruleState.queueDepth = old.queueDepth;
+                    }
+                }
+            }
+        }
+    }
+
+    private static class RuleState {
+        private final Integer pipelineId;
+        private final AlertRule rule;
+        private final RollingWindow window;
+        private final RollingWindow baseline;
+        // builds still inside the current window, moved to the baseline once they age out of it
+        private final PriorityQueue<Sample> pending = new PriorityQueue<>(Comparator.comparingLong(Sample::at));
+        private int queueDepth;
+        private Boolean firing;
+
+        RuleState(Integer pipelineId, AlertRule rule) {
+            this.pipelineId = pipelineId;
+            this.rule = rule;
+
+            boolean durations = rule.getMetric() == AlertRule.RuleMetric.P90_DURATION_CHANGE;
+            this.window = rule.getMetric() == AlertRule.RuleMetric.QUEUE_DEPTH ? null :
+                    new RollingWindow(Duration.ofMinutes(rule.getWindowMinutes()), WINDOW_BUCKETS, durations);
+            // the baseline ends where the window starts, so it spans both but never holds window builds
+            this.baseline = durations ? new RollingWindow(
+                    Duration.ofMinutes(rule.getBaselineMinutes() + rule.getWindowMinutes()), BASELINE_BUCKETS, true) : null;
+        }
+
+        boolean matchesBranch(String branch) {
+            return rule.getBranch() == null || rule.getBranch().equals(branch);
+        }
+
+        long historyMinutes() {
+            if (window == null) return 0;
+            return baseline != null ? rule.getWindowMinutes() + rule.getBaselineMinutes() : rule.getWindowMinutes();
+        }
+
+        void record(Build build, long now) {
+            if (window == null) return;
+
+            long at = Math.min(epochSecond(eventTime(build)), now);
+            boolean failed = "failure".equals(build.getStatus());
+            long duration = build.getDuration() != null ? build.getDuration() : -1;
+
+            window.record(at, failed, duration);
+            if (baseline != null) {
+                pending.add(new Sample(at, failed, duration));
+                promote(now);
+            }
+        }
+
+        void advanceTo(long now) {
+            if (window != null) window.advanceTo(now);
+            if (baseline != null) {
+                promote(now);
+                baseline.advanceTo(now);
+            }
+        }
+
+        private void promote(long now) {
+            long windowStart = now - window.getWindowSeconds();
+            while (!pending.isEmpty() && pending.peek().at() <= windowStart) {
+                Sample sample = pending.poll();
+                baseline.record(sample.at(), sample.failed(), sample.duration());
+            }
+        }
+
+        long samples() {
+            return switch (rule.getMetric()) {
+                case QUEUE_DEPTH -> 1;
+                case P90_DURATION_CHANGE -> Math.min(window.durationCount(), baseline.durationCount());
+                default -> window.count();
+            };
+        }
+
+        double currentValue() {
+            return switch (rule.getMetric()) {
+                case FAILURE_COUNT -> window.failures();
+                case FAILURE_RATE -> window.failureRate();
+                case P90_DURATION_CHANGE -> {
+                    double base = baseline.quantile(0.9);
+                    yield base == 0 ? 0.0 : (window.quantile(0.9) - base) / base * 100;
+                }
+                case QUEUE_DEPTH -> queueDepth;
+            };
+        }
+    }
+}
@@ -5,6 +5,7 @@ import com.yourname.streamci.streamci.repository.*;
 import com.yourname.streamci.streamci.event.MetricsCalculatedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -19,17 +20,17 @@ public class AlertService {
 
     private final AlertRepository alertRepository;
     private final AlertConfigRepository configRepository;
-    private final PipelineMetricsRepository metricsRepository;
-    private final NotificationService notificationService;
+    private final AlertCorrelator alertCorrelator;
+    private final ActiveAlertIndex activeAlertIndex;
 
     public AlertService(AlertRepository alertRepository,
                         AlertConfigRepository configRepository,
-                        PipelineMetricsRepository metricsRepository,
-                        NotificationService notificationService) {
+                        AlertCorrelator alertCorrelator,
+                        ActiveAlertIndex activeAlertIndex) {
         this.alertRepository = alertRepository;
         this.configRepository = configRepository;
-        this.metricsRepository = metricsRepository;
-        this.notificationService = notificationService;
+        this.alertCorrelator = alertCorrelator;
+        this.activeAlertIndex = activeAlertIndex;
     }
 
     @EventListener
@@ -69,13 +70,6 @@ public class AlertService {
 
             String fingerprint = String.format("success_rate_%d", pipeline.getId());
 
-            // check if alert already exists
-            Optional<Alert> existing = alertRepository.findActiveByFingerprint(fingerprint);
-            if (existing.isPresent() && !shouldRenotify(existing.get(), config)) {
-                logger.debug("Alert already exists for success rate, skipping");
-                return;
-            }
-
             Alert alert = Alert.builder()
                     .pipeline(pipeline)
                     .type(Alert.AlertType.SUCCESS_RATE_DROP)
@@ -96,7 +90,7 @@ public class AlertService {
                     .triggeredBy("metrics_check")
                     .build();
 
-            saveAndNotify(alert, config);
+            raiseOrUpdate(alert, config, config.getCooldownMinutes());
         }
     }
 
@@ -104,17 +98,15 @@ public class AlertService {
         AlertConfig config = getConfig(pipeline.getId(), Alert.AlertType.DURATION_INCREASE);
         if (!config.getEnabled()) return;
 
-        // compare to previous metrics
-        Optional<PipelineMetrics> previousOpt = metricsRepository
-                .findTopByPipelineIdOrderByCalculatedAtDesc(pipeline.getId());
+        // metrics was already saved, so the latest stored row is this cycle itself -
+        // the previous cycle's average comes from the trend MetricsService recorded
+        if (metrics.getAvgDurationChange() == null || metrics.getAvgDurationSeconds() == null
+                || metrics.getAvgDurationSeconds() == 0) return;
 
-        if (previousOpt.isEmpty() || metrics.getAvgDurationSeconds() == 0) return;
+        long previousAvg = metrics.getAvgDurationSeconds() - metrics.getAvgDurationChange();
+        if (previousAvg <= 0) return;
 
-        PipelineMetrics previous = previousOpt.get();
-        if (previous.getAvgDurationSeconds() == 0) return;
-
-        double increasePercent = ((double)(metrics.getAvgDurationSeconds() - previous.getAvgDurationSeconds())
-                / previous.getAvgDurationSeconds()) * 100;
+        double increasePercent = ((double) metrics.getAvgDurationChange() / previousAvg) * 100;
 
         Double threshold = config.getWarningThreshold() != null ?
                 config.getWarningThreshold() : 50.0;
@@ -122,11 +114,6 @@ public class AlertService {
         if (increasePercent > threshold) {
             String fingerprint = String.format("duration_%d", pipeline.getId());
 
-            Optional<Alert> existing = alertRepository.findActiveByFingerprint(fingerprint);
-            if (existing.isPresent() && !shouldRenotify(existing.get(), config)) {
-                return;
-            }
-
             Alert alert = Alert.builder()
                     .pipeline(pipeline)
                     .type(Alert.AlertType.DURATION_INCREASE)
@@ -137,7 +124,7 @@ public class AlertService {
                     .message(String.format(
                             "Average build duration increased by %.1f%% from %d to %d seconds. " +
                                     "This could indicate performance issues or resource constraints.",
-                            increasePercent, previous.getAvgDurationSeconds(),
+                            increasePercent, previousAvg,
                             metrics.getAvgDurationSeconds()
                     ))
                     .recommendation(determineRecommendation(Alert.AlertType.DURATION_INCREASE, metrics))
@@ -148,7 +135,7 @@ public class AlertService {
                     .triggeredBy("metrics_check")
                     .build();
 
-            saveAndNotify(alert, config);
+            raiseOrUpdate(alert, config, config.getCooldownMinutes());
         }
     }
 
@@ -162,11 +149,6 @@ public class AlertService {
         if (metrics.getConsecutiveFailures() >= threshold) {
             String fingerprint = String.format("consecutive_%d", pipeline.getId());
 
-            Optional<Alert> existing = alertRepository.findActiveByFingerprint(fingerprint);
-            if (existing.isPresent() && !shouldRenotify(existing.get(), config)) {
-                return;
-            }
-
             Alert.AlertSeverity severity = metrics.getConsecutiveFailures() >= 5 ?
                     Alert.AlertSeverity.EMERGENCY : Alert.AlertSeverity.CRITICAL;
 
@@ -191,7 +173,7 @@ public class AlertService {
                     .triggeredBy("metrics_check")
                     .build();
 
-            saveAndNotify(alert, config);
+            raiseOrUpdate(alert, config, config.getCooldownMinutes());
         }
     }
 
@@ -218,11 +200,6 @@ public class AlertService {
         if (hoursSinceActivity > 24) {
             String fingerprint = String.format("stale_%d", pipeline.getId());
 
-            Optional<Alert> existing = alertRepository.findActiveByFingerprint(fingerprint);
-            if (existing.isPresent()) {
-                return;
-            }
-
             Alert alert = Alert.builder()
                     .pipeline(pipeline)
                     .type(Alert.AlertType.STALE_PIPELINE)
@@ -241,15 +218,13 @@ public class AlertService {
                     .triggeredBy("metrics_check")
                     .build();
 
-            saveAndNotify(alert, config);  // NOW config is defined and can be used
+            // stale alerts are informational, never renotify
+            raiseOrUpdate(alert, config, null);
         }
     }
 
     private void autoResolveAlerts(Pipeline pipeline, PipelineMetrics metrics) {
-        List<Alert> activeAlerts = alertRepository
-                .findByPipelineIdAndStatusOrderByCreatedAtDesc(
-                        pipeline.getId(), Alert.AlertStatus.ACTIVE
-                );
+        List<Alert> activeAlerts = activeAlertIndex.findActiveForPipeline(pipeline.getId());
 
         for (Alert alert : activeAlerts) {
             boolean shouldResolve = false;
@@ -280,11 +255,7 @@ public class AlertService {
             }
 
             if (shouldResolve) {
-                alert.setStatus(Alert.AlertStatus.RESOLVED);
-                alert.setResolvedAt(LocalDateTime.now());
-                alert.setResolvedBy("auto");
-                alert.setNotes(resolveReason);
-                alertRepository.save(alert);
+                markResolved(alert, "auto", resolveReason);
                 logger.info("Auto-resolved alert {} for pipeline {}: {}",
                         alert.getId(), pipeline.getName(), resolveReason);
             }
@@ -308,20 +279,28 @@ public class AlertService {
         }
 
         // return default config
-        return getDefaultConfig();
+        return getDefaultConfig(type);
     }
 
-    private AlertConfig getDefaultConfig() {
+    private AlertConfig getDefaultConfig(Alert.AlertType type) {
+        boolean anomaly = type == Alert.AlertType.ANOMALY;
+        boolean changePoint = type == Alert.AlertType.CHANGE_POINT;
         return AlertConfig.builder()
                 .enabled(true)
-                .warningThreshold(75.0)
-                .criticalThreshold(50.0)
+                .warningThreshold(anomaly ? 3.0 : changePoint ? 25.0 : 75.0)
+                .criticalThreshold(anomaly ? 4.5 : changePoint ? 100.0 : 50.0)
                 .evaluationWindowMinutes(30)
                 .cooldownMinutes(15)
+                .notifyEmail(false)
+                .notifySlack(false)
+                .notifyWebhook(false)
                 .build();
     }
 
-    private boolean shouldRenotify(Alert existingAlert, AlertConfig config) {
+    private boolean shouldRenotify(Alert existingAlert, Integer cooldownMinutes) {
+        if (cooldownMinutes == null) {
+            return false;
+        }
         if (existingAlert.getLastNotificationSent() == null) {
             return true;
         }
@@ -331,20 +310,95 @@ public class AlertService {
                 LocalDateTime.now()
         ).toMinutes();
 
-        return minutesSinceNotification >= config.getCooldownMinutes();
+        return minutesSinceNotification >= cooldownMinutes;
     }
 
-    private void saveAndNotify(Alert alert, AlertConfig config) {
-        Alert saved = alertRepository.save(alert);
-        logger.info("Created alert: {} - {}", saved.getType(), saved.getTitle());
+    /**
+     * dedup against the in-memory active alert index
+     * - no active alert with this fingerprint: insert the candidate and notify
+     * - active alert, severity went up: escalate it in place and notify right away
+     * - active alert, cooldown expired: refresh it in place and renotify
+     * - otherwise nothing changed, so nothing is written
+     * cooldownMinutes == null means never renotify
+     */
+    private Optional<Alert> raiseOrUpdate(Alert candidate, AlertConfig config, Integer cooldownMinutes) {
+        String fingerprint = candidate.getFingerprint();
+
+        Alert saved;
+        synchronized (activeAlertIndex.lockFor(fingerprint)) {
+            saved = insertOrRefresh(candidate, cooldownMinutes);
+        }
+        if (saved == null) return Optional.empty();
 
-        // send notifications
-        notificationService.sendAlert(saved, config);
+        // notification I/O happens outside the fingerprint lock. alerts held for a digest
+        // restart the cooldown but aren't counted as notified
+        if (alertCorrelator.submit(saved, config)) {
+            saved.setNotificationCount(saved.getNotificationCount() != null ? saved.getNotificationCount() + 1 : 1);
+            saved = alertRepository.save(saved);
+        }
+        return Optional.of(saved);
+    }
+
+    // returns the written alert, or null when nothing changed
+    private Alert insertOrRefresh(Alert candidate, Integer cooldownMinutes) {
+        String fingerprint = candidate.getFingerprint();
+        Optional<Alert> existingOpt = activeAlertIndex.findActive(fingerprint);
+        if (existingOpt.isEmpty()) {
+            Alert saved = saveWithNotification(candidate);
+            logger.info("Created alert: {} - {}", saved.getType(), saved.getTitle());
+            return saved;
+        }
+
+        Alert existing = existingOpt.get();
+        boolean escalated = candidate.getSeverity().ordinal() > existing.getSeverity().ordinal();
+        if (!escalated && !shouldRenotify(existing, cooldownMinutes)) {
+            logger.debug("Alert {} already active, skipping", fingerprint);
+            return null;
+        }
+
+        if (escalated) {
+            existing.setSeverity(candidate.getSeverity());
+            existing.setEscalatedAt(LocalDateTime.now());
+            logger.info("Escalating alert {} to {}", fingerprint, candidate.getSeverity());
+        }
+        existing.setTitle(candidate.getTitle());
+        existing.setMessage(candidate.getMessage());
+        existing.setRecommendation(candidate.getRecommendation());
+        existing.setThresholdValue(candidate.getThresholdValue());
+        existing.setActualValue(candidate.getActualValue());
+
+        try {
+            return saveWithNotification(existing);
+        } catch (RuntimeException e) {
+            // row vanished underneath the index (bulk delete etc), start fresh next cycle
+            logger.warn("Could not update alert {}: {}", fingerprint, e.getMessage());
+            activeAlertIndex.remove(existing);
+            return null;
+        }
+    }
+
+    // the index itself is updated from the alert events once the write commits
+    private Alert saveWithNotification(Alert alert) {
+        alert.setLastNotificationSent(LocalDateTime.now());
+        if (alert.getNotificationCount() == null) alert.setNotificationCount(0);
+        Alert saved = alertRepository.save(alert);
+        activeAlertIndex.reserve(saved);
+        return saved;
+    }
 
-        // update notification tracking
-        saved.setLastNotificationSent(LocalDateTime.now());
-        saved.setNotificationCount(saved.getNotificationCount() + 1);
-        alertRepository.save(saved);
+    private Alert markResolved(Alert alert, String resolvedBy, String notes) {
+        alert.setStatus(Alert.AlertStatus.RESOLVED);
+        alert.setResolvedAt(LocalDateTime.now());
+        alert.setResolvedBy(resolvedBy);
+        alert.setNotes(notes);
+        try {
+            Alert saved = alertRepository.save(alert);
+            activeAlertIndex.reserve(saved);
+            return saved;
+        } catch (RuntimeException e) {
+            activeAlertIndex.remove(alert);
+            throw e;
+        }
     }
 
     private String determineRecommendation(Alert.AlertType type, PipelineMetrics metrics) {
@@ -368,6 +422,172 @@ public class AlertService {
         }
     }
 
+    // rule engine entry points - called after the triggering build committed, so they need their own transaction
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<Alert> raiseRuleAlert(AlertRule rule, Pipeline pipeline, double actualValue, String message) {
+        Alert.AlertType type = rule.getMetric().getAlertType();
+        AlertConfig config = getConfig(pipeline.getId(), type);
+        String fingerprint = ruleFingerprint(rule, pipeline.getId());
+
+        Alert alert = Alert.builder()
+                .pipeline(pipeline)
+                .type(type)
+                .severity(rule.getSeverity())
+                .status(Alert.AlertStatus.ACTIVE)
+                .title(String.format("%s for %s", rule.getName(), pipeline.getName()))
+                .message(message)
+                .recommendation("Investigate recent changes and check system logs")
+                .thresholdValue(rule.getThreshold())
+                .actualValue(actualValue)
+                .metric(rule.getMetric().name().toLowerCase())
+                .fingerprint(fingerprint)
+                .triggeredBy("rule_" + rule.getId())
+                .build();
+
+        return raiseOrUpdate(alert, config, rule.getCooldownMinutes());
+    }
+
+    public static String ruleFingerprint(AlertRule rule, Integer pipelineId) {
+        return String.format("rule_%d_%d", rule.getId(), pipelineId);
+    }
+
+    /**
+     * anomaly detector entry point, zScore is in standard deviations from the pipeline's baseline
+     * the ANOMALY config's warning/critical thresholds set the sensitivity
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<Alert> raiseAnomalyAlert(Pipeline pipeline, String metric,
+                                             double observed, double expected, double zScore) {
+        AlertConfig config = getConfig(pipeline.getId(), Alert.AlertType.ANOMALY);
+        if (!config.getEnabled()) return Optional.empty();
+
+        double warning = anomalyWarning(config);
+        double critical = config.getCriticalThreshold() != null ? config.getCriticalThreshold() : 4.5;
+        if (zScore < warning) return Optional.empty();
+
+        boolean duration = "duration".equals(metric);
+        String unit = duration ? "s" : "%";
+
+        Alert alert = Alert.builder()
+                .pipeline(pipeline)
+                .type(Alert.AlertType.ANOMALY)
+                .severity(zScore >= critical ? Alert.AlertSeverity.CRITICAL : Alert.AlertSeverity.WARNING)
+                .status(Alert.AlertStatus.ACTIVE)
+                .title(String.format("Unusual %s for %s", duration ? "build duration" : "failure rate",
+                        pipeline.getName()))
+                .message(String.format(
+                        "%s is %.1f%s against a baseline of %.1f%s (%.1f standard deviations, sensitivity %.1f).",
+                        metric, observed, unit, expected, unit, zScore, warning))
+                .recommendation(duration ?
+                        "Check for: new dependencies, cache misses, resource constraints on runners" :
+                        "Review recent commits and external dependencies, failures are well above normal")
+                .thresholdValue(warning)
+                .actualValue(zScore)
+                .metric("anomaly_" + metric)
+                .fingerprint(String.format("anomaly_%s_%d", metric, pipeline.getId()))
+                .triggeredBy("anomaly_detector")
+                .build();
+
+        return raiseOrUpdate(alert, config, config.getCooldownMinutes());
+    }
+
+    // z-score raiseAnomalyAlert accepts, infinite while ANOMALY alerts are disabled
+    public double anomalySensitivity(Integer pipelineId) {
+        AlertConfig config = getConfig(pipelineId, Alert.AlertType.ANOMALY);
+        return config.getEnabled() ? anomalyWarning(config) : Double.POSITIVE_INFINITY;
+    }
+
+    private static double anomalyWarning(AlertConfig config) {
+        return config.getWarningThreshold() != null ? config.getWarningThreshold() : 3.0;
+    }
+
+    /**
+     * change-point detector entry point, thresholds are the % increase of the shifted
+     * level over the old baseline (failure rate or duration)
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<Alert> raiseChangePointAlert(Pipeline pipeline, ChangePoint changePoint) {
+        AlertConfig config = getConfig(pipeline.getId(), Alert.AlertType.CHANGE_POINT);
+        if (!config.getEnabled()) return Optional.empty();
+
+        double warning = config.getWarningThreshold() != null ? config.getWarningThreshold() : 25.0;
+        double critical = config.getCriticalThreshold() != null ? config.getCriticalThreshold() : 100.0;
+        double baseline = Math.max(changePoint.getBaselineValue(), 1.0);
+        double increase = (changePoint.getShiftedValue() - changePoint.getBaselineValue()) / baseline * 100.0;
+        if (increase < warning) return Optional.empty();
+
+        boolean duration = "duration".equals(changePoint.getMetric());
+        String unit = duration ? "s" : "%";
+
+        Alert alert = Alert.builder()
+                .pipeline(pipeline)
+                .type(Alert.AlertType.CHANGE_POINT)
+                .severity(increase >= critical ? Alert.AlertSeverity.CRITICAL : Alert.AlertSeverity.WARNING)
+                .status(Alert.AlertStatus.ACTIVE)
+                .title(String.format("%s regressed for %s", duration ? "Build duration" : "Failure rate",
+                        pipeline.getName()))
+                .message(String.format(
+                        "%s moved from %.1f%s to %.1f%s over the last %d builds, starting at %s (last good commit %s).",
+                        changePoint.getMetric(), changePoint.getBaselineValue(), unit,
+                        changePoint.getShiftedValue(), unit, changePoint.getBuildsSinceChange(),
+                        changePoint.getFirstBadCommit(), changePoint.getLastGoodCommit()))
+                .recommendation(String.format("Bisect commits %s..%s, the shift is sustained rather than a one-off",
+                        changePoint.getLastGoodCommit(), changePoint.getDetectedCommit()))
+                .thresholdValue(warning)
+                .actualValue(increase)
+                .metric("change_point_" + changePoint.getMetric())
+                .fingerprint(String.format("changepoint_%s_%d", changePoint.getMetric(), pipeline.getId()))
+                .triggeredBy("change_point_detector")
+                .build();
+
+        return raiseOrUpdate(alert, config, config.getCooldownMinutes());
+    }
+
+    /**
+     * slo evaluator entry point, severity comes from the burn-rate policy that fired
+     * (fast burns page, slow burns warn) - the SLO_BURN_RATE config only gates and throttles
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<Alert> raiseSloAlert(SloDefinition slo, Pipeline pipeline, String window,
+                                         double burnRate, double threshold, Alert.AlertSeverity severity,
+                                         double budgetRemaining) {
+        AlertConfig config = getConfig(pipeline.getId(), Alert.AlertType.SLO_BURN_RATE);
+        if (!config.getEnabled()) return Optional.empty();
+
+        Alert alert = Alert.builder()
+                .pipeline(pipeline)
+                .type(Alert.AlertType.SLO_BURN_RATE)
+                .severity(severity)
+                .status(Alert.AlertStatus.ACTIVE)
+                .title(String.format("%s is burning its error budget", slo.getName()))
+                .message(String.format(
+                        "Error budget for %s (target %.1f%%) is burning at %.1fx over the last %s " +
+                                "(threshold %.1fx). %.1f%% of the %d day budget remains.",
+                        pipeline.getName(), slo.getTarget(), burnRate, window, threshold,
+                        budgetRemaining, slo.getBudgetDays()))
+                .recommendation(severity == Alert.AlertSeverity.CRITICAL ?
+                        "Budget will be gone within days at this rate - stop risky merges and fix the main cause first" :
+                        "Budget is being spent faster than planned - review recent failures or slow builds")
+                .thresholdValue(threshold)
+                .actualValue(burnRate)
+                .metric("slo_burn_rate_" + window)
+                .fingerprint(String.format("slo_%d", slo.getId()))
+                .triggeredBy("slo_" + slo.getId())
+                .build();
+
+        return raiseOrUpdate(alert, config, config.getCooldownMinutes());
+    }
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<Alert> resolveByFingerprint(String fingerprint, String reason) {
+        Optional<Alert> existing = activeAlertIndex.findActive(fingerprint);
+        existing.ifPresent(alert -> {
+            markResolved(alert, "auto", reason);
+            logger.info("Auto-resolved alert {} ({}): {}", alert.getId(), fingerprint, reason);
+        });
+        return existing;
+    }
+
     // public methods for controller
     public List<Alert> getActiveAlerts() {
         return alertRepository.findByStatusOrderByCreatedAtDesc(Alert.AlertStatus.ACTIVE);
@@ -386,7 +606,9 @@ public class AlertService {
             alert.setStatus(Alert.AlertStatus.ACKNOWLEDGED);
             alert.setAcknowledgedAt(LocalDateTime.now());
             alert.setNotes("Acknowledged by " + acknowledgedBy);
-            return Optional.of(alertRepository.save(alert));
+            Alert saved = alertRepository.save(alert);
+            activeAlertIndex.reserve(saved);
+            return Optional.of(saved);
         }
         return Optional.empty();
     }
@@ -394,12 +616,7 @@ public class AlertService {
     public Optional<Alert> resolveAlert(Long alertId, String resolvedBy, String notes) {
         Optional<Alert> alertOpt = alertRepository.findById(alertId);
         if (alertOpt.isPresent()) {
-            Alert alert = alertOpt.get();
-            alert.setStatus(Alert.AlertStatus.RESOLVED);
-            alert.setResolvedAt(LocalDateTime.now());
-            alert.setResolvedBy(resolvedBy);
-            alert.setNotes(notes);
-            return Optional.of(alertRepository.save(alert));
+            return Optional.of(markResolved(alertOpt.get(), resolvedBy, notes));
         }
         return Optional.empty();
     }
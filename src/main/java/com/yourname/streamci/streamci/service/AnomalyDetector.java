@@ -0,0 +1,199 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.Pipeline;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.util.EwmaStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * statistical anomaly detection on every build
+ *
+ * keeps an EWMA baseline per pipeline for build duration and failure rate and
+ * raises ANOMALY alerts on z-score excursions. sensitivity comes from the ANOMALY
+ * AlertConfig (warning/critical thresholds are in standard deviations). a metric
+ * only counts as firing once its score cleared that sensitivity, so it can't stay
+ * latched on a score AlertService turned down
+ */
+@Service
+public class AnomalyDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnomalyDetector.class);
+
+    // scores below this never reach AlertService, so configs can't go lower than 2 sigma
+    static final double MIN_SENSITIVITY = 2.0;
+    private static final double RESOLVE_BELOW = 1.0;
+    private static final double FAST_ALPHA = 0.3;
+    private static final int WARM_UP_DAYS = 30;
+
+    private final AlertService alertService;
+    private final BuildRepository buildRepository;
+
+    @Value("${alerts.anomaly.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${alerts.anomaly.alpha:0.1}")
+    private double alpha = 0.1;
+
+    @Value("${alerts.anomaly.min-samples:10}")
+    private int minSamples = 10;
+
+    private final Map<Integer, Baseline> baselines = new ConcurrentHashMap<>();
+
+    public AnomalyDetector(AlertService alertService, BuildRepository buildRepository) {
+        this.alertService = alertService;
+        this.buildRepository = buildRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildIngested(BuildIngestedEvent event) {
+        if (!enabled || event.getPipelineId() == null) return;
+
+        try {
+            observe(event.getBuild());
+        } catch (Exception e) {
+            logger.error("Anomaly check failed for pipeline {}: {}", event.getPipelineId(), e.getMessage());
+        }
+    }
+
+    public void observe(Build build) {
+        Pipeline pipeline = build.getPipeline();
+        Baseline baseline = baselineFor(pipeline.getId(), build.getBuildId());
+
+        double durationZ;
+        double failureZ;
+        double durationMean;
+        double failureBaseline;
+        double failureRecent;
+        boolean durationResolved;
+        boolean failureResolved;
+
+        synchronized (baseline) {
+            durationMean = baseline.duration.getMean();
+            failureBaseline = baseline.failures.getMean();
+            durationZ = baseline.scoreDuration(build, minSamples);
+            failureZ = baseline.scoreFailure(build, minSamples);
+            failureRecent = baseline.recentFailureRate;
+
+            durationResolved = baseline.durationFiring && durationZ < RESOLVE_BELOW;
+            failureResolved = baseline.failureFiring && failureZ < RESOLVE_BELOW;
+            if (durationResolved) baseline.durationFiring = false;
+            if (failureResolved) baseline.failureFiring = false;
+        }
+
+        // alert service calls happen outside the baseline lock
+        if (build.getDuration() != null) {
+            report(pipeline, baseline, "duration", durationZ, durationResolved, build.getDuration(), durationMean);
+        }
+        report(pipeline, baseline, "failure_rate", failureZ, failureResolved,
+                failureRecent * 100, failureBaseline * 100);
+    }
+
+    private void report(Pipeline pipeline, Baseline baseline, String metric, double z, boolean resolved,
+                        double observed, double expected) {
+        if (resolved) {
+            alertService.resolveByFingerprint(
+                    String.format("anomaly_%s_%d", metric, pipeline.getId()),
+                    String.format("%s back within normal range (z=%.1f)", metric, z));
+            return;
+        }
+        // NaN (not enough samples) fails both comparisons
+        if (!(z >= MIN_SENSITIVITY) || z < alertService.anomalySensitivity(pipeline.getId())) return;
+
+        alertService.raiseAnomalyAlert(pipeline, metric, observed, expected, z);
+        synchronized (baseline) {
+            if ("duration".equals(metric)) {
+                baseline.durationFiring = true;
+            } else {
+                baseline.failureFiring = true;
+            }
+        }
+    }
+
+    // warmed outside the map so the history query doesn't hold a map bin lock, a racing warm-up is discarded
+    private Baseline baselineFor(Integer pipelineId, Long excludeBuildId) {
+        Baseline baseline = baselines.get(pipelineId);
+        if (baseline != null) return baseline;
+
+        Baseline warmed = warm(pipelineId, excludeBuildId);
+        Baseline existing = baselines.putIfAbsent(pipelineId, warmed);
+        return existing != null ? existing : warmed;
+    }
+
+    // seed the baseline from recent history so a restart doesn't need minSamples new builds
+    private Baseline warm(Integer pipelineId, Long excludeBuildId) {
+        Baseline baseline = new Baseline(alpha);
+        List<Build> history = buildRepository.findByPipelineIdAndStartTimeAfter(
+                pipelineId, LocalDateTime.now().minusDays(WARM_UP_DAYS));
+
+        // newest first from the repository, replay oldest first
+        for (int i = history.size() - 1; i >= 0; i--) {
+            Build build = history.get(i);
+            if (!Objects.equals(build.getBuildId(), excludeBuildId)) {
+                baseline.scoreDuration(build, Integer.MAX_VALUE);
+                baseline.scoreFailure(build, Integer.MAX_VALUE);
+            }
+        }
+        logger.debug("Warmed anomaly baseline for pipeline {} from {} builds", pipelineId, history.size());
+        return baseline;
+    }
+
+    /**
+     * per-pipeline state: EWMA mean/variance of durations, slow EWMA failure
+     * probability as the baseline and a fast EWMA as the recent failure rate
+     */
+    private static class Baseline {
+        private final EwmaStats duration;
+        private final EwmaStats failures;
+        private double recentFailureRate;
+        // guarded by the baseline's monitor like everything else here
+        private boolean durationFiring;
+        private boolean failureFiring;
+
+        Baseline(double alpha) {
+            this.duration = new EwmaStats(alpha);
+            this.failures = new EwmaStats(alpha / 2);
+        }
+
+        // score against the baseline as it was before this build, then fold the build in
+        double scoreDuration(Build build, int minSamples) {
+            if (build.getDuration() == null) return Double.NaN;
+
+            double value = build.getDuration();
+            double minStdDev = Math.max(5.0, duration.getMean() * 0.1);
+            double z = duration.getCount() >= minSamples ? duration.zScore(value, minStdDev) : Double.NaN;
+            duration.updateWinsorized(value, 4.0, minStdDev);
+            return z;
+        }
+
+        double scoreFailure(Build build, int minSamples) {
+            String status = build.getStatus();
+            if (!"success".equals(status) && !"failure".equals(status)) return Double.NaN;
+
+            double failed = "failure".equals(status) ? 1.0 : 0.0;
+            recentFailureRate = failures.getCount() == 0 ? failed :
+                    recentFailureRate + FAST_ALPHA * (failed - recentFailureRate);
+
+            double z = Double.NaN;
+            if (failures.getCount() >= minSamples) {
+                // a fast EWMA of a bernoulli(p) series has variance p(1-p) * a / (2 - a)
+                double p = failures.getMean();
+                double variance = Math.max(p * (1 - p), 0.01) * FAST_ALPHA / (2 - FAST_ALPHA);
+                z = (recentFailureRate - p) / Math.sqrt(variance);
+            }
+            failures.update(failed);
+            return z;
+        }
+    }
+}
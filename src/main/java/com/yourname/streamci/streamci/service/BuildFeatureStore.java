@@ -0,0 +1,188 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.dto.request.PredictionTarget;
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.BuildModifiedEvent;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.repository.PipelineRepository;
+import com.yourname.streamci.streamci.util.BuildTimes;
+import com.yourname.streamci.streamci.util.RecentOutcomes;
+import com.yourname.streamci.streamci.util.WarmCache;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * per-pipeline features for BuildSuccessPredictor, kept current on every build insert
+ *
+ * holds the recent outcomes of the pipeline, of each committer and of each branch
+ * (RecentOutcomes bit rings) plus success counts per hour of day, so a prediction is a
+ * few lookups instead of a scan over the whole history. warmed once per pipeline from
+ * the last 90 days (only pipelines that exist are cached), dropped and rewarmed when one of its builds is updated or deleted.
+ * a pipeline with fewer than RECENT_BUILDS builds in that window is warmed from its
+ * newest RECENT_BUILDS builds instead, however old, so the recent ring is never empty
+ * while total says there is history
+ *
+ * total still counts every build of the pipeline, not just the warm-up window, so the
+ * predictor's "insufficient data" and confidence cut-offs mean what they always did
+ */
+@Component
+public class BuildFeatureStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuildFeatureStore.class);
+
+    static final int RECENT_BUILDS = 20;
+    static final int PER_KEY_BUILDS = 10;
+    private static final int MAX_KEYS = 500; // committers / branches kept per pipeline
+    private static final int WARM_UP_DAYS = 90;
+
+    private final BuildRepository buildRepository;
+    private final WarmCache<PipelineFeatures> features;
+
+    public BuildFeatureStore(BuildRepository buildRepository, PipelineRepository pipelineRepository) {
+        this.buildRepository = buildRepository;
+        this.features = new WarmCache<>(pipelineRepository::existsById, this::warm, PipelineFeatures::new);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildIngested(BuildIngestedEvent event) {
+        if (event.getPipelineId() == null) return;
+
+        // pipelines nobody has asked about yet are warmed on first use instead
+        PipelineFeatures pipeline = features.peek(event.getPipelineId());
+        if (pipeline != null) {
+            pipeline.record(event.getBuild());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildModified(BuildModifiedEvent event) {
+        if (features.invalidate(event.getPipelineId())) {
+            logger.debug("Feature store invalidated for pipeline {}", event.getPipelineId());
+        }
+    }
+
+    /**
+     * consistent view of one pipeline's features for the given context
+     */
+    public Snapshot snapshot(Integer pipelineId, String committer, String branch, int hour) {
+        return features.get(pipelineId).snapshot(committer, branch, hour);
+    }
+
+    /**
+     * snapshots for many contexts of one pipeline, warmed and locked once for the whole list
+     */
+    public List<Snapshot> snapshots(Integer pipelineId, List<PredictionTarget> targets, int hour) {
+        return features.get(pipelineId).snapshots(targets, hour);
+    }
+
+    private PipelineFeatures warm(Integer pipelineId) {
+        PipelineFeatures pipeline = new PipelineFeatures();
+        List<Build> history = buildRepository.findByPipelineIdAndStartTimeAfter(
+                pipelineId, LocalDateTime.now().minusDays(WARM_UP_DAYS));
+        if (history.size() < RECENT_BUILDS) {
+            // a quiet pipeline, its last builds still say more than an empty window
+            List<Build> latest = buildRepository.findLatestByPipelineId(pipelineId, PageRequest.of(0, RECENT_BUILDS));
+            if (latest.size() > history.size()) history = latest;
+        }
+
+        // repository returns newest first, the rings want oldest first
+        for (int i = history.size() - 1; i >= 0; i--) {
+            pipeline.record(history.get(i));
+        }
+        // builds older than the window (or without a start time) still count towards total
+        pipeline.seedTotal(buildRepository.countByPipelineId(pipelineId));
+        logger.debug("Warmed feature store for pipeline {} from {} builds", pipelineId, history.size());
+        return pipeline;
+    }
+
+    /**
+     * size and success count of one slice of history
+     */
+    public record Outcomes(int size, int successes) {
+        public double successRate() {
+            return size == 0 ? 0.0 : (double) successes / size * 100.0;
+        }
+    }
+
+    /**
+     * recent5 / previous5 are successes among the last five builds and the five before them
+     */
+    public record Snapshot(long total, Outcomes recent, int recent5, int previous5,
+                           Outcomes hour, Outcomes committer, Outcomes branch) {
+    }
+
+    private static class PipelineFeatures {
+        private long total;
+        private final RecentOutcomes recent = new RecentOutcomes(RECENT_BUILDS);
+        private final int[] hourBuilds = new int[24];
+        private final int[] hourSuccesses = new int[24];
+        private final Map<String, RecentOutcomes> committers = boundedMap();
+        private final Map<String, RecentOutcomes> branches = boundedMap();
+
+        synchronized void record(Build build) {
+            boolean success = "success".equals(build.getStatus());
+
+            total++;
+            recent.add(success);
+
+            LocalDateTime timestamp = BuildTimes.effectiveTime(build);
+            if (timestamp != null) {
+                hourBuilds[timestamp.getHour()]++;
+                if (success) hourSuccesses[timestamp.getHour()]++;
+            }
+            if (build.getCommitter() != null) {
+                committers.computeIfAbsent(build.getCommitter(), key -> new RecentOutcomes(PER_KEY_BUILDS)).add(success);
+            }
+            if (build.getBranch() != null) {
+                branches.computeIfAbsent(build.getBranch(), key -> new RecentOutcomes(PER_KEY_BUILDS)).add(success);
+            }
+        }
+
+        synchronized void seedTotal(long count) {
+            total = Math.max(total, count);
+        }
+
+        synchronized Snapshot snapshot(String committer, String branch, int hour) {
+            return new Snapshot(
+                    total,
+                    outcomes(recent),
+                    recent.successes(0, 5),
+                    recent.successes(5, 5),
+                    new Outcomes(hourBuilds[hour], hourSuccesses[hour]),
+                    outcomes(committer != null ? committers.get(committer) : null),
+                    outcomes(branch != null ? branches.get(branch) : null));
+        }
+
+        synchronized List<Snapshot> snapshots(List<PredictionTarget> targets, int hour) {
+            List<Snapshot> snapshots = new ArrayList<>(targets.size());
+            for (PredictionTarget target : targets) {
+                snapshots.add(snapshot(target.getCommitter(), target.getBranch(), hour));
+            }
+            return snapshots;
+        }
+
+        private static Outcomes outcomes(RecentOutcomes ring) {
+            return ring == null ? new Outcomes(0, 0) : new Outcomes(ring.size(), ring.successes());
+        }
+
+        // least recently used committers / branches fall out first
+        private static Map<String, RecentOutcomes> boundedMap() {
+            return new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, RecentOutcomes> eldest) {
+                    return size() > MAX_KEYS;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,390 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.BuildModifiedEvent;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.BuildRollup;
+import com.yourname.streamci.streamci.model.MaintenanceMarker;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.repository.BuildRollupRepository;
+import com.yourname.streamci.streamci.repository.MaintenanceMarkerRepository;
+import com.yourname.streamci.streamci.util.DurationSketch;
+import com.yourname.streamci.streamci.util.Granularity;
+import lombok.AccessLevel;
+import lombok.Getter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.function.Consumer;
+
+/**
+ * hourly per-pipeline build rollups, kept current on ingest
+ *
+ * an insert folds the build into its hour's row (one read + one write), an update or
+ * delete recomputes the hour it falls in (and the hour it left, if its start moved) from
+ * the builds table. trend queries then read one row per pipeline-hour however many builds
+ * ran in it. rows are backfilled from the builds table once, on the first startup, and a
+ * maintenance marker records that it finished. builds that arrive before the backfill is
+ * done are not folded in, their hours are recomputed once it is
+ *
+ * every write runs in its own transaction and reads the hour's row FOR UPDATE, so a second
+ * build in the same hour waits for the first one's commit instead of reading the row
+ * before it. two writers inserting an hour's first row race on uk_build_rollups_bucket,
+ * the loser retries once against the row the winner committed
+ */
+@Service
+public class BuildRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BuildRollupService.class);
+
+    private static final LocalDateTime EPOCH = LocalDateTime.of(1970, 1, 1, 0, 0);
+    static final String BACKFILL_MARKER = "build_rollups_backfill";
+
+    private final BuildRollupRepository rollupRepository;
+    private final BuildRepository buildRepository;
+    private final MaintenanceMarkerRepository markerRepository;
+    private final TransactionTemplate writeTransaction;
+
+    // pipeline hours touched before the backfill finished, recomputed right after it
+    private final Object backfillLock = new Object();
+    private final Set<HourKey> deferred = new HashSet<>();
+    private volatile boolean backfilled;
+
+    public BuildRollupService(BuildRollupRepository rollupRepository,
+                              BuildRepository buildRepository,
+                              MaintenanceMarkerRepository markerRepository,
+                              PlatformTransactionManager transactionManager) {
+        this.rollupRepository = rollupRepository;
+        this.buildRepository = buildRepository;
+        this.markerRepository = markerRepository;
+        // listeners run after the ingest commit, so each write needs a transaction of its own
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.writeTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    private record HourKey(Integer pipelineId, LocalDateTime bucketStart) {
+    }
+
+    /**
+     * one hour (or day) of merged rollups, across pipelines when several are read
+     */
+    @Getter
+    public static class Bucket {
+        private final LocalDateTime start;
+        private int totalBuilds;
+        private int successCount;
+        private int failureCount;
+        private int durationCount;
+        @Getter(AccessLevel.NONE)
+        private long durationSum;
+        @Getter(AccessLevel.NONE)
+        private long durationMin = Long.MAX_VALUE;
+        @Getter(AccessLevel.NONE)
+        private long durationMax = Long.MIN_VALUE;
+        @Getter(AccessLevel.NONE)
+        private final DurationSketch sketch = new DurationSketch();
+        @Getter(AccessLevel.NONE)
+        private final Set<Integer> pipelines = new HashSet<>();
+
+        Bucket(LocalDateTime start) {
+            this.start = start;
+        }
+
+        void merge(BuildRollup rollup) {
+            merge(rollup, DurationSketch.fromBytes(rollup.getDurationSketch()));
+        }
+
+        void merge(BuildRollup rollup, DurationSketch rollupSketch) {
+            totalBuilds += rollup.getTotalBuilds();
+            successCount += rollup.getSuccessCount();
+            failureCount += rollup.getFailureCount();
+            if (rollup.getDurationCount() > 0) {
+                durationCount += rollup.getDurationCount();
+                durationSum += rollup.getDurationSum();
+                durationMin = Math.min(durationMin, rollup.getDurationMin());
+                durationMax = Math.max(durationMax, rollup.getDurationMax());
+                sketch.merge(rollupSketch);
+            }
+            pipelines.add(rollup.getPipelineId());
+        }
+
+        public int getPipelineCount() {
+            return pipelines.size();
+        }
+
+        public double getSuccessRate() {
+            return totalBuilds == 0 ? 0.0 : successCount * 100.0 / totalBuilds;
+        }
+
+        public double getAvgDuration() {
+            return durationCount == 0 ? 0.0 : (double) durationSum / durationCount;
+        }
+
+        public long getMinDuration() {
+            return durationCount == 0 ? 0 : durationMin;
+        }
+
+        public long getMaxDuration() {
+            return durationCount == 0 ? 0 : durationMax;
+        }
+
+        // approximate, from the merged duration sketches
+        public double durationQuantile(double q) {
+            return sketch.quantile(q);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildIngested(BuildIngestedEvent event) {
+        Build build = event.getBuild();
+        if (event.getPipelineId() == null || build.getStartTime() == null) return;
+
+        LocalDateTime bucketStart = build.getStartTime().truncatedTo(ChronoUnit.HOURS);
+        if (deferUntilBackfilled(event.getPipelineId(), bucketStart)) return;
+        try {
+            writeBucket(event.getPipelineId(), bucketStart, existing -> {
+                BuildRollup rollup = existing.orElseGet(() -> empty(event.getPipelineId(), bucketStart));
+                DurationSketch sketch = DurationSketch.fromBytes(rollup.getDurationSketch());
+                add(rollup, sketch, build.getStatus(), build.getDuration());
+                rollup.setDurationSketch(sketch.toBytes());
+                rollupRepository.saveAndFlush(rollup);
+            });
+        } catch (Exception e) {
+            logger.error("Rollup update failed for pipeline {} at {}: {}", event.getPipelineId(), bucketStart, e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildModified(BuildModifiedEvent event) {
+        if (event.getPipelineId() == null) return;
+
+        // the hour the build is in now and, when its start moved, the hour it left
+        Set<LocalDateTime> hours = new LinkedHashSet<>(2);
+        if (event.getBuild().getStartTime() != null) {
+            hours.add(event.getBuild().getStartTime().truncatedTo(ChronoUnit.HOURS));
+        }
+        if (event.getPreviousStartTime() != null) {
+            hours.add(event.getPreviousStartTime().truncatedTo(ChronoUnit.HOURS));
+        }
+        for (LocalDateTime bucketStart : hours) {
+            if (deferUntilBackfilled(event.getPipelineId(), bucketStart)) continue;
+            try {
+                recompute(event.getPipelineId(), bucketStart);
+            } catch (Exception e) {
+                logger.error("Rollup recompute failed for pipeline {} at {}: {}",
+                        event.getPipelineId(), bucketStart, e.getMessage());
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnce() {
+        if (!markerRepository.existsById(BACKFILL_MARKER)) {
+            backfill();
+            markerRepository.save(MaintenanceMarker.builder()
+                    .name(BACKFILL_MARKER)
+                    .completedAt(LocalDateTime.now())
+                    .build());
+        }
+
+        List<HourKey> touched;
+        synchronized (backfillLock) {
+            backfilled = true;
+            touched = new ArrayList<>(deferred);
+            deferred.clear();
+        }
+        touched.forEach(key -> recompute(key.pipelineId(), key.bucketStart()));
+    }
+
+    // true when the hour was queued for after the backfill instead of updated now
+    private boolean deferUntilBackfilled(Integer pipelineId, LocalDateTime bucketStart) {
+        if (backfilled) return false;
+        synchronized (backfillLock) {
+            if (backfilled) return false;
+            deferred.add(new HourKey(pipelineId, bucketStart));
+            return true;
+        }
+    }
+
+    // every hour rebuilt from the builds table, rows left by an interrupted run are overwritten
+    private void backfill() {
+        List<Object[]> rows = buildRepository.findReplayRowsSince(EPOCH);
+        if (rows.isEmpty()) return;
+
+        // pipeline -> hour -> rollup, built from a projection instead of entities
+        Map<Integer, Map<LocalDateTime, BuildRollup>> rollups = new HashMap<>();
+        Map<BuildRollup, DurationSketch> sketches = new IdentityHashMap<>();
+        for (Object[] row : rows) {
+            Integer pipelineId = (Integer) row[0];
+            LocalDateTime startTime = (LocalDateTime) row[1];
+            if (pipelineId == null || startTime == null) continue;
+
+            LocalDateTime bucketStart = startTime.truncatedTo(ChronoUnit.HOURS);
+            BuildRollup rollup = rollups.computeIfAbsent(pipelineId, id -> new HashMap<>())
+                    .computeIfAbsent(bucketStart, start -> empty(pipelineId, start));
+            add(rollup, sketches.computeIfAbsent(rollup, r -> new DurationSketch()), (String) row[3], (Long) row[4]);
+        }
+
+        Map<HourKey, Long> existingIds = new HashMap<>();
+        for (BuildRollup existing : rollupRepository.findAll()) {
+            existingIds.put(new HourKey(existing.getPipelineId(), existing.getBucketStart()), existing.getId());
+        }
+
+        List<BuildRollup> all = new ArrayList<>();
+        rollups.values().forEach(byHour -> all.addAll(byHour.values()));
+        for (BuildRollup rollup : all) {
+            rollup.setDurationSketch(sketches.get(rollup).toBytes());
+            rollup.setId(existingIds.get(new HourKey(rollup.getPipelineId(), rollup.getBucketStart())));
+        }
+        rollupRepository.saveAll(all);
+        logger.info("Backfilled {} build rollups from {} builds", all.size(), rows.size());
+    }
+
+    /**
+     * hourly buckets since the given time, one pipeline or all of them when pipelineId is null
+     */
+    public List<Bucket> hourly(Integer pipelineId, LocalDateTime since) {
+        return buckets(pipelineId, since, Granularity.HOURLY);
+    }
+
+    /**
+     * daily buckets since the given time, merged from the hourly rows
+     */
+    public List<Bucket> daily(Integer pipelineId, LocalDateTime since) {
+        return buckets(pipelineId, since, Granularity.DAILY);
+    }
+
+    /**
+     * buckets of any granularity, rows are hourly so minute buckets come back hourly
+     */
+    public List<Bucket> buckets(Integer pipelineId, LocalDateTime since, Granularity granularity) {
+        return merge(load(pipelineId, since), granularity);
+    }
+
+    /**
+     * hourly and daily buckets of each requested pipeline, from one rollup query
+     * pipelines without builds in the window have empty series
+     */
+    public Map<Integer, Series> byPipeline(Collection<Integer> pipelineIds, LocalDateTime since) {
+        Map<Integer, Map<LocalDateTime, Bucket>> hours = new HashMap<>();
+        Map<Integer, Map<LocalDateTime, Bucket>> days = new HashMap<>();
+        if (!pipelineIds.isEmpty()) {
+            List<BuildRollup> rollups = rollupRepository.findByPipelineIdInAndBucketStartGreaterThanEqualOrderByBucketStart(
+                    pipelineIds, since.truncatedTo(ChronoUnit.HOURS));
+            for (BuildRollup rollup : rollups) {
+                if (rollup.getTotalBuilds() == 0) continue;
+                DurationSketch sketch = DurationSketch.fromBytes(rollup.getDurationSketch());
+                hours.computeIfAbsent(rollup.getPipelineId(), id -> new TreeMap<>())
+                        .computeIfAbsent(rollup.getBucketStart(), Bucket::new).merge(rollup, sketch);
+                days.computeIfAbsent(rollup.getPipelineId(), id -> new TreeMap<>())
+                        .computeIfAbsent(rollup.getBucketStart().truncatedTo(ChronoUnit.DAYS), Bucket::new)
+                        .merge(rollup, sketch);
+            }
+        }
+
+        Map<Integer, Series> series = new LinkedHashMap<>();
+        for (Integer pipelineId : pipelineIds) {
+            series.put(pipelineId, new Series(
+                    new ArrayList<>(hours.getOrDefault(pipelineId, Map.of()).values()),
+                    new ArrayList<>(days.getOrDefault(pipelineId, Map.of()).values())));
+        }
+        return series;
+    }
+
+    public record Series(List<Bucket> hourly, List<Bucket> daily) {
+    }
+
+    private List<BuildRollup> load(Integer pipelineId, LocalDateTime since) {
+        LocalDateTime from = since.truncatedTo(ChronoUnit.HOURS);
+        return pipelineId != null
+                ? rollupRepository.findByPipelineIdAndBucketStartGreaterThanEqualOrderByBucketStart(pipelineId, from)
+                : rollupRepository.findByBucketStartGreaterThanEqualOrderByBucketStart(from);
+    }
+
+    private static List<Bucket> merge(List<BuildRollup> rollups, Granularity granularity) {
+        Map<LocalDateTime, Bucket> buckets = new TreeMap<>();
+        for (BuildRollup rollup : rollups) {
+            if (rollup.getTotalBuilds() == 0) continue;
+            LocalDateTime start = granularity.bucketStart(rollup.getBucketStart());
+            buckets.computeIfAbsent(start, Bucket::new).merge(rollup);
+        }
+        return new ArrayList<>(buckets.values());
+    }
+
+    private void recompute(Integer pipelineId, LocalDateTime bucketStart) {
+        writeBucket(pipelineId, bucketStart, existing -> {
+            List<Object[]> rows = buildRepository.findOutcomesStartedBetween(
+                    pipelineId, bucketStart, bucketStart.plusHours(1));
+            if (rows.isEmpty()) {
+                existing.ifPresent(rollupRepository::delete);
+                return;
+            }
+
+            BuildRollup rollup = existing.orElseGet(() -> empty(pipelineId, bucketStart));
+            reset(rollup);
+            DurationSketch sketch = new DurationSketch();
+            for (Object[] row : rows) {
+                add(rollup, sketch, (String) row[0], (Long) row[1]);
+            }
+            rollup.setDurationSketch(sketch.toBytes());
+            rollupRepository.saveAndFlush(rollup);
+        });
+    }
+
+    // one transaction around the locked read and the write, retried once if the hour's first insert lost a race
+    private void writeBucket(Integer pipelineId, LocalDateTime bucketStart, Consumer<Optional<BuildRollup>> write) {
+        try {
+            writeTransaction.executeWithoutResult(status -> write.accept(rollupRepository.findForUpdate(pipelineId, bucketStart)));
+        } catch (DataIntegrityViolationException e) {
+            writeTransaction.executeWithoutResult(status -> write.accept(rollupRepository.findForUpdate(pipelineId, bucketStart)));
+        }
+    }
+
+    private static BuildRollup empty(Integer pipelineId, LocalDateTime bucketStart) {
+        return BuildRollup.builder()
+                .pipelineId(pipelineId)
+                .bucketStart(bucketStart)
+                .totalBuilds(0)
+                .successCount(0)
+                .failureCount(0)
+                .durationCount(0)
+                .durationSum(0L)
+                .build();
+    }
+
+    private static void reset(BuildRollup rollup) {
+        rollup.setTotalBuilds(0);
+        rollup.setSuccessCount(0);
+        rollup.setFailureCount(0);
+        rollup.setDurationCount(0);
+        rollup.setDurationSum(0L);
+        rollup.setDurationMin(null);
+        rollup.setDurationMax(null);
+    }
+
+    private static void add(BuildRollup rollup, DurationSketch sketch, String status, Long duration) {
+        rollup.setTotalBuilds(rollup.getTotalBuilds() + 1);
+        if ("success".equals(status)) rollup.setSuccessCount(rollup.getSuccessCount() + 1);
+        if ("failure".equals(status)) rollup.setFailureCount(rollup.getFailureCount() + 1);
+
+        if (duration != null) {
+            boolean first = rollup.getDurationCount() == 0;
+            rollup.setDurationCount(rollup.getDurationCount() + 1);
+            rollup.setDurationSum(rollup.getDurationSum() + duration);
+            rollup.setDurationMin(first ? duration : Math.min(rollup.getDurationMin(), duration));
+            rollup.setDurationMax(first ? duration : Math.max(rollup.getDurationMax(), duration));
+            sketch.add(duration);
+        }
+    }
+}
@@ -4,6 +4,7 @@ import com.yourname.streamci.streamci.model.Build;
 import com.yourname.streamci.streamci.repository.BuildRepository;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,6 +23,11 @@ public class BuildService extends AbstractCrudService<Build, Long> {
         return buildRepository.findByPipelineId(pipelineId);
     }
 
+    // bounded by start time, newest first
+    public List<Build> getBuildsByPipelineIdSince(Integer pipelineId, LocalDateTime since) {
+        return buildRepository.findByPipelineIdAndStartTimeAfter(pipelineId, since);
+    }
+
     // update method with build-specific logic
     public Optional<Build> updateBuild(Long buildId, Build updates) {
         return update(buildId, existing -> {
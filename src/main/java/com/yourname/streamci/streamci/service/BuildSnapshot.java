@@ -0,0 +1,71 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.model.Build;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * one pipeline's builds in a window, reduced to the columns the pattern detectors read
+ * hour of day, failed flag and a dictionary-encoded committer per build, so the time
+ * and committer detectors are counting loops over arrays and share one load
+ * built from a start-time bounded query, so every build has a start time
+ */
+public final class BuildSnapshot {
+
+    final int size;
+    final byte[] hours; // hour of the build's start time
+    final boolean[] failed;
+    final int[] committers; // index into committerNames, -1 for missing / "unknown"
+    final List<String> committerNames;
+    final int failures;
+
+    private BuildSnapshot(int size, byte[] hours, boolean[] failed, int[] committers,
+                          List<String> committerNames, int failures) {
+        this.size = size;
+        this.hours = hours;
+        this.failed = failed;
+        this.committers = committers;
+        this.committerNames = committerNames;
+        this.failures = failures;
+    }
+
+    public static BuildSnapshot of(List<Build> builds) {
+        int size = builds.size();
+        byte[] hours = new byte[size];
+        boolean[] failed = new boolean[size];
+        int[] committers = new int[size];
+        List<String> committerNames = new ArrayList<>();
+        Map<String, Integer> committerIds = new HashMap<>();
+        int failures = 0;
+
+        for (int i = 0; i < size; i++) {
+            Build build = builds.get(i);
+            hours[i] = (byte) build.getStartTime().getHour();
+
+            failed[i] = "failure".equals(build.getStatus());
+            if (failed[i]) failures++;
+
+            String committer = build.getCommitter();
+            if (committer == null || committer.equals("unknown")) {
+                committers[i] = -1;
+            } else {
+                committers[i] = committerIds.computeIfAbsent(committer, key -> {
+                    committerNames.add(key);
+                    return committerNames.size() - 1;
+                });
+            }
+        }
+        return new BuildSnapshot(size, hours, failed, committers, committerNames, failures);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double failureRate() {
+        return size == 0 ? 0.0 : (double) failures / size;
+    }
+}
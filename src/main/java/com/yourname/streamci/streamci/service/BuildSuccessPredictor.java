@@ -1,5 +1,6 @@
 package com.yourname.streamci.streamci.service;
 
+import com.yourname.streamci.streamci.dto.request.PredictionTarget;
 import com.yourname.streamci.streamci.model.*;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
@@ -7,20 +8,26 @@ import org.slf4j.LoggerFactory;
 
 import java.time.LocalDateTime;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.BiConsumer;
 
+/**
+ * predicts the outcome of a pipeline's next build from its recent history
+ * all inputs come from BuildFeatureStore, so a prediction doesn't touch the database
+ */
 @Service
 public class BuildSuccessPredictor {
 
     private static final Logger logger = LoggerFactory.getLogger(BuildSuccessPredictor.class);
 
-    private final BuildService buildService;
-    private final PatternAnalysisService patternAnalysisService;
+    // below this many trained builds the learned model is reported but not blended in
+    private static final long MODEL_MIN_TRAINED = 50;
 
-    public BuildSuccessPredictor(BuildService buildService,
-                                 PatternAnalysisService patternAnalysisService) {
-        this.buildService = buildService;
-        this.patternAnalysisService = patternAnalysisService;
+    private final BuildFeatureStore featureStore;
+    private final OutcomeModelService outcomeModel;
+
+    public BuildSuccessPredictor(BuildFeatureStore featureStore, OutcomeModelService outcomeModel) {
+        this.featureStore = featureStore;
+        this.outcomeModel = outcomeModel;
     }
 
     public SuccessPrediction predictNextBuildSuccess(Integer pipelineId) {
@@ -28,35 +35,65 @@ public class BuildSuccessPredictor {
     }
 
     public SuccessPrediction predictNextBuildSuccess(Integer pipelineId, String committer, String branch) {
-        logger.info("predicting success for pipeline {}, committer: {}, branch: {}",
+        logger.debug("predicting success for pipeline {}, committer: {}, branch: {}",
                 pipelineId, committer, branch);
 
-        List<Build> builds = buildService.getBuildsByPipelineId(pipelineId);
+        LocalDateTime now = LocalDateTime.now();
+        BuildFeatureStore.Snapshot features = featureStore.snapshot(pipelineId, committer, branch, now.getHour());
+        return predict(pipelineId, committer, branch, features, now);
+    }
+
+    /**
+     * predictions for many (pipeline, committer, branch) targets. targets are grouped by
+     * pipeline so each pipeline's features are read once, results go to the sink with the
+     * target's index as soon as they're scored - grouped by pipeline, not in request order
+     */
+    public void predictBatch(List<PredictionTarget> targets, BiConsumer<Integer, SuccessPrediction> sink) {
+        Map<Integer, List<Integer>> byPipeline = new LinkedHashMap<>();
+        for (int i = 0; i < targets.size(); i++) {
+            byPipeline.computeIfAbsent(targets.get(i).getPipelineId(), pid -> new ArrayList<>()).add(i);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Integer, List<Integer>> entry : byPipeline.entrySet()) {
+            List<PredictionTarget> group = entry.getValue().stream().map(targets::get).toList();
+            List<BuildFeatureStore.Snapshot> snapshots = featureStore.snapshots(entry.getKey(), group, now.getHour());
+
+            for (int i = 0; i < group.size(); i++) {
+                PredictionTarget target = group.get(i);
+                sink.accept(entry.getValue().get(i), predict(entry.getKey(),
+                        target.getCommitter(), target.getBranch(), snapshots.get(i), now));
+            }
+        }
+    }
 
-        if (builds.size() < 5) {
+    private SuccessPrediction predict(Integer pipelineId, String committer, String branch,
+                                      BuildFeatureStore.Snapshot features, LocalDateTime now) {
+        // total counts all history, the recent ring is what the rates are read from
+        if (features.total() < 5 || features.recent().size() < 5) {
             return SuccessPrediction.builder()
                     .probability(50.0)
                     .confidence("low")
                     .reasoning("insufficient historical data")
-                    .factors(Map.of("data_points", (double) builds.size()))
+                    .factors(Map.of("data_points", (double) features.total()))
                     .build();
         }
 
         Map<String, Double> factors = new HashMap<>();
 
-        double baseSuccessRate = calculateBaseSuccessRate(builds);
+        double baseSuccessRate = features.recent().successRate();
         factors.put("base_success_rate", baseSuccessRate);
 
-        double timeFactor = calculateTimeFactor(builds);
+        double timeFactor = calculateTimeFactor(features.hour());
         factors.put("time_factor", timeFactor);
 
-        double committerFactor = calculateCommitterFactor(builds, committer);
+        double committerFactor = calculateCommitterFactor(features.committer(), committer);
         factors.put("committer_factor", committerFactor);
 
-        double trendFactor = calculateTrendFactor(builds);
+        double trendFactor = calculateTrendFactor(features);
         factors.put("trend_factor", trendFactor);
 
-        double branchFactor = calculateBranchFactor(builds, branch);
+        double branchFactor = calculateBranchFactor(features.branch(), branch);
         factors.put("branch_factor", branchFactor);
 
         double finalScore = (baseSuccessRate * 0.3) +
@@ -65,9 +102,17 @@ public class BuildSuccessPredictor {
                 (trendFactor * 0.15) +
                 (branchFactor * 0.1);
 
+        // once the online model has seen enough builds it gets half the say
+        OutcomeModelService.Score model = outcomeModel.score(pipelineId, committer, branch, now);
+        if (model.trainedBuilds() >= MODEL_MIN_TRAINED) {
+            double modelProbability = model.probability() * 100.0;
+            factors.put("model_probability", modelProbability);
+            finalScore = (finalScore + modelProbability) / 2.0;
+        }
+
         finalScore = Math.max(5.0, Math.min(95.0, finalScore));
 
-        String confidence = getConfidence(builds.size(), finalScore);
+        String confidence = getConfidence(features.total(), finalScore);
         String reasoning = buildReasoning(factors, finalScore);
 
         return SuccessPrediction.builder()
@@ -78,88 +123,43 @@ public class BuildSuccessPredictor {
                 .build();
     }
 
-    private double calculateBaseSuccessRate(List<Build> builds) {
-        List<Build> recent = builds.stream()
-                .limit(20)
-                .collect(Collectors.toList());
-
-        long successes = recent.stream()
-                .filter(b -> "success".equals(b.getStatus()))
-                .count();
-
-        return (double) successes / recent.size() * 100.0;
-    }
-
-    private double calculateTimeFactor(List<Build> builds) {
-        LocalDateTime now = LocalDateTime.now();
-        int currentHour = now.getHour();
-
-        List<Build> sameHourBuilds = builds.stream()
-                .filter(b -> getEffectiveTimestamp(b) != null)
-                .filter(b -> getEffectiveTimestamp(b).getHour() == currentHour)
-                .collect(Collectors.toList());
-
-        if (sameHourBuilds.size() < 3) {
+    // builds started in the current hour of day
+    private double calculateTimeFactor(BuildFeatureStore.Outcomes sameHour) {
+        if (sameHour.size() < 3) {
             return 70.0;
         }
-
-        long successes = sameHourBuilds.stream()
-                .filter(b -> "success".equals(b.getStatus()))
-                .count();
-
-        return (double) successes / sameHourBuilds.size() * 100.0;
+        return sameHour.successRate();
     }
 
-    private double calculateCommitterFactor(List<Build> builds, String committer) {
+    // committer's last 10 builds
+    private double calculateCommitterFactor(BuildFeatureStore.Outcomes committerBuilds, String committer) {
         if (committer == null || committer.equals("unknown")) {
             return 70.0;
         }
-
-        List<Build> committerBuilds = builds.stream()
-                .filter(b -> committer.equals(b.getCommitter()))
-                .limit(10)
-                .collect(Collectors.toList());
-
         if (committerBuilds.size() < 3) {
             return 70.0;
         }
-
-        long successes = committerBuilds.stream()
-                .filter(b -> "success".equals(b.getStatus()))
-                .count();
-
-        return (double) successes / committerBuilds.size() * 100.0;
+        return committerBuilds.successRate();
     }
 
-    private double calculateTrendFactor(List<Build> builds) {
-        if (builds.size() < 10) return 70.0;
-
-        List<Build> recent5 = builds.stream().limit(5).collect(Collectors.toList());
-        List<Build> previous5 = builds.stream().skip(5).limit(5).collect(Collectors.toList());
-
-        double recentSuccess = recent5.stream()
-                .filter(b -> "success".equals(b.getStatus()))
-                .count() / 5.0;
+    // last 5 builds against the 5 before them
+    private double calculateTrendFactor(BuildFeatureStore.Snapshot features) {
+        if (features.recent().size() < 10) return 70.0;
 
-        double previousSuccess = previous5.stream()
-                .filter(b -> "success".equals(b.getStatus()))
-                .count() / 5.0;
+        double recentSuccess = features.recent5() / 5.0;
+        double previousSuccess = features.previous5() / 5.0;
 
         double trend = (recentSuccess - previousSuccess) * 100.0;
 
         return Math.max(20.0, Math.min(100.0, 70.0 + trend));
     }
 
-    private double calculateBranchFactor(List<Build> builds, String branch) {
+    // branch's last 10 builds
+    private double calculateBranchFactor(BuildFeatureStore.Outcomes branchBuilds, String branch) {
         if (branch == null || branch.equals("unknown")) {
             return 70.0;
         }
 
-        List<Build> branchBuilds = builds.stream()
-                .filter(b -> branch.equals(b.getBranch()))
-                .limit(10)
-                .collect(Collectors.toList());
-
         if (branchBuilds.size() < 3) {
             if ("main".equals(branch) || "master".equals(branch)) {
                 return 80.0;
@@ -167,14 +167,10 @@ public class BuildSuccessPredictor {
             return 60.0;
         }
 
-        long successes = branchBuilds.stream()
-                .filter(b -> "success".equals(b.getStatus()))
-                .count();
-
-        return (double) successes / branchBuilds.size() * 100.0;
+        return branchBuilds.successRate();
     }
 
-    private String getConfidence(int dataPoints, double score) {
+    private String getConfidence(long dataPoints, double score) {
         if (dataPoints < 10) return "low";
         if (dataPoints < 25) return "medium";
         return "high";
@@ -211,20 +207,4 @@ public class BuildSuccessPredictor {
 
         return String.join(", ", reasons);
     }
-
-    private LocalDateTime getEffectiveTimestamp(Build build) {
-        if (build.getStartTime() != null) {
-            return build.getStartTime();
-        }
-        if (build.getEndTime() != null) {
-            return build.getEndTime();
-        }
-        if (build.getCreatedAt() != null) {
-            LocalDateTime now = LocalDateTime.now();
-            if (build.getCreatedAt().isBefore(now.minusMinutes(5))) {
-                return build.getCreatedAt();
-            }
-        }
-        return null;
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,244 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.ChangePoint;
+import com.yourname.streamci.streamci.model.Pipeline;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.repository.ChangePointRepository;
+import com.yourname.streamci.streamci.util.Cusum;
+import com.yourname.streamci.streamci.util.EwmaStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * streaming change-point detection on each pipeline's failure rate and build duration
+ *
+ * where AnomalyDetector flags single excursions, this looks for a sustained shift: a
+ * one-sided CUSUM per metric accumulates evidence build by build and fires once the
+ * series has clearly moved off its baseline. failures score the bernoulli log-likelihood
+ * ratio against a doubled (at least +10 points) rate, durations the standardized log
+ * duration of successful builds. baselines only learn while their CUSUM is at zero, so a
+ * regression can't absorb itself. state is a few doubles and commit hashes per pipeline,
+ * warmed once from recent history and then fed from the ingest path only
+ */
+@Service
+public class ChangePointDetector {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChangePointDetector.class);
+
+    static final String FAILURE_RATE = "failure_rate";
+    static final String DURATION = "duration";
+
+    private static final int WARM_UP_DAYS = 30;
+    private static final double BASELINE_ALPHA = 0.05;
+    private static final double DURATION_SLACK = 0.5; // detect shifts of ~1 sigma and up
+    private static final double DURATION_THRESHOLD = 5.0;
+    private static final double FAILURE_THRESHOLD = 5.0; // nats of evidence
+    private static final double MIN_LOG_STD_DEV = 0.05; // ~5% of the duration
+    private static final double MIN_FAILURE_RATE = 0.02;
+    private static final double MAX_FAILURE_RATE = 0.5;
+
+    private final AlertService alertService;
+    private final BuildRepository buildRepository;
+    private final ChangePointRepository changePointRepository;
+
+    @Value("${alerts.changepoint.enabled:true}")
+    private boolean enabled = true;
+
+    @Value("${alerts.changepoint.min-samples:10}")
+    private int minSamples = 10;
+
+    private final Map<Integer, PipelineSeries> pipelines = new ConcurrentHashMap<>();
+
+    public ChangePointDetector(AlertService alertService,
+                               BuildRepository buildRepository,
+                               ChangePointRepository changePointRepository) {
+        this.alertService = alertService;
+        this.buildRepository = buildRepository;
+        this.changePointRepository = changePointRepository;
+    }
+
+    // after commit the ingest transaction is finished, change points need their own to be written
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onBuildIngested(BuildIngestedEvent event) {
+        if (!enabled || event.getPipelineId() == null) return;
+
+        try {
+            observe(event.getBuild());
+        } catch (Exception e) {
+            logger.error("Change-point check failed for pipeline {}: {}", event.getPipelineId(), e.getMessage());
+        }
+    }
+
+    public void observe(Build build) {
+        Pipeline pipeline = build.getPipeline();
+        PipelineSeries series = pipelines.computeIfAbsent(pipeline.getId(),
+                id -> warm(id, build.getBuildId()));
+
+        List<ChangePoint> detected = new ArrayList<>(2);
+        synchronized (series) {
+            series.add(build, minSamples, detected);
+        }
+
+        for (ChangePoint changePoint : detected) {
+            changePoint.setPipelineId(pipeline.getId());
+            changePointRepository.save(changePoint);
+            alertService.raiseChangePointAlert(pipeline, changePoint);
+            logger.info("Change point in {} for pipeline {}: {} -> {} since {}",
+                    changePoint.getMetric(), pipeline.getId(), changePoint.getBaselineValue(),
+                    changePoint.getShiftedValue(), changePoint.getFirstBadCommit());
+        }
+    }
+
+    /**
+     * regressions detected in the last few days, newest first
+     */
+    public List<ChangePoint> recentChangePoints(Integer pipelineId, int days) {
+        return changePointRepository.findByPipelineIdAndDetectedAtAfterOrderByDetectedAtDesc(
+                pipelineId, LocalDateTime.now().minusDays(days));
+    }
+
+    // replay recent history to position the baselines, alarms found here were recorded live
+    private PipelineSeries warm(Integer pipelineId, Long excludeBuildId) {
+        PipelineSeries series = new PipelineSeries();
+        List<Build> history = buildRepository.findByPipelineIdAndStartTimeAfter(
+                pipelineId, LocalDateTime.now().minusDays(WARM_UP_DAYS));
+
+        // newest first from the repository, replay oldest first
+        for (int i = history.size() - 1; i >= 0; i--) {
+            Build build = history.get(i);
+            if (!Objects.equals(build.getBuildId(), excludeBuildId)) {
+                series.add(build, minSamples, null);
+            }
+        }
+        logger.debug("Warmed change-point series for pipeline {} from {} builds", pipelineId, history.size());
+        return series;
+    }
+
+    private static LocalDateTime timestampOf(Build build) {
+        if (build.getEndTime() != null) return build.getEndTime();
+        if (build.getStartTime() != null) return build.getStartTime();
+        return LocalDateTime.now();
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10.0) / 10.0;
+    }
+
+    private static class PipelineSeries {
+        private final MetricSeries failures = new MetricSeries(FAILURE_RATE, 0.0, FAILURE_THRESHOLD);
+        private final MetricSeries durations = new MetricSeries(DURATION, DURATION_SLACK, DURATION_THRESHOLD);
+
+        void add(Build build, int minSamples, List<ChangePoint> detected) {
+            String status = build.getStatus();
+            boolean success = "success".equals(status);
+            if (!success && !"failure".equals(status)) return;
+
+            ChangePoint failureChange = failures.add(success ? 0.0 : 1.0, build, minSamples);
+            if (failureChange != null && detected != null) detected.add(failureChange);
+
+            // failed builds stop early, only successful durations say how long the pipeline takes
+            if (success && build.getDuration() != null && build.getDuration() > 0) {
+                ChangePoint durationChange = durations.add(Math.log(build.getDuration()), build, minSamples);
+                if (durationChange != null && detected != null) detected.add(durationChange);
+            }
+        }
+    }
+
+    /**
+     * baseline + CUSUM for one metric, plus where the current run above zero began
+     */
+    private static class MetricSeries {
+        private final String metric;
+        private final Cusum cusum;
+        private EwmaStats baseline = new EwmaStats(BASELINE_ALPHA);
+
+        private String lastGoodCommit;
+        private String firstBadCommit;
+        private LocalDateTime changeStartedAt;
+        private double runTotal;
+
+        MetricSeries(String metric, double slack, double threshold) {
+            this.metric = metric;
+            this.cusum = new Cusum(slack, threshold);
+        }
+
+        ChangePoint add(double value, Build build, int minSamples) {
+            if (baseline.getCount() < minSamples) {
+                baseline.update(value);
+                lastGoodCommit = build.getCommitHash();
+                return null;
+            }
+
+            boolean alarm = cusum.add(score(value));
+            if (cusum.inControl()) {
+                baseline.update(value);
+                lastGoodCommit = build.getCommitHash();
+                firstBadCommit = null;
+                changeStartedAt = null;
+                runTotal = 0.0;
+                return null;
+            }
+
+            if (cusum.getRunLength() == 1) {
+                firstBadCommit = build.getCommitHash();
+                changeStartedAt = timestampOf(build);
+                runTotal = 0.0;
+            }
+            runTotal += value;
+            if (!alarm) return null;
+
+            ChangePoint changePoint = ChangePoint.builder()
+                    .metric(metric)
+                    .baselineValue(round(display(baseline.getMean())))
+                    .shiftedValue(round(display(runTotal / cusum.getRunLength())))
+                    .cusumScore(Math.round(cusum.getSum() * 100.0) / 100.0)
+                    .buildsSinceChange(cusum.getRunLength())
+                    .changeStartedAt(changeStartedAt)
+                    .detectedAt(timestampOf(build))
+                    .lastGoodCommit(lastGoodCommit)
+                    .firstBadCommit(firstBadCommit)
+                    .detectedCommit(build.getCommitHash())
+                    .build();
+
+            // the shifted level is the new normal, relearn it before looking for the next change
+            cusum.reset();
+            baseline = new EwmaStats(BASELINE_ALPHA);
+            lastGoodCommit = build.getCommitHash();
+            firstBadCommit = null;
+            changeStartedAt = null;
+            runTotal = 0.0;
+            return changePoint;
+        }
+
+        // evidence this sample adds towards an upward shift
+        private double score(double value) {
+            if (FAILURE_RATE.equals(metric)) {
+                // bernoulli log-likelihood ratio of the shifted rate p1 against the baseline p0
+                double p0 = Math.min(MAX_FAILURE_RATE, Math.max(MIN_FAILURE_RATE, baseline.getMean()));
+                double p1 = Math.min(0.95, Math.max(2 * p0, p0 + 0.1));
+                return value > 0.5 ? Math.log(p1 / p0) : Math.log((1 - p1) / (1 - p0));
+            }
+            return Math.min(4.0, baseline.zScore(value, MIN_LOG_STD_DEV));
+        }
+
+        // failure rate as a percentage, durations back from log seconds
+        private double display(double value) {
+            return FAILURE_RATE.equals(metric) ? value * 100.0 : Math.exp(value);
+        }
+    }
+}
@@ -0,0 +1,457 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.BuildModifiedEvent;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.util.BuildTimes;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * every build's scan columns held in memory, column by column, for analytical scans
+ *
+ * each pipeline is a list of fixed-size chunks with one primitive array per column:
+ * build id, effective timestamp (epoch seconds, utc), status byte, duration seconds and
+ * dictionary-encoded committer / branch ids - about 30 bytes a build instead of an entity
+ * with its pipeline join. loaded once at startup, appended on ingest, updated in place on
+ * modify and tombstoned on delete. scans see every row appended before they started
+ *
+ * a build without start/end only gets its createdAt as a time once that has settled, so
+ * those rows are remembered and timed by a sweep instead of staying untimed until modified
+ */
+@Component
+public class ColumnarBuildStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(ColumnarBuildStore.class);
+
+    static final int CHUNK_SIZE = 4096;
+    private static final int LOAD_PAGE_SIZE = 10_000;
+
+    public static final long NO_TIME = Long.MIN_VALUE;
+    public static final int NO_DURATION = -1;
+    public static final int NO_VALUE = -1; // committer / branch missing
+    private static final byte REMOVED = -1;
+    private static final String UNKNOWN_STATUS = "unknown"; // status id 0, also where statuses past the byte range go
+
+    private final BuildRepository buildRepository;
+    private final Map<Integer, Columns> pipelines = new ConcurrentHashMap<>();
+    private final Dictionary statuses = new Dictionary();
+    private final Dictionary committers = new Dictionary();
+    private final Dictionary branches = new Dictionary();
+
+    // changes that arrive while the startup load is running wait here, so loaded rows stay in id order
+    private final Object loadLock = new Object();
+    private final List<Runnable> pending = new ArrayList<>();
+    private volatile boolean loaded;
+
+    // build id -> row still waiting for its createdAt to settle
+    private final Map<Long, Unsettled> unsettled = new ConcurrentHashMap<>();
+
+    public ColumnarBuildStore(BuildRepository buildRepository) {
+        this.buildRepository = buildRepository;
+        statuses.id(UNKNOWN_STATUS, Byte.MAX_VALUE);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long started = System.currentTimeMillis();
+        int rows = 0;
+        long afterId = 0;
+        List<Object[]> page;
+        do {
+            page = buildRepository.findColumnRowsAfter(afterId, PageRequest.of(0, LOAD_PAGE_SIZE));
+            for (Object[] row : page) {
+                afterId = (Long) row[0];
+                if (row[1] == null) continue;
+                LocalDateTime time = BuildTimes.effectiveTime((LocalDateTime) row[2], (LocalDateTime) row[3], (LocalDateTime) row[4]);
+                upsert((Integer) row[1], afterId, time, (String) row[5], (Long) row[6], (String) row[7], (String) row[8]);
+                trackUnsettled((Integer) row[1], afterId, time, (LocalDateTime) row[4]);
+                rows++;
+            }
+        } while (page.size() == LOAD_PAGE_SIZE);
+
+        synchronized (loadLock) {
+            pending.forEach(Runnable::run);
+            pending.clear();
+            loaded = true;
+        }
+        logger.info("Loaded {} builds of {} pipelines into the columnar store in {}ms",
+                rows, pipelines.size(), System.currentTimeMillis() - started);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildIngested(BuildIngestedEvent event) {
+        if (event.getPipelineId() == null) return;
+        apply(() -> upsert(event.getPipelineId(), event.getBuild()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildModified(BuildModifiedEvent event) {
+        if (event.getPipelineId() == null) return;
+        Integer pipelineId = event.getPipelineId();
+        Build build = event.getBuild();
+        if (event.isRemoved()) {
+            apply(() -> {
+                Columns columns = pipelines.get(pipelineId);
+                if (columns != null) columns.remove(build.getBuildId());
+                if (build.getBuildId() != null) unsettled.remove(build.getBuildId());
+            });
+        } else {
+            apply(() -> upsert(pipelineId, build));
+        }
+    }
+
+    /**
+     * times the rows whose createdAt has settled since they were stored
+     */
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void settleCreatedTimes() {
+        settleCreatedTimes(LocalDateTime.now());
+    }
+
+    void settleCreatedTimes(LocalDateTime now) {
+        LocalDateTime settledBefore = now.minusMinutes(BuildTimes.CREATED_AT_SETTLE_MINUTES);
+        unsettled.forEach((buildId, row) -> {
+            if (!row.createdAt().isBefore(settledBefore)) return;
+            apply(() -> {
+                Columns columns = pipelines.get(row.pipelineId());
+                if (columns != null) columns.settle(buildId, epochSecond(row.createdAt()));
+            });
+            unsettled.remove(buildId, row);
+        });
+    }
+
+    /**
+     * every live build of one pipeline
+     */
+    public Scan scan(Integer pipelineId) {
+        Columns columns = pipelines.get(pipelineId);
+        return columns == null ? Scan.EMPTY : columns.scan();
+    }
+
+    public int statusId(String status) {
+        return status == null ? NO_VALUE : statuses.find(status.toLowerCase());
+    }
+
+    public int committerId(String committer) {
+        return committer == null ? NO_VALUE : committers.find(committer);
+    }
+
+    public int branchId(String branch) {
+        return branch == null ? NO_VALUE : branches.find(branch);
+    }
+
+    public String committerName(int id) {
+        return committers.name(id);
+    }
+
+    public String branchName(int id) {
+        return branches.name(id);
+    }
+
+    // group-by dictionaries only grow, so this bounds every id handed out so far
+    public int committerCount() {
+        return committers.size();
+    }
+
+    public int branchCount() {
+        return branches.size();
+    }
+
+    public static long epochSecond(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    public static LocalDateTime toLocalDateTime(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC);
+    }
+
+    public static int hourOf(long epochSecond) {
+        return (int) Math.floorMod(epochSecond, 86_400L) / 3600;
+    }
+
+    // 0 = monday, like DayOfWeek.getValue() - 1
+    public static int dayOfWeekOf(long epochSecond) {
+        return (int) Math.floorMod(Math.floorDiv(epochSecond, 86_400L) + 3, 7L);
+    }
+
+    private void apply(Runnable change) {
+        if (!loaded) {
+            synchronized (loadLock) {
+                if (!loaded) {
+                    pending.add(change);
+                    return;
+                }
+            }
+        }
+        change.run();
+    }
+
+    private void upsert(Integer pipelineId, Build build) {
+        LocalDateTime time = BuildTimes.effectiveTime(build);
+        upsert(pipelineId, build.getBuildId(), time,
+                build.getStatus(), build.getDuration(), build.getCommitter(), build.getBranch());
+        trackUnsettled(pipelineId, build.getBuildId(), time, build.getCreatedAt());
+    }
+
+    private void trackUnsettled(Integer pipelineId, Long buildId, LocalDateTime time, LocalDateTime createdAt) {
+        if (buildId == null) return;
+        if (time == null && createdAt != null) {
+            unsettled.put(buildId, new Unsettled(pipelineId, createdAt));
+        } else {
+            unsettled.remove(buildId);
+        }
+    }
+
+    private void upsert(Integer pipelineId, Long buildId, LocalDateTime time, String status,
+                        Long duration, String committer, String branch) {
+        int statusId = statuses.id(status == null ? UNKNOWN_STATUS : status.toLowerCase(), Byte.MAX_VALUE);
+        int durationSeconds = duration == null || duration < 0 ? NO_DURATION : (int) Math.min(duration, Integer.MAX_VALUE);
+        int committerId = committer == null || committer.equals("unknown") ? NO_VALUE : committers.id(committer, Integer.MAX_VALUE);
+        int branchId = branch == null ? NO_VALUE : branches.id(branch, Integer.MAX_VALUE);
+
+        pipelines.computeIfAbsent(pipelineId, id -> new Columns()).upsert(
+                buildId == null ? 0 : buildId, time == null ? NO_TIME : epochSecond(time),
+                (byte) Math.max(statusId, 0), durationSeconds, committerId, branchId);
+    }
+
+    /**
+     * one column batch, arrays are written before the row count that makes them visible
+     */
+    public static final class Chunk {
+        private final long[] buildIds = new long[CHUNK_SIZE];
+        private final long[] times = new long[CHUNK_SIZE];
+        private final byte[] statuses = new byte[CHUNK_SIZE];
+        private final int[] durations = new int[CHUNK_SIZE];
+        private final int[] committers = new int[CHUNK_SIZE];
+        private final int[] branches = new int[CHUNK_SIZE];
+
+        public long buildId(int row) {
+            return buildIds[row];
+        }
+
+        public long time(int row) {
+            return times[row];
+        }
+
+        public int status(int row) {
+            return statuses[row];
+        }
+
+        public int duration(int row) {
+            return durations[row];
+        }
+
+        public int committer(int row) {
+            return committers[row];
+        }
+
+        public int branch(int row) {
+            return branches[row];
+        }
+
+        private void set(int row, long buildId, long time, byte status, int duration, int committer, int branch) {
+            buildIds[row] = buildId;
+            times[row] = time;
+            statuses[row] = status;
+            durations[row] = duration;
+            committers[row] = committer;
+            branches[row] = branch;
+        }
+    }
+
+    @FunctionalInterface
+    public interface RowPredicate {
+        boolean test(Chunk chunk, int row);
+
+        default RowPredicate and(RowPredicate other) {
+            return (chunk, row) -> test(chunk, row) && other.test(chunk, row);
+        }
+    }
+
+    @FunctionalInterface
+    public interface RowKey {
+        int key(Chunk chunk, int row);
+    }
+
+    @FunctionalInterface
+    public interface RowConsumer {
+        void accept(Chunk chunk, int row);
+    }
+
+    /**
+     * a filtered view over the rows that existed when the scan was taken
+     * filters compose lazily, the terminal operations make one pass over the chunks
+     */
+    public static final class Scan {
+
+        static final Scan EMPTY = new Scan(new Chunk[0], 0, (chunk, row) -> false);
+
+        private final Chunk[] chunks;
+        private final int size;
+        private final RowPredicate filter;
+
+        private Scan(Chunk[] chunks, int size, RowPredicate filter) {
+            this.chunks = chunks;
+            this.size = size;
+            this.filter = filter;
+        }
+
+        public Scan filter(RowPredicate predicate) {
+            return new Scan(chunks, size, filter.and(predicate));
+        }
+
+        public Scan withStatus(int statusId) {
+            return filter((chunk, row) -> chunk.status(row) == statusId);
+        }
+
+        public Scan timed() {
+            return filter((chunk, row) -> chunk.time(row) != NO_TIME);
+        }
+
+        public Scan after(LocalDateTime time) {
+            long epoch = epochSecond(time);
+            return filter((chunk, row) -> chunk.time(row) != NO_TIME && chunk.time(row) > epoch);
+        }
+
+        public void forEach(RowConsumer consumer) {
+            for (int c = 0, remaining = size; remaining > 0; c++, remaining -= CHUNK_SIZE) {
+                Chunk chunk = chunks[c];
+                int rows = Math.min(remaining, CHUNK_SIZE);
+                for (int row = 0; row < rows; row++) {
+                    if (filter.test(chunk, row)) consumer.accept(chunk, row);
+                }
+            }
+        }
+
+        public int count() {
+            int[] count = new int[1];
+            forEach((chunk, row) -> count[0]++);
+            return count[0];
+        }
+
+        /**
+         * count per group, keys outside [0, groups) are skipped
+         */
+        public int[] countBy(RowKey key, int groups) {
+            int[] counts = new int[groups];
+            forEach((chunk, row) -> {
+                int group = key.key(chunk, row);
+                if (group >= 0 && group < groups) counts[group]++;
+            });
+            return counts;
+        }
+
+        // rows without a duration are left out
+        public LongSummaryStatistics durations() {
+            LongSummaryStatistics stats = new LongSummaryStatistics();
+            forEach((chunk, row) -> {
+                if (chunk.duration(row) != NO_DURATION) stats.accept(chunk.duration(row));
+            });
+            return stats;
+        }
+
+        public long latestTime() {
+            long[] latest = {NO_TIME};
+            forEach((chunk, row) -> latest[0] = Math.max(latest[0], chunk.time(row)));
+            return latest[0];
+        }
+    }
+
+    /**
+     * one pipeline's chunks, writers are serialized, readers only need the volatile fields
+     */
+    private static final class Columns {
+        private volatile Chunk[] chunks = new Chunk[0];
+        private volatile int size;
+        private long maxBuildId;
+
+        synchronized void upsert(long buildId, long time, byte status, int duration, int committer, int branch) {
+            // ids are handed out in order, so anything newer than the last one can't be here yet
+            int row = buildId > maxBuildId ? -1 : find(buildId);
+            if (row < 0) {
+                row = size;
+                if (row / CHUNK_SIZE == chunks.length) {
+                    Chunk[] grown = Arrays.copyOf(chunks, chunks.length + 1);
+                    grown[chunks.length] = new Chunk();
+                    chunks = grown;
+                }
+            }
+            chunks[row / CHUNK_SIZE].set(row % CHUNK_SIZE, buildId, time, status, duration, committer, branch);
+            if (row == size) size = row + 1;
+            maxBuildId = Math.max(maxBuildId, buildId);
+        }
+
+        // only fills a missing time, a start/end that arrived meanwhile wins
+        synchronized void settle(long buildId, long time) {
+            int row = find(buildId);
+            if (row >= 0 && chunks[row / CHUNK_SIZE].times[row % CHUNK_SIZE] == NO_TIME) {
+                chunks[row / CHUNK_SIZE].times[row % CHUNK_SIZE] = time;
+            }
+        }
+
+        // deleted rows stay as tombstones, deletes are rare enough not to compact
+        synchronized void remove(Long buildId) {
+            if (buildId == null) return;
+            int row = find(buildId);
+            if (row >= 0) chunks[row / CHUNK_SIZE].statuses[row % CHUNK_SIZE] = REMOVED;
+        }
+
+        // newest rows are the likeliest to change, search from the end
+        private int find(long buildId) {
+            for (int row = size - 1; row >= 0; row--) {
+                if (chunks[row / CHUNK_SIZE].buildIds[row % CHUNK_SIZE] == buildId) return row;
+            }
+            return -1;
+        }
+
+        Scan scan() {
+            int rows = size;
+            return new Scan(chunks, rows, (chunk, row) -> chunk.status(row) != REMOVED);
+        }
+    }
+
+    private record Unsettled(Integer pipelineId, LocalDateTime createdAt) {
+    }
+
+    /**
+     * string <-> dense id, ids are never reused so group-by arrays can be sized by size()
+     */
+    private static final class Dictionary {
+        private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+        private final List<String> names = Collections.synchronizedList(new ArrayList<>());
+
+        synchronized int id(String value, int maxId) {
+            Integer id = ids.get(value);
+            if (id != null) return id;
+            if (names.size() > maxId) return NO_VALUE;
+            names.add(value);
+            ids.put(value, names.size() - 1);
+            return names.size() - 1;
+        }
+
+        int find(String value) {
+            return ids.getOrDefault(value, NO_VALUE);
+        }
+
+        String name(int id) {
+            return id >= 0 && id < names.size() ? names.get(id) : null;
+        }
+
+        int size() {
+            return names.size();
+        }
+    }
+}
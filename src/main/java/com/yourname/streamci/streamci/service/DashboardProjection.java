@@ -0,0 +1,356 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.AlertChangedEvent;
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.BuildModifiedEvent;
+import com.yourname.streamci.streamci.event.PipelineDataChangedEvent;
+import com.yourname.streamci.streamci.model.*;
+import com.yourname.streamci.streamci.repository.*;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * in-memory projection of the dashboard summary
+ *
+ * keeps the latest metrics and queue snapshot, queued / running trackers per pipeline
+ * plus a 24 hour window of build and alert activity, all applied from committed
+ * entity events. active alerts and their counts are read from the ActiveAlertIndex. the summary is rebuilt into an immutable map on the
+ * first read after a change, so reading it never touches the database
+ *
+ * reloaded from the database at startup and every 10 minutes as a safety net for
+ * writes that bypass jpa, the activity window rolls forward once a minute
+ */
+@Component
+public class DashboardProjection {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardProjection.class);
+    private static final long WINDOW_HOURS = 24;
+
+    private final DashboardService dashboardService;
+    private final PipelineRepository pipelineRepository;
+    private final LatestMetricsRepository latestMetricsRepository;
+    private final QueueMetricsRepository queueMetricsRepository;
+    private final QueueTrackerRepository queueTrackerRepository;
+    private final AlertRepository alertRepository;
+    private final BuildRepository buildRepository;
+    private final ActiveAlertIndex activeAlertIndex;
+
+    // guarded by this
+    private final Map<Integer, PipelineView> pipelines = new TreeMap<>();
+    private final Map<Long, Tracked> activeTrackers = new HashMap<>();
+    private final Window recentBuilds = new Window();
+    private final Window recentAlerts = new Window();
+
+    private volatile Map<String, Object> snapshot = Map.of();
+    private volatile boolean dirty = true;
+
+    public DashboardProjection(DashboardService dashboardService,
+                               PipelineRepository pipelineRepository,
+                               LatestMetricsRepository latestMetricsRepository,
+                               QueueMetricsRepository queueMetricsRepository,
+                               QueueTrackerRepository queueTrackerRepository,
+                               AlertRepository alertRepository,
+                               BuildRepository buildRepository,
+                               ActiveAlertIndex activeAlertIndex) {
+        this.dashboardService = dashboardService;
+        this.pipelineRepository = pipelineRepository;
+        this.latestMetricsRepository = latestMetricsRepository;
+        this.queueMetricsRepository = queueMetricsRepository;
+        this.queueTrackerRepository = queueTrackerRepository;
+        this.alertRepository = alertRepository;
+        this.buildRepository = buildRepository;
+        this.activeAlertIndex = activeAlertIndex;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(fixedDelay = 600000, initialDelay = 600000)
+    public void reconcile() {
+        rebuild();
+    }
+
+    // builds and alerts age out of the 24 hour window without any write
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void roll() {
+        dirty = true;
+    }
+
+    public synchronized void rebuild() {
+        pipelines.clear();
+        activeTrackers.clear();
+        recentBuilds.clear();
+        recentAlerts.clear();
+
+        for (Pipeline pipeline : pipelineRepository.findAll()) {
+            PipelineView view = view(pipeline);
+            view.queue = queueMetricsRepository.findTopByPipelineIdOrderByTimestampDesc(pipeline.getId()).orElse(null);
+        }
+        for (PipelineMetrics metrics : latestMetricsRepository.findLatestForAll()) {
+            PipelineView view = viewOf(metrics.getPipeline());
+            if (view != null) view.metrics = metrics;
+        }
+        for (String status : List.of("queued", "running")) {
+            queueTrackerRepository.findByStatus(status).forEach(this::applyTracker);
+        }
+
+        LocalDateTime since = LocalDateTime.now().minusHours(WINDOW_HOURS);
+        for (Object[] row : buildRepository.findActivityRowsSince(since)) {
+            recentBuilds.put((Long) row[0], (LocalDateTime) row[1], (String) row[2]);
+        }
+        for (Object[] row : alertRepository.findCreatedSince(since)) {
+            recentAlerts.put((Long) row[0], (LocalDateTime) row[1], null);
+        }
+
+        dirty = true;
+        logger.info("Dashboard projection rebuilt: {} pipelines, {} active builds, {} alerts in the last {}h",
+                pipelines.size(), activeTrackers.size(), recentAlerts.size(), WINDOW_HOURS);
+    }
+
+    /**
+     * the current summary, without the live event counters the controller adds
+     */
+    public Map<String, Object> snapshot() {
+        if (dirty) {
+            synchronized (this) {
+                if (dirty) {
+                    dirty = false;
+                    snapshot = Collections.unmodifiableMap(summarize());
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onPipelineDataChanged(PipelineDataChangedEvent event) {
+        Object entity = event.getEntity();
+        if (entity instanceof Pipeline pipeline) {
+            if (event.isRemoved()) {
+                pipelines.remove(pipeline.getId());
+                activeTrackers.values().removeIf(tracked -> tracked.pipelineId() == pipeline.getId());
+            } else {
+                view(pipeline);
+            }
+        } else if (entity instanceof PipelineMetrics metrics) {
+            applyMetrics(metrics, event.isRemoved());
+        } else if (entity instanceof QueueMetrics queue) {
+            applyQueue(queue, event.isRemoved());
+        } else if (entity instanceof QueueTracker tracker) {
+            if (event.isRemoved()) {
+                activeTrackers.remove(tracker.getId());
+            } else {
+                applyTracker(tracker);
+            }
+        }
+        dirty = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBuildIngested(BuildIngestedEvent event) {
+        Build build = event.getBuild();
+        recentBuilds.put(build.getBuildId(), build.getStartTime(), build.getStatus());
+        dirty = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onBuildModified(BuildModifiedEvent event) {
+        Build build = event.getBuild();
+        if (event.isRemoved()) {
+            recentBuilds.remove(build.getBuildId());
+        } else {
+            recentBuilds.put(build.getBuildId(), build.getStartTime(), build.getStatus());
+        }
+        dirty = true;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onAlertChanged(AlertChangedEvent event) {
+        Alert alert = event.getAlert();
+        if (alert.getId() == null) return;
+
+        // active alerts themselves live in the index, this only keeps the 24 hour window
+        if (event.isRemoved()) {
+            recentAlerts.remove(alert.getId());
+        } else {
+            recentAlerts.put(alert.getId(), alert.getCreatedAt(), null);
+        }
+        dirty = true;
+    }
+
+    private Map<String, Object> summarize() {
+        LocalDateTime since = LocalDateTime.now().minusHours(WINDOW_HOURS);
+        recentBuilds.expireBefore(since);
+        recentAlerts.expireBefore(since);
+
+        Map<Integer, int[]> queueCounts = new HashMap<>();
+        int totalQueued = 0;
+        int totalRunning = 0;
+        for (Tracked tracked : activeTrackers.values()) {
+            if (!pipelines.containsKey(tracked.pipelineId())) continue;
+            boolean running = "running".equals(tracked.status());
+            queueCounts.computeIfAbsent(tracked.pipelineId(), id -> new int[2])[running ? 1 : 0]++;
+            if (running) totalRunning++; else totalQueued++;
+        }
+
+        List<PipelineMetrics> latest = new ArrayList<>();
+        List<Map<String, Object>> pipelineSummaries = new ArrayList<>();
+        for (PipelineView view : pipelines.values()) {
+            if (view.metrics != null) latest.add(view.metrics);
+            pipelineSummaries.add(dashboardService.pipelineSummary(view.pipeline, view.metrics,
+                    view.queue != null ? view.queue.getCurrentQueueDepth() : null,
+                    activeAlertIndex.countForPipeline(view.pipeline.getId())));
+        }
+
+        Map<String, Object> activity = new HashMap<>();
+        activity.put("builds_last_24h", recentBuilds.size());
+        activity.put("successful_builds_last_24h", (long) recentBuilds.count("success"));
+        activity.put("failed_builds_last_24h", (long) recentBuilds.count("failure"));
+        activity.put("alerts_last_24h", (long) recentAlerts.size());
+
+        Map<String, Object> summary = new HashMap<>();
+        summary.put("total_pipelines", pipelines.size());
+        summary.put("overview", dashboardService.aggregateMetrics(latest));
+        summary.put("recent_activity", activity);
+        summary.put("active_alerts", dashboardService.formatAlerts(activeAlertIndex.newestActive(10)));
+        summary.put("queue_status", dashboardService.queueOverview(totalQueued, totalRunning));
+        summary.put("pipelines", pipelineSummaries);
+        summary.put("as_of", LocalDateTime.now());
+        return summary;
+    }
+
+    // a detached copy so the projection never holds lazy collections
+    private PipelineView view(Pipeline pipeline) {
+        PipelineView view = pipelines.computeIfAbsent(pipeline.getId(), id -> new PipelineView());
+        view.pipeline = Pipeline.builder()
+                .id(pipeline.getId())
+                .name(pipeline.getName())
+                .status(pipeline.getStatus())
+                .build();
+        return view;
+    }
+
+    private void applyMetrics(PipelineMetrics metrics, boolean removed) {
+        PipelineView view = viewOf(metrics.getPipeline());
+        if (view == null) return;
+
+        if (removed) {
+            if (view.metrics != null && Objects.equals(view.metrics.getId(), metrics.getId())) {
+                view.metrics = latestMetricsRepository.findLatestFor(List.of(view.pipeline.getId())).stream()
+                        .findFirst().orElse(null);
+            }
+        } else if (view.metrics == null || Objects.equals(view.metrics.getId(), metrics.getId())
+                || !isBefore(metrics.getCalculatedAt(), view.metrics.getCalculatedAt())) {
+            view.metrics = metrics;
+        }
+    }
+
+    private void applyQueue(QueueMetrics queue, boolean removed) {
+        PipelineView view = viewOf(queue.getPipeline());
+        if (view == null) return;
+
+        if (removed) {
+            if (view.queue != null && Objects.equals(view.queue.getId(), queue.getId())) {
+                view.queue = queueMetricsRepository.findTopByPipelineIdOrderByTimestampDesc(view.pipeline.getId())
+                        .orElse(null);
+            }
+        } else if (view.queue == null || Objects.equals(view.queue.getId(), queue.getId())
+                || !isBefore(queue.getTimestamp(), view.queue.getTimestamp())) {
+            view.queue = queue;
+        }
+    }
+
+    // only queued and running trackers count towards the queue
+    private void applyTracker(QueueTracker tracker) {
+        if (tracker.getPipeline() != null
+                && ("queued".equals(tracker.getStatus()) || "running".equals(tracker.getStatus()))) {
+            activeTrackers.put(tracker.getId(), new Tracked(tracker.getPipeline().getId(), tracker.getStatus()));
+        } else {
+            activeTrackers.remove(tracker.getId());
+        }
+    }
+
+    // a snapshot without a time never hides one that has
+    private static boolean isBefore(LocalDateTime time, LocalDateTime other) {
+        return time != null && other != null && time.isBefore(other);
+    }
+
+    private PipelineView viewOf(Pipeline pipeline) {
+        return pipeline != null ? pipelines.get(pipeline.getId()) : null;
+    }
+
+    private static final class PipelineView {
+        private Pipeline pipeline;
+        private PipelineMetrics metrics;
+        private QueueMetrics queue;
+    }
+
+    private record Tracked(int pipelineId, String status) {
+    }
+
+    /**
+     * rows keyed by id, ordered by time so expiring the window only touches what falls out,
+     * with running counts per category
+     */
+    private static final class Window {
+        private final Map<Long, Counted> rows = new HashMap<>();
+        private final TreeMap<LocalDateTime, Set<Long>> byTime = new TreeMap<>();
+        private final Map<String, Integer> counts = new HashMap<>();
+
+        private record Counted(LocalDateTime time, String category) {
+        }
+
+        void put(Long id, LocalDateTime time, String category) {
+            if (id == null) return;
+            remove(id);
+            if (time == null) return;
+
+            Counted counted = new Counted(time, String.valueOf(category));
+            rows.put(id, counted);
+            byTime.computeIfAbsent(time, t -> new HashSet<>()).add(id);
+            counts.merge(counted.category(), 1, Integer::sum);
+        }
+
+        void remove(Long id) {
+            Counted counted = rows.remove(id);
+            if (counted == null) return;
+
+            Set<Long> ids = byTime.get(counted.time());
+            ids.remove(id);
+            if (ids.isEmpty()) byTime.remove(counted.time());
+            counts.merge(counted.category(), -1, Integer::sum);
+        }
+
+        void expireBefore(LocalDateTime cutoff) {
+            while (!byTime.isEmpty() && byTime.firstKey().isBefore(cutoff)) {
+                for (Long id : byTime.pollFirstEntry().getValue()) {
+                    counts.merge(rows.remove(id).category(), -1, Integer::sum);
+                }
+            }
+        }
+
+        int size() {
+            return rows.size();
+        }
+
+        int count(String category) {
+            return counts.getOrDefault(category, 0);
+        }
+
+        void clear() {
+            rows.clear();
+            byTime.clear();
+            counts.clear();
+        }
+    }
+}
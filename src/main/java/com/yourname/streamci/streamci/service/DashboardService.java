@@ -48,6 +48,15 @@ public class DashboardService {
     }
 
     public Map<String, Object> calculateAggregatedMetrics(List<Pipeline> pipelines) {
+        List<PipelineMetrics> latest = new ArrayList<>();
+        for (Pipeline pipeline : pipelines) {
+            metricsService.getLatestMetrics(pipeline.getId()).ifPresent(latest::add);
+        }
+        return aggregateMetrics(latest);
+    }
+
+    // one latest snapshot per pipeline that has any
+    public Map<String, Object> aggregateMetrics(Collection<PipelineMetrics> latest) {
         Map<String, Object> metrics = new HashMap<>();
 
         double totalSuccessRate = 0;
@@ -56,16 +65,12 @@ public class DashboardService {
         long totalFailedBuilds = 0;
         int pipelinesWithData = 0;
 
-        for (Pipeline pipeline : pipelines) {
-            Optional<PipelineMetrics> latest = metricsService.getLatestMetrics(pipeline.getId());
-            if (latest.isPresent()) {
-                PipelineMetrics pm = latest.get();
-                totalSuccessRate += pm.getSuccessRate();
-                totalBuilds += pm.getTotalBuilds();
-                totalSuccessfulBuilds += pm.getSuccessfulBuilds();
-                totalFailedBuilds += pm.getFailedBuilds();
-                pipelinesWithData++;
-            }
+        for (PipelineMetrics pm : latest) {
+            totalSuccessRate += pm.getSuccessRate();
+            totalBuilds += pm.getTotalBuilds();
+            totalSuccessfulBuilds += pm.getSuccessfulBuilds();
+            totalFailedBuilds += pm.getFailedBuilds();
+            pipelinesWithData++;
         }
 
         metrics.put("average_success_rate", pipelinesWithData > 0 ?
@@ -115,8 +120,6 @@ public class DashboardService {
     }
 
     public Map<String, Object> getQueueOverview(List<Pipeline> pipelines) {
-        Map<String, Object> queueOverview = new HashMap<>();
-
         int totalQueued = 0;
         int totalRunning = 0;
 
@@ -130,40 +133,52 @@ public class DashboardService {
             totalRunning += running.size();
         }
 
+        return queueOverview(totalQueued, totalRunning);
+    }
+
+    public Map<String, Object> queueOverview(int totalQueued, int totalRunning) {
+        Map<String, Object> queueOverview = new HashMap<>();
         queueOverview.put("total_queued", totalQueued);
         queueOverview.put("total_running", totalRunning);
         queueOverview.put("is_busy", totalQueued > 5 || totalRunning > 3);
-
         return queueOverview;
     }
 
     public Map<String, Object> createPipelineSummary(Pipeline pipeline) {
+        // get latest metrics
+        Optional<PipelineMetrics> metrics = metricsService.getLatestMetrics(pipeline.getId());
+
+        // get current queue status
+        Map<String, Object> queueStatus = queueService.getQueueStatus(pipeline.getId());
+
+        // get active alerts count
+        List<Alert> pipelineAlerts = alertService.getAlertsForPipeline(pipeline.getId());
+
+        return pipelineSummary(pipeline, metrics.orElse(null),
+                (Integer) queueStatus.get("current_depth"), pipelineAlerts.size());
+    }
+
+    // metrics and queue depth are null when the pipeline has none yet
+    public Map<String, Object> pipelineSummary(Pipeline pipeline, PipelineMetrics metrics,
+                                               Integer queueDepth, int activeAlerts) {
         Map<String, Object> summary = new HashMap<>();
         summary.put("id", pipeline.getId());
         summary.put("name", pipeline.getName());
         summary.put("status", pipeline.getStatus());
 
-        // get latest metrics
-        Optional<PipelineMetrics> metrics = metricsService.getLatestMetrics(pipeline.getId());
-        if (metrics.isPresent()) {
-            PipelineMetrics pm = metrics.get();
-            summary.put("success_rate", pm.getSuccessRate());
-            summary.put("total_builds", pm.getTotalBuilds());
-            summary.put("avg_duration_seconds", pm.getAvgDurationSeconds());
-            summary.put("last_calculated", pm.getCalculatedAt());
+        if (metrics != null) {
+            summary.put("success_rate", metrics.getSuccessRate());
+            summary.put("total_builds", metrics.getTotalBuilds());
+            summary.put("avg_duration_seconds", metrics.getAvgDurationSeconds());
+            summary.put("last_calculated", metrics.getCalculatedAt());
         } else {
             summary.put("success_rate", 0);
             summary.put("total_builds", 0);
             summary.put("avg_duration_seconds", 0);
         }
 
-        // get current queue status
-        Map<String, Object> queueStatus = queueService.getQueueStatus(pipeline.getId());
-        summary.put("queue_depth", queueStatus.get("current_depth"));
-
-        // get active alerts count
-        List<Alert> pipelineAlerts = alertService.getAlertsForPipeline(pipeline.getId());
-        summary.put("active_alerts", pipelineAlerts.size());
+        summary.put("queue_depth", queueDepth);
+        summary.put("active_alerts", activeAlerts);
 
         return summary;
     }
@@ -132,6 +132,15 @@ public class DashboardWebSocketService {
     }
 
 
+    // listen for slo evaluations (error budget / burn rate after each build)
+
+    @EventListener
+    public void handleSloEvaluated(SloEvaluatedEvent event) {
+        broadcastDashboardUpdate("slo_updated", event.getStatus());
+        broadcastPipelineUpdate(event.getPipelineId(), "slo_updated", event.getStatus());
+    }
+
+
     //  Manual method to trigger dashboard refresh
 
     public void triggerDashboardRefresh() {
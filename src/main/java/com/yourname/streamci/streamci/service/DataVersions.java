@@ -0,0 +1,77 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.AlertChangedEvent;
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.BuildModifiedEvent;
+import com.yourname.streamci.streamci.event.PipelineDataChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * monotonic data version counters, one per pipeline plus a global one
+ *
+ * every committed change to a pipeline's builds, metrics, queue rows or alerts bumps
+ * that pipeline's counter and the global one, so a cached response tagged with the
+ * version it was computed at is current exactly while the version hasn't moved
+ */
+@Component
+public class DataVersions {
+
+    private final AtomicLong global = new AtomicLong();
+    private final Map<Integer, AtomicLong> pipelines = new ConcurrentHashMap<>();
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildIngested(BuildIngestedEvent event) {
+        bump(event.getPipelineId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildModified(BuildModifiedEvent event) {
+        bump(event.getPipelineId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPipelineDataChanged(PipelineDataChangedEvent event) {
+        bump(event.getPipelineId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onAlertChanged(AlertChangedEvent event) {
+        bump(event.getAlert().getPipeline() != null ? event.getAlert().getPipeline().getId() : null);
+    }
+
+    /**
+     * changes without a pipeline only move the global version
+     */
+    public void bump(Integer pipelineId) {
+        if (pipelineId != null) {
+            pipelines.computeIfAbsent(pipelineId, id -> new AtomicLong()).incrementAndGet();
+        }
+        global.incrementAndGet();
+    }
+
+    public long global() {
+        return global.get();
+    }
+
+    // the global version when no pipeline is given
+    public long of(Integer pipelineId) {
+        if (pipelineId == null) return global();
+        AtomicLong version = pipelines.get(pipelineId);
+        return version == null ? 0 : version.get();
+    }
+
+    // counters only grow, so the sum moves whenever any of them does
+    public long of(Collection<Integer> pipelineIds) {
+        long sum = 0;
+        for (Integer pipelineId : pipelineIds) {
+            sum += of(pipelineId);
+        }
+        return sum;
+    }
+}
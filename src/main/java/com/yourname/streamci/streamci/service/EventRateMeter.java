@@ -0,0 +1,188 @@
+package com.yourname.streamci.streamci.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * sliding-window rate of ingested webhook events, overall, per event type and per repository
+ *
+ * every series is a 15 minute ring of per-second slots, split into stripes picked by thread
+ * so concurrent writers rarely share a slot. a slot packs its epoch second and count into one
+ * long, so moving to a new second and counting are a single CAS and nothing is allocated once
+ * a series and its stripe exist. rates are read over the last 1, 5 and 15 minutes
+ */
+@Component
+public class EventRateMeter {
+
+    static final int WINDOW_SECONDS = 900;
+    private static final int[] RATE_MINUTES = {1, 5, 15};
+    private static final int COUNT_BITS = 31;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+    // repositories come from payloads, past this many the rest share one series
+    private static final int MAX_KEYS = 500;
+    private static final String OTHER = "other";
+    private static final String UNKNOWN = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final int stripes;
+    private final LongSupplier clock; // epoch millis
+    private final long startedAt;
+
+    private final Series total;
+    private final Map<String, Series> byType = new ConcurrentHashMap<>();
+    private final Map<String, Series> byRepository = new ConcurrentHashMap<>();
+
+    @Autowired
+    public EventRateMeter(MeterRegistry meterRegistry) {
+        this(meterRegistry, System::currentTimeMillis);
+    }
+
+    EventRateMeter(MeterRegistry meterRegistry, LongSupplier clock) {
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.startedAt = clock.getAsLong();
+        // a power of two at or above the core count, so a thread id can be masked into a stripe
+        int cores = Math.min(Runtime.getRuntime().availableProcessors(), 16);
+        this.stripes = Integer.highestOneBit(Math.max(1, cores * 2 - 1));
+        this.total = register(new Series(), Tags.empty());
+    }
+
+    /**
+     * count one event, type and repository may be null
+     */
+    public void record(String eventType, String repository) {
+        long second = currentSecond();
+        int stripe = (int) Thread.currentThread().getId() & (stripes - 1);
+
+        total.add(second, stripe);
+        series(byType, eventType, "event_type").add(second, stripe);
+        series(byRepository, repository, "repository").add(second, stripe);
+    }
+
+    public long getTotalEvents() {
+        return total.count.sum();
+    }
+
+    public long getUptimeMinutes() {
+        return Duration.ofMillis(clock.getAsLong() - startedAt).toMinutes();
+    }
+
+    // events per minute over the last minute
+    public double getEventsPerMinute() {
+        return total.perMinute(1, currentSecond());
+    }
+
+    /**
+     * 1m / 5m / 15m rates in events per minute, overall and broken down
+     */
+    public Map<String, Object> snapshot() {
+        long second = currentSecond();
+        Map<String, Object> rates = rates(total, second);
+        rates.put("total", total.count.sum());
+        rates.put("by_type", breakdown(byType, second));
+        rates.put("by_repository", breakdown(byRepository, second));
+        return rates;
+    }
+
+    private Map<String, Object> breakdown(Map<String, Series> series, long second) {
+        Map<String, Object> rates = new LinkedHashMap<>();
+        series.forEach((key, s) -> {
+            Map<String, Object> entry = rates(s, second);
+            entry.put("total", s.count.sum());
+            rates.put(key, entry);
+        });
+        return rates;
+    }
+
+    private Map<String, Object> rates(Series series, long second) {
+        Map<String, Object> rates = new LinkedHashMap<>();
+        for (int minutes : RATE_MINUTES) {
+            rates.put("rate_" + minutes + "m", Math.round(series.perMinute(minutes, second) * 10) / 10.0);
+        }
+        return rates;
+    }
+
+    private long currentSecond() {
+        return clock.getAsLong() / 1000;
+    }
+
+    private Series series(Map<String, Series> series, String key, String tag) {
+        if (key == null || key.isBlank()) key = UNKNOWN;
+        Series existing = series.get(key);
+        if (existing != null) return existing;
+        if (series.size() >= MAX_KEYS) key = OTHER;
+        String name = key;
+        return series.computeIfAbsent(name, k -> register(new Series(), Tags.of(tag, name)));
+    }
+
+    private Series register(Series series, Tags tags) {
+        FunctionCounter.builder("streamci.events", series, s -> s.count.sum())
+                .description("webhook events ingested")
+                .tags(tags)
+                .register(meterRegistry);
+        for (int minutes : RATE_MINUTES) {
+            Gauge.builder("streamci.events.rate", series,
+                            s -> s.perMinute(minutes, currentSecond()))
+                    .description("webhook events per minute over a sliding window")
+                    .tags(tags.and("window", minutes + "m"))
+                    .register(meterRegistry);
+        }
+        return series;
+    }
+
+    /**
+     * per-second ring, one lazily created array of packed (second, count) slots per stripe
+     */
+    private final class Series {
+
+        private final AtomicReferenceArray<AtomicLongArray> rings = new AtomicReferenceArray<>(stripes);
+        private final LongAdder count = new LongAdder();
+
+        void add(long second, int stripe) {
+            AtomicLongArray ring = rings.get(stripe);
+            if (ring == null) {
+                rings.compareAndSet(stripe, null, new AtomicLongArray(WINDOW_SECONDS));
+                ring = rings.get(stripe);
+            }
+
+            int slot = (int) (second % WINDOW_SECONDS);
+            while (true) {
+                long current = ring.get(slot);
+                long next = (current >>> COUNT_BITS) == second ? current + 1 : (second << COUNT_BITS) | 1;
+                if (ring.compareAndSet(slot, current, next)) break;
+            }
+            count.increment();
+        }
+
+        // events in the last `minutes` minutes including the current second, per minute.
+        // only the window's slots are read, a slot still holding an older second is stale.
+        // right after startup the window is shortened to the uptime so rates aren't diluted
+        double perMinute(int minutes, long second) {
+            int window = minutes * 60;
+            long events = 0;
+            for (int i = 0; i < stripes; i++) {
+                AtomicLongArray ring = rings.get(i);
+                if (ring == null) continue;
+                for (long s = second - window + 1; s <= second; s++) {
+                    long packed = ring.get((int) (s % WINDOW_SECONDS));
+                    if ((packed >>> COUNT_BITS) == s) events += packed & COUNT_MASK;
+                }
+            }
+            long uptime = Math.max(60, second - startedAt / 1000);
+            return events * 60.0 / Math.min(window, uptime);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.model.PatternDetectionResult;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * mines attribute combinations that fail far more often than the pipeline does
+ *
+ * eclat over the encoded transactions: each item keeps a BitSet of the builds that carry
+ * it, an itemset's builds are the AND of its items' sets, so support is one cardinality
+ * and no transaction is rescanned. the search only extends itemsets that still cover
+ * enough failed builds (anti-monotone, prunes most of the lattice), and a rule is kept
+ * when its lift clears the threshold and it beats its prefix by a real margin
+ */
+@Component
+public class FailureRuleMiner {
+
+    static final String PATTERN_TYPE = "failure_rule";
+    private static final double MIN_IMPROVEMENT = 0.05; // over the prefix itemset's failure rate
+    private static final int MAX_RULES = 20;
+
+    // share of the pipeline's failed builds a rule has to cover
+    @Value("${patterns.rules.min-support:0.1}")
+    private double minSupport = 0.1;
+
+    @Value("${patterns.rules.min-count:3}")
+    private int minCount = 3;
+
+    @Value("${patterns.rules.min-confidence:0.5}")
+    private double minConfidence = 0.5;
+
+    @Value("${patterns.rules.min-lift:1.5}")
+    private double minLift = 1.5;
+
+    @Value("${patterns.rules.max-length:3}")
+    private int maxLength = 3;
+
+    /**
+     * rules for one pipeline, highest lift first
+     */
+    public List<PatternDetectionResult> mine(FailureTransactions transactions) {
+        int failures = transactions.failures();
+        if (transactions.size() == 0 || failures == 0) return List.of();
+
+        double baseline = (double) failures / transactions.size();
+        int minFailed = Math.max(minCount, (int) Math.ceil(minSupport * failures));
+
+        // vertical layout: item -> builds carrying it
+        int itemCount = transactions.itemNames.size();
+        BitSet[] tidsets = new BitSet[itemCount];
+        for (int i = 0; i < itemCount; i++) {
+            tidsets[i] = new BitSet(transactions.size());
+        }
+        for (int t = 0; t < transactions.size(); t++) {
+            for (int k = transactions.offsets[t]; k < transactions.offsets[t + 1]; k++) {
+                tidsets[transactions.items[k]].set(t);
+            }
+        }
+
+        List<Node> frequent = new ArrayList<>();
+        for (int i = 0; i < itemCount; i++) {
+            Node node = new Node(new int[]{i}, tidsets[i], transactions.failed);
+            if (node.failed >= minFailed) frequent.add(node);
+        }
+        // rarest first keeps the intersections small as itemsets grow
+        frequent.sort(Comparator.comparingInt(node -> node.builds));
+
+        List<Rule> rules = new ArrayList<>();
+        extend(frequent, 0.0, baseline, minFailed, transactions.failed, rules);
+
+        rules.sort(Comparator.comparingDouble((Rule rule) -> rule.lift).reversed()
+                .thenComparing(rule -> rule.node.failed, Comparator.reverseOrder()));
+
+        List<PatternDetectionResult> results = new ArrayList<>();
+        for (Rule rule : rules.subList(0, Math.min(MAX_RULES, rules.size()))) {
+            results.add(toResult(rule, transactions, baseline));
+        }
+        return results;
+    }
+
+    private void extend(List<Node> siblings, double prefixConfidence, double baseline, int minFailed,
+                        BitSet failed, List<Rule> rules) {
+        for (int i = 0; i < siblings.size(); i++) {
+            Node node = siblings.get(i);
+            double confidence = node.confidence();
+            double lift = confidence / baseline;
+            if (confidence >= minConfidence && lift >= minLift
+                    && confidence >= prefixConfidence + MIN_IMPROVEMENT) {
+                rules.add(new Rule(node, confidence, lift));
+            }
+
+            if (node.items.length == maxLength) continue;
+
+            List<Node> children = new ArrayList<>();
+            for (int j = i + 1; j < siblings.size(); j++) {
+                BitSet builds = (BitSet) node.tidset.clone();
+                builds.and(siblings.get(j).tidset);
+                Node child = new Node(append(node.items, siblings.get(j).items), builds, failed);
+                if (child.failed >= minFailed) children.add(child);
+            }
+            if (!children.isEmpty()) {
+                extend(children, Math.max(prefixConfidence, confidence), baseline, minFailed, failed, rules);
+            }
+        }
+    }
+
+    private static PatternDetectionResult toResult(Rule rule, FailureTransactions transactions, double baseline) {
+        List<String> items = new ArrayList<>();
+        for (int item : rule.node.items) {
+            items.add(transactions.itemNames.get(item));
+        }
+        Collections.sort(items);
+
+        Map<String, Object> details = new HashMap<>();
+        details.put("items", items);
+        details.put("builds", rule.node.builds);
+        details.put("failures", rule.node.failed);
+        details.put("support", Math.round((double) rule.node.failed / transactions.failures() * 1000.0) / 1000.0);
+        details.put("lift", Math.round(rule.lift * 100.0) / 100.0);
+        details.put("baseline_failure_rate", Math.round(baseline * 1000.0) / 10.0);
+
+        return PatternDetectionResult.builder()
+                .patternType(PATTERN_TYPE)
+                .description("failures when " + String.join(" and ", items))
+                .confidence(Math.round(rule.confidence * 100.0) / 100.0)
+                .frequency(rule.node.failed)
+                .recommendation(String.format("%.0f%% of %d builds with %s failed (%.1fx the pipeline rate), "
+                        + "add a targeted check or avoid this combination", rule.confidence * 100.0,
+                        rule.node.builds, String.join(" + ", items), rule.lift))
+                .lastOccurrence(LocalDateTime.now())
+                .details(details)
+                .build();
+    }
+
+    private static int[] append(int[] items, int[] last) {
+        int[] combined = Arrays.copyOf(items, items.length + 1);
+        combined[items.length] = last[last.length - 1];
+        return combined;
+    }
+
+    private static class Node {
+        private final int[] items;
+        private final BitSet tidset;
+        private final int builds;
+        private final int failed;
+
+        Node(int[] items, BitSet tidset, BitSet failures) {
+            this.items = items;
+            this.tidset = tidset;
+            this.builds = tidset.cardinality();
+            BitSet failedBuilds = (BitSet) tidset.clone();
+            failedBuilds.and(failures);
+            this.failed = failedBuilds.cardinality();
+        }
+
+        double confidence() {
+            return builds == 0 ? 0.0 : (double) failed / builds;
+        }
+    }
+
+    private record Rule(Node node, double confidence, double lift) {
+    }
+}
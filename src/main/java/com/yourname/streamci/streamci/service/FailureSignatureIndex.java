@@ -0,0 +1,224 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.model.FailurePattern;
+import com.yourname.streamci.streamci.model.Pipeline;
+import com.yourname.streamci.streamci.repository.FailurePatternRepository;
+import com.yourname.streamci.streamci.util.MinHash;
+import org.springframework.stereotype.Service;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * clusters failed-job log tails by near-duplicate signature, per pipeline
+ *
+ * an excerpt is normalized (timestamps, hashes, absolute paths and numbers become
+ * placeholders), cut into token 3-shingles and minhashed into 128 slots. the slots split
+ * into 16 bands of 8; two signatures share a band bucket with high probability only when
+ * their jaccard similarity is above ~0.7, so a lookup touches a handful of candidate
+ * clusters instead of every excerpt. only one representative signature per cluster is
+ * indexed - a million excerpts of the same ten failures is still ten entries. clusters
+ * are log_signature FailurePattern rows (frequency = excerpts, detectedAt / lastOccurrence
+ * = first and last seen), warmed on first use
+ */
+@Service
+public class FailureSignatureIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FailureSignatureIndex.class);
+
+    static final String PATTERN_TYPE = "log_signature";
+    static final int SIGNATURE_SIZE = 128;
+    private static final int BANDS = 16;
+    private static final int ROWS = SIGNATURE_SIZE / BANDS;
+    private static final double MATCH_THRESHOLD = 0.6;
+    private static final int MAX_TAIL_LINES = 200;
+    private static final int MAX_TAIL_CHARS = 64 * 1024;
+
+    private static final Pattern TIMESTAMP = Pattern.compile(
+            "\\d{4}-\\d{2}-\\d{2}[t ]\\d{2}:\\d{2}:\\d{2}(?:[.,]\\d+)?z?|\\b\\d{2}:\\d{2}:\\d{2}(?:[.,]\\d+)?\\b");
+    private static final Pattern UUID = Pattern.compile(
+            "\\b[0-9a-f]{8}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{4}-[0-9a-f]{12}\\b");
+    private static final Pattern HASH = Pattern.compile("\\b(?=[0-9a-f]*[a-f])(?=[0-9a-f]*\\d)[0-9a-f]{7,64}\\b");
+    // absolute paths only, they carry the runner's workspace - relative ones name the failing file
+    private static final Pattern PATH = Pattern.compile("(?<![\\w.])(?:[a-z]:)?(?:[\\\\/][\\w.@+-]+){2,}[\\\\/]?");
+    private static final Pattern NUMBER = Pattern.compile("\\b\\d+(?:\\.\\d+)*\\b");
+    private static final Pattern TOKEN_SPLIT = Pattern.compile("[^a-z0-9<>_]+");
+    private static final Pattern HEADLINE = Pattern.compile("error|fail|exception|fatal|panic");
+
+    private final FailurePatternRepository patternRepository;
+    private final PipelineService pipelineService;
+    private final MinHash minHash = new MinHash(SIGNATURE_SIZE, 3);
+    private final Map<Integer, PipelineClusters> pipelines = new ConcurrentHashMap<>();
+
+    public FailureSignatureIndex(FailurePatternRepository patternRepository,
+                                 PipelineService pipelineService) {
+        this.patternRepository = patternRepository;
+        this.pipelineService = pipelineService;
+    }
+
+    /**
+     * how one excerpt was filed
+     */
+    public record Match(Long patternId, boolean created, double similarity, String headline) {
+    }
+
+    /**
+     * files one failed job's log tail under an existing cluster or starts a new one
+     */
+    public Optional<Match> ingest(Integer pipelineId, String log, LocalDateTime at) {
+        List<String> lines = normalize(tail(log));
+        if (lines.isEmpty()) return Optional.empty();
+
+        List<String> tokens = new ArrayList<>();
+        for (String line : lines) {
+            for (String token : TOKEN_SPLIT.split(line)) {
+                if (!token.isEmpty()) tokens.add(token);
+            }
+        }
+        if (tokens.isEmpty()) return Optional.empty();
+        int[] signature = minHash.signature(tokens);
+
+        PipelineClusters clusters = pipelines.computeIfAbsent(pipelineId, this::warm);
+        synchronized (clusters) {
+            Cluster best = clusters.bestMatch(signature);
+            if (best != null) {
+                double similarity = MinHash.similarity(signature, best.signature);
+                patternRepository.recordOccurrence(best.patternId, similarity, at);
+                return Optional.of(new Match(best.patternId, false, similarity, best.headline));
+            }
+
+            Optional<Pipeline> pipeline = pipelineService.getPipelineById(pipelineId);
+            if (pipeline.isEmpty()) return Optional.empty();
+
+            String headline = headline(lines);
+            FailurePattern saved = patternRepository.save(FailurePattern.builder()
+                    .pipeline(pipeline.get())
+                    .patternType(PATTERN_TYPE)
+                    .description(truncate(String.format("log signature %08x: %s",
+                            Arrays.hashCode(signature), headline)))
+                    .confidence(1.0)
+                    .frequency(1)
+                    .recommendation("group these failures under one issue, they share the same log output")
+                    .details(truncate(String.join(" | ", lines.subList(Math.max(0, lines.size() - 5), lines.size()))))
+                    .signature(MinHash.toBytes(signature))
+                    .detectedAt(at)
+                    .lastOccurrence(at)
+                    .build());
+            clusters.add(new Cluster(saved.getId(), signature, headline));
+            logger.info("New failure signature {} for pipeline {}: {}", saved.getId(), pipelineId, headline);
+            return Optional.of(new Match(saved.getId(), true, 1.0, headline));
+        }
+    }
+
+    /**
+     * the pipeline's clusters, most frequent first
+     */
+    public List<FailurePattern> clusters(Integer pipelineId) {
+        List<FailurePattern> patterns = new ArrayList<>(
+                patternRepository.findByPipelineIdAndPatternTypeOrderByConfidenceDesc(pipelineId, PATTERN_TYPE));
+        patterns.sort(Comparator.comparing(FailurePattern::getFrequency, Comparator.reverseOrder()));
+        return patterns;
+    }
+
+    private PipelineClusters warm(Integer pipelineId) {
+        PipelineClusters clusters = new PipelineClusters();
+        List<FailurePattern> patterns =
+                patternRepository.findByPipelineIdAndPatternTypeOrderByConfidenceDesc(pipelineId, PATTERN_TYPE);
+        for (FailurePattern pattern : patterns) {
+            if (pattern.getSignature() == null) continue;
+            String description = pattern.getDescription();
+            int colon = description.indexOf(": ");
+            clusters.add(new Cluster(pattern.getId(), MinHash.fromBytes(pattern.getSignature()),
+                    colon >= 0 ? description.substring(colon + 2) : description));
+        }
+        logger.debug("Warmed failure signature index for pipeline {} from {} clusters", pipelineId, patterns.size());
+        return clusters;
+    }
+
+    // the end of a job log is where the failure is
+    static String tail(String log) {
+        if (log == null) return "";
+        String tail = log.length() > MAX_TAIL_CHARS ? log.substring(log.length() - MAX_TAIL_CHARS) : log;
+        String[] lines = tail.split("\\r?\\n");
+        if (lines.length <= MAX_TAIL_LINES) return tail;
+        return String.join("\n", Arrays.copyOfRange(lines, lines.length - MAX_TAIL_LINES, lines.length));
+    }
+
+    /**
+     * lowercased non-empty lines with run-specific noise replaced by placeholders
+     */
+    static List<String> normalize(String text) {
+        List<String> lines = new ArrayList<>();
+        for (String raw : text.toLowerCase(Locale.ROOT).split("\\r?\\n")) {
+            String line = TIMESTAMP.matcher(raw).replaceAll(" ");
+            line = UUID.matcher(line).replaceAll("<id>");
+            line = HASH.matcher(line).replaceAll("<hash>");
+            line = PATH.matcher(line).replaceAll("<path>");
+            line = NUMBER.matcher(line).replaceAll("<n>");
+            line = line.replaceAll("\\s+", " ").trim();
+            if (!line.isEmpty()) lines.add(line);
+        }
+        return lines;
+    }
+
+    // first line that reads like an error, else the last line
+    private static String headline(List<String> lines) {
+        for (String line : lines) {
+            if (HEADLINE.matcher(line).find()) return truncate(line, 200);
+        }
+        return truncate(lines.get(lines.size() - 1), 200);
+    }
+
+    private static String truncate(String value) {
+        return truncate(value, 255);
+    }
+
+    private static String truncate(String value, int length) {
+        return value.length() > length ? value.substring(0, length) : value;
+    }
+
+    private record Cluster(Long patternId, int[] signature, String headline) {
+    }
+
+    private static class PipelineClusters {
+        private final Map<Long, List<Cluster>> buckets = new HashMap<>();
+
+        void add(Cluster cluster) {
+            for (int band = 0; band < BANDS; band++) {
+                buckets.computeIfAbsent(bandKey(cluster.signature, band), key -> new ArrayList<>(1)).add(cluster);
+            }
+        }
+
+        // most similar cluster sharing at least one band, if it clears the threshold
+        Cluster bestMatch(int[] signature) {
+            Cluster best = null;
+            double bestSimilarity = MATCH_THRESHOLD;
+            Set<Long> seen = new HashSet<>();
+            for (int band = 0; band < BANDS; band++) {
+                List<Cluster> candidates = buckets.get(bandKey(signature, band));
+                if (candidates == null) continue;
+                for (Cluster candidate : candidates) {
+                    if (!seen.add(candidate.patternId)) continue;
+                    double similarity = MinHash.similarity(signature, candidate.signature);
+                    if (similarity >= bestSimilarity) {
+                        best = candidate;
+                        bestSimilarity = similarity;
+                    }
+                }
+            }
+            return best;
+        }
+
+        private static long bandKey(int[] signature, int band) {
+            long key = band;
+            for (int i = band * ROWS; i < (band + 1) * ROWS; i++) {
+                key = key * 0x100000001B3L ^ signature[i];
+            }
+            return key;
+        }
+    }
+}
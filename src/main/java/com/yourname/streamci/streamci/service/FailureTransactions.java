@@ -0,0 +1,118 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.util.BuildTimes;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * builds encoded as item transactions for failure rule mining
+ * every attribute value (branch=release/*, weekday=FRIDAY, ...) gets an int id and each
+ * build is a run of ids in one flat array (offsets[i]..offsets[i + 1]), so a pipeline's
+ * full history is two int arrays, a dictionary and the failure bits
+ */
+public final class FailureTransactions {
+
+    final int size;
+    final int[] offsets;
+    final int[] items;
+    final List<String> itemNames;
+    final BitSet failed;
+
+    private FailureTransactions(int size, int[] offsets, int[] items, List<String> itemNames, BitSet failed) {
+        this.size = size;
+        this.offsets = offsets;
+        this.items = items;
+        this.itemNames = itemNames;
+        this.failed = failed;
+    }
+
+    /**
+     * completed builds only, pathsBySha maps a head commit to the files its push changed
+     */
+    public static FailureTransactions of(List<Build> builds, Map<String, Set<String>> pathsBySha) {
+        Map<String, Integer> ids = new HashMap<>();
+        List<String> itemNames = new ArrayList<>();
+        BitSet failed = new BitSet();
+        int[] offsets = new int[builds.size() + 1];
+        int[] items = new int[builds.size() * 6];
+        int size = 0;
+        int length = 0;
+
+        Set<String> attributes = new LinkedHashSet<>();
+        for (Build build : builds) {
+            String status = build.getStatus();
+            if (!"success".equals(status) && !"failure".equals(status)) continue;
+
+            attributes.clear();
+            addAttributes(build, pathsBySha, attributes);
+
+            if ("failure".equals(status)) failed.set(size);
+            for (String attribute : attributes) {
+                if (length == items.length) {
+                    items = Arrays.copyOf(items, items.length * 2);
+                }
+                items[length++] = ids.computeIfAbsent(attribute, key -> {
+                    itemNames.add(key);
+                    return itemNames.size() - 1;
+                });
+            }
+            offsets[++size] = length;
+        }
+        return new FailureTransactions(size, Arrays.copyOf(offsets, size + 1),
+                Arrays.copyOf(items, length), itemNames, failed);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int failures() {
+        return failed.cardinality();
+    }
+
+    private static void addAttributes(Build build, Map<String, Set<String>> pathsBySha, Set<String> attributes) {
+        if (build.getBranch() != null) {
+            attributes.add("branch=" + branchPattern(build.getBranch()));
+        }
+        if (build.getCommitter() != null && !"unknown".equals(build.getCommitter())) {
+            attributes.add("committer=" + build.getCommitter());
+        }
+
+        LocalDateTime timestamp = BuildTimes.effectiveTime(build);
+        if (timestamp != null) {
+            int bucket = timestamp.getHour() / 3 * 3;
+            attributes.add(String.format("hour=%02d-%02d", bucket, bucket + 2));
+            attributes.add("weekday=" + timestamp.getDayOfWeek());
+        }
+
+        // only long runs: failed builds stop early, so short durations are an effect not a cause
+        if (build.getDuration() != null) {
+            if (build.getDuration() >= 1800) {
+                attributes.add("duration=30m+");
+            } else if (build.getDuration() >= 600) {
+                attributes.add("duration=10-30m");
+            }
+        }
+
+        Set<String> paths = build.getCommitHash() != null ? pathsBySha.get(build.getCommitHash()) : null;
+        if (paths != null) {
+            for (String path : paths) {
+                attributes.add("files=" + topLevel(path));
+            }
+        }
+    }
+
+    // release/1.2 and release/1.3 are the same kind of branch
+    static String branchPattern(String branch) {
+        int slash = branch.indexOf('/');
+        return slash > 0 ? branch.substring(0, slash) + "/*" : branch;
+    }
+
+    // first directory, or the file itself at the repo root
+    private static String topLevel(String path) {
+        int slash = path.indexOf('/');
+        return slash > 0 ? path.substring(0, slash) + "/**" : path;
+    }
+}
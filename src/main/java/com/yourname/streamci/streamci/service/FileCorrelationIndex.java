@@ -0,0 +1,273 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.BuildModifiedEvent;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.CommitFileChange;
+import com.yourname.streamci.streamci.model.FileCorrelationResult;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.repository.CommitFileChangeRepository;
+import com.yourname.streamci.streamci.repository.PipelineRepository;
+import com.yourname.streamci.streamci.util.WarmCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.*;
+
+/**
+ * inverted index from changed paths to build outcomes, per pipeline
+ *
+ * every completed build whose head commit has recorded file changes gets a slot; each
+ * key (the exact path, its "*.ext" glob and its first few "dir/**" prefixes) keeps a
+ * BitSet of the slots that touched it, failures are one more BitSet. a key's failure
+ * rate is two cardinalities, so correlations never scan commits or builds.
+ * warmed from commit_file_changes on first use (pipelines that exist only), then kept current from push webhooks
+ * and build inserts (either may arrive first, they meet on the head sha)
+ */
+@Service
+public class FileCorrelationIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FileCorrelationIndex.class);
+
+    private static final int MIN_SUPPORT = 3; // builds touching a key before it's reported
+    private static final int MAX_PREFIX_DEPTH = 3;
+    private static final int MAX_KEYS = 20000; // per pipeline, later keys are ignored
+    static final int MAX_PENDING = 5000; // shas waiting for their files or their build
+    private static final int MAX_RESULTS = 10;
+    private static final double Z = 1.96;
+
+    private final CommitFileChangeRepository fileRepository;
+    private final BuildRepository buildRepository;
+    private final WarmCache<PipelineIndex> indexes;
+
+    public FileCorrelationIndex(CommitFileChangeRepository fileRepository,
+                                BuildRepository buildRepository,
+                                PipelineRepository pipelineRepository) {
+        this.fileRepository = fileRepository;
+        this.buildRepository = buildRepository;
+        this.indexes = new WarmCache<>(pipelineRepository::existsById, this::warm, PipelineIndex::new);
+    }
+
+    /**
+     * stores the files of one push, all attributed to the push's head commit
+     */
+    public void recordPush(Integer pipelineId, String headSha, List<CommitFileChange> changes) {
+        if (changes.isEmpty()) return;
+        fileRepository.saveAll(changes);
+
+        PipelineIndex index = indexes.peek(pipelineId);
+        if (index != null) {
+            Set<String> paths = new HashSet<>();
+            changes.forEach(change -> paths.add(change.getPath()));
+            index.addFiles(headSha, paths);
+        }
+        logger.debug("Recorded {} file changes for {} on pipeline {}", changes.size(), headSha, pipelineId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildIngested(BuildIngestedEvent event) {
+        if (event.getPipelineId() == null) return;
+
+        // pipelines nobody has asked about yet pick the build up when they're warmed
+        PipelineIndex index = indexes.peek(event.getPipelineId());
+        Build build = event.getBuild();
+        if (index != null && build.getCommitHash() != null) {
+            index.addBuild(build.getCommitHash(), build.getStatus());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildModified(BuildModifiedEvent event) {
+        indexes.invalidate(event.getPipelineId());
+    }
+
+    /**
+     * keys whose builds fail more often than the pipeline's joined builds overall,
+     * best first. confidence is the 95% wilson lower bound of the key's failure rate,
+     * so a handful of builds ranks below a long record
+     */
+    public List<FileCorrelationResult> correlations(Integer pipelineId) {
+        return indexes.get(pipelineId).correlations();
+    }
+
+    private PipelineIndex warm(Integer pipelineId) {
+        // push order, so the bounded sha cache below keeps the newest pushes
+        Map<String, Set<String>> filesBySha = new LinkedHashMap<>();
+        for (Object[] row : fileRepository.findPathsByPipelineId(pipelineId)) {
+            filesBySha.computeIfAbsent((String) row[0], sha -> new HashSet<>()).add((String) row[1]);
+        }
+
+        // join every stored build against the full map first, the cache bound only applies after
+        PipelineIndex index = new PipelineIndex();
+        List<Object[]> outcomes = buildRepository.findOutcomesWithFileChanges(pipelineId);
+        for (Object[] row : outcomes) {
+            Set<String> paths = filesBySha.get((String) row[1]);
+            if (paths != null) {
+                index.addJoined(paths, (String) row[2]);
+            }
+        }
+
+        // kept for builds (re-runs, late webhooks) of these commits that arrive from now on
+        filesBySha.forEach(index::addFiles);
+        logger.debug("Warmed file correlation index for pipeline {} from {} commits and {} builds",
+                pipelineId, filesBySha.size(), outcomes.size());
+        return index;
+    }
+
+    // exact path, "*.ext" and up to MAX_PREFIX_DEPTH directory prefixes
+    static List<String> keysFor(String path) {
+        List<String> keys = new ArrayList<>();
+        keys.add(path);
+
+        int slash = path.lastIndexOf('/');
+        String name = path.substring(slash + 1);
+        int dot = name.lastIndexOf('.');
+        if (dot > 0 && dot < name.length() - 1) {
+            keys.add("*" + name.substring(dot));
+        }
+
+        int from = 0;
+        for (int depth = 0; depth < MAX_PREFIX_DEPTH; depth++) {
+            int next = path.indexOf('/', from);
+            if (next < 0) break;
+            keys.add(path.substring(0, next + 1) + "**");
+            from = next + 1;
+        }
+        return keys;
+    }
+
+    private static double wilsonLowerBound(int failures, int total) {
+        double p = (double) failures / total;
+        double z2 = Z * Z;
+        double centre = p + z2 / (2.0 * total);
+        double margin = Z * Math.sqrt(p * (1 - p) / total + z2 / (4.0 * total * total));
+        return (centre - margin) / (1 + z2 / total);
+    }
+
+    private static String recommendationFor(String key) {
+        if (key.endsWith("/**")) {
+            return "add an owner review or targeted tests for changes under " + key.substring(0, key.length() - 2);
+        }
+        if (key.startsWith("*.")) {
+            return "validate " + key + " files in a pre-commit or lint step";
+        }
+        return "review changes to " + key + " carefully and run its dependent tests first";
+    }
+
+    private static class PipelineIndex {
+        private int builds;
+        private final BitSet failures = new BitSet();
+        private final Map<String, BitSet> keys = new HashMap<>();
+        private final Map<String, Set<String>> filesBySha = bounded();
+        private final Map<String, List<Boolean>> waitingBuilds = bounded();
+
+        synchronized void addFiles(String headSha, Set<String> paths) {
+            filesBySha.computeIfAbsent(headSha, sha -> new HashSet<>()).addAll(paths);
+
+            List<Boolean> waiting = waitingBuilds.remove(headSha);
+            if (waiting != null) {
+                waiting.forEach(failed -> append(paths, failed));
+            }
+        }
+
+        synchronized void addBuild(String headSha, String status) {
+            if (!isCompleted(status)) return;
+            boolean failed = "failure".equals(status);
+
+            Set<String> paths = filesBySha.get(headSha);
+            if (paths == null) {
+                waitingBuilds.computeIfAbsent(headSha, sha -> new ArrayList<>()).add(failed);
+            } else {
+                append(paths, failed);
+            }
+        }
+
+        // a build whose files are already known, used by the warm-up
+        synchronized void addJoined(Set<String> paths, String status) {
+            if (isCompleted(status)) {
+                append(paths, "failure".equals(status));
+            }
+        }
+
+        private static boolean isCompleted(String status) {
+            return "success".equals(status) || "failure".equals(status);
+        }
+
+        private void append(Set<String> paths, boolean failed) {
+            int slot = builds++;
+            if (failed) failures.set(slot);
+
+            Set<String> touched = new HashSet<>();
+            paths.forEach(path -> touched.addAll(keysFor(path)));
+            for (String key : touched) {
+                BitSet bits = keys.get(key);
+                if (bits == null) {
+                    if (keys.size() >= MAX_KEYS) continue;
+                    bits = new BitSet();
+                    keys.put(key, bits);
+                }
+                bits.set(slot);
+            }
+        }
+
+        synchronized List<FileCorrelationResult> correlations() {
+            if (builds == 0) return List.of();
+            double baseline = (double) failures.cardinality() / builds;
+
+            List<Map.Entry<String, BitSet>> candidates = new ArrayList<>();
+            Map<String, Double> lowerBounds = new HashMap<>();
+            for (Map.Entry<String, BitSet> entry : keys.entrySet()) {
+                int touched = entry.getValue().cardinality();
+                if (touched < MIN_SUPPORT) continue;
+
+                BitSet failed = (BitSet) entry.getValue().clone();
+                failed.and(failures);
+                int failedCount = failed.cardinality();
+                if ((double) failedCount / touched <= baseline) continue;
+
+                candidates.add(entry);
+                lowerBounds.put(entry.getKey(), wilsonLowerBound(failedCount, touched));
+            }
+
+            // best first; among keys covering the same builds the most specific (longest) wins
+            candidates.sort(Comparator
+                    .comparing((Map.Entry<String, BitSet> entry) -> lowerBounds.get(entry.getKey())).reversed()
+                    .thenComparing(entry -> entry.getKey().length(), Comparator.reverseOrder()));
+
+            List<FileCorrelationResult> results = new ArrayList<>();
+            Set<BitSet> reported = new HashSet<>();
+            for (Map.Entry<String, BitSet> entry : candidates) {
+                if (!reported.add(entry.getValue())) continue;
+
+                String key = entry.getKey();
+                int touched = entry.getValue().cardinality();
+                BitSet failed = (BitSet) entry.getValue().clone();
+                failed.and(failures);
+                double failureRate = (double) failed.cardinality() / touched * 100.0;
+
+                results.add(FileCorrelationResult.builder()
+                        .filePattern(key)
+                        .failureRate(Math.round(failureRate * 10.0) / 10.0)
+                        .description(String.format("%.0f%% of %d builds touching %s failed (pipeline baseline %.0f%%)",
+                                failureRate, touched, key, baseline * 100.0))
+                        .recommendation(recommendationFor(key))
+                        .affectedBuilds(touched)
+                        .confidence(Math.round(lowerBounds.get(key) * 100.0) / 100.0)
+                        .build());
+                if (results.size() == MAX_RESULTS) break;
+            }
+            return results;
+        }
+
+        private static <V> Map<String, V> bounded() {
+            return new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, V> eldest) {
+                    return size() > MAX_PENDING;
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.BuildModifiedEvent;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.FlakyTestResult;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.repository.PipelineRepository;
+import com.yourname.streamci.streamci.util.WarmCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * commit hash -> run outcomes, per pipeline, for flaky build detection
+ *
+ * a commit that both passed and failed was flaky by definition - the code didn't change.
+ * a scenario (branch:committer) is scored by the share of its re-run commits that
+ * diverged, each commit weighted by 0.5^(age / 14 days) so old flakiness fades out.
+ * warmed from the last 90 days on first use (pipelines that exist only), appended to on ingest
+ */
+@Service
+public class FlakinessIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(FlakinessIndex.class);
+
+    private static final int WARM_UP_DAYS = 90;
+    private static final int MAX_COMMITS = 5000; // per pipeline, least recently run fall out
+    private static final double HALF_LIFE_DAYS = 14.0;
+    private static final int MIN_DIVERGENT_COMMITS = 2;
+    private static final double MIN_SCORE = 0.1;
+
+    private final BuildRepository buildRepository;
+    private final WarmCache<PipelineCommits> pipelines;
+
+    public FlakinessIndex(BuildRepository buildRepository, PipelineRepository pipelineRepository) {
+        this.buildRepository = buildRepository;
+        this.pipelines = new WarmCache<>(pipelineRepository::existsById, this::warm, PipelineCommits::new);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildIngested(BuildIngestedEvent event) {
+        if (event.getPipelineId() == null) return;
+
+        PipelineCommits commits = pipelines.peek(event.getPipelineId());
+        if (commits != null) {
+            commits.record(event.getBuild());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildModified(BuildModifiedEvent event) {
+        pipelines.invalidate(event.getPipelineId());
+    }
+
+    /**
+     * scenarios whose re-runs of the same commit disagree, flakiest first
+     */
+    public List<FlakyTestResult> flakyScenarios(Integer pipelineId) {
+        return pipelines.get(pipelineId).flakyScenarios(LocalDateTime.now());
+    }
+
+    private PipelineCommits warm(Integer pipelineId) {
+        PipelineCommits commits = new PipelineCommits();
+        List<Build> history = buildRepository.findByPipelineIdAndStartTimeAfter(
+                pipelineId, LocalDateTime.now().minusDays(WARM_UP_DAYS));
+
+        // repository returns newest first, keep lru order oldest first
+        for (int i = history.size() - 1; i >= 0; i--) {
+            commits.record(history.get(i));
+        }
+        logger.debug("Warmed flakiness index for pipeline {} from {} builds", pipelineId, history.size());
+        return commits;
+    }
+
+    private static double decay(LocalDateTime lastRun, LocalDateTime now) {
+        if (lastRun == null) return 1.0;
+        double ageDays = Math.max(0, Duration.between(lastRun, now).toMinutes()) / 1440.0;
+        return Math.pow(0.5, ageDays / HALF_LIFE_DAYS);
+    }
+
+    private static class CommitRuns {
+        private final String scenario;
+        private int successes;
+        private int failures;
+        private LocalDateTime lastRun;
+
+        CommitRuns(String scenario) {
+            this.scenario = scenario;
+        }
+
+        boolean diverged() {
+            return successes > 0 && failures > 0;
+        }
+
+        int runs() {
+            return successes + failures;
+        }
+    }
+
+    private static class ScenarioTotals {
+        private double rerunWeight;
+        private double divergentWeight;
+        private int divergentCommits;
+        private int runs;
+        private int failures;
+    }
+
+    private static class PipelineCommits {
+        private final Map<String, CommitRuns> commits = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CommitRuns> eldest) {
+                return size() > MAX_COMMITS;
+            }
+        };
+
+        synchronized void record(Build build) {
+            String hash = build.getCommitHash();
+            if (hash == null || "unknown".equals(hash)) return;
+            boolean success = "success".equals(build.getStatus());
+            if (!success && !"failure".equals(build.getStatus())) return;
+
+            CommitRuns runs = commits.computeIfAbsent(hash, key ->
+                    new CommitRuns(build.getBranch() + ":" + build.getCommitter()));
+            if (success) {
+                runs.successes++;
+            } else {
+                runs.failures++;
+            }
+            LocalDateTime at = build.getStartTime() != null ? build.getStartTime() : build.getEndTime();
+            if (at != null && (runs.lastRun == null || at.isAfter(runs.lastRun))) {
+                runs.lastRun = at;
+            }
+        }
+
+        synchronized List<FlakyTestResult> flakyScenarios(LocalDateTime now) {
+            // only commits that ran more than once say anything about flakiness
+            Map<String, ScenarioTotals> scenarios = new HashMap<>();
+            for (CommitRuns runs : commits.values()) {
+                if (runs.runs() < 2) continue;
+
+                ScenarioTotals totals = scenarios.computeIfAbsent(runs.scenario, key -> new ScenarioTotals());
+                double weight = decay(runs.lastRun, now);
+                totals.rerunWeight += weight;
+                totals.runs += runs.runs();
+                totals.failures += runs.failures;
+                if (runs.diverged()) {
+                    totals.divergentWeight += weight;
+                    totals.divergentCommits++;
+                }
+            }
+
+            List<FlakyTestResult> results = new ArrayList<>();
+            for (Map.Entry<String, ScenarioTotals> entry : scenarios.entrySet()) {
+                ScenarioTotals totals = entry.getValue();
+                if (totals.divergentCommits < MIN_DIVERGENT_COMMITS || totals.rerunWeight == 0) continue;
+
+                double score = totals.divergentWeight / totals.rerunWeight;
+                if (score < MIN_SCORE) continue;
+
+                String branch = entry.getKey().split(":")[0];
+                results.add(FlakyTestResult.builder()
+                        .testIdentifier(entry.getKey())
+                        .failureRate(Math.round((double) totals.failures / totals.runs * 1000.0) / 10.0)
+                        .totalRuns(totals.runs)
+                        .failures(totals.failures)
+                        .flakinessScore(Math.round(score * 1000.0) / 1000.0)
+                        .divergentCommits(totals.divergentCommits)
+                        .recommendation(String.format(
+                                "%d commits on %s both passed and failed without code changes - quarantine or fix the nondeterministic tests",
+                                totals.divergentCommits, branch))
+                        .build());
+            }
+
+            results.sort(Comparator.comparing(FlakyTestResult::getFlakinessScore).reversed()
+                    .thenComparing(FlakyTestResult::getDivergentCommits, Comparator.reverseOrder()));
+            return results;
+        }
+    }
+}
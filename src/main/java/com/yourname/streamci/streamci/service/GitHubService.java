@@ -2,6 +2,8 @@ package com.yourname.streamci.streamci.service;
 
 import com.yourname.streamci.streamci.model.*;
 import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.repository.IngestedJobLogRepository;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
@@ -10,7 +12,10 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -28,14 +33,31 @@ public class GitHubService {
     private final PipelineService pipelineService;
     private final BuildService buildService;
     private final RestTemplate restTemplate;
+    private final FailureSignatureIndex signatureIndex;
+    private final IngestedJobLogRepository ingestedJobLogRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate claimTransaction;
+
+    private static final int MAX_LOG_JOBS_PER_SYNC = 10;
 
     @Value("${github.token}")
     private String githubToken;
 
-    public GitHubService(PipelineService pipelineService, BuildService buildService, RestTemplate restTemplate) {
+    @Value("${github.sync.failure-logs:true}")
+    private boolean syncFailureLogs = true;
+
+    public GitHubService(PipelineService pipelineService, BuildService buildService, RestTemplate restTemplate,
+                         FailureSignatureIndex signatureIndex, IngestedJobLogRepository ingestedJobLogRepository,
+                         ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
         this.pipelineService = pipelineService;
         this.buildService = buildService;
         this.restTemplate = restTemplate;
+        this.signatureIndex = signatureIndex;
+        this.ingestedJobLogRepository = ingestedJobLogRepository;
+        this.objectMapper = objectMapper;
+        // job claims commit on their own, a unique violation mustn't poison the sync's transaction
+        this.claimTransaction = new TransactionTemplate(transactionManager);
+        this.claimTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     public boolean testConnection() {
@@ -135,10 +157,93 @@ public class GitHubService {
         List<Build> builds = mapToBuilds(workflowRuns, savedPipeline);
         int savedBuildsCount = saveBuilds(builds);
 
+        if (syncFailureLogs) {
+            int logs = ingestFailureLogs(owner, repo, workflowRuns, savedPipeline);
+            logger.debug("filed {} failed job logs for {}/{}", logs, owner, repo);
+        }
+
         logger.info("sync completed for {}/{}: 1 pipeline, {} builds", owner, repo, savedBuildsCount);
         return new SyncResult(true, "sync successful", 1, savedBuildsCount);
     }
 
+    /**
+     * pulls the log of each failed job of the failed runs and files it with the
+     * failure signature index, capped per sync since every job is one more api call
+     * a job is claimed in ingested_job_logs before its log is filed, so a filed one is never
+     * counted again; a failed fetch or filing leaves no claim and is retried on the next sync
+     */
+    private int ingestFailureLogs(String owner, String repo, List<WorkflowRun> workflowRuns, Pipeline pipeline) {
+        HttpEntity<String> entity = new HttpEntity<>(createAuthHeaders());
+        int ingested = 0;
+
+        for (WorkflowRun run : workflowRuns) {
+            if (!"failure".equalsIgnoreCase(run.getConclusion()) || run.getId() == null) continue;
+
+            try {
+                String jobsUrl = String.format("https://api.github.com/repos/%s/%s/actions/runs/%d/jobs?filter=latest",
+                        owner, repo, run.getId());
+                JsonNode jobs = objectMapper.readTree(
+                        restTemplate.exchange(jobsUrl, HttpMethod.GET, entity, String.class).getBody()).path("jobs");
+
+                for (JsonNode job : jobs) {
+                    if (ingested >= MAX_LOG_JOBS_PER_SYNC) return ingested;
+                    long jobId = job.path("id").asLong();
+                    if (!"failure".equals(job.path("conclusion").asText())
+                            || ingestedJobLogRepository.existsByJobId(jobId)) continue;
+
+                    if (ingestJobLog(owner, repo, entity, job, jobId, pipeline)) {
+                        ingested++;
+                    }
+                }
+            } catch (Exception e) {
+                logger.warn("failed to fetch job logs for run {} of {}/{}: {}", run.getId(), owner, repo, e.getMessage());
+            }
+        }
+        return ingested;
+    }
+
+    private boolean ingestJobLog(String owner, String repo, HttpEntity<String> entity, JsonNode job,
+                                 long jobId, Pipeline pipeline) {
+        String log;
+        try {
+            String logUrl = String.format("https://api.github.com/repos/%s/%s/actions/jobs/%d/logs",
+                    owner, repo, jobId);
+            log = restTemplate.exchange(logUrl, HttpMethod.GET, entity, String.class).getBody();
+        } catch (Exception e) {
+            logger.warn("failed to fetch log of job {} of {}/{}, retrying next sync: {}", jobId, owner, repo, e.getMessage());
+            return false;
+        }
+
+        // claim the job before filing it, so of two concurrent syncs only one counts the failure
+        IngestedJobLog claim;
+        try {
+            claim = claimTransaction.execute(status -> ingestedJobLogRepository.saveAndFlush(IngestedJobLog.builder()
+                    .jobId(jobId)
+                    .pipelineId(pipeline.getId())
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            logger.debug("job {} of {}/{} was already filed", jobId, owner, repo);
+            return false;
+        }
+
+        Optional<FailureSignatureIndex.Match> match;
+        try {
+            match = signatureIndex.ingest(pipeline.getId(), log,
+                    parseGitHubDateTime(job.path("completed_at").asText(null)));
+        } catch (Exception e) {
+            // nothing was counted, give the job back so the next sync files it
+            claimTransaction.executeWithoutResult(status -> ingestedJobLogRepository.deleteById(claim.getId()));
+            logger.warn("failed to file log of job {} of {}/{}, retrying next sync: {}", jobId, owner, repo, e.getMessage());
+            return false;
+        }
+
+        if (match.isPresent()) {
+            claim.setPatternId(match.get().patternId());
+            ingestedJobLogRepository.save(claim);
+        }
+        return true;
+    }
+
     private HttpHeaders createAuthHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.set("Authorization", "token " + githubToken);
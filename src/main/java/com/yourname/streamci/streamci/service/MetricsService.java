@@ -1,11 +1,17 @@
 package com.yourname.streamci.streamci.service;
 
 import com.yourname.streamci.streamci.model.*;
+import com.yourname.streamci.streamci.repository.LatestMetricsRepository;
 import com.yourname.streamci.streamci.repository.PipelineMetricsRepository;
 import com.yourname.streamci.streamci.event.MetricsCalculatedEvent;
+import com.yourname.streamci.streamci.event.PipelineDataChangedEvent;
+import org.springframework.beans.BeanUtils;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -13,51 +19,81 @@ import java.time.LocalDateTime;
 import java.time.DayOfWeek;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class MetricsService {
 
     private static final Logger logger = LoggerFactory.getLogger(MetricsService.class);
     private final PipelineService pipelineService;
-    private final BuildService buildService;
+    private final ColumnarBuildStore buildStore;
     private final PipelineMetricsRepository metricsRepository;
+    private final LatestMetricsRepository latestMetricsRepository;
     private final ApplicationEventPublisher eventPublisher;
 
+    // latest snapshot per pipeline, empty once a lookup found none. kept current from
+    // committed metrics writes, so a rolled back save never shows up here
+    private final Map<Integer, Optional<PipelineMetrics>> latest = new ConcurrentHashMap<>();
+
     public MetricsService(PipelineService pipelineService,
-                          BuildService buildService,
+                          ColumnarBuildStore buildStore,
                           PipelineMetricsRepository metricsRepository,
+                          LatestMetricsRepository latestMetricsRepository,
                           ApplicationEventPublisher eventPublisher) {
         this.pipelineService = pipelineService;
-        this.buildService = buildService;
+        this.buildStore = buildStore;
         this.metricsRepository = metricsRepository;
+        this.latestMetricsRepository = latestMetricsRepository;
         this.eventPublisher = eventPublisher;
     }
 
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        List<PipelineMetrics> snapshots = latestMetricsRepository.findLatestForAll();
+        snapshots.forEach(this::offerLatest);
+        logger.info("Loaded latest metrics for {} pipelines", snapshots.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPipelineDataChanged(PipelineDataChangedEvent event) {
+        if (event.getEntity() instanceof PipelineMetrics metrics) {
+            if (event.isRemoved()) {
+                latest.remove(event.getPipelineId());
+            } else {
+                offerLatest(metrics);
+            }
+        } else if (event.getEntity() instanceof Pipeline && event.isRemoved()) {
+            latest.remove(event.getPipelineId());
+        }
+    }
+
     @Transactional
     public PipelineMetrics calculateMetricsForPipeline(Integer pipelineId) {
         logger.info("calculating metrics for pipeline {}", pipelineId);
 
         Pipeline pipeline = pipelineService.getPipelineById(pipelineId)
                 .orElseThrow(() -> new IllegalArgumentException("pipeline not found: " + pipelineId));
-        List<Build> builds = buildService.getBuildsByPipelineId(pipelineId);
+        ColumnarBuildStore.Scan builds = buildStore.scan(pipelineId);
+        int totalBuilds = builds.count();
 
-        if (builds.isEmpty()) {
+        if (totalBuilds == 0) {
             logger.info("No builds found for pipeline {}", pipelineId);
             return createEmptyMetrics(pipeline);
         }
 
         // get previous metrics for comparison
-        Optional<PipelineMetrics> previousMetrics = metricsRepository
-                .findTopByPipelineIdOrderByCalculatedAtDesc(pipelineId);
+        Optional<PipelineMetrics> previousMetrics = getLatestMetrics(pipelineId);
 
         PipelineMetrics metrics = PipelineMetrics.builder()
                 .pipeline(pipeline)
                 .calculatedAt(LocalDateTime.now())
                 .build();
 
+        ColumnarBuildStore.Scan successes = builds.withStatus(buildStore.statusId("success"));
+        ColumnarBuildStore.Scan failures = builds.withStatus(buildStore.statusId("failure"));
+
         // calculate basic counts
-        calculateBasicMetrics(metrics, builds);
+        calculateBasicMetrics(metrics, totalBuilds, successes.count(), failures.count());
 
         // calculate duration metrics
         calculateDurationMetrics(metrics, builds);
@@ -66,7 +102,7 @@ public class MetricsService {
         calculateTimePatterns(metrics, builds);
 
         // calculate failure analysis
-        calculateFailureAnalysis(metrics, builds);
+        calculateFailureAnalysis(metrics, builds, successes, failures);
 
         // calculate trends
         if (previousMetrics.isPresent()) {
@@ -83,19 +119,10 @@ public class MetricsService {
         return saved;
     }
 
-    private void calculateBasicMetrics(PipelineMetrics metrics, List<Build> builds) {
-        metrics.setTotalBuilds(builds.size());
-
-        long successCount = builds.stream()
-                .filter(b -> "success".equalsIgnoreCase(b.getStatus()))
-                .count();
-
-        long failureCount = builds.stream()
-                .filter(b -> "failure".equalsIgnoreCase(b.getStatus()))
-                .count();
-
-        metrics.setSuccessfulBuilds((int) successCount);
-        metrics.setFailedBuilds((int) failureCount);
+    private void calculateBasicMetrics(PipelineMetrics metrics, int totalBuilds, int successCount, int failureCount) {
+        metrics.setTotalBuilds(totalBuilds);
+        metrics.setSuccessfulBuilds(successCount);
+        metrics.setFailedBuilds(failureCount);
 
         if (metrics.getTotalBuilds() > 0) {
             double rate = (successCount * 100.0) / metrics.getTotalBuilds();
@@ -105,25 +132,15 @@ public class MetricsService {
         }
     }
 
-    private void calculateDurationMetrics(PipelineMetrics metrics, List<Build> builds) {
+    private void calculateDurationMetrics(PipelineMetrics metrics, ColumnarBuildStore.Scan builds) {
         // Include ALL builds with non-null duration (including 0)
-        List<Long> durations = builds.stream()
-                .filter(b -> b.getDuration() != null)
-                .map(Build::getDuration)
-                .collect(Collectors.toList());
+        LongSummaryStatistics durations = builds.durations();
 
-        if (!durations.isEmpty()) {
+        if (durations.getCount() > 0) {
             // For average, include zeros
-            metrics.setAvgDurationSeconds(
-                    (long) durations.stream().mapToLong(Long::longValue).average().orElse(0)
-            );
-
-            metrics.setMinDurationSeconds(
-                    durations.stream().min(Long::compare).orElse(0L)
-            );
-            metrics.setMaxDurationSeconds(
-                    durations.stream().max(Long::compare).orElse(0L)
-            );
+            metrics.setAvgDurationSeconds((long) durations.getAverage());
+            metrics.setMinDurationSeconds(durations.getMin());
+            metrics.setMaxDurationSeconds(durations.getMax());
         } else {
             metrics.setAvgDurationSeconds(0L);
             metrics.setMinDurationSeconds(0L);
@@ -131,125 +148,70 @@ public class MetricsService {
         }
     }
 
-    private void calculateTimePatterns(PipelineMetrics metrics, List<Build> builds) {
+    private void calculateTimePatterns(PipelineMetrics metrics, ColumnarBuildStore.Scan builds) {
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime todayStart = now.truncatedTo(ChronoUnit.DAYS);
         LocalDateTime weekStart = now.with(DayOfWeek.MONDAY).truncatedTo(ChronoUnit.DAYS);
 
         // builds today
-        long todayCount = builds.stream()
-                .filter(b -> getEffectiveTimestamp(b) != null && getEffectiveTimestamp(b).isAfter(todayStart))
-                .count();
-        metrics.setBuildsToday((int) todayCount);
+        metrics.setBuildsToday(builds.after(todayStart).count());
 
         // builds this week
-        long weekCount = builds.stream()
-                .filter(b -> getEffectiveTimestamp(b) != null && getEffectiveTimestamp(b).isAfter(weekStart))
-                .count();
-        metrics.setBuildsThisWeek((int) weekCount);
+        metrics.setBuildsThisWeek(builds.after(weekStart).count());
 
         // find peak hour
-        Map<Integer, Long> hourCounts = builds.stream()
-                .filter(b -> getEffectiveTimestamp(b) != null)
-                .collect(Collectors.groupingBy(
-                        b -> getEffectiveTimestamp(b).getHour(),
-                        Collectors.counting()
-                ));
-
-        if (!hourCounts.isEmpty()) {
-            Integer peakHour = hourCounts.entrySet().stream()
-                    .max(Map.Entry.comparingByValue())
-                    .map(Map.Entry::getKey)
-                    .orElse(0);
+        ColumnarBuildStore.Scan timed = builds.timed();
+        int peakHour = peak(timed.countBy((chunk, row) -> ColumnarBuildStore.hourOf(chunk.time(row)), 24));
+        if (peakHour >= 0) {
             metrics.setPeakHour(String.valueOf(peakHour));
         }
 
         // find peak day
-        Map<DayOfWeek, Long> dayCounts = builds.stream()
-                .filter(b -> getEffectiveTimestamp(b) != null)
-                .collect(Collectors.groupingBy(
-                        b -> getEffectiveTimestamp(b).getDayOfWeek(),
-                        Collectors.counting()
-                ));
-
-        if (!dayCounts.isEmpty()) {
-            DayOfWeek peakDay = dayCounts.entrySet().stream()
-                    .max(Map.Entry.comparingByValue())
-                    .map(Map.Entry::getKey)
-                    .orElse(DayOfWeek.MONDAY);
-            metrics.setPeakDay(peakDay.toString());
+        int peakDay = peak(timed.countBy((chunk, row) -> ColumnarBuildStore.dayOfWeekOf(chunk.time(row)), 7));
+        if (peakDay >= 0) {
+            metrics.setPeakDay(DayOfWeek.of(peakDay + 1).toString());
         }
     }
 
-    private void calculateFailureAnalysis(PipelineMetrics metrics, List<Build> builds) {
-        // sort builds by time
-        List<Build> sortedBuilds = builds.stream()
-                .filter(b -> getEffectiveTimestamp(b) != null)
-                .sorted(Comparator.comparing(this::getEffectiveTimestamp).reversed())
-                .collect(Collectors.toList());
-
-        // find consecutive failures
-        int consecutiveFailures = 0;
-        for (Build build : sortedBuilds) {
-            if ("failure".equalsIgnoreCase(build.getStatus())) {
-                consecutiveFailures++;
-            } else {
-                break;
-            }
-        }
+    private void calculateFailureAnalysis(PipelineMetrics metrics, ColumnarBuildStore.Scan builds,
+                                          ColumnarBuildStore.Scan successes, ColumnarBuildStore.Scan failures) {
+        // consecutive failures are the failures newer than the latest build that didn't fail
+        int failureStatus = buildStore.statusId("failure");
+        long lastNonFailure = builds.filter((chunk, row) -> chunk.status(row) != failureStatus).latestTime();
+        int consecutiveFailures = failures.timed()
+                .filter((chunk, row) -> chunk.time(row) > lastNonFailure)
+                .count();
         metrics.setConsecutiveFailures(consecutiveFailures);
 
         // find last success and failure
-        sortedBuilds.stream()
-                .filter(b -> "success".equalsIgnoreCase(b.getStatus()))
-                .findFirst()
-                .ifPresent(b -> metrics.setLastSuccess(getEffectiveTimestamp(b)));
-
-        sortedBuilds.stream()
-                .filter(b -> "failure".equalsIgnoreCase(b.getStatus()))
-                .findFirst()
-                .ifPresent(b -> metrics.setLastFailure(getEffectiveTimestamp(b)));
+        long lastSuccess = successes.latestTime();
+        if (lastSuccess != ColumnarBuildStore.NO_TIME) {
+            metrics.setLastSuccess(ColumnarBuildStore.toLocalDateTime(lastSuccess));
+        }
+        long lastFailure = failures.latestTime();
+        if (lastFailure != ColumnarBuildStore.NO_TIME) {
+            metrics.setLastFailure(ColumnarBuildStore.toLocalDateTime(lastFailure));
+        }
 
         // find most common failure time
-        Map<Integer, Long> failureHours = builds.stream()
-                .filter(b -> "failure".equalsIgnoreCase(b.getStatus()) && getEffectiveTimestamp(b) != null)
-                .collect(Collectors.groupingBy(
-                        b -> getEffectiveTimestamp(b).getHour(),
-                        Collectors.counting()
-                ));
-
-        if (!failureHours.isEmpty()) {
-            Integer commonFailureHour = failureHours.entrySet().stream()
-                    .max(Map.Entry.comparingByValue())
-                    .map(Map.Entry::getKey)
-                    .orElse(0);
+        int commonFailureHour = peak(failures.timed()
+                .countBy((chunk, row) -> ColumnarBuildStore.hourOf(chunk.time(row)), 24));
+        if (commonFailureHour >= 0) {
             metrics.setMostCommonFailureTime(commonFailureHour + ":00");
         }
     }
 
-    // helper method
-    private LocalDateTime getEffectiveTimestamp(Build build) {
-        // Prefer startTime first as it's the actual build start
-        if (build.getStartTime() != null) {
-            return build.getStartTime();
-        }
-        // Then try endTime
-        if (build.getEndTime() != null) {
-            return build.getEndTime();
-        }
-        // Only use createdAt as last resort
-        // But DON'T use it if it's too recent (likely auto-set by JPA)
-        if (build.getCreatedAt() != null) {
-            LocalDateTime now = LocalDateTime.now();
-            // If createdAt is within last 5 minutes, it's probably auto-set
-            if (build.getCreatedAt().isBefore(now.minusMinutes(5))) {
-                return build.getCreatedAt();
+    // index of the largest count, -1 when every count is zero
+    private static int peak(int[] counts) {
+        int peak = -1;
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] > 0 && (peak < 0 || counts[i] > counts[peak])) {
+                peak = i;
             }
         }
-        return null; // Return null if no valid timestamp
+        return peak;
     }
 
-
     private void calculateTrends(PipelineMetrics current, PipelineMetrics previous) {
         // success rate change
         if (previous.getSuccessRate() != null && previous.getSuccessRate() > 0) {
@@ -282,7 +244,77 @@ public class MetricsService {
     }
 
     public Optional<PipelineMetrics> getLatestMetrics(Integer pipelineId) {
-        return metricsRepository.findLatestByPipelineId(pipelineId);
+        Optional<PipelineMetrics> cached = latest.get(pipelineId);
+        if (cached != null) return cached;
+
+        Optional<PipelineMetrics> loaded = latestMetricsRepository.findLatestFor(List.of(pipelineId))
+                .stream().findFirst().map(MetricsService::detached);
+        // a write committed while loading wins over what the load saw
+        return latest.merge(pipelineId, loaded, this::newer);
+    }
+
+    /**
+     * latest snapshot of each given pipeline that has one, pipelines not cached yet
+     * are loaded together in one query
+     */
+    public Map<Integer, PipelineMetrics> getLatestMetrics(Collection<Integer> pipelineIds) {
+        Map<Integer, PipelineMetrics> result = new HashMap<>();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer pipelineId : pipelineIds) {
+            Optional<PipelineMetrics> cached = latest.get(pipelineId);
+            if (cached == null) {
+                missing.add(pipelineId);
+            } else {
+                cached.ifPresent(metrics -> result.put(pipelineId, metrics));
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            Map<Integer, PipelineMetrics> loaded = new HashMap<>();
+            latestMetricsRepository.findLatestFor(missing)
+                    .forEach(metrics -> loaded.put(metrics.getPipeline().getId(), detached(metrics)));
+            for (Integer pipelineId : missing) {
+                latest.merge(pipelineId, Optional.ofNullable(loaded.get(pipelineId)), this::newer)
+                        .ifPresent(metrics -> result.put(pipelineId, metrics));
+            }
+        }
+        return result;
+    }
+
+    private void offerLatest(PipelineMetrics metrics) {
+        if (metrics.getPipeline() == null) return;
+        latest.merge(metrics.getPipeline().getId(), Optional.of(detached(metrics)), this::newer);
+    }
+
+    // cached snapshots outlive their session, keep the pipeline's columns but not its lazy builds
+    private static PipelineMetrics detached(PipelineMetrics metrics) {
+        PipelineMetrics copy = new PipelineMetrics();
+        BeanUtils.copyProperties(metrics, copy);
+        Pipeline pipeline = metrics.getPipeline();
+        if (pipeline != null) {
+            copy.setPipeline(Pipeline.builder()
+                    .id(pipeline.getId())
+                    .name(pipeline.getName())
+                    .status(pipeline.getStatus())
+                    .duration(pipeline.getDuration())
+                    .createdAt(pipeline.getCreatedAt())
+                    .updatedAt(pipeline.getUpdatedAt())
+                    .build());
+        }
+        return copy;
+    }
+
+    // later calculatedAt wins, then the higher id
+    private Optional<PipelineMetrics> newer(Optional<PipelineMetrics> a, Optional<PipelineMetrics> b) {
+        if (a.isEmpty()) return b;
+        if (b.isEmpty()) return a;
+        PipelineMetrics x = a.get();
+        PipelineMetrics y = b.get();
+        if (Objects.equals(x.getId(), y.getId())) return b;
+        int byTime = Comparator.nullsFirst(Comparator.<LocalDateTime>naturalOrder())
+                .compare(x.getCalculatedAt(), y.getCalculatedAt());
+        if (byTime != 0) return byTime > 0 ? a : b;
+        return x.getId() != null && y.getId() != null && x.getId() > y.getId() ? a : b;
     }
 
     public List<PipelineMetrics> getMetricsHistory(Integer pipelineId, int days) {
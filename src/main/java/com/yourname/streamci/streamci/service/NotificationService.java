@@ -2,6 +2,7 @@ package com.yourname.streamci.streamci.service;
 
 import com.yourname.streamci.streamci.model.Alert;
 import com.yourname.streamci.streamci.model.AlertConfig;
+import com.yourname.streamci.streamci.model.AlertDigest;
 import org.springframework.stereotype.Service;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -46,6 +47,64 @@ public class NotificationService {
         }
     }
 
+    /**
+     * one notification for a whole group of correlated alerts
+     */
+    public void sendDigest(AlertDigest digest, AlertConfig config) {
+        logger.warn("ALERT DIGEST {}: {} more {} alerts ({}) across {} - max severity {}",
+                getEmoji(digest.getMaxSeverity()),
+                digest.getAlertCount(),
+                digest.getType(),
+                digest.getCause(),
+                digest.getPipelineNames(),
+                digest.getMaxSeverity());
+
+        if (Boolean.TRUE.equals(config.getNotifySlack()) && !slackWebhook.isEmpty()) {
+            postJson(slackWebhook, Map.of(
+                    "text", formatSlackDigest(digest),
+                    "username", "StreamCI Alert",
+                    "icon_emoji", getEmoji(digest.getMaxSeverity())
+            ), "Slack digest");
+        }
+
+        if (Boolean.TRUE.equals(config.getNotifyWebhook()) && config.getNotificationEndpoint() != null) {
+            Map<String, Object> payload = new HashMap<>();
+            payload.put("digest", true);
+            payload.put("type", digest.getType().toString());
+            payload.put("severity", digest.getMaxSeverity().toString());
+            payload.put("cause", digest.getCause());
+            payload.put("alertCount", digest.getAlertCount());
+            payload.put("alertIds", digest.getAlertIds());
+            payload.put("pipelines", digest.getPipelineNames());
+            payload.put("windowStart", digest.getWindowStart());
+            payload.put("windowEnd", digest.getWindowEnd());
+            postJson(config.getNotificationEndpoint(), payload, "Webhook digest");
+        }
+    }
+
+    private void postJson(String url, Map<String, Object> body, String label) {
+        try {
+            HttpHeaders headers = new HttpHeaders();
+            headers.setContentType(MediaType.APPLICATION_JSON);
+            restTemplate.postForEntity(url, new HttpEntity<>(body, headers), String.class);
+            logger.info("{} sent", label);
+        } catch (Exception e) {
+            logger.error("Failed to send {}: {}", label, e.getMessage());
+        }
+    }
+
+    private String formatSlackDigest(AlertDigest digest) {
+        return String.format(
+                "*%d more %s alerts* %s\n*Likely shared cause:* %s\n*Pipelines:* %s\n*Max severity:* %s",
+                digest.getAlertCount(),
+                digest.getType(),
+                getEmoji(digest.getMaxSeverity()),
+                digest.getCause(),
+                String.join(", ", digest.getPipelineNames()),
+                digest.getMaxSeverity()
+        );
+    }
+
     private void logAlert(Alert alert) {
         String emoji = getEmoji(alert.getSeverity());
 
@@ -0,0 +1,440 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.dto.request.PredictionTarget;
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.BuildModifiedEvent;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.OutcomeModel;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.repository.OutcomeModelRepository;
+import com.yourname.streamci.streamci.repository.PipelineRepository;
+import com.yourname.streamci.streamci.util.OnlineLogisticRegression;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * per-pipeline logistic model of build outcomes, trained by SGD on every completed build
+ *
+ * features: bias, current streak, smoothed build duration, hour of day and day of week
+ * (one-hot), committer and branch hashed into 1024 shared slots. one build in ten (by
+ * build id) is held out - scored but never trained on - so the report's accuracy and
+ * brier score are out of sample. a model is bootstrapped from 90 days of builds the
+ * first time its pipeline is seen, weights are flushed to outcome_models every minute.
+ * a restored model catches up on the builds after the last one it was trained on, so a
+ * restart only loses what finished out of id order since the last flush
+ *
+ * a build is trained on once, when it first has a final status. if a final status later
+ * flips (a re-run) the pipeline's model is bootstrapped again, SGD can't take a step back
+ */
+@Service
+public class OutcomeModelService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutcomeModelService.class);
+
+    // feature layout: [bias, streak, duration][24 hours][7 days][hashed committer / branch]
+    private static final int HOUR_OFFSET = 3;
+    private static final int DAY_OFFSET = HOUR_OFFSET + 24;
+    private static final int HASH_OFFSET = DAY_OFFSET + 7;
+    static final int HASHED_FEATURES = 1024;
+    static final int DIMENSIONS = HASH_OFFSET + HASHED_FEATURES;
+
+    private static final double LEARNING_RATE = 0.1;
+    private static final double L2 = 0.0001;
+    private static final double DURATION_ALPHA = 0.2;
+    private static final int HOLD_OUT_MODULUS = 10;
+    private static final int BOOTSTRAP_DAYS = 90;
+
+    private final OutcomeModelRepository modelRepository;
+    private final BuildRepository buildRepository;
+    private final PipelineRepository pipelineRepository;
+    private final Map<Integer, PipelineModel> models = new ConcurrentHashMap<>();
+
+    public OutcomeModelService(OutcomeModelRepository modelRepository,
+                               BuildRepository buildRepository,
+                               PipelineRepository pipelineRepository) {
+        this.modelRepository = modelRepository;
+        this.buildRepository = buildRepository;
+        this.pipelineRepository = pipelineRepository;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildIngested(BuildIngestedEvent event) {
+        Integer pipelineId = event.getPipelineId();
+        Build build = event.getBuild();
+        if (pipelineId == null || !isCompleted(build)) return;
+
+        PipelineModel model = models.computeIfAbsent(pipelineId, this::load);
+        // a bootstrap that ran after this build committed has already trained on it
+        if (!model.coveredByBootstrap(build.getBuildId())) {
+            model.observe(build);
+        }
+    }
+
+    // only a change of outcome matters, other updates (times, duration) leave the model alone
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildModified(BuildModifiedEvent event) {
+        Integer pipelineId = event.getPipelineId();
+        Build build = event.getBuild();
+        if (pipelineId == null || event.isRemoved() || !event.isStatusChanged() || !isCompleted(build)) return;
+
+        if (isCompleted(event.getPreviousStatus())) {
+            // trained on the old outcome - start over from history
+            models.compute(pipelineId, (id, existing) -> bootstrap(id, existing != null ? existing.getEntityId() : null));
+            logger.debug("Outcome of build {} changed, retrained model for pipeline {}", build.getBuildId(), pipelineId);
+            return;
+        }
+
+        // running -> final: train on it, unless the model was just bootstrapped with it
+        boolean[] loaded = {false};
+        PipelineModel model = models.computeIfAbsent(pipelineId, id -> {
+            loaded[0] = true;
+            return load(id);
+        });
+        if (!(loaded[0] && model.coveredByBootstrap(build.getBuildId()))) {
+            model.observe(build);
+        }
+    }
+
+    /**
+     * probability (0-1) that the next build for this context succeeds
+     */
+    public Score score(Integer pipelineId, String committer, String branch, LocalDateTime at) {
+        return modelFor(pipelineId).score(committer, branch, at);
+    }
+
+    /**
+     * scores every target, each pipeline's model is resolved once
+     */
+    public List<Map<String, Object>> scoreBatch(List<PredictionTarget> targets, LocalDateTime at) {
+        Map<Integer, PipelineModel> resolved = new HashMap<>();
+        List<Map<String, Object>> results = new ArrayList<>(targets.size());
+
+        for (PredictionTarget target : targets) {
+            PipelineModel model = resolved.computeIfAbsent(target.getPipelineId(), this::modelFor);
+            Score score = model.score(target.getCommitter(), target.getBranch(), at);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("pipeline_id", target.getPipelineId());
+            result.put("committer", target.getCommitter());
+            result.put("branch", target.getBranch());
+            result.put("probability", Math.round(score.probability() * 1000.0) / 10.0);
+            result.put("trained_builds", score.trainedBuilds());
+            results.add(result);
+        }
+        return results;
+    }
+
+    /**
+     * held-out accuracy / brier score / log loss against a running-success-rate baseline
+     */
+    public Map<String, Object> report(Integer pipelineId) {
+        return modelFor(pipelineId).report(pipelineId);
+    }
+
+    // only pipelines that exist get a cached model, anything else scores as untrained
+    private PipelineModel modelFor(Integer pipelineId) {
+        PipelineModel model = models.get(pipelineId);
+        if (model != null) return model;
+        if (pipelineId == null || !pipelineRepository.existsById(pipelineId)) {
+            return new PipelineModel(pipelineId, new OnlineLogisticRegression(DIMENSIONS, LEARNING_RATE, L2));
+        }
+        return models.computeIfAbsent(pipelineId, this::load);
+    }
+
+    @Scheduled(fixedDelay = 60000, initialDelay = 60000)
+    public void flush() {
+        int saved = 0;
+        for (PipelineModel model : models.values()) {
+            OutcomeModel entity = model.drainIfDirty();
+            if (entity == null) continue;
+            try {
+                model.setEntityId(modelRepository.save(entity).getId());
+                saved++;
+            } catch (Exception e) {
+                // one bad row mustn't cost the other models their flush, this one retries next time
+                model.markDirty();
+                logger.warn("Could not flush outcome model for pipeline {}: {}", entity.getPipelineId(), e.getMessage());
+            }
+        }
+        if (saved > 0) {
+            logger.debug("Flushed {} outcome models", saved);
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        try {
+            flush();
+        } catch (Exception e) {
+            logger.warn("Could not flush outcome models on shutdown: {}", e.getMessage());
+        }
+    }
+
+    private PipelineModel load(Integer pipelineId) {
+        Optional<OutcomeModel> stored = modelRepository.findByPipelineId(pipelineId);
+        if (stored.isPresent() && stored.get().getWeights() != null
+                && stored.get().getWeights().length == DIMENSIONS * Float.BYTES) {
+            return catchUp(PipelineModel.fromEntity(stored.get()), stored.get().getLastBuildId());
+        }
+
+        // nothing stored (or a different feature layout) - retrain from history
+        return bootstrap(pipelineId, stored.map(OutcomeModel::getId).orElse(null));
+    }
+
+    // builds that completed after the last flush (while the service was down, say)
+    private PipelineModel catchUp(PipelineModel model, Long lastBuildId) {
+        if (lastBuildId == null) return model;
+        List<Build> missed = buildRepository.findByPipelineIdAndBuildIdAfter(model.pipelineId, lastBuildId);
+        for (Build build : missed) {
+            if (isCompleted(build)) {
+                model.observe(build);
+            }
+            model.markBootstrapped(build.getBuildId());
+        }
+        if (!missed.isEmpty()) {
+            logger.debug("Outcome model for pipeline {} caught up on {} builds", model.pipelineId, missed.size());
+        }
+        return model;
+    }
+
+    private PipelineModel bootstrap(Integer pipelineId, Long entityId) {
+        PipelineModel model = new PipelineModel(pipelineId, new OnlineLogisticRegression(DIMENSIONS, LEARNING_RATE, L2));
+        model.setEntityId(entityId);
+        List<Build> history = buildRepository.findByPipelineIdAndStartTimeAfter(
+                pipelineId, LocalDateTime.now().minusDays(BOOTSTRAP_DAYS));
+
+        // repository returns newest first, train oldest first
+        for (int i = history.size() - 1; i >= 0; i--) {
+            if (isCompleted(history.get(i))) {
+                model.observe(history.get(i));
+            }
+            model.markBootstrapped(history.get(i).getBuildId());
+        }
+        logger.debug("Bootstrapped outcome model for pipeline {} from {} builds", pipelineId, history.size());
+        return model;
+    }
+
+    private static boolean isCompleted(Build build) {
+        return isCompleted(build.getStatus());
+    }
+
+    private static boolean isCompleted(String status) {
+        return "success".equals(status) || "failure".equals(status);
+    }
+
+    static boolean isHeldOut(Long buildId) {
+        if (buildId == null) return false;
+        // fibonacci hash so the split doesn't follow id order
+        return Math.floorMod((buildId * 0x9E3779B97F4A7C15L) >>> 32, HOLD_OUT_MODULUS) == 0;
+    }
+
+    private static int hashedIndex(String prefix, String value) {
+        int h = (prefix + value).hashCode();
+        h ^= h >>> 16;
+        h *= 0x85EBCA6B;
+        h ^= h >>> 13;
+        return HASH_OFFSET + Math.floorMod(h, HASHED_FEATURES);
+    }
+
+    private static double clampProbability(double p) {
+        return Math.max(1e-6, Math.min(1 - 1e-6, p));
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10000.0) / 10000.0;
+    }
+
+    /**
+     * model probability and the number of builds it was trained on
+     */
+    public record Score(double probability, long trainedBuilds) {
+    }
+
+    private static class PipelineModel {
+        private final Integer pipelineId;
+        private final OnlineLogisticRegression regression;
+        private Long entityId;
+        private long trainedSuccesses;
+        private int streak;
+        private Double durationEwma;
+        private Long lastBuildId; // highest build id trained on, a restored model replays the ones after it
+        private long heldOutCount;
+        private long heldOutCorrect;
+        private double brierSum;
+        private double logLossSum;
+        private double baselineBrierSum;
+        private boolean dirty;
+        private long bootstrappedThrough; // highest build id the bootstrap query returned
+
+        PipelineModel(Integer pipelineId, OnlineLogisticRegression regression) {
+            this.pipelineId = pipelineId;
+            this.regression = regression;
+        }
+
+        synchronized void observe(Build build) {
+            boolean success = "success".equals(build.getStatus());
+            LocalDateTime at = build.getStartTime() != null ? build.getStartTime()
+                    : build.getEndTime() != null ? build.getEndTime() : LocalDateTime.now();
+            int[] indexes = new int[7];
+            double[] values = new double[7];
+            int n = features(build.getCommitter(), build.getBranch(), at, indexes, values);
+            int[] activeIndexes = Arrays.copyOf(indexes, n);
+            double[] activeValues = Arrays.copyOf(values, n);
+
+            if (isHeldOut(build.getBuildId())) {
+                double p = clampProbability(regression.predict(activeIndexes, activeValues));
+                double baseline = (trainedSuccesses + 1.0) / (regression.getUpdates() + 2.0);
+                double label = success ? 1.0 : 0.0;
+
+                heldOutCount++;
+                if ((p >= 0.5) == success) heldOutCorrect++;
+                brierSum += (p - label) * (p - label);
+                baselineBrierSum += (baseline - label) * (baseline - label);
+                logLossSum -= success ? Math.log(p) : Math.log(1 - p);
+            } else {
+                regression.update(activeIndexes, activeValues, success);
+                if (success) trainedSuccesses++;
+            }
+
+            // state features move on held-out builds too, they're part of the history
+            streak = success ? Math.max(streak, 0) + 1 : Math.min(streak, 0) - 1;
+            if (build.getDuration() != null && build.getDuration() > 0) {
+                durationEwma = durationEwma == null ? build.getDuration()
+                        : DURATION_ALPHA * build.getDuration() + (1 - DURATION_ALPHA) * durationEwma;
+            }
+            if (build.getBuildId() != null && (lastBuildId == null || build.getBuildId() > lastBuildId)) {
+                lastBuildId = build.getBuildId();
+            }
+            dirty = true;
+        }
+
+        synchronized Score score(String committer, String branch, LocalDateTime at) {
+            int[] indexes = new int[7];
+            double[] values = new double[7];
+            int n = features(committer, branch, at, indexes, values);
+            double p = regression.predict(Arrays.copyOf(indexes, n), Arrays.copyOf(values, n));
+            return new Score(p, regression.getUpdates());
+        }
+
+        // fills the active features, returns how many there are
+        private int features(String committer, String branch, LocalDateTime at, int[] indexes, double[] values) {
+            int n = 0;
+            indexes[n] = 0;
+            values[n++] = 1.0;
+            indexes[n] = 1;
+            values[n++] = Math.signum(streak) * Math.log1p(Math.abs(streak)) / 2.0;
+            indexes[n] = 2;
+            values[n++] = durationEwma == null ? 0.0 : Math.log1p(durationEwma) / 10.0;
+            indexes[n] = HOUR_OFFSET + at.getHour();
+            values[n++] = 1.0;
+            indexes[n] = DAY_OFFSET + at.getDayOfWeek().getValue() - 1;
+            values[n++] = 1.0;
+            if (committer != null) {
+                indexes[n] = hashedIndex("c:", committer);
+                values[n++] = 1.0;
+            }
+            if (branch != null) {
+                indexes[n] = hashedIndex("b:", branch);
+                values[n++] = 1.0;
+            }
+            return n;
+        }
+
+        synchronized Map<String, Object> report(Integer pipelineId) {
+            Map<String, Object> report = new HashMap<>();
+            report.put("pipeline_id", pipelineId);
+            report.put("trained_builds", regression.getUpdates());
+            report.put("held_out_builds", heldOutCount);
+            report.put("streak", streak);
+            report.put("duration_ewma_seconds", durationEwma);
+            report.put("weight_bytes", regression.dimensions() * Float.BYTES);
+            report.put("weight_norm", round(regression.norm()));
+
+            if (heldOutCount > 0) {
+                double brier = brierSum / heldOutCount;
+                double baseline = baselineBrierSum / heldOutCount;
+                report.put("accuracy", round((double) heldOutCorrect / heldOutCount));
+                report.put("brier_score", round(brier));
+                report.put("log_loss", round(logLossSum / heldOutCount));
+                report.put("baseline_brier_score", round(baseline));
+                // > 0 means the model beats always predicting the success rate
+                report.put("brier_skill_score", baseline > 0 ? round(1.0 - brier / baseline) : null);
+            } else {
+                report.put("accuracy", null);
+                report.put("brier_score", null);
+                report.put("log_loss", null);
+                report.put("baseline_brier_score", null);
+                report.put("brier_skill_score", null);
+            }
+            return report;
+        }
+
+        synchronized void setEntityId(Long entityId) {
+            this.entityId = entityId;
+        }
+
+        synchronized Long getEntityId() {
+            return entityId;
+        }
+
+        synchronized void markBootstrapped(Long buildId) {
+            if (buildId != null) bootstrappedThrough = Math.max(bootstrappedThrough, buildId);
+        }
+
+        synchronized boolean coveredByBootstrap(Long buildId) {
+            return buildId != null && buildId <= bootstrappedThrough;
+        }
+
+        synchronized void markDirty() {
+            dirty = true;
+        }
+
+        synchronized OutcomeModel drainIfDirty() {
+            if (!dirty) return null;
+            dirty = false;
+            return OutcomeModel.builder()
+                    .id(entityId)
+                    .pipelineId(pipelineId)
+                    .weights(regression.toBytes())
+                    .trainedCount(regression.getUpdates())
+                    .trainedSuccesses(trainedSuccesses)
+                    .streak(streak)
+                    .durationEwma(durationEwma)
+                    .lastBuildId(lastBuildId)
+                    .heldOutCount(heldOutCount)
+                    .heldOutCorrect(heldOutCorrect)
+                    .brierSum(brierSum)
+                    .logLossSum(logLossSum)
+                    .baselineBrierSum(baselineBrierSum)
+                    .build();
+        }
+
+        static PipelineModel fromEntity(OutcomeModel entity) {
+            PipelineModel model = new PipelineModel(entity.getPipelineId(), OnlineLogisticRegression.fromBytes(
+                    entity.getWeights(), valueOf(entity.getTrainedCount()), LEARNING_RATE, L2));
+            model.entityId = entity.getId();
+            model.trainedSuccesses = valueOf(entity.getTrainedSuccesses());
+            model.streak = entity.getStreak() != null ? entity.getStreak() : 0;
+            model.durationEwma = entity.getDurationEwma();
+            model.lastBuildId = entity.getLastBuildId();
+            model.heldOutCount = valueOf(entity.getHeldOutCount());
+            model.heldOutCorrect = valueOf(entity.getHeldOutCorrect());
+            model.brierSum = entity.getBrierSum() != null ? entity.getBrierSum() : 0.0;
+            model.logLossSum = entity.getLogLossSum() != null ? entity.getLogLossSum() : 0.0;
+            model.baselineBrierSum = entity.getBaselineBrierSum() != null ? entity.getBaselineBrierSum() : 0.0;
+            return model;
+        }
+
+        private static long valueOf(Long value) {
+            return value != null ? value : 0L;
+        }
+    }
+}
@@ -16,28 +16,39 @@ public class PatternAnalysisService {
 
     private static final Logger logger = LoggerFactory.getLogger(PatternAnalysisService.class);
 
+    // correlation endpoints look at the last month instead of the pipeline's lifetime
+    static final int CORRELATION_WINDOW_DAYS = 30;
+
     final BuildService buildService;
     private final FailurePatternRepository patternRepository;
+    private final FileCorrelationIndex fileCorrelationIndex;
+    private final FlakinessIndex flakinessIndex;
+    private final CommitFileChangeRepository fileChangeRepository;
+    private final FailureRuleMiner ruleMiner;
 
     public PatternAnalysisService(BuildService buildService,
-                                  FailurePatternRepository patternRepository) {
+                                  FailurePatternRepository patternRepository,
+                                  FileCorrelationIndex fileCorrelationIndex,
+                                  FlakinessIndex flakinessIndex,
+                                  CommitFileChangeRepository fileChangeRepository,
+                                  FailureRuleMiner ruleMiner) {
         this.buildService = buildService;
         this.patternRepository = patternRepository;
+        this.fileCorrelationIndex = fileCorrelationIndex;
+        this.flakinessIndex = flakinessIndex;
+        this.fileChangeRepository = fileChangeRepository;
+        this.ruleMiner = ruleMiner;
     }
 
     public List<PatternDetectionResult> analyzeFailurePatterns(Integer pipelineId, int lookbackDays) {
         logger.info("analyzing failure patterns for pipeline {} over {} days", pipelineId, lookbackDays);
+        return analyzeFailurePatterns(loadSnapshot(pipelineId, lookbackDays));
+    }
 
-        List<Build> builds = buildService.getBuildsByPipelineId(pipelineId);
-        LocalDateTime cutoff = LocalDateTime.now().minusDays(lookbackDays);
-
-        List<Build> recentBuilds = builds.stream()
-                .filter(b -> getEffectiveTimestamp(b) != null && getEffectiveTimestamp(b).isAfter(cutoff))
-                .collect(Collectors.toList());
-
+    public List<PatternDetectionResult> analyzeFailurePatterns(BuildSnapshot snapshot) {
         List<PatternDetectionResult> patterns = new ArrayList<>();
 
-        patterns.addAll(findCommonFailureCauses(recentBuilds));
+        patterns.addAll(findCommonFailureCauses(snapshot));
 
         return patterns.stream()
                 .sorted((a, b) -> Double.compare(b.getConfidence(), a.getConfidence()))
@@ -45,66 +56,60 @@ public class PatternAnalysisService {
                 .collect(Collectors.toList());
     }
 
-    public List<FlakyTestResult> detectFlakyTests(Integer pipelineId) {
-        List<Build> builds = buildService.getBuildsByPipelineId(pipelineId);
-
-        Map<String, List<Build>> buildsByScenario = builds.stream()
-                .filter(b -> b.getBranch() != null && b.getCommitter() != null)
-                .collect(Collectors.groupingBy(b -> b.getBranch() + ":" + b.getCommitter()));
-
-        List<FlakyTestResult> flakyTests = new ArrayList<>();
-
-        for (Map.Entry<String, List<Build>> entry : buildsByScenario.entrySet()) {
-            List<Build> scenarioBuilds = entry.getValue();
-
-            if (scenarioBuilds.size() < 5) continue;
+    /**
+     * one bounded query for a pipeline's window, shared by every detector that needs it
+     */
+    public BuildSnapshot loadSnapshot(Integer pipelineId, int lookbackDays) {
+        return BuildSnapshot.of(buildService.getBuildsByPipelineIdSince(
+                pipelineId, LocalDateTime.now().minusDays(lookbackDays)));
+    }
 
-            long failures = scenarioBuilds.stream()
-                    .filter(b -> "failure".equals(b.getStatus()))
-                    .count();
+    /**
+     * multi-attribute failure rules (branch + weekday + committer ...) over the window,
+     * see FailureRuleMiner. one build query and one file-change query per pipeline
+     */
+    public List<PatternDetectionResult> mineFailureRules(Integer pipelineId, int lookbackDays) {
+        Map<String, Set<String>> pathsBySha = new HashMap<>();
+        for (Object[] row : fileChangeRepository.findPathsByPipelineId(pipelineId)) {
+            pathsBySha.computeIfAbsent((String) row[0], sha -> new HashSet<>()).add((String) row[1]);
+        }
 
-            double failureRate = (double) failures / scenarioBuilds.size();
+        FailureTransactions transactions = FailureTransactions.of(buildService.getBuildsByPipelineIdSince(
+                pipelineId, LocalDateTime.now().minusDays(lookbackDays)), pathsBySha);
+        List<PatternDetectionResult> rules = ruleMiner.mine(transactions);
 
-            if (failureRate > 0.3 && failureRate < 0.7) {
-                flakyTests.add(FlakyTestResult.builder()
-                        .testIdentifier(entry.getKey())
-                        .failureRate(Math.round(failureRate * 1000.0) / 10.0)
-                        .totalRuns(scenarioBuilds.size())
-                        .failures((int) failures)
-                        .recommendation("investigate test stability on " + entry.getKey().split(":")[0] + " branch")
-                        .build());
-            }
-        }
+        logger.debug("mined {} failure rules for pipeline {} from {} builds ({} items)",
+                rules.size(), pipelineId, transactions.size(), transactions.itemNames.size());
+        return rules;
+    }
 
-        return flakyTests.stream()
-                .sorted((a, b) -> Double.compare(b.getFailureRate(), a.getFailureRate()))
-                .collect(Collectors.toList());
+    // re-runs of the same commit with different outcomes, see FlakinessIndex
+    public List<FlakyTestResult> detectFlakyTests(Integer pipelineId) {
+        return flakinessIndex.flakyScenarios(pipelineId);
     }
 
-    public List<TimePatternResult> detectTimeBasedPatterns(List<Build> builds) {
-        Map<Integer, List<Build>> buildsByHour = builds.stream()
-                .filter(b -> getEffectiveTimestamp(b) != null)
-                .collect(Collectors.groupingBy(b -> getEffectiveTimestamp(b).getHour()));
+    public List<TimePatternResult> detectTimeBasedPatterns(BuildSnapshot snapshot) {
+        int[] hourBuilds = new int[24];
+        int[] hourFailures = new int[24];
+        for (int i = 0; i < snapshot.size; i++) {
+            int hour = snapshot.hours[i];
+            hourBuilds[hour]++;
+            if (snapshot.failed[i]) hourFailures[hour]++;
+        }
 
         List<TimePatternResult> patterns = new ArrayList<>();
-        double overallFailureRate = calculateOverallFailureRate(builds);
-
-        logger.debug("overall failure rate: {}, total builds: {}", overallFailureRate, builds.size());
+        double overallFailureRate = snapshot.failureRate();
 
-        for (Map.Entry<Integer, List<Build>> entry : buildsByHour.entrySet()) {
-            List<Build> hourBuilds = entry.getValue();
+        logger.debug("overall failure rate: {}, total builds: {}", overallFailureRate, snapshot.size);
 
+        for (int hour = 0; hour < 24; hour++) {
             // lower minimum threshold for testing
-            if (hourBuilds.size() < 2) continue;
-
-            long failures = hourBuilds.stream()
-                    .filter(b -> "failure".equals(b.getStatus()))
-                    .count();
+            if (hourBuilds[hour] < 2) continue;
 
-            double hourFailureRate = (double) failures / hourBuilds.size();
+            double hourFailureRate = (double) hourFailures[hour] / hourBuilds[hour];
 
             logger.debug("hour {}: {} builds, {} failures, {}% failure rate",
-                    entry.getKey(), hourBuilds.size(), failures, hourFailureRate * 100);
+                    hour, hourBuilds[hour], hourFailures[hour], hourFailureRate * 100);
 
             // more sensitive threshold for pattern detection
             boolean isPattern = hourFailureRate > Math.max(0.5, overallFailureRate * 1.2);
@@ -113,49 +118,49 @@ public class PatternAnalysisService {
                 String riskLevel = hourFailureRate > 0.7 ? "high" : "medium";
 
                 TimePatternResult pattern = TimePatternResult.builder()
-                        .timeSlot(String.valueOf(entry.getKey()))
+                        .timeSlot(String.valueOf(hour))
                         .failureRate(Math.round(hourFailureRate * 1000.0) / 10.0)
-                        .totalBuilds(hourBuilds.size())
-                        .failures((int) failures)
+                        .totalBuilds(hourBuilds[hour])
+                        .failures(hourFailures[hour])
                         .riskLevel(riskLevel)
                         .build();
 
                 patterns.add(pattern);
                 logger.info("detected time pattern: hour {} with {}% failure rate",
-                        entry.getKey(), pattern.getFailureRate());
+                        hour, pattern.getFailureRate());
             }
         }
 
         return patterns;
     }
 
-    public List<CommitterPatternResult> detectCommitterPatterns(List<Build> builds) {
-        Map<String, List<Build>> buildsByCommitter = builds.stream()
-                .filter(b -> b.getCommitter() != null && !b.getCommitter().equals("unknown"))
-                .collect(Collectors.groupingBy(Build::getCommitter));
+    public List<CommitterPatternResult> detectCommitterPatterns(BuildSnapshot snapshot) {
+        int committerCount = snapshot.committerNames.size();
+        int[] committerBuilds = new int[committerCount];
+        int[] committerFailures = new int[committerCount];
+        for (int i = 0; i < snapshot.size; i++) {
+            int committer = snapshot.committers[i];
+            if (committer < 0) continue;
+            committerBuilds[committer]++;
+            if (snapshot.failed[i]) committerFailures[committer]++;
+        }
 
         List<CommitterPatternResult> patterns = new ArrayList<>();
-        double overallFailureRate = calculateOverallFailureRate(builds);
-
-        for (Map.Entry<String, List<Build>> entry : buildsByCommitter.entrySet()) {
-            List<Build> committerBuilds = entry.getValue();
-
-            if (committerBuilds.size() < 5) continue;
+        double overallFailureRate = snapshot.failureRate();
 
-            long failures = committerBuilds.stream()
-                    .filter(b -> "failure".equals(b.getStatus()))
-                    .count();
+        for (int committer = 0; committer < committerCount; committer++) {
+            if (committerBuilds[committer] < 5) continue;
 
-            double committerFailureRate = (double) failures / committerBuilds.size();
+            double committerFailureRate = (double) committerFailures[committer] / committerBuilds[committer];
 
             if (committerFailureRate > overallFailureRate * 1.3) {
                 String riskLevel = committerFailureRate > 0.4 ? "high" : "medium";
 
                 patterns.add(CommitterPatternResult.builder()
-                        .committer(entry.getKey())
+                        .committer(snapshot.committerNames.get(committer))
                         .failureRate(Math.round(committerFailureRate * 1000.0) / 10.0)
-                        .totalBuilds(committerBuilds.size())
-                        .failures((int) failures)
+                        .totalBuilds(committerBuilds[committer])
+                        .failures(committerFailures[committer])
                         .riskLevel(riskLevel)
                         .build());
             }
@@ -166,10 +171,10 @@ public class PatternAnalysisService {
                 .collect(Collectors.toList());
     }
 
-    private List<PatternDetectionResult> findCommonFailureCauses(List<Build> builds) {
+    private List<PatternDetectionResult> findCommonFailureCauses(BuildSnapshot snapshot) {
         List<PatternDetectionResult> causes = new ArrayList<>();
 
-        List<TimePatternResult> timePatterns = detectTimeBasedPatterns(builds);
+        List<TimePatternResult> timePatterns = detectTimeBasedPatterns(snapshot);
         for (TimePatternResult pattern : timePatterns) {
             causes.add(PatternDetectionResult.builder()
                     .patternType("time_based")
@@ -182,7 +187,7 @@ public class PatternAnalysisService {
                     .build());
         }
 
-        List<CommitterPatternResult> committerPatterns = detectCommitterPatterns(builds);
+        List<CommitterPatternResult> committerPatterns = detectCommitterPatterns(snapshot);
         for (CommitterPatternResult pattern : committerPatterns) {
             causes.add(PatternDetectionResult.builder()
                     .patternType("committer_based")
@@ -198,91 +203,18 @@ public class PatternAnalysisService {
         return causes;
     }
 
-    private double calculateOverallFailureRate(List<Build> builds) {
-        if (builds.isEmpty()) return 0.0;
-
-        long failures = builds.stream()
-                .filter(b -> "failure".equals(b.getStatus()))
-                .count();
-
-        return (double) failures / builds.size();
-    }
-
-    private LocalDateTime getEffectiveTimestamp(Build build) {
-        if (build.getStartTime() != null) {
-            return build.getStartTime();
-        }
-        if (build.getEndTime() != null) {
-            return build.getEndTime();
-        }
-        if (build.getCreatedAt() != null) {
-            LocalDateTime now = LocalDateTime.now();
-            if (build.getCreatedAt().isBefore(now.minusMinutes(5))) {
-                return build.getCreatedAt();
-            }
-        }
-        return null;
-    }
-
     public List<TimePatternResult> getTimeBasedCorrelations(Integer pipelineId) {
-        List<Build> builds = buildService.getBuildsByPipelineId(pipelineId);
-        return detectTimeBasedPatterns(builds);
+        return detectTimeBasedPatterns(loadSnapshot(pipelineId, CORRELATION_WINDOW_DAYS));
     }
 
     public List<CommitterPatternResult> getCommitterBasedCorrelations(Integer pipelineId) {
-        List<Build> builds = buildService.getBuildsByPipelineId(pipelineId);
-        return detectCommitterPatterns(builds);
+        return detectCommitterPatterns(loadSnapshot(pipelineId, CORRELATION_WINDOW_DAYS));
     }
 
 
+    // answered from the push-fed path index, see FileCorrelationIndex
     public List<FileCorrelationResult> getFileBasedCorrelations(Integer pipelineId) {
         logger.info("analyzing file-based correlations for pipeline {}", pipelineId);
-
-        List<Build> builds = buildService.getBuildsByPipelineId(pipelineId);
-        List<Build> failures = builds.stream()
-                .filter(b -> "failure".equals(b.getStatus()))
-                .collect(Collectors.toList());
-
-        List<FileCorrelationResult> correlations = new ArrayList<>();
-
-        // mock file pattern analysis - simulate real patterns
-        if (failures.size() > 5) {
-
-            // pattern 1: yml files cause issues
-            correlations.add(FileCorrelationResult.builder()
-                    .filePattern("*.yml")
-                    .failureRate(78.0)
-                    .description("failures spike when yml config files are modified")
-                    .recommendation("review yml changes carefully before deployment")
-                    .affectedBuilds(Math.min(failures.size(), 12))
-                    .confidence(0.85)
-                    .build());
-
-            // pattern 2: database migrations are risky
-            correlations.add(FileCorrelationResult.builder()
-                    .filePattern("**/migrations/*.sql")
-                    .failureRate(65.0)
-                    .description("database migration files correlate with build failures")
-                    .recommendation("run migrations in staging environment first")
-                    .affectedBuilds(Math.min(failures.size(), 8))
-                    .confidence(0.72)
-                    .build());
-
-            // pattern 3: frontend dependencies
-            if (failures.size() > 10) {
-                correlations.add(FileCorrelationResult.builder()
-                        .filePattern("package.json")
-                        .failureRate(45.0)
-                        .description("dependency updates in package.json linked to test failures")
-                        .recommendation("lock dependency versions and test thoroughly")
-                        .affectedBuilds(Math.min(failures.size(), 6))
-                        .confidence(0.68)
-                        .build());
-            }
-        }
-
-        return correlations.stream()
-                .sorted((a, b) -> Double.compare(b.getConfidence(), a.getConfidence()))
-                .collect(Collectors.toList());
+        return fileCorrelationIndex.correlations(pipelineId);
     }
 }
\ No newline at end of file
@@ -4,6 +4,7 @@ import com.yourname.streamci.streamci.model.Pipeline;
 import com.yourname.streamci.streamci.repository.PipelineRepository;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -32,6 +33,15 @@ public class PipelineService extends AbstractCrudService<Pipeline, Integer> {
         return getById(id);
     }
 
+    // one query for the whole set, missing ids are left out
+    public List<Pipeline> getPipelinesByIds(Collection<Integer> ids) {
+        return repository.findAllById(ids);
+    }
+
+    public long countPipelines() {
+        return repository.count();
+    }
+
     public Pipeline savePipeline(Pipeline pipeline) {
         return save(pipeline);
     }
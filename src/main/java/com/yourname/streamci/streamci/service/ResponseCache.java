@@ -0,0 +1,168 @@
+package com.yourname.streamci.streamci.service;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * caches read-only json responses by endpoint and parameters
+ *
+ * an entry is reused while the data version it was computed at is still current and it is
+ * younger than max-age (summaries carry "last 24 hours" style fields that age without any
+ * write). concurrent misses on the same key share one computation, and every entry carries
+ * an etag so polling clients get a bodiless 304 while nothing has changed
+ */
+@Component
+public class ResponseCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResponseCache.class);
+    private static final int MAX_ENTRIES = 1000;
+
+    @Value("${cache.responses.enabled:true}")
+    private boolean enabled;
+
+    @Value("${cache.responses.max-age-seconds:60}")
+    private long maxAgeSeconds;
+
+    // distinguishes tags handed out before a restart, when the versions start over
+    private final String instance = Long.toHexString(System.currentTimeMillis());
+    private final AtomicLong generation = new AtomicLong();
+
+    private final Map<String, Entry> entries = new LinkedHashMap<>(64, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+    private final Map<String, CompletableFuture<Entry>> inFlight = new ConcurrentHashMap<>();
+
+    private record Entry(long version, String etag, ResponseEntity<?> response, long createdAt) {
+
+        boolean cacheable() {
+            return response.getStatusCode().is2xxSuccessful();
+        }
+    }
+
+    public <T> ResponseEntity<T> serve(HttpServletRequest request, long version,
+                                       Supplier<ResponseEntity<T>> compute) {
+        if (!enabled) {
+            return compute.get();
+        }
+
+        String key = keyOf(request);
+        Entry entry = lookup(key, version);
+        if (entry == null) {
+            entry = computeOnce(key, version, compute);
+        }
+        if (!entry.cacheable()) {
+            return cast(entry.response());
+        }
+        return respond(entry, request.getHeader(HttpHeaders.IF_NONE_MATCH));
+    }
+
+    public void clear() {
+        synchronized (entries) {
+            entries.clear();
+        }
+    }
+
+    private Entry lookup(String key, long version) {
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+        }
+        if (entry == null || entry.version() != version) return null;
+        long age = System.currentTimeMillis() - entry.createdAt();
+        return age < Duration.ofSeconds(maxAgeSeconds).toMillis() ? entry : null;
+    }
+
+    // the first miss computes, misses arriving meanwhile wait for its result
+    private <T> Entry computeOnce(String key, long version, Supplier<ResponseEntity<T>> compute) {
+        String flightKey = key + "@" + version;
+        CompletableFuture<Entry> mine = new CompletableFuture<>();
+        CompletableFuture<Entry> running = inFlight.putIfAbsent(flightKey, mine);
+        if (running != null) {
+            try {
+                return running.join();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) throw cause;
+                throw e;
+            }
+        }
+
+        try {
+            ResponseEntity<T> response = compute.get();
+            Entry entry = new Entry(version, nextEtag(), response, System.currentTimeMillis());
+            if (entry.cacheable()) {
+                synchronized (entries) {
+                    entries.put(key, entry);
+                }
+            }
+            mine.complete(entry);
+            return entry;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, mine);
+        }
+    }
+
+    private <T> ResponseEntity<T> respond(Entry entry, String ifNoneMatch) {
+        if (matches(ifNoneMatch, entry.etag())) {
+            logger.debug("Not modified, etag {}", entry.etag());
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(entry.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .build();
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.addAll(entry.response().getHeaders());
+        headers.setETag(entry.etag());
+        headers.setCacheControl(CacheControl.noCache());
+        return cast(new ResponseEntity<>(entry.response().getBody(), headers, entry.response().getStatusCode()));
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        return Arrays.stream(ifNoneMatch.split(","))
+                .map(String::trim)
+                .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+                .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+
+    private String nextEtag() {
+        return "\"" + instance + "-" + Long.toHexString(generation.incrementAndGet()) + "\"";
+    }
+
+    // parameters sorted so ?a=1&b=2 and ?b=2&a=1 share an entry
+    private static String keyOf(HttpServletRequest request) {
+        StringBuilder key = new StringBuilder(request.getRequestURI());
+        Map<String, String[]> params = new TreeMap<>(request.getParameterMap());
+        params.forEach((name, values) -> key.append('|').append(name).append('=')
+                .append(String.join(",", values)));
+        return key.toString();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ResponseEntity<T> cast(ResponseEntity<?> response) {
+        return (ResponseEntity<T>) response;
+    }
+}
@@ -0,0 +1,323 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.SloEvaluatedEvent;
+import com.yourname.streamci.streamci.model.Alert;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.SloDefinition;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.repository.SloDefinitionRepository;
+import com.yourname.streamci.streamci.util.RollingWindow;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * multi-window, multi-burn-rate evaluation of pipeline SLOs
+ *
+ * burn rate = bad fraction in a window / error budget fraction, so 1.0 spends the
+ * budget exactly over the budget period. each policy pairs a long window (is the burn
+ * significant?) with a short one (is it still happening?). every SLO keeps bucketed
+ * good/bad counters per window, updated once per build - nothing scans builds after warm-up
+ */
+@Service
+public class SloService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SloService.class);
+
+    // for a 30 day budget: 2% spent in 1h or 5% in 6h pages, 10% in 3d warns
+    private static final List<BurnPolicy> POLICIES = List.of(
+            new BurnPolicy(60, 5, 14.4, Alert.AlertSeverity.CRITICAL),
+            new BurnPolicy(360, 30, 6.0, Alert.AlertSeverity.CRITICAL),
+            new BurnPolicy(3 * 24 * 60, 360, 1.0, Alert.AlertSeverity.WARNING));
+
+    private static final int MAX_WINDOW_BUCKETS = 72;
+    private static final int MAX_BUDGET_BUCKETS = 24 * 90;
+
+    private final SloDefinitionRepository sloRepository;
+    private final BuildRepository buildRepository;
+    private final AlertService alertService;
+    private final ApplicationEventPublisher eventPublisher;
+
+    private volatile List<SloDefinition> slos = List.of();
+    private final Map<Long, SloState> states = new ConcurrentHashMap<>();
+
+    public SloService(SloDefinitionRepository sloRepository,
+                      BuildRepository buildRepository,
+                      AlertService alertService,
+                      ApplicationEventPublisher eventPublisher) {
+        this.sloRepository = sloRepository;
+        this.buildRepository = buildRepository;
+        this.alertService = alertService;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reloadSlos();
+    }
+
+    // counters are rebuilt lazily on the next build or status request
+    public synchronized void reloadSlos() {
+        slos = List.copyOf(sloRepository.findByEnabledTrue());
+        states.clear();
+        logger.info("Loaded {} SLO definitions", slos.size());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBuildIngested(BuildIngestedEvent event) {
+        Build build = event.getBuild();
+        if (event.getPipelineId() == null || slos.isEmpty()) return;
+
+        for (SloDefinition slo : slos) {
+            if (!event.getPipelineId().equals(slo.getPipelineId())) continue;
+
+            try {
+                SloState state = stateFor(slo, build.getBuildId());
+                long now = epochSecond(LocalDateTime.now());
+                Map<String, Object> status;
+
+                synchronized (state) {
+                    if (!state.matchesBranch(build.getBranch()) || !state.record(build, now)) continue;
+                    state.advanceTo(now);
+                    evaluate(state, build);
+                    status = state.toStatus();
+                }
+                eventPublisher.publishEvent(new SloEvaluatedEvent(this, slo.getPipelineId(), status));
+            } catch (Exception e) {
+                logger.error("SLO evaluation failed for '{}': {}", slo.getName(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * error budget and burn rates for every SLO of a pipeline
+     */
+    public List<Map<String, Object>> getStatus(Integer pipelineId) {
+        long now = epochSecond(LocalDateTime.now());
+        List<Map<String, Object>> result = new ArrayList<>();
+
+        for (SloDefinition slo : slos) {
+            if (!Objects.equals(slo.getPipelineId(), pipelineId)) continue;
+
+            SloState state = stateFor(slo, null);
+            synchronized (state) {
+                state.advanceTo(now);
+                result.add(state.toStatus());
+            }
+        }
+        return result;
+    }
+
+    public List<Map<String, Object>> getAllStatus() {
+        return slos.stream()
+                .map(SloDefinition::getPipelineId)
+                .distinct()
+                .flatMap(pipelineId -> getStatus(pipelineId).stream())
+                .toList();
+    }
+
+    private void evaluate(SloState state, Build build) {
+        SloDefinition slo = state.slo;
+        BurnPolicy burning = null;
+        for (BurnPolicy policy : POLICIES) {
+            if (state.isBurning(policy)) {
+                burning = policy;
+                break;
+            }
+        }
+
+        if (burning != null) {
+            String window = label(burning.longMinutes);
+            double burnRate = state.burnRate(burning.longMinutes);
+            alertService.raiseSloAlert(slo, build.getPipeline(), window, burnRate,
+                            burning.factor, burning.severity, state.budgetRemaining())
+                    .ifPresent(alert -> logger.info("SLO '{}' burning at {}x over {}",
+                            slo.getName(), String.format("%.1f", burnRate), window));
+            state.firing = burning;
+        } else if (state.firing != null || !state.evaluated) {
+            // first evaluation since startup, an alert from before the restart may still be open
+            alertService.resolveByFingerprint(String.format("slo_%d", slo.getId()),
+                    String.format("%s burn rate back under every policy threshold", slo.getName()));
+            state.firing = null;
+        }
+        state.evaluated = true;
+    }
+
+    private SloState stateFor(SloDefinition slo, Long excludeBuildId) {
+        SloState existing = states.get(slo.getId());
+        if (existing != null) return existing;
+
+        synchronized (this) {
+            existing = states.get(slo.getId());
+            if (existing != null) return existing;
+
+            SloState state = new SloState(slo);
+            warm(state, excludeBuildId);
+            states.put(slo.getId(), state);
+            return state;
+        }
+    }
+
+    // one bounded query per SLO, covering the longest of the budget and burn windows
+    private void warm(SloState state, Long excludeBuildId) {
+        long minutes = Math.max(state.budgetMinutes(), POLICIES.get(POLICIES.size() - 1).longMinutes);
+        LocalDateTime since = LocalDateTime.now().minusMinutes(minutes);
+        List<Build> history = buildRepository.findByPipelineIdAndStartTimeAfter(state.slo.getPipelineId(), since);
+        long now = epochSecond(LocalDateTime.now());
+
+        // repository returns newest first, counters want oldest first
+        for (int i = history.size() - 1; i >= 0; i--) {
+            Build build = history.get(i);
+            if (Objects.equals(build.getBuildId(), excludeBuildId) || !state.matchesBranch(build.getBranch())) continue;
+            state.record(build, now);
+        }
+        logger.debug("Warmed SLO '{}' from {} builds", state.slo.getName(), history.size());
+    }
+
+    private static String label(long minutes) {
+        if (minutes % (24 * 60) == 0) return minutes / (24 * 60) + "d";
+        if (minutes % 60 == 0) return minutes / 60 + "h";
+        return minutes + "m";
+    }
+
+    private static long epochSecond(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static LocalDateTime eventTime(Build build) {
+        if (build.getEndTime() != null) return build.getEndTime();
+        if (build.getStartTime() != null) return build.getStartTime();
+        return build.getCreatedAt() != null ? build.getCreatedAt() : LocalDateTime.now();
+    }
+
+    private record BurnPolicy(long longMinutes, long shortMinutes, double factor, Alert.AlertSeverity severity) {
+    }
+
+    /**
+     * good/bad counters for one SLO: one rolling window per burn window plus the budget period
+     * (RollingWindow "failures" are the bad events here)
+     */
+    private static class SloState {
+        private final SloDefinition slo;
+        private final Map<Long, RollingWindow> windows = new TreeMap<>();
+        private final RollingWindow budget;
+        private BurnPolicy firing;
+        private boolean evaluated;
+
+        SloState(SloDefinition slo) {
+            this.slo = slo;
+            for (BurnPolicy policy : POLICIES) {
+                windows.computeIfAbsent(policy.longMinutes, SloState::window);
+                windows.computeIfAbsent(policy.shortMinutes, SloState::window);
+            }
+            long budgetMinutes = budgetMinutes();
+            this.budget = new RollingWindow(Duration.ofMinutes(budgetMinutes),
+                    (int) Math.min(budgetMinutes / 60, MAX_BUDGET_BUCKETS), false);
+        }
+
+        private static RollingWindow window(long minutes) {
+            return new RollingWindow(Duration.ofMinutes(minutes), (int) Math.min(minutes, MAX_WINDOW_BUCKETS), false);
+        }
+
+        long budgetMinutes() {
+            return slo.getBudgetDays() * 24L * 60;
+        }
+
+        boolean matchesBranch(String branch) {
+            return slo.getBranch() == null || slo.getBranch().equals(branch);
+        }
+
+        // returns false when the build says nothing about this SLO (still running, no duration...)
+        boolean record(Build build, long now) {
+            Boolean bad = classify(build);
+            if (bad == null) return false;
+
+            long at = Math.min(epochSecond(eventTime(build)), now);
+            for (RollingWindow window : windows.values()) {
+                window.record(at, bad, -1);
+            }
+            budget.record(at, bad, -1);
+            return true;
+        }
+
+        private Boolean classify(Build build) {
+            return switch (slo.getIndicator()) {
+                case SUCCESS_RATE -> "success".equals(build.getStatus()) ? Boolean.FALSE :
+                        "failure".equals(build.getStatus()) ? Boolean.TRUE : null;
+                case DURATION -> build.getDuration() == null ? null :
+                        build.getDuration() > slo.getDurationThresholdSeconds();
+            };
+        }
+
+        void advanceTo(long now) {
+            windows.values().forEach(window -> window.advanceTo(now));
+            budget.advanceTo(now);
+        }
+
+        double budgetFraction() {
+            return (100.0 - slo.getTarget()) / 100.0;
+        }
+
+        double burnRate(long minutes) {
+            RollingWindow window = windows.get(minutes);
+            if (window.count() == 0) return 0.0;
+            return ((double) window.failures() / window.count()) / budgetFraction();
+        }
+
+        // an empty short window is no evidence of recovery (CI can go quiet for minutes)
+        boolean isBurning(BurnPolicy policy) {
+            if (windows.get(policy.longMinutes).count() < slo.getMinEvents()) return false;
+
+            double shortBurn = windows.get(policy.shortMinutes).count() == 0 ?
+                    burnRate(policy.longMinutes) : burnRate(policy.shortMinutes);
+            return burnRate(policy.longMinutes) >= policy.factor && shortBurn >= policy.factor;
+        }
+
+        // percent of the period's budget left, negative once it is overspent
+        double budgetRemaining() {
+            if (budget.count() == 0) return 100.0;
+            double allowed = budgetFraction() * budget.count();
+            return (1.0 - budget.failures() / allowed) * 100.0;
+        }
+
+        Map<String, Object> toStatus() {
+            Map<String, Double> burnRates = new LinkedHashMap<>();
+            for (Long minutes : windows.keySet()) {
+                burnRates.put(label(minutes), round(burnRate(minutes)));
+            }
+
+            Map<String, Object> status = new HashMap<>();
+            status.put("slo_id", slo.getId());
+            status.put("name", slo.getName());
+            status.put("pipeline_id", slo.getPipelineId());
+            status.put("branch", slo.getBranch());
+            status.put("indicator", slo.getIndicator());
+            status.put("target", slo.getTarget());
+            status.put("budget_days", slo.getBudgetDays());
+            status.put("events", budget.count());
+            status.put("bad_events", budget.failures());
+            status.put("sli", budget.count() == 0 ? null : round(100.0 - budget.failureRate()));
+            status.put("error_budget_remaining", round(budgetRemaining()));
+            status.put("burn_rates", burnRates);
+            status.put("firing", firing != null);
+            status.put("firing_window", firing != null ? label(firing.longMinutes) : null);
+            status.put("severity", firing != null ? firing.severity : null);
+            return status;
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100.0) / 100.0;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.yourname.streamci.streamci.service;
 import com.yourname.streamci.streamci.model.User;
 import com.yourname.streamci.streamci.model.Pipeline;
 import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.CommitFileChange;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.springframework.beans.factory.annotation.Value;
@@ -16,7 +17,9 @@ import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -28,6 +31,8 @@ public class WebhookService {
     private final UserService userService;
     private final PipelineService pipelineService;
     private final BuildService buildService;
+    private final FileCorrelationIndex fileCorrelationIndex;
+    private final EventRateMeter eventRateMeter;
     private final ObjectMapper objectMapper;
 
     @Value("${github.webhook.secret:}")
@@ -36,11 +41,15 @@ public class WebhookService {
     public WebhookService(DashboardWebSocketService webSocketService,
                          UserService userService,
                          PipelineService pipelineService,
-                         BuildService buildService) {
+                         BuildService buildService,
+                         FileCorrelationIndex fileCorrelationIndex,
+                         EventRateMeter eventRateMeter) {
         this.webSocketService = webSocketService;
         this.userService = userService;
         this.pipelineService = pipelineService;
         this.buildService = buildService;
+        this.fileCorrelationIndex = fileCorrelationIndex;
+        this.eventRateMeter = eventRateMeter;
         this.objectMapper = new ObjectMapper();
     }
 
@@ -126,6 +135,7 @@ public class WebhookService {
             } else if ("push".equals(eventType)) {
                 processPushEvent(payload);
             } else {
+                eventRateMeter.record(eventType, null);
                 logger.debug("ignoring event type: {}", eventType);
             }
 
@@ -144,6 +154,7 @@ public class WebhookService {
                 logger.warn("no workflow_run or repository found in payload");
                 return;
             }
+            eventRateMeter.record("workflow_run", repositoryName(repository));
 
             String action = root.get("action").asText();
             String status = workflowRun.get("status").asText();
@@ -179,17 +190,7 @@ public class WebhookService {
             String repoName = repository.get("name").asText();
 
             // find or create pipeline
-            Pipeline pipeline = pipelineService.getAllPipelines().stream()
-                    .filter(p -> repoName.equals(p.getName()))
-                    .findFirst()
-                    .orElseGet(() -> {
-                        Pipeline newPipeline = Pipeline.builder()
-                                .name(repoName)
-                                .status("active")
-                                .duration(0)
-                                .build();
-                        return pipelineService.savePipeline(newPipeline);
-                    });
+            Pipeline pipeline = findOrCreatePipeline(repoName);
 
             // only save build if workflow is completed (has all data)
             if ("completed".equals(action) && conclusion != null) {
@@ -236,6 +237,20 @@ public class WebhookService {
         }
     }
 
+    private Pipeline findOrCreatePipeline(String repoName) {
+        return pipelineService.getAllPipelines().stream()
+                .filter(p -> repoName.equals(p.getName()))
+                .findFirst()
+                .orElseGet(() -> {
+                    Pipeline newPipeline = Pipeline.builder()
+                            .name(repoName)
+                            .status("active")
+                            .duration(0)
+                            .build();
+                    return pipelineService.savePipeline(newPipeline);
+                });
+    }
+
     private LocalDateTime parseGitHubDateTime(JsonNode dateNode) {
         if (dateNode == null || dateNode.isNull()) {
             return null;
@@ -260,12 +275,17 @@ public class WebhookService {
         };
     }
 
+    private String repositoryName(JsonNode repository) {
+        return repository.path("full_name").asText(repository.path("name").asText());
+    }
+
     private void processPushEvent(String payload) {
         try {
             JsonNode root = objectMapper.readTree(payload);
             JsonNode repository = root.get("repository");
 
             if (repository == null) return;
+            eventRateMeter.record("push", repositoryName(repository));
 
             String repoName = repository.get("full_name").asText();
             String branch = root.get("ref").asText().replace("refs/heads/", "");
@@ -281,11 +301,47 @@ public class WebhookService {
 
             webSocketService.broadcastDashboardUpdate("push_received", pushData);
 
+            saveFileChanges(root, repository);
+
         } catch (Exception e) {
             logger.error("failed to process push event: {}", e.getMessage(), e);
         }
     }
 
+    // every file of every commit in the push, keyed by the head sha the workflow run will build
+    private void saveFileChanges(JsonNode root, JsonNode repository) {
+        String headSha = root.path("after").asText(null);
+        JsonNode commits = root.get("commits");
+        if (headSha == null || root.path("deleted").asBoolean(false)
+                || commits == null || commits.isEmpty()) {
+            return;
+        }
+
+        Pipeline pipeline = findOrCreatePipeline(repository.get("name").asText());
+        List<CommitFileChange> changes = new ArrayList<>();
+        for (JsonNode commit : commits) {
+            String commitSha = commit.path("id").asText(null);
+            addFileChanges(changes, pipeline, headSha, commitSha, commit.get("added"), CommitFileChange.ChangeType.ADDED);
+            addFileChanges(changes, pipeline, headSha, commitSha, commit.get("modified"), CommitFileChange.ChangeType.MODIFIED);
+            addFileChanges(changes, pipeline, headSha, commitSha, commit.get("removed"), CommitFileChange.ChangeType.REMOVED);
+        }
+        fileCorrelationIndex.recordPush(pipeline.getId(), headSha, changes);
+    }
+
+    private void addFileChanges(List<CommitFileChange> changes, Pipeline pipeline, String headSha,
+                                String commitSha, JsonNode paths, CommitFileChange.ChangeType type) {
+        if (paths == null) return;
+        for (JsonNode path : paths) {
+            changes.add(CommitFileChange.builder()
+                    .pipelineId(pipeline.getId())
+                    .headSha(headSha)
+                    .commitSha(commitSha)
+                    .path(path.asText())
+                    .changeType(type)
+                    .build());
+        }
+    }
+
     private Map<String, Object> createBuildData(JsonNode workflowRun, String action) {
         Map<String, Object> buildData = new HashMap<>();
 
@@ -0,0 +1,31 @@
+package com.yourname.streamci.streamci.util;
+
+import com.yourname.streamci.streamci.model.Build;
+
+import java.time.LocalDateTime;
+
+/**
+ * the time a build is bucketed under (hour of day, rollups, windows)
+ * start, then end, then createdAt once it's settled - a build created without start/end
+ * gets createdAt = insert time, which only stands in for the build's time after a while
+ */
+public final class BuildTimes {
+
+    public static final int CREATED_AT_SETTLE_MINUTES = 5;
+
+    private BuildTimes() {
+    }
+
+    public static LocalDateTime effectiveTime(Build build) {
+        return effectiveTime(build.getStartTime(), build.getEndTime(), build.getCreatedAt());
+    }
+
+    public static LocalDateTime effectiveTime(LocalDateTime start, LocalDateTime end, LocalDateTime createdAt) {
+        if (start != null) return start;
+        if (end != null) return end;
+        if (createdAt != null && createdAt.isBefore(LocalDateTime.now().minusMinutes(CREATED_AT_SETTLE_MINUTES))) {
+            return createdAt;
+        }
+        return null;
+    }
+}
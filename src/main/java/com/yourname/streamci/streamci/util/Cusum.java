@@ -0,0 +1,49 @@
+package com.yourname.streamci.streamci.util;
+
+/**
+ * one-sided (upper) CUSUM over standardized samples, O(1) state
+ * S = max(0, S + x - k) and a change is signalled once S > h. k is the slack (half the
+ * shift worth detecting, in standard deviations), h trades detection delay for false
+ * alarms - k = 0.5, h = 5 catches a 1 sigma shift in ~10 samples with an in-control
+ * run length in the hundreds. runLength counts the samples since S last left zero,
+ * which is where the change most likely started
+ */
+public class Cusum {
+
+    private final double slack;
+    private final double threshold;
+    private double sum;
+    private int runLength;
+
+    public Cusum(double slack, double threshold) {
+        this.slack = slack;
+        this.threshold = threshold;
+    }
+
+    /**
+     * adds one standardized sample, returns true when the sum crosses the threshold
+     */
+    public boolean add(double x) {
+        sum = Math.max(0.0, sum + x - slack);
+        runLength = sum > 0 ? runLength + 1 : 0;
+        return sum > threshold;
+    }
+
+    public void reset() {
+        sum = 0.0;
+        runLength = 0;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public int getRunLength() {
+        return runLength;
+    }
+
+    // true while the sum is at zero, i.e. the series looks like its baseline
+    public boolean inControl() {
+        return sum == 0.0;
+    }
+}
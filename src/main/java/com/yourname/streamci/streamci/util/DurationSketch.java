@@ -0,0 +1,82 @@
+package com.yourname.streamci.streamci.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * fixed log-scale histogram of build durations, mergeable by adding counts
+ * bin i covers [GAMMA^(i-1), GAMMA^i) seconds (bin 0 is under a second), so any quantile
+ * is answered within ~12% relative error and a day of hourly sketches merges into one
+ * with a loop over 64 ints. the last bin starts at GAMMA^62 s (~11.8 days) and takes
+ * everything longer
+ */
+public class DurationSketch {
+
+    private static final double GAMMA = 1.25;
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    public static final int BINS = 64;
+
+    private final int[] counts;
+    private long total;
+
+    public DurationSketch() {
+        this.counts = new int[BINS];
+    }
+
+    private DurationSketch(int[] counts) {
+        this.counts = counts;
+        for (int count : counts) {
+            total += count;
+        }
+    }
+
+    public void add(long seconds) {
+        counts[bin(seconds)]++;
+        total++;
+    }
+
+    public void merge(DurationSketch other) {
+        for (int i = 0; i < BINS; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+    }
+
+    /**
+     * approximate quantile in seconds (geometric midpoint of the bin), 0 when empty
+     */
+    public double quantile(double q) {
+        if (total == 0) return 0.0;
+        long rank = (long) Math.ceil(q * total);
+        long seen = 0;
+        for (int i = 0; i < BINS; i++) {
+            seen += counts[i];
+            if (seen >= Math.max(1, rank)) {
+                return i == 0 ? 0.5 : Math.pow(GAMMA, i - 0.5);
+            }
+        }
+        return Math.pow(GAMMA, BINS - 1.5);
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(BINS * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(counts);
+        return buffer.array();
+    }
+
+    public static DurationSketch fromBytes(byte[] bytes) {
+        if (bytes == null || bytes.length != BINS * Integer.BYTES) return new DurationSketch();
+        int[] counts = new int[BINS];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(counts);
+        return new DurationSketch(counts);
+    }
+
+    private static int bin(long seconds) {
+        if (seconds < 1) return 0;
+        return (int) Math.min(BINS - 1, Math.floor(Math.log(seconds) / LOG_GAMMA) + 1);
+    }
+}
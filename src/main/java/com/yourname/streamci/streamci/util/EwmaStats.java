@@ -0,0 +1,66 @@
+package com.yourname.streamci.streamci.util;
+
+/**
+ * exponentially weighted mean and variance, updated in O(1) per sample
+ * (incremental form from Finch, "Incremental calculation of weighted mean and variance")
+ * until 1/alpha samples have been seen it behaves like a plain running average,
+ * so the first sample doesn't dominate the baseline
+ * a few doubles of state, so it is cheap to keep one per pipeline per metric
+ */
+public class EwmaStats {
+
+    private final double alpha;
+    private double mean;
+    private double variance;
+    private long count;
+
+    public EwmaStats(double alpha) {
+        this.alpha = alpha;
+    }
+
+    public void update(double value) {
+        if (count == 0) {
+            mean = value;
+            variance = 0.0;
+        } else {
+            double weight = Math.max(alpha, 1.0 / (count + 1));
+            double diff = value - mean;
+            double increment = weight * diff;
+            mean += increment;
+            variance = (1 - weight) * (variance + diff * increment);
+        }
+        count++;
+    }
+
+    /**
+     * like update() but clamps the sample to mean +/- limit standard deviations first,
+     * so a single outlier can't drag the baseline towards itself
+     */
+    public void updateWinsorized(double value, double limit, double minStdDev) {
+        if (count > 0) {
+            double band = limit * Math.max(stdDev(), minStdDev);
+            value = Math.max(mean - band, Math.min(mean + band, value));
+        }
+        update(value);
+    }
+
+    /**
+     * standard score of a value against the current baseline,
+     * minStdDev keeps a very stable series from turning tiny changes into huge scores
+     */
+    public double zScore(double value, double minStdDev) {
+        return (value - mean) / Math.max(stdDev(), minStdDev);
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double stdDev() {
+        return Math.sqrt(variance);
+    }
+
+    public long getCount() {
+        return count;
+    }
+}
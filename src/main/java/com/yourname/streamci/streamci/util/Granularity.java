@@ -0,0 +1,50 @@
+package com.yourname.streamci.streamci.util;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+
+/**
+ * time bucket size of a trend series, weeks start on monday
+ */
+public enum Granularity {
+    MINUTE, HOURLY, DAILY, WEEKLY;
+
+    public LocalDateTime bucketStart(LocalDateTime time) {
+        return switch (this) {
+            case MINUTE -> time.truncatedTo(ChronoUnit.MINUTES);
+            case HOURLY -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAILY -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEKLY -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+        };
+    }
+
+    // the key series are charted by, dates only for daily and weekly buckets
+    public String format(LocalDateTime bucketStart) {
+        return this == DAILY || this == WEEKLY
+                ? bucketStart.toLocalDate().format(DateTimeFormatter.ISO_LOCAL_DATE)
+                : bucketStart.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME);
+    }
+
+    // sources stored at a coarser resolution can't be split any finer
+    public Granularity atLeast(Granularity finest) {
+        return compareTo(finest) >= 0 ? this : finest;
+    }
+
+    public String label() {
+        return name().toLowerCase();
+    }
+
+    public static Granularity parse(String value, Granularity fallback) {
+        if (value == null) return fallback;
+        return switch (value.trim().toLowerCase()) {
+            case "minute", "minutely" -> MINUTE;
+            case "hour", "hourly" -> HOURLY;
+            case "day", "daily" -> DAILY;
+            case "week", "weekly" -> WEEKLY;
+            default -> fallback;
+        };
+    }
+}
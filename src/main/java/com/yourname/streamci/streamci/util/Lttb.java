@@ -0,0 +1,90 @@
+package com.yourname.streamci.streamci.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * largest-triangle-three-buckets downsampling (steinarsson, 2013)
+ * keeps the first and last point, splits the rest into threshold - 2 buckets and from each
+ * keeps the point spanning the largest triangle with the point kept before it and the
+ * average of the next bucket, so spikes and dips survive where averaging flattens them
+ */
+public final class Lttb {
+
+    private Lttb() {
+    }
+
+    /**
+     * indices of the points to keep, ascending. x must be ascending,
+     * series that already fit the threshold come back whole
+     */
+    public static int[] select(double[] x, double[] y, int threshold) {
+        int size = x.length;
+        threshold = Math.max(threshold, 3);
+        if (size <= threshold) {
+            int[] all = new int[size];
+            for (int i = 0; i < size; i++) all[i] = i;
+            return all;
+        }
+
+        int[] kept = new int[threshold];
+        double bucketSize = (double) (size - 2) / (threshold - 2);
+        int previous = 0;
+
+        for (int bucket = 0; bucket < threshold - 2; bucket++) {
+            // average of the next bucket, the last point stands in for the one after the final bucket
+            int nextStart = (int) ((bucket + 1) * bucketSize) + 1;
+            int nextEnd = Math.min((int) ((bucket + 2) * bucketSize) + 1, size);
+            if (nextStart >= size - 1) {
+                nextStart = size - 1;
+                nextEnd = size;
+            }
+            double avgX = 0;
+            double avgY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                avgX += x[i];
+                avgY += y[i];
+            }
+            avgX /= nextEnd - nextStart;
+            avgY /= nextEnd - nextStart;
+
+            int start = (int) (bucket * bucketSize) + 1;
+            int end = (int) ((bucket + 1) * bucketSize) + 1;
+            double maxArea = -1;
+            int chosen = start;
+            for (int i = start; i < end; i++) {
+                // twice the triangle area, the factor doesn't change the winner
+                double area = Math.abs((x[previous] - avgX) * (y[i] - y[previous])
+                        - (x[previous] - x[i]) * (avgY - y[previous]));
+                if (area > maxArea) {
+                    maxArea = area;
+                    chosen = i;
+                }
+            }
+            kept[bucket + 1] = chosen;
+            previous = chosen;
+        }
+        kept[threshold - 1] = size - 1;
+        return kept;
+    }
+
+    public static <T> List<T> downsample(List<T> points, ToDoubleFunction<T> x, ToDoubleFunction<T> y, int threshold) {
+        if (points.size() <= Math.max(threshold, 3)) {
+            return points;
+        }
+        double[] xs = new double[points.size()];
+        double[] ys = new double[points.size()];
+        for (int i = 0; i < points.size(); i++) {
+            xs[i] = x.applyAsDouble(points.get(i));
+            ys[i] = y.applyAsDouble(points.get(i));
+        }
+
+        int[] kept = select(xs, ys, threshold);
+        List<T> sampled = new ArrayList<>(kept.length);
+        for (int index : kept) {
+            sampled.add(points.get(index));
+        }
+        return sampled;
+    }
+}
@@ -0,0 +1,78 @@
+package com.yourname.streamci.streamci.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * minhash signatures over token shingles
+ * each of the k slots keeps the minimum of one seeded 64-bit mix over every shingle, so the
+ * share of equal slots between two signatures estimates the jaccard similarity of their
+ * shingle sets. signatures are fixed size whatever the text length, and the bands of an
+ * LSH table are just consecutive slots
+ */
+public class MinHash {
+
+    private static final long GOLDEN = 0x9E3779B97F4A7C15L;
+
+    private final int size;
+    private final int shingleLength;
+
+    public MinHash(int size, int shingleLength) {
+        this.size = size;
+        this.shingleLength = shingleLength;
+    }
+
+    /**
+     * signature of the token sequence, texts shorter than one shingle hash as a single shingle
+     */
+    public int[] signature(List<String> tokens) {
+        int[] signature = new int[size];
+        Arrays.fill(signature, Integer.MAX_VALUE);
+
+        int shingles = Math.max(1, tokens.size() - shingleLength + 1);
+        for (int start = 0; start < shingles; start++) {
+            long shingle = 0xCBF29CE484222325L;
+            int end = Math.min(tokens.size(), start + shingleLength);
+            for (int i = start; i < end; i++) {
+                shingle = (shingle ^ tokens.get(i).hashCode()) * 0x100000001B3L;
+            }
+            for (int slot = 0; slot < size; slot++) {
+                int value = (int) (mix(shingle + GOLDEN * (slot + 1)) >>> 33);
+                if (value < signature[slot]) signature[slot] = value;
+            }
+        }
+        return signature;
+    }
+
+    /**
+     * estimated jaccard similarity, the share of slots that agree
+     */
+    public static double similarity(int[] a, int[] b) {
+        int equal = 0;
+        for (int i = 0; i < a.length; i++) {
+            if (a[i] == b[i]) equal++;
+        }
+        return (double) equal / a.length;
+    }
+
+    public static byte[] toBytes(int[] signature) {
+        ByteBuffer buffer = ByteBuffer.allocate(signature.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(signature);
+        return buffer.array();
+    }
+
+    public static int[] fromBytes(byte[] bytes) {
+        int[] signature = new int[bytes.length / Integer.BYTES];
+        ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer().get(signature);
+        return signature;
+    }
+
+    // splitmix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
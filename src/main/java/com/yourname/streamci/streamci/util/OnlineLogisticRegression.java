@@ -0,0 +1,94 @@
+package com.yourname.streamci.streamci.util;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * logistic regression trained one sample at a time with SGD
+ *
+ * samples are sparse (feature indexes + values) over a fixed-size weight vector, so
+ * scoring is a dot product over the handful of active features. weights are floats
+ * and serialize to 4 bytes each. learning rate decays as lr0 / sqrt(1 + t / 100),
+ * L2 is applied lazily to the weights a sample touches. not thread safe
+ */
+public class OnlineLogisticRegression {
+
+    private final float[] weights;
+    private final double learningRate;
+    private final double l2;
+    private long updates;
+
+    public OnlineLogisticRegression(int dimensions, double learningRate, double l2) {
+        this.weights = new float[dimensions];
+        this.learningRate = learningRate;
+        this.l2 = l2;
+    }
+
+    public int dimensions() {
+        return weights.length;
+    }
+
+    public long getUpdates() {
+        return updates;
+    }
+
+    // probability of the positive class
+    public double predict(int[] indexes, double[] values) {
+        double z = 0.0;
+        for (int i = 0; i < indexes.length; i++) {
+            z += weights[indexes[i]] * values[i];
+        }
+        return sigmoid(z);
+    }
+
+    /**
+     * one SGD step on the log loss, returns the prediction made before the step
+     */
+    public double update(int[] indexes, double[] values, boolean label) {
+        double p = predict(indexes, values);
+        double gradient = p - (label ? 1.0 : 0.0);
+        double rate = learningRate / Math.sqrt(1.0 + updates / 100.0);
+
+        for (int i = 0; i < indexes.length; i++) {
+            int index = indexes[i];
+            weights[index] -= (float) (rate * (gradient * values[i] + l2 * weights[index]));
+        }
+        updates++;
+        return p;
+    }
+
+    public double norm() {
+        double sum = 0.0;
+        for (float weight : weights) {
+            sum += weight * weight;
+        }
+        return Math.sqrt(sum);
+    }
+
+    // little-endian floats, the update count is stored separately by callers
+    public byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(weights.length * Float.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        for (float weight : weights) {
+            buffer.putFloat(weight);
+        }
+        return buffer.array();
+    }
+
+    public static OnlineLogisticRegression fromBytes(byte[] bytes, long updates,
+                                                     double learningRate, double l2) {
+        int dimensions = bytes.length / Float.BYTES;
+        OnlineLogisticRegression model = new OnlineLogisticRegression(dimensions, learningRate, l2);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        for (int i = 0; i < dimensions; i++) {
+            model.weights[i] = buffer.getFloat();
+        }
+        model.updates = updates;
+        return model;
+    }
+
+    private static double sigmoid(double z) {
+        // clamp so exp() can't overflow on a runaway weight
+        double clamped = Math.max(-30.0, Math.min(30.0, z));
+        return 1.0 / (1.0 + Math.exp(-clamped));
+    }
+}
@@ -0,0 +1,54 @@
+package com.yourname.streamci.streamci.util;
+
+/**
+ * last N success/failure outcomes packed into a long, newest in bit 0
+ * adding an outcome and counting successes in any recent slice are O(1) (shift + bitCount),
+ * so a feature store can keep one per committer / branch without per-build objects
+ * capacity is at most 64, not thread safe - callers synchronize
+ */
+public class RecentOutcomes {
+
+    private final int capacity;
+    private final long mask;
+    private long bits;
+    private int size;
+
+    public RecentOutcomes(int capacity) {
+        if (capacity < 1 || capacity > 64) {
+            throw new IllegalArgumentException("capacity must be between 1 and 64");
+        }
+        this.capacity = capacity;
+        this.mask = capacity == 64 ? -1L : (1L << capacity) - 1;
+    }
+
+    public void add(boolean success) {
+        bits = ((bits << 1) | (success ? 1L : 0L)) & mask;
+        if (size < capacity) {
+            size++;
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int successes() {
+        return Long.bitCount(bits);
+    }
+
+    /**
+     * successes among `count` outcomes, skipping the `skip` newest ones
+     * e.g. successes(0, 5) is the last five builds, successes(5, 5) the five before that
+     */
+    public int successes(int skip, int count) {
+        if (skip >= 64 || count <= 0) {
+            return 0;
+        }
+        long slice = bits >>> skip;
+        return Long.bitCount(count >= 64 ? slice : slice & ((1L << count) - 1));
+    }
+
+    public double successRate() {
+        return size == 0 ? 0.0 : (double) successes() / size * 100.0;
+    }
+}
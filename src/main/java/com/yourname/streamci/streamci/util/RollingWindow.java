@@ -0,0 +1,187 @@
+package com.yourname.streamci.streamci.util;
+
+import java.time.Duration;
+import java.util.Arrays;
+
+/**
+ * time-bucketed sliding window over build outcomes
+ * keeps running totals so recording an event and reading an aggregate are O(1),
+ * expired buckets are subtracted as the window slides forward
+ * durations go into a log-scale histogram so quantiles (p90 etc) stay cheap
+ */
+public class RollingWindow {
+
+    public static final int HISTOGRAM_BINS = 48;
+    private static final double BIN_GROWTH = 1.25;
+    private static final double LOG_GROWTH = Math.log(BIN_GROWTH);
+
+    private final long bucketSeconds;
+    private final int bucketCount;
+
+    // absolute bucket number currently held in each slot, -1 when empty
+    private final long[] bucketIds;
+    private final int[] counts;
+    private final int[] failures;
+    private final int[] durationCounts;
+    private final int[][] histograms;
+
+    private long head = -1;
+    private long totalCount;
+    private long totalFailures;
+    private long totalDurationCount;
+    private final int[] totalHistogram;
+
+    public RollingWindow(Duration window, int bucketCount, boolean trackDurations) {
+        this.bucketCount = Math.max(1, bucketCount);
+        this.bucketSeconds = Math.max(1, window.getSeconds() / this.bucketCount);
+        this.bucketIds = new long[this.bucketCount];
+        this.counts = new int[this.bucketCount];
+        this.failures = new int[this.bucketCount];
+        this.durationCounts = new int[this.bucketCount];
+        this.histograms = trackDurations ? new int[this.bucketCount][HISTOGRAM_BINS] : null;
+        this.totalHistogram = trackDurations ? new int[HISTOGRAM_BINS] : null;
+        Arrays.fill(bucketIds, -1);
+    }
+
+    /**
+     * record one build outcome, durationSeconds < 0 means unknown
+     * events older than the window are dropped
+     */
+    public synchronized void record(long epochSecond, boolean failed, long durationSeconds) {
+        long bucket = epochSecond / bucketSeconds;
+        advanceBucket(bucket);
+
+        if (head - bucket >= bucketCount) {
+            return;
+        }
+
+        int slot = slot(bucket);
+        if (bucketIds[slot] != bucket) {
+            clearSlot(slot);
+            bucketIds[slot] = bucket;
+        }
+
+        counts[slot]++;
+        totalCount++;
+        if (failed) {
+            failures[slot]++;
+            totalFailures++;
+        }
+
+        if (histograms != null && durationSeconds >= 0) {
+            int bin = histogramBin(durationSeconds);
+            histograms[slot][bin]++;
+            totalHistogram[bin]++;
+            durationCounts[slot]++;
+            totalDurationCount++;
+        }
+    }
+
+    // slide the window so buckets older than now drop out of the totals
+    public synchronized void advanceTo(long epochSecond) {
+        advanceBucket(epochSecond / bucketSeconds);
+    }
+
+    public synchronized long count() {
+        return totalCount;
+    }
+
+    public synchronized long failures() {
+        return totalFailures;
+    }
+
+    public synchronized long durationCount() {
+        return totalDurationCount;
+    }
+
+    public synchronized double failureRate() {
+        return totalCount == 0 ? 0.0 : (double) totalFailures / totalCount * 100;
+    }
+
+    /**
+     * approximate duration quantile in seconds (error bounded by the bin width, ~12%)
+     * returns 0 when no durations have been recorded
+     */
+    public synchronized double quantile(double q) {
+        if (totalHistogram == null || totalDurationCount == 0) {
+            return 0.0;
+        }
+
+        long target = (long) Math.ceil(q * totalDurationCount);
+        long seen = 0;
+        for (int bin = 0; bin < HISTOGRAM_BINS; bin++) {
+            seen += totalHistogram[bin];
+            if (seen >= Math.max(1, target)) {
+                return binValue(bin);
+            }
+        }
+        return binValue(HISTOGRAM_BINS - 1);
+    }
+
+    public long getWindowSeconds() {
+        return bucketSeconds * bucketCount;
+    }
+
+    private void advanceBucket(long bucket) {
+        if (head < 0) {
+            head = bucket;
+            return;
+        }
+        if (bucket <= head) {
+            return;
+        }
+
+        if (bucket - head >= bucketCount) {
+            for (int slot = 0; slot < bucketCount; slot++) {
+                clearSlot(slot);
+            }
+        } else {
+            for (long b = head + 1; b <= bucket; b++) {
+                clearSlot(slot(b));
+            }
+        }
+        head = bucket;
+    }
+
+    private void clearSlot(int slot) {
+        if (bucketIds[slot] < 0) {
+            return;
+        }
+
+        totalCount -= counts[slot];
+        totalFailures -= failures[slot];
+        totalDurationCount -= durationCounts[slot];
+        counts[slot] = 0;
+        failures[slot] = 0;
+        durationCounts[slot] = 0;
+
+        if (histograms != null) {
+            for (int bin = 0; bin < HISTOGRAM_BINS; bin++) {
+                totalHistogram[bin] -= histograms[slot][bin];
+            }
+            Arrays.fill(histograms[slot], 0);
+        }
+        bucketIds[slot] = -1;
+    }
+
+    private int slot(long bucket) {
+        return (int) (bucket % bucketCount);
+    }
+
+    // log-scale histogram bin for a duration, shared with code that builds its own histograms
+    public static int histogramBin(long durationSeconds) {
+        if (durationSeconds <= 1) {
+            return 0;
+        }
+        int bin = 1 + (int) (Math.log(durationSeconds) / LOG_GROWTH);
+        return Math.min(HISTOGRAM_BINS - 1, bin);
+    }
+
+    // representative duration (geometric midpoint) of a histogram bin
+    public static double binValue(int bin) {
+        if (bin == 0) {
+            return 1.0;
+        }
+        return Math.pow(BIN_GROWTH, bin - 0.5);
+    }
+}
@@ -0,0 +1,64 @@
+package com.yourname.streamci.streamci.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * per-pipeline state that is warmed from the database on first use
+ *
+ * only pipelines that exist are cached, so lookups for arbitrary ids can't grow the map;
+ * an unknown id gets a fresh empty value. warming runs outside the map's compute, so its
+ * queries never hold a ConcurrentHashMap bin lock - two racing warms just keep the first.
+ * a warm that overlaps an invalidate is not kept, the next lookup warms again
+ */
+public class WarmCache<V> {
+
+    private final Map<Integer, V> values = new ConcurrentHashMap<>();
+    private final AtomicLong invalidations = new AtomicLong();
+    private final IntPredicate exists;
+    private final Function<Integer, V> warm;
+    private final Supplier<V> empty;
+
+    public WarmCache(IntPredicate exists, Function<Integer, V> warm, Supplier<V> empty) {
+        this.exists = exists;
+        this.warm = warm;
+        this.empty = empty;
+    }
+
+    /**
+     * cached value, or null if the pipeline hasn't been warmed
+     */
+    public V peek(Integer pipelineId) {
+        return pipelineId == null ? null : values.get(pipelineId);
+    }
+
+    public V get(Integer pipelineId) {
+        V cached = peek(pipelineId);
+        if (cached != null) return cached;
+        if (pipelineId == null || !exists.test(pipelineId)) return empty.get();
+
+        long generation = invalidations.get();
+        V warmed = warm.apply(pipelineId);
+        V raced = values.putIfAbsent(pipelineId, warmed);
+        if (raced != null) return raced;
+        if (invalidations.get() != generation) {
+            // may have read rows the invalidation was about, serve it once but don't keep it
+            values.remove(pipelineId, warmed);
+        }
+        return warmed;
+    }
+
+    /**
+     * drops the pipeline's value, returns whether there was one
+     */
+    public boolean invalidate(Integer pipelineId) {
+        if (pipelineId == null) return false;
+        // bump first so a warm already past its generation read sees it
+        invalidations.incrementAndGet();
+        return values.remove(pipelineId) != null;
+    }
+}
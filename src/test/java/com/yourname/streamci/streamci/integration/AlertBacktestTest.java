@@ -0,0 +1,211 @@
+package com.yourname.streamci.streamci.integration;
+
+import com.yourname.streamci.streamci.model.*;
+import com.yourname.streamci.streamci.repository.*;
+import com.yourname.streamci.streamci.service.AlertRuleEngine;
+import com.yourname.streamci.streamci.service.AlertService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * backtest replays rules over builds and configs over metrics without raising anything
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AlertBacktestTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PipelineRepository pipelineRepository;
+
+    @Autowired
+    private BuildRepository buildRepository;
+
+    @Autowired
+    private PipelineMetricsRepository metricsRepository;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    @Autowired
+    private AlertRuleRepository ruleRepository;
+
+    @Autowired
+    private AlertRuleEngine ruleEngine;
+
+    private Pipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = pipelineRepository.save(Pipeline.builder()
+                .name("BacktestPipeline")
+                .status("active")
+                .duration(300)
+                .build());
+
+        LocalDateTime twoDaysAgo = LocalDateTime.now().minusDays(2);
+        LocalDateTime oneDayAgo = LocalDateTime.now().minusDays(1);
+
+        // burst of 3 failures within 10 minutes - fires
+        saveBuild("failure", twoDaysAgo);
+        saveBuild("failure", twoDaysAgo.plusMinutes(3));
+        saveBuild("failure", twoDaysAgo.plusMinutes(6));
+        saveBuild("failure", twoDaysAgo.plusMinutes(8)); // still firing, same episode
+        saveBuild("success", twoDaysAgo.plusMinutes(40));
+
+        // spread out failures - never 3 inside the window
+        saveBuild("failure", twoDaysAgo.plusHours(3));
+        saveBuild("failure", twoDaysAgo.plusHours(4));
+        saveBuild("failure", twoDaysAgo.plusHours(5));
+
+        // second burst - fires again
+        saveBuild("failure", oneDayAgo);
+        saveBuild("failure", oneDayAgo.plusMinutes(2));
+        saveBuild("failure", oneDayAgo.plusMinutes(4));
+
+        int[] consecutive = {0, 4, 5, 0, 3};
+        for (int i = 0; i < consecutive.length; i++) {
+            metricsRepository.save(PipelineMetrics.builder()
+                    .pipeline(pipeline)
+                    .calculatedAt(twoDaysAgo.plusHours(i))
+                    .totalBuilds(10)
+                    .successRate(90.0)
+                    .consecutiveFailures(consecutive[i])
+                    .build());
+        }
+    }
+
+    @Test
+    void replaysRulesAndConfigs() throws Exception {
+        long alertsBefore = alertRepository.count();
+
+        String body = String.format("""
+                {
+                  "days": 7,
+                  "pipelineIds": [%d],
+                  "rules": [{"name": "burst", "metric": "FAILURE_COUNT", "windowMinutes": 10, "threshold": 3}],
+                  "configs": [{"alertType": "CONSECUTIVE_FAILURES", "warningThreshold": 3},
+                              {"alertType": "STALE_PIPELINE"}]
+                }
+                """, pipeline.getId());
+
+        mockMvc.perform(post("/api/alerts/backtest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.pipelines_replayed").value(1))
+                .andExpect(jsonPath("$.builds_replayed").value(11))
+                .andExpect(jsonPath("$.rules[0].alerts_fired").value(2))
+                .andExpect(jsonPath("$.rules[0].pipeline_ids", contains(pipeline.getId())))
+                .andExpect(jsonPath("$.rules[0].firings", hasSize(2)))
+                .andExpect(jsonPath("$.rules[0].firings[0].value").value(3.0))
+                .andExpect(jsonPath("$.configs[0].alerts_fired").value(2))
+                .andExpect(jsonPath("$.configs[1].supported").value(false))
+                .andExpect(jsonPath("$.configs[1].alerts_fired").value(0))
+                .andExpect(jsonPath("$.elapsed_ms").exists());
+
+        // a backtest never raises real alerts
+        Assertions.assertEquals(alertsBefore, alertRepository.count());
+    }
+
+    @Test
+    void durationRegressionFiresWhereTheLiveEngineDoes() throws Exception {
+        Pipeline regressed = pipelineRepository.save(Pipeline.builder()
+                .name("BacktestRegressionPipeline")
+                .status("active")
+                .duration(300)
+                .build());
+        AlertRule rule = ruleRepository.save(AlertRule.builder()
+                .name("p90 regression")
+                .pipelineId(regressed.getId())
+                .metric(AlertRule.RuleMetric.P90_DURATION_CHANGE)
+                .windowMinutes(60)
+                .baselineMinutes(24 * 60)
+                .threshold(50.0)
+                .minSamples(3)
+                .severity(Alert.AlertSeverity.WARNING)
+                .build());
+        ruleEngine.reloadRules();
+        try {
+            // steady 100s builds, some older than the replayed day, then five 300s builds
+            LocalDateTime now = LocalDateTime.now();
+            for (int i = 0; i < 10; i++) {
+                saveBuild(regressed, 100L, now.minusHours(31).plusHours(2L * i));
+            }
+            for (int i = 0; i < 5; i++) {
+                saveBuild(regressed, 300L, now.minusMinutes(25).plusMinutes(5L * i));
+            }
+            String fingerprint = AlertService.ruleFingerprint(rule, regressed.getId());
+            assertThat(alertRepository.findActiveByFingerprint(fingerprint)).isPresent();
+
+            // the regression must not count towards its own baseline
+            String body = String.format("""
+                    {
+                      "days": 1,
+                      "pipelineIds": [%d],
+                      "rules": [{"metric": "P90_DURATION_CHANGE", "pipelineId": %d, "windowMinutes": 60,
+                                 "baselineMinutes": 1440, "threshold": 50, "minSamples": 3}]
+                    }
+                    """, regressed.getId(), regressed.getId());
+            mockMvc.perform(post("/api/alerts/backtest")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(body))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.builds_replayed").value(11))
+                    .andExpect(jsonPath("$.rules[0].alerts_fired").value(1))
+                    .andExpect(jsonPath("$.rules[0].firings[0].value", greaterThanOrEqualTo(50.0)));
+        } finally {
+            ruleRepository.delete(rule);
+            ruleEngine.reloadRules();
+            alertRepository.deleteAll(alertRepository.findAll().stream()
+                    .filter(alert -> alert.getPipeline() != null && alert.getPipeline().getId() == regressed.getId())
+                    .toList());
+        }
+    }
+
+    @Test
+    void rejectsEmptyRequest() throws Exception {
+        mockMvc.perform(post("/api/alerts/backtest")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"days\": 7}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("at least one")));
+    }
+
+    private void saveBuild(Pipeline owner, Long duration, LocalDateTime end) {
+        buildRepository.save(Build.builder()
+                .pipeline(owner)
+                .status("success")
+                .branch("main")
+                .startTime(end.minusSeconds(duration))
+                .endTime(end)
+                .duration(duration)
+                .build());
+    }
+
+    private void saveBuild(String status, LocalDateTime end) {
+        buildRepository.save(Build.builder()
+                .pipeline(pipeline)
+                .status(status)
+                .branch("main")
+                .startTime(end.minusMinutes(5))
+                .endTime(end)
+                .duration(300L)
+                .build());
+    }
+}
@@ -0,0 +1,176 @@
+package com.yourname.streamci.streamci.integration;
+
+import com.yourname.streamci.streamci.model.*;
+import com.yourname.streamci.streamci.repository.*;
+import com.yourname.streamci.streamci.service.AlertRuleEngine;
+import com.yourname.streamci.streamci.service.AlertService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * rule engine fires on the build that crosses the threshold, no metrics cycle needed
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class AlertRuleEngineTest {
+
+    @Autowired
+    private AlertRuleEngine ruleEngine;
+
+    @Autowired
+    private AlertRuleRepository ruleRepository;
+
+    @Autowired
+    private PipelineRepository pipelineRepository;
+
+    @Autowired
+    private BuildRepository buildRepository;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    private Pipeline pipeline;
+    private AlertRule rule;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = pipelineRepository.save(Pipeline.builder()
+                .name("RuleEnginePipeline")
+                .status("active")
+                .duration(300)
+                .build());
+
+        rule = ruleRepository.save(AlertRule.builder()
+                .name("Failure burst on main")
+                .pipelineId(pipeline.getId())
+                .branch("main")
+                .metric(AlertRule.RuleMetric.FAILURE_COUNT)
+                .windowMinutes(10)
+                .threshold(3.0)
+                .severity(Alert.AlertSeverity.CRITICAL)
+                .build());
+        ruleEngine.reloadRules();
+    }
+
+    @AfterEach
+    void tearDown() {
+        ruleRepository.deleteAll();
+        ruleEngine.reloadRules();
+    }
+
+    @Test
+    void firesOnThirdFailureWithinWindow() {
+        String fingerprint = AlertService.ruleFingerprint(rule, pipeline.getId());
+
+        saveBuild("failure", "main", 1);
+        saveBuild("failure", "feature-x", 1); // other branch, ignored by rule
+        saveBuild("failure", "main", 0);
+        assertThat(alertRepository.findActiveByFingerprint(fingerprint)).isEmpty();
+
+        saveBuild("failure", "main", 0);
+
+        Alert alert = alertRepository.findActiveByFingerprint(fingerprint).orElseThrow();
+        assertThat(alert.getType()).isEqualTo(Alert.AlertType.HIGH_FAILURE_RATE);
+        assertThat(alert.getSeverity()).isEqualTo(Alert.AlertSeverity.CRITICAL);
+        assertThat(alert.getActualValue()).isEqualTo(3.0);
+
+        List<java.util.Map<String, Object>> state = ruleEngine.getRuleState(pipeline.getId());
+        assertThat(state).hasSize(1);
+        assertThat(state.get(0).get("firing")).isEqualTo(true);
+    }
+
+    @Test
+    void ignoresFailuresOutsideWindow() {
+        String fingerprint = AlertService.ruleFingerprint(rule, pipeline.getId());
+
+        saveBuild("failure", "main", 30);
+        saveBuild("failure", "main", 25);
+        saveBuild("failure", "main", 0);
+
+        assertThat(alertRepository.findActiveByFingerprint(fingerprint)).isEmpty();
+    }
+
+    @Test
+    void reevaluatesBuildsUpdatedAfterIngest() {
+        String fingerprint = AlertService.ruleFingerprint(rule, pipeline.getId());
+
+        List<Build> running = List.of(saveBuild("running", "main", 0),
+                saveBuild("running", "main", 0), saveBuild("running", "main", 0));
+        assertThat(alertRepository.findActiveByFingerprint(fingerprint)).isEmpty();
+
+        for (Build build : running) {
+            build.setStatus("failure");
+            buildRepository.save(build);
+        }
+
+        assertThat(alertRepository.findActiveByFingerprint(fingerprint)).isPresent();
+    }
+
+    @Test
+    void durationBaselineLeavesOutTheCurrentWindow() {
+        AlertRule slowdown = ruleRepository.save(AlertRule.builder()
+                .name("p90 slowdown")
+                .pipelineId(pipeline.getId())
+                .metric(AlertRule.RuleMetric.P90_DURATION_CHANGE)
+                .windowMinutes(10)
+                .baselineMinutes(120)
+                .threshold(50.0)
+                .build());
+        ruleEngine.reloadRules();
+
+        for (int minutesAgo = 90; minutesAgo >= 30; minutesAgo -= 20) {
+            saveBuild("success", "develop", minutesAgo, 100L);
+        }
+        // with the window folded into the baseline the two slow builds would be half of it
+        saveBuild("success", "develop", 1, 300L);
+        saveBuild("success", "develop", 0, 300L);
+
+        Alert alert = alertRepository.findActiveByFingerprint(
+                AlertService.ruleFingerprint(slowdown, pipeline.getId())).orElseThrow();
+        assertThat(alert.getActualValue()).isGreaterThan(100.0);
+    }
+
+    @Test
+    void updatedRuleKeepsItsDefaults() {
+        AlertRule update = AlertRule.builder()
+                .id(rule.getId())
+                .name(rule.getName())
+                .pipelineId(pipeline.getId())
+                .metric(AlertRule.RuleMetric.FAILURE_RATE)
+                .threshold(50.0)
+                .build();
+        ruleRepository.save(update);
+        ruleEngine.reloadRules();
+
+        AlertRule saved = ruleRepository.findById(rule.getId()).orElseThrow();
+        assertThat(saved.getWindowMinutes()).isEqualTo(10);
+        assertThat(saved.getMinSamples()).isEqualTo(1);
+        assertThat(saved.getCreatedAt()).isNotNull();
+
+        saveBuild("failure", "main", 0);
+        assertThat(ruleEngine.getRuleState(pipeline.getId())).hasSize(1);
+    }
+
+    private Build saveBuild(String status, String branch, int minutesAgo) {
+        return saveBuild(status, branch, minutesAgo, 300L);
+    }
+
+    private Build saveBuild(String status, String branch, int minutesAgo, long duration) {
+        LocalDateTime end = LocalDateTime.now().minusMinutes(minutesAgo);
+        return buildRepository.save(Build.builder()
+                .pipeline(pipeline)
+                .status(status)
+                .branch(branch)
+                .startTime(end.minusSeconds(duration))
+                .endTime(end)
+                .duration(duration)
+                .build());
+    }
+}
@@ -0,0 +1,225 @@
+package com.yourname.streamci.streamci.integration;
+
+import com.yourname.streamci.streamci.model.*;
+import com.yourname.streamci.streamci.repository.*;
+import com.yourname.streamci.streamci.service.BuildRollupService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * trends are served from hourly rollups kept current by build inserts and deletes
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class BuildRollupTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PipelineRepository pipelineRepository;
+
+    @Autowired
+    private BuildRepository buildRepository;
+
+    @Autowired
+    private BuildRollupRepository rollupRepository;
+
+    @Autowired
+    private BuildRollupService rollupService;
+
+    @Autowired
+    private MaintenanceMarkerRepository markerRepository;
+
+    private Pipeline pipeline;
+    private LocalDateTime hour;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = pipelineRepository.save(Pipeline.builder()
+                .name("RollupPipeline")
+                .status("active")
+                .duration(300)
+                .build());
+        hour = LocalDateTime.now().minusDays(1).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        buildRepository.deleteAll(buildRepository.findByPipelineId(pipeline.getId()));
+    }
+
+    @Test
+    void insertsFoldIntoHourlyRowsAndTrendsReadThem() throws Exception {
+        saveBuild("success", 100L, hour.plusMinutes(5));
+        saveBuild("success", 200L, hour.plusMinutes(20));
+        Build failed = saveBuild("failure", 600L, hour.plusMinutes(40));
+        saveBuild("success", 300L, hour.plusHours(1));
+
+        List<BuildRollup> rollups = rollupRepository
+                .findByPipelineIdAndBucketStartGreaterThanEqualOrderByBucketStart(pipeline.getId(), hour);
+        assertThat(rollups).hasSize(2);
+        assertThat(rollups.get(0).getTotalBuilds()).isEqualTo(3);
+        assertThat(rollups.get(0).getFailureCount()).isEqualTo(1);
+        assertThat(rollups.get(0).getDurationSum()).isEqualTo(900L);
+        assertThat(rollups.get(0).getDurationMax()).isEqualTo(600L);
+
+        mockMvc.perform(get("/api/trends/success-rate?days=2&pipelineId=" + pipeline.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success_rate_data", hasSize(2)))
+                .andExpect(jsonPath("$.success_rate_data[0].total_builds").value(3))
+                .andExpect(jsonPath("$.success_rate_data[0].successful_builds").value(2));
+
+        mockMvc.perform(get("/api/trends/frequency?days=2&pipelineId=" + pipeline.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.frequency_data[*].build_count", everyItem(greaterThan(0))));
+
+        // deleting a build recomputes its hour from what's left
+        buildRepository.delete(failed);
+        BuildRollup recomputed = rollupRepository.findByPipelineIdAndBucketStart(pipeline.getId(), hour).orElseThrow();
+        assertThat(recomputed.getTotalBuilds()).isEqualTo(2);
+        assertThat(recomputed.getFailureCount()).isZero();
+        assertThat(recomputed.getDurationMax()).isEqualTo(200L);
+    }
+
+    @Test
+    void durationTrendsMergeHoursAndCarryPercentiles() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            saveBuild("success", 100L + i, hour.minusHours(i % 3).plusMinutes(i));
+        }
+        saveBuild("success", 1000L, hour.plusMinutes(59));
+
+        mockMvc.perform(get("/api/trends/duration?days=3&pipelineId=" + pipeline.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duration_data[*].build_count", everyItem(greaterThan(0))))
+                .andExpect(jsonPath("$.duration_data[*].min_duration", hasItem(100.0)))
+                .andExpect(jsonPath("$.duration_data[*].max_duration", hasItem(1000.0)))
+                .andExpect(jsonPath("$.duration_data[*].p50_duration", everyItem(allOf(greaterThan(85), lessThan(135)))));
+    }
+
+    @Test
+    void compareReadsEveryPipelineFromOneRollupQuery() throws Exception {
+        Pipeline other = pipelineRepository.save(Pipeline.builder()
+                .name("RollupPipelineB")
+                .status("active")
+                .duration(300)
+                .build());
+        saveBuild("success", 100L, hour.plusMinutes(5));
+        saveBuild("failure", 300L, hour.plusMinutes(10));
+        saveBuild(other, "success", 500L, hour.plusMinutes(15));
+
+        mockMvc.perform(get("/api/trends/compare?days=2&pipelineIds=" + other.getId() + "," + pipeline.getId() + ",999999"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comparative_data", hasSize(3)))
+                .andExpect(jsonPath("$.comparative_data[0].pipeline_name").value("RollupPipelineB"))
+                .andExpect(jsonPath("$.comparative_data[0].duration_trend[0].avg_duration").value(500.0))
+                .andExpect(jsonPath("$.comparative_data[1].success_rate_trend[0].total_builds").value(2))
+                .andExpect(jsonPath("$.comparative_data[1].success_rate_trend[0].success_rate").value(50.0))
+                .andExpect(jsonPath("$.comparative_data[2].pipeline_name").value("Unknown"))
+                .andExpect(jsonPath("$.comparative_data[2].success_rate_trend", hasSize(0)));
+
+        buildRepository.deleteAll(buildRepository.findByPipelineId(other.getId()));
+    }
+
+    @Test
+    void movingABuildRecomputesTheHourItLeft() {
+        saveBuild("success", 100L, hour.plusMinutes(5));
+        Build moved = saveBuild("failure", 200L, hour.plusMinutes(10));
+
+        moved.setStartTime(hour.plusHours(2).plusMinutes(10));
+        buildRepository.save(moved);
+
+        BuildRollup left = rollupRepository.findByPipelineIdAndBucketStart(pipeline.getId(), hour).orElseThrow();
+        assertThat(left.getTotalBuilds()).isEqualTo(1);
+        assertThat(left.getFailureCount()).isZero();
+        BuildRollup joined = rollupRepository.findByPipelineIdAndBucketStart(pipeline.getId(), hour.plusHours(2)).orElseThrow();
+        assertThat(joined.getTotalBuilds()).isEqualTo(1);
+        assertThat(joined.getFailureCount()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentInsertsIntoOneHourAreAllCounted() throws Exception {
+        // two writers, each still holds its insert's connection while its listener takes another
+        int threads = 2;
+        int perThread = 20;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        saveBuild("success", 100L, hour.plusMinutes(i));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        BuildRollup rollup = rollupRepository.findByPipelineIdAndBucketStart(pipeline.getId(), hour).orElseThrow();
+        assertThat(rollup.getTotalBuilds()).isEqualTo(threads * perThread);
+        assertThat(rollup.getDurationCount()).isEqualTo(threads * perThread);
+    }
+
+    @Test
+    void backfillRunsUntilItsMarkerIsRecorded() {
+        saveBuild("success", 100L, hour.plusMinutes(5));
+        BuildRollup rollup = rollupRepository.findByPipelineIdAndBucketStart(pipeline.getId(), hour).orElseThrow();
+
+        // an interrupted first backfill: rows exist, the marker doesn't
+        rollup.setTotalBuilds(99);
+        rollupRepository.save(rollup);
+        markerRepository.deleteAll();
+        rollupService.backfillOnce();
+
+        assertThat(rollupRepository.findById(rollup.getId()).orElseThrow().getTotalBuilds()).isEqualTo(1);
+        assertThat(markerRepository.count()).isEqualTo(1);
+
+        // once recorded, a restart leaves the rows alone
+        rollup = rollupRepository.findById(rollup.getId()).orElseThrow();
+        rollup.setTotalBuilds(99);
+        rollupRepository.save(rollup);
+        rollupService.backfillOnce();
+        assertThat(rollupRepository.findById(rollup.getId()).orElseThrow().getTotalBuilds()).isEqualTo(99);
+    }
+
+    private Build saveBuild(String status, Long duration, LocalDateTime startTime) {
+        return saveBuild(pipeline, status, duration, startTime);
+    }
+
+    private Build saveBuild(Pipeline owner, String status, Long duration, LocalDateTime startTime) {
+        return buildRepository.save(Build.builder()
+                .pipeline(owner)
+                .status(status)
+                .duration(duration)
+                .commitHash("rollup-" + System.nanoTime())
+                .committer("dev")
+                .branch("main")
+                .startTime(startTime)
+                .endTime(startTime.plusSeconds(duration))
+                .build());
+    }
+}
@@ -0,0 +1,100 @@
+package com.yourname.streamci.streamci.integration;
+
+import com.yourname.streamci.streamci.model.*;
+import com.yourname.streamci.streamci.repository.*;
+import com.yourname.streamci.streamci.service.ChangePointDetector;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * change points are written from the after-commit listener of a real build insert
+ * the test profile turns the detector off, this test switches it on for its own pipeline
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ChangePointDetectionTest {
+
+    @Autowired
+    private ChangePointDetector changePointDetector;
+
+    @Autowired
+    private PipelineRepository pipelineRepository;
+
+    @Autowired
+    private BuildRepository buildRepository;
+
+    @Autowired
+    private ChangePointRepository changePointRepository;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    private Pipeline pipeline;
+    private ChangePointDetector target;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = pipelineRepository.save(Pipeline.builder()
+                .name("ChangePointPipeline")
+                .status("active")
+                .duration(300)
+                .build());
+        target = AopTestUtils.getTargetObject(changePointDetector);
+        ReflectionTestUtils.setField(target, "enabled", true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(target, "enabled", false);
+        changePointRepository.deleteAll(changePointRepository
+                .findByPipelineIdAndDetectedAtAfterOrderByDetectedAtDesc(pipeline.getId(), LocalDateTime.now().minusDays(30)));
+        alertRepository.deleteAll(alertRepository.findAll().stream()
+                .filter(alert -> alert.getPipeline() != null && alert.getPipeline().getId() == pipeline.getId())
+                .toList());
+        buildRepository.deleteAll(buildRepository.findByPipelineId(pipeline.getId()));
+    }
+
+    @Test
+    void committedFailureStreakSavesAChangePoint() {
+        LocalDateTime start = LocalDateTime.now().minusHours(2);
+        for (int i = 0; i < 20; i++) {
+            saveBuild("success", "good-" + i, start.plusMinutes(i * 3L));
+        }
+        assertThat(changePointDetector.recentChangePoints(pipeline.getId(), 1)).isEmpty();
+
+        for (int i = 0; i < 5; i++) {
+            saveBuild("failure", "bad-" + i, start.plusMinutes(60 + i * 3L));
+        }
+
+        List<ChangePoint> changePoints = changePointDetector.recentChangePoints(pipeline.getId(), 1);
+        assertThat(changePoints).hasSize(1);
+        ChangePoint changePoint = changePoints.get(0);
+        assertThat(changePoint.getId()).isNotNull();
+        assertThat(changePoint.getMetric()).isEqualTo("failure_rate");
+        assertThat(changePoint.getLastGoodCommit()).isEqualTo("good-19");
+        assertThat(changePoint.getFirstBadCommit()).isEqualTo("bad-0");
+    }
+
+    // repository save commits on its own, so the detector sees it after commit like a webhook build
+    private void saveBuild(String status, String commitHash, LocalDateTime startTime) {
+        buildRepository.save(Build.builder()
+                .pipeline(pipeline)
+                .status(status)
+                .duration(300L)
+                .commitHash(commitHash)
+                .committer("dev")
+                .branch("main")
+                .startTime(startTime)
+                .endTime(startTime.plusMinutes(5))
+                .build());
+    }
+}
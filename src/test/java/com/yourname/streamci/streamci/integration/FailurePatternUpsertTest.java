@@ -0,0 +1,139 @@
+package com.yourname.streamci.streamci.integration;
+
+import com.yourname.streamci.streamci.model.*;
+import com.yourname.streamci.streamci.repository.*;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * the scheduler's batched pattern upsert, with and without the unique key it relies on
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class FailurePatternUpsertTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PipelineRepository pipelineRepository;
+
+    @Autowired
+    private FailurePatternRepository patternRepository;
+
+    @Autowired
+    private FailurePatternBulkRepository bulkRepository;
+
+    private Pipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = pipelineRepository.save(Pipeline.builder()
+                .name("UpsertPipeline")
+                .status("active")
+                .duration(300)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM failure_patterns WHERE pipeline_id = ?", pipeline.getId());
+    }
+
+    @Test
+    void upsertRefreshesAnExistingPatternInPlace() {
+        LocalDateTime firstRun = LocalDateTime.now().minusDays(40);
+        patternRepository.save(FailurePattern.builder()
+                .pipeline(pipeline)
+                .patternType("time_based")
+                .description("failures at 14:00")
+                .confidence(0.7)
+                .frequency(3)
+                .details("first run")
+                .detectedAt(firstRun)
+                .build());
+
+        bulkRepository.upsertAll(List.of(row("failures at 14:00", 0.9), row("failures at 15:00", 0.8)));
+
+        List<FailurePattern> patterns = patternRepository.findByPipelineIdOrderByConfidenceDesc(pipeline.getId());
+        assertThat(patterns).hasSize(2);
+        FailurePattern refreshed = patterns.get(0);
+        assertThat(refreshed.getConfidence()).isEqualTo(0.9);
+        assertThat(refreshed.getDetails()).isEqualTo("first run");
+        // still detected, so retention must not treat it as 40 days old
+        assertThat(refreshed.getDetectedAt()).isAfter(firstRun.plusDays(39));
+        assertThat(patternRepository.deleteAllDetectedBefore(LocalDateTime.now().minusDays(30))).isZero();
+    }
+
+    @Test
+    void longDescriptionsSharingTheStoredPrefixStayApart() {
+        String prefix = "commits touching " + "src/main/java/".repeat(20);
+        bulkRepository.upsertAll(List.of(row(prefix + "a.java fail", 0.9), row(prefix + "b.java fail", 0.8)));
+        bulkRepository.upsertAll(List.of(row(prefix + "a.java fail", 0.95)));
+
+        List<FailurePattern> patterns = patternRepository.findByPipelineIdOrderByConfidenceDesc(pipeline.getId());
+        assertThat(patterns).extracting(FailurePattern::getConfidence).containsExactly(0.95, 0.8);
+        // both shown cut to the column, told apart by the hash of the full text
+        assertThat(patterns).allSatisfy(pattern -> assertThat(pattern.getDescription()).hasSize(255));
+        assertThat(patterns.get(0).getPatternKey()).isEqualTo(FailurePattern.keyOf(prefix + "a.java fail"));
+    }
+
+    @Test
+    void rowsSavedBeforeThePatternKeyAreAdopted() {
+        jdbcTemplate.update("INSERT INTO failure_patterns (pipeline_id, pattern_type, description, confidence, " +
+                "detected_at) VALUES (?, 'time_based', 'failures at 14:00', 0.5, ?)",
+                pipeline.getId(), LocalDateTime.now().minusDays(40));
+
+        FailurePatternBulkRepository fresh = new FailurePatternBulkRepository(jdbcTemplate);
+        fresh.upsertAll(List.of(row("failures at 14:00", 0.9)));
+
+        List<FailurePattern> patterns = patternRepository.findByPipelineIdOrderByConfidenceDesc(pipeline.getId());
+        assertThat(patterns).hasSize(1);
+        assertThat(patterns.get(0).getConfidence()).isEqualTo(0.9);
+        assertThat(patterns.get(0).getPatternKey()).isEqualTo(FailurePattern.keyOf("failures at 14:00"));
+    }
+
+    @Test
+    void fallsBackToUpdateOrInsertWithoutTheUniqueKey() {
+        jdbcTemplate.execute("ALTER TABLE failure_patterns DROP CONSTRAINT uk_failure_patterns_key");
+        try {
+            // duplicates like the ones that stop ddl-auto from adding the key
+            for (int i = 0; i < 2; i++) {
+                jdbcTemplate.update("INSERT INTO failure_patterns (pipeline_id, pattern_type, description, confidence, " +
+                        "detected_at) VALUES (?, 'time_based', 'failures at 14:00', 0.5, ?)",
+                        pipeline.getId(), LocalDateTime.now().minusDays(40));
+            }
+
+            FailurePatternBulkRepository fresh = new FailurePatternBulkRepository(jdbcTemplate);
+            assertThat(fresh.upsertAll(List.of(row("failures at 14:00", 0.9), row("failures at 15:00", 0.8))))
+                    .isEqualTo(2);
+
+            List<FailurePattern> patterns = patternRepository.findByPipelineIdOrderByConfidenceDesc(pipeline.getId());
+            assertThat(patterns).hasSize(3);
+            assertThat(patterns).extracting(FailurePattern::getConfidence).containsExactly(0.9, 0.9, 0.8);
+        } finally {
+            jdbcTemplate.update("DELETE FROM failure_patterns WHERE pipeline_id = ?", pipeline.getId());
+            jdbcTemplate.execute("ALTER TABLE failure_patterns ADD CONSTRAINT uk_failure_patterns_key " +
+                    "UNIQUE (pipeline_id, pattern_type, pattern_key)");
+        }
+    }
+
+    private FailurePatternBulkRepository.PatternRow row(String description, double confidence) {
+        return new FailurePatternBulkRepository.PatternRow(pipeline.getId(), PatternDetectionResult.builder()
+                .patternType("time_based")
+                .description(description)
+                .confidence(confidence)
+                .frequency(4)
+                .recommendation("spread builds out")
+                .lastOccurrence(LocalDateTime.now().minusHours(1))
+                .build());
+    }
+}
@@ -37,6 +37,9 @@ public class MetricsCalculationTest {
     @Autowired
     private PipelineMetricsRepository metricsRepository;
 
+    @Autowired
+    private LatestMetricsRepository latestMetricsRepository;
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -295,6 +298,37 @@ public class MetricsCalculationTest {
         System.out.println("✅ Metrics history tracked correctly");
     }
 
+    @Test
+    @Order(9)
+    void testLatestMetricsForManyPipelines() {
+        Pipeline other = pipelineRepository.save(Pipeline.builder()
+                .name("OtherPipeline")
+                .status("active")
+                .duration(120)
+                .build());
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        metricsRepository.save(snapshot(testPipeline, now.minusHours(2), 50.0));
+        metricsRepository.save(snapshot(testPipeline, now, 60.0));
+        // same time as the one before, the higher id wins the tie
+        PipelineMetrics tied = metricsRepository.save(snapshot(testPipeline, now, 70.0));
+        PipelineMetrics otherLatest = metricsRepository.save(snapshot(other, now.minusHours(1), 90.0));
+
+        List<PipelineMetrics> latest = latestMetricsRepository.findLatestFor(List.of(testPipeline.getId(), other.getId()));
+        assertThat(latest).extracting(PipelineMetrics::getId)
+                .containsExactlyInAnyOrder(tied.getId(), otherLatest.getId());
+
+        var byPipeline = metricsService.getLatestMetrics(List.of(testPipeline.getId(), other.getId()));
+        assertThat(byPipeline.get(other.getId()).getSuccessRate()).isEqualTo(90.0);
+
+        // a committed save replaces the cached snapshot, a delete drops it
+        PipelineMetrics saved = metricsRepository.save(snapshot(other, now.plusMinutes(1), 95.0));
+        assertThat(metricsService.getLatestMetrics(other.getId())).get()
+                .extracting(PipelineMetrics::getId).isEqualTo(saved.getId());
+        metricsRepository.delete(saved);
+        assertThat(metricsService.getLatestMetrics(other.getId())).get()
+                .extracting(PipelineMetrics::getId).isEqualTo(otherLatest.getId());
+    }
+
     @Test
     @Order(10)
     void testMetricsCalculationPerformance() {
@@ -400,6 +434,17 @@ public class MetricsCalculationTest {
         }
     }
 
+    private PipelineMetrics snapshot(Pipeline pipeline, LocalDateTime calculatedAt, double successRate) {
+        return PipelineMetrics.builder()
+                .pipeline(pipeline)
+                .calculatedAt(calculatedAt)
+                .totalBuilds(10)
+                .successfulBuilds(5)
+                .failedBuilds(5)
+                .successRate(successRate)
+                .build();
+    }
+
     private void cleanDatabase() {
         try {
             jdbcTemplate.execute("SET REFERENTIAL_INTEGRITY FALSE");
@@ -9,11 +9,15 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDateTime;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 import static org.hamcrest.Matchers.*;
 
@@ -32,6 +36,9 @@ public class PatternAnalysisAPITest {
     @Autowired
     private BuildRepository buildRepository;
 
+    @Autowired
+    private CommitFileChangeRepository commitFileChangeRepository;
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -201,6 +208,12 @@ public class PatternAnalysisAPITest {
     void testFilesCorrelationType() throws Exception {
         System.out.println("\n=== API TEST 9: Files Correlation Type (Working Implementation) ===");
 
+        // pushes touching config/*.yml mostly fail, pushes touching only src/ pass
+        for (int i = 0; i < 5; i++) {
+            createPushedBuild("yml-" + i, i == 0 ? "success" : "failure", "config/app.yml", "src/main/App.java");
+            createPushedBuild("src-" + i, "success", "src/main/App.java");
+        }
+
         mockMvc.perform(get("/api/analysis/correlations")
                         .param("pipelineId", pipelineIdStr)
                         .param("type", "files"))
@@ -210,11 +223,60 @@ public class PatternAnalysisAPITest {
                 .andExpect(jsonPath("$.pipeline_id", notNullValue()))
                 .andExpect(jsonPath("$.correlations", isA(java.util.List.class)))
                 .andExpect(jsonPath("$.correlations", hasSize(greaterThan(0))))
-                .andExpect(jsonPath("$.message", containsString("complete")));
+                .andExpect(jsonPath("$.message", containsString("complete")))
+                .andExpect(jsonPath("$.correlations[0].filePattern", is("config/app.yml")))
+                .andExpect(jsonPath("$.correlations[0].failureRate", is(80.0)))
+                .andExpect(jsonPath("$.correlations[0].affectedBuilds", is(5)))
+                .andExpect(jsonPath("$.correlations[*].filePattern", not(hasItem("src/main/App.java"))));
 
         System.out.println("✅ File correlation analysis working correctly");
     }
 
+    @Test
+    @Order(10)
+    void testBatchSuccessPredictionStreamsOneLinePerTarget() throws Exception {
+        System.out.println("\n=== API TEST 10: Batch Success Prediction ===");
+
+        String body = String.format("[" +
+                "{\"pipelineId\": %s, \"committer\": \"good-dev\", \"branch\": \"main\"}," +
+                "{\"pipelineId\": 999999}," +
+                "{\"pipelineId\": %s, \"committer\": \"problematic-dev\", \"branch\": \"main\"}]",
+                pipelineIdStr, pipelineIdStr);
+
+        MvcResult started = mockMvc.perform(post("/api/predictions/success/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().trim().split("\n");
+
+        // grouped by pipeline: both targets of the test pipeline first, then the unknown one
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).contains("\"index\":0").contains("good-dev");
+        assertThat(lines[1]).contains("\"index\":2").contains("problematic-dev");
+        assertThat(lines[2]).contains("\"index\":1").contains("\"confidence\":\"low\"");
+
+        MvcResult rejected = mockMvc.perform(post("/api/predictions/success/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"committer\": \"good-dev\"}]"))
+                .andExpect(status().isBadRequest())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(rejected))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("pipelineId")));
+
+        mockMvc.perform(post("/api/predictions/model/score")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", containsString("at least one target")));
+
+        System.out.println("✅ Batch prediction endpoint working");
+    }
+
     private void createTestData() {
         LocalDateTime now = LocalDateTime.now();
 
@@ -241,6 +303,29 @@ public class PatternAnalysisAPITest {
         createBuilds("baseline-dev", 2, "failure", 380L);
     }
 
+    private void createPushedBuild(String headSha, String status, String... paths) {
+        for (String path : paths) {
+            commitFileChangeRepository.save(CommitFileChange.builder()
+                    .pipelineId(testPipeline.getId())
+                    .headSha(headSha)
+                    .commitSha(headSha)
+                    .path(path)
+                    .changeType(CommitFileChange.ChangeType.MODIFIED)
+                    .build());
+        }
+        LocalDateTime time = LocalDateTime.now().minusMinutes(30);
+        buildRepository.save(Build.builder()
+                .pipeline(testPipeline)
+                .status(status)
+                .duration(300L)
+                .commitHash(headSha)
+                .committer("file-dev")
+                .branch("main")
+                .startTime(time)
+                .endTime(time.plusSeconds(300))
+                .build());
+    }
+
     private void createBuilds(String committer, int count, String status, Long duration) {
         for (int i = 0; i < count; i++) {
             createBuild("main", committer, status, duration);
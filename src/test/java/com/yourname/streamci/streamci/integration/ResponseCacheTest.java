@@ -0,0 +1,123 @@
+package com.yourname.streamci.streamci.integration;
+
+import com.yourname.streamci.streamci.model.*;
+import com.yourname.streamci.streamci.repository.*;
+import com.yourname.streamci.streamci.service.ResponseCache;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * cached responses carry etags, answer 304 while the data is unchanged
+ * and are recomputed once per change no matter how many clients ask
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ResponseCacheTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ResponseCache responseCache;
+
+    @Autowired
+    private PipelineRepository pipelineRepository;
+
+    @Autowired
+    private BuildRepository buildRepository;
+
+    private Pipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = pipelineRepository.save(Pipeline.builder()
+                .name("CachedPipeline")
+                .status("active")
+                .duration(300)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        buildRepository.deleteAll(buildRepository.findByPipelineId(pipeline.getId()));
+    }
+
+    @Test
+    void etagIsStableUntilABuildArrives() throws Exception {
+        String url = "/api/trends/frequency?days=2&pipelineId=" + pipeline.getId();
+
+        String etag = mockMvc.perform(get(url))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get(url).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        LocalDateTime now = LocalDateTime.now();
+        buildRepository.save(Build.builder()
+                .pipeline(pipeline)
+                .status("success")
+                .duration(120L)
+                .commitHash("cached-1")
+                .startTime(now.minusMinutes(2))
+                .endTime(now)
+                .build());
+
+        String changed = mockMvc.perform(get(url).header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotEquals(etag, changed);
+    }
+
+    @Test
+    void concurrentMissesComputeOnce() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/test/single-flight");
+        request.setParameter("run", String.valueOf(System.nanoTime()));
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ResponseEntity<Map<String, Object>>>> responses = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                responses.add(executor.submit(() -> responseCache.serve(request, 1L, () -> {
+                    computations.incrementAndGet();
+                    try {
+                        release.await(5, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    return ResponseEntity.ok(Map.<String, Object>of("value", 42));
+                })));
+            }
+            Thread.sleep(200);
+            release.countDown();
+
+            for (Future<ResponseEntity<Map<String, Object>>> response : responses) {
+                assertEquals(42, response.get(5, TimeUnit.SECONDS).getBody().get("value"));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, computations.get());
+    }
+}
@@ -0,0 +1,153 @@
+package com.yourname.streamci.streamci.integration;
+
+import com.yourname.streamci.streamci.model.*;
+import com.yourname.streamci.streamci.repository.*;
+import com.yourname.streamci.streamci.service.SloService;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * slo burn rates come from per-build counters and page on a fast burn
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class SloBurnRateTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SloService sloService;
+
+    @Autowired
+    private SloDefinitionRepository sloRepository;
+
+    @Autowired
+    private PipelineRepository pipelineRepository;
+
+    @Autowired
+    private BuildRepository buildRepository;
+
+    @Autowired
+    private AlertRepository alertRepository;
+
+    private Pipeline pipeline;
+    private SloDefinition slo;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = pipelineRepository.save(Pipeline.builder()
+                .name("SloPipeline")
+                .status("active")
+                .duration(300)
+                .build());
+
+        slo = sloRepository.save(SloDefinition.builder()
+                .name("main green")
+                .pipelineId(pipeline.getId())
+                .branch("main")
+                .indicator(SloDefinition.SloIndicator.SUCCESS_RATE)
+                .target(95.0)
+                .build());
+        sloService.reloadSlos();
+    }
+
+    @AfterEach
+    void tearDown() {
+        sloRepository.deleteAll();
+        sloService.reloadSlos();
+    }
+
+    @Test
+    void slowBurnWarnsThenFastBurnPages() throws Exception {
+        String fingerprint = String.format("slo_%d", slo.getId());
+
+        // 2 failures in 10 builds: 20% bad against a 5% budget = 4x, only the 3d (>= 1x) policy
+        for (int i = 0; i < 8; i++) {
+            saveBuild("success", "main", 50 - i);
+        }
+        saveBuild("failure", "main", 20);
+        saveBuild("failure", "feature-x", 15); // other branch, not part of the slo
+        saveBuild("failure", "main", 10);
+
+        Alert warning = alertRepository.findActiveByFingerprint(fingerprint).orElseThrow();
+        assertThat(warning.getType()).isEqualTo(Alert.AlertType.SLO_BURN_RATE);
+        assertThat(warning.getSeverity()).isEqualTo(Alert.AlertSeverity.WARNING);
+
+        // 5 more failures: 7 of 15 bad = 9.3x over 1h/6h and every build in the last 30m failed,
+        // so the 6h (>= 6x) policy pages - the same alert escalates
+        for (int i = 0; i < 5; i++) {
+            saveBuild("failure", "main", 5 - i);
+        }
+
+        Alert alert = alertRepository.findActiveByFingerprint(fingerprint).orElseThrow();
+        assertThat(alert.getId()).isEqualTo(warning.getId());
+        assertThat(alert.getSeverity()).isEqualTo(Alert.AlertSeverity.CRITICAL);
+
+        mockMvc.perform(get("/api/slos/pipeline/" + pipeline.getId() + "/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].events").value(15))
+                .andExpect(jsonPath("$[0].bad_events").value(7))
+                .andExpect(jsonPath("$[0].firing").value(true))
+                .andExpect(jsonPath("$[0].firing_window").value("6h"))
+                .andExpect(jsonPath("$[0].burn_rates.1h").value(closeTo(9.33, 0.01)))
+                .andExpect(jsonPath("$[0].error_budget_remaining").value(lessThan(0.0)));
+    }
+
+    @Test
+    void rejectsTargetOutOfRange() throws Exception {
+        mockMvc.perform(post("/api/slos")
+                        .contentType("application/json")
+                        .content(String.format(
+                                "{\"pipelineId\": %d, \"indicator\": \"SUCCESS_RATE\", \"target\": 100}",
+                                pipeline.getId())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void updateWithoutOptionalFieldsKeepsDefaults() throws Exception {
+        mockMvc.perform(post("/api/slos")
+                        .contentType("application/json")
+                        .content(String.format(
+                                "{\"id\": %d, \"pipelineId\": %d, \"indicator\": \"SUCCESS_RATE\", \"target\": 90}",
+                                slo.getId(), pipeline.getId())))
+                .andExpect(status().isOk());
+
+        SloDefinition updated = sloRepository.findById(slo.getId()).orElseThrow();
+        assertThat(updated.getTarget()).isEqualTo(90.0);
+        assertThat(updated.getBudgetDays()).isEqualTo(30);
+        assertThat(updated.getMinEvents()).isEqualTo(5);
+
+        // evaluation still works on the updated definition
+        saveBuild("failure", "main", 1);
+        mockMvc.perform(get("/api/slos/pipeline/" + pipeline.getId() + "/status"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)));
+    }
+
+    private void saveBuild(String status, String branch, int minutesAgo) {
+        LocalDateTime end = LocalDateTime.now().minusMinutes(minutesAgo);
+        buildRepository.save(Build.builder()
+                .pipeline(pipeline)
+                .status(status)
+                .branch(branch)
+                .startTime(end.minusMinutes(5))
+                .endTime(end)
+                .duration(300L)
+                .build());
+    }
+}
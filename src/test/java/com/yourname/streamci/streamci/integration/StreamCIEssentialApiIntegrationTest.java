@@ -130,6 +130,7 @@ public class StreamCIEssentialApiIntegrationTest {
         // Assert: Response structure and content
         assertThat(response).containsKey("timestamp");
         assertThat(response).containsKey("status");
+        assertThat(response).containsKeys("events_per_minute", "total_events_processed", "uptime_minutes", "event_rates");
         assertThat(response.get("status")).isEqualTo("success");
 
         assertThat(response).containsKey("total_pipelines");
@@ -0,0 +1,127 @@
+package com.yourname.streamci.streamci.integration;
+
+import com.yourname.streamci.streamci.model.*;
+import com.yourname.streamci.streamci.repository.*;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+import static org.hamcrest.Matchers.*;
+
+/**
+ * trend series honour granularity and never return more than maxPoints
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class TrendsDownsamplingTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PipelineRepository pipelineRepository;
+
+    @Autowired
+    private PipelineMetricsRepository metricsRepository;
+
+    @Autowired
+    private BuildRepository buildRepository;
+
+    private Pipeline pipeline;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = pipelineRepository.save(Pipeline.builder()
+                .name("DownsamplePipeline")
+                .status("active")
+                .duration(300)
+                .build());
+        start = LocalDateTime.now().minusDays(3).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        metricsRepository.deleteAll(metricsRepository.findByPipelineIdAndCalculatedAtBetween(
+                pipeline.getId(), start.minusDays(1), LocalDateTime.now().plusDays(1)));
+        buildRepository.deleteAll(buildRepository.findByPipelineId(pipeline.getId()));
+    }
+
+    @Test
+    void snapshotSeriesIsBucketedAndKeepsItsSpikeUnderTheBudget() throws Exception {
+        // three days of five-minute snapshots with a single bad one in the middle
+        List<PipelineMetrics> snapshots = new ArrayList<>();
+        for (int i = 0; i < 864; i++) {
+            snapshots.add(PipelineMetrics.builder()
+                    .pipeline(pipeline)
+                    .calculatedAt(start.plusMinutes(5L * i))
+                    .totalBuilds(100 + i)
+                    .successRate(i == 400 ? 10.0 : 90.0 + i % 3)
+                    .avgDurationSeconds(300L + i % 7)
+                    .minDurationSeconds(100L)
+                    .maxDurationSeconds(600L)
+                    .build());
+        }
+        metricsRepository.saveAll(snapshots);
+
+        mockMvc.perform(get("/api/trends?days=4&granularity=minute&maxPoints=50&pipelineId=" + pipeline.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("minute"))
+                .andExpect(jsonPath("$.data_points").value(864))
+                .andExpect(jsonPath("$.success_rate_trend", hasSize(50)))
+                .andExpect(jsonPath("$.success_rate_trend[*].success_rate", hasItem(10.0)))
+                .andExpect(jsonPath("$.duration_trend", hasSize(50)));
+
+        mockMvc.perform(get("/api/trends?days=4&granularity=daily&pipelineId=" + pipeline.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success_rate_trend", hasSize(lessThanOrEqualTo(4))))
+                .andExpect(jsonPath("$.success_rate_trend[0].timestamp", matchesPattern("\\d{4}-\\d{2}-\\d{2}")))
+                .andExpect(jsonPath("$.duration_trend[*].min_duration_seconds", everyItem(is(100))));
+
+        mockMvc.perform(get("/api/trends?days=4&granularity=weekly&maxPoints=1&pipelineId=" + pipeline.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.max_points").value(3))
+                .andExpect(jsonPath("$.success_rate_trend", hasSize(lessThanOrEqualTo(2))));
+    }
+
+    @Test
+    void rollupSeriesFollowGranularityAndBudget() throws Exception {
+        for (int i = 0; i < 72; i++) {
+            LocalDateTime time = start.plusHours(i).plusMinutes(10);
+            buildRepository.save(Build.builder()
+                    .pipeline(pipeline)
+                    .status(i % 4 == 0 ? "failure" : "success")
+                    .duration(200L + i)
+                    .commitHash("downsample-" + i)
+                    .startTime(time)
+                    .endTime(time.plusMinutes(3))
+                    .build());
+        }
+
+        mockMvc.perform(get("/api/trends/success-rate?days=4&maxPoints=12&pipelineId=" + pipeline.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.success_rate_data", hasSize(12)));
+
+        // rollups are hourly, finer requests come back hourly
+        mockMvc.perform(get("/api/trends/frequency?days=4&granularity=minute&pipelineId=" + pipeline.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.granularity").value("hourly"))
+                .andExpect(jsonPath("$.frequency_data", hasSize(72)));
+
+        mockMvc.perform(get("/api/trends/duration?days=4&granularity=weekly&pipelineId=" + pipeline.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.duration_data", hasSize(lessThanOrEqualTo(2))))
+                .andExpect(jsonPath("$.duration_data[*].build_count", everyItem(greaterThan(0))));
+    }
+}
@@ -0,0 +1,182 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.model.Alert;
+import com.yourname.streamci.streamci.model.Pipeline;
+import com.yourname.streamci.streamci.repository.AlertRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * unit tests for the active alert counters
+ */
+class ActiveAlertIndexTest {
+
+    @Mock
+    private AlertRepository alertRepository;
+
+    private ActiveAlertIndex index;
+    private Pipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new ActiveAlertIndex(alertRepository);
+        pipeline = Pipeline.builder().id(1).name("pipeline").build();
+    }
+
+    @Test
+    void countersFollowStateTransitions() {
+        Alert first = alert(1L, Alert.AlertSeverity.WARNING);
+        Alert second = alert(2L, Alert.AlertSeverity.CRITICAL);
+        index.apply(first);
+        index.apply(second);
+        index.apply(first); // repeated event for the same state
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.countsBySeverity().get("WARNING")).isEqualTo(1L);
+        assertThat(index.criticalCount()).isEqualTo(1L);
+        assertThat(index.countsByType().get("CONSECUTIVE_FAILURES")).isEqualTo(2L);
+
+        // escalation mutates the entity in place, the old bucket still has to be decremented
+        first.setSeverity(Alert.AlertSeverity.EMERGENCY);
+        index.apply(first);
+        assertThat(index.countsBySeverity().get("WARNING")).isEqualTo(0L);
+        assertThat(index.criticalCount()).isEqualTo(2L);
+
+        second.setStatus(Alert.AlertStatus.RESOLVED);
+        index.apply(second);
+        index.remove(first);
+        assertThat(index.size()).isZero();
+        assertThat(index.criticalCount()).isZero();
+        assertThat(index.countsByType().get("CONSECUTIVE_FAILURES")).isEqualTo(0L);
+    }
+
+    @Test
+    void verifyCountersRebuildsOnDrift() {
+        index.apply(alert(1L, Alert.AlertSeverity.WARNING));
+
+        // matching GROUP BY - nothing to do
+        when(alertRepository.countActiveBySeverityAndType()).thenReturn(groupBy(Alert.AlertSeverity.WARNING, 1L));
+        index.verifyCounters();
+        verify(alertRepository, never()).findByStatusOrderByCreatedAtDesc(any());
+
+        // alert deleted behind jpa's back, the first mismatch could still be a commit in flight
+        when(alertRepository.countActiveBySeverityAndType()).thenReturn(List.of());
+        when(alertRepository.findByStatusOrderByCreatedAtDesc(Alert.AlertStatus.ACTIVE)).thenReturn(List.of());
+        index.verifyCounters();
+        verify(alertRepository, never()).findByStatusOrderByCreatedAtDesc(any());
+        index.verifyCounters();
+
+        verify(alertRepository).findByStatusOrderByCreatedAtDesc(Alert.AlertStatus.ACTIVE);
+        assertThat(index.size()).isZero();
+        assertThat(index.countsBySeverity().get("WARNING")).isEqualTo(0L);
+    }
+
+    @Test
+    void reservedAlertsAreVisibleButUncountedUntilCommit() {
+        Alert alert = alert(1L, Alert.AlertSeverity.CRITICAL);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            index.reserve(alert);
+            assertThat(index.findActive(alert.getFingerprint())).isPresent();
+            assertThat(index.size()).isZero();
+            assertThat(index.criticalCount()).isZero();
+
+            // rollback: nothing was applied, the reservation just goes away
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertThat(index.findActive(alert.getFingerprint())).isEmpty();
+        assertThat(index.criticalCount()).isZero();
+    }
+
+    @Test
+    void callersGetCopiesNotTheIndexedAlert() {
+        Alert alert = alert(1L, Alert.AlertSeverity.WARNING);
+        index.apply(alert);
+
+        alert.setSeverity(Alert.AlertSeverity.CRITICAL);
+        index.findActive(alert.getFingerprint()).orElseThrow().setStatus(Alert.AlertStatus.RESOLVED);
+
+        Alert indexed = index.findActive(alert.getFingerprint()).orElseThrow();
+        assertThat(indexed.getSeverity()).isEqualTo(Alert.AlertSeverity.WARNING);
+        assertThat(indexed.getStatus()).isEqualTo(Alert.AlertStatus.ACTIVE);
+    }
+
+    @Test
+    void inFlightCommitIsNotDrift() {
+        // the row is committed but its event hasn't reached the index yet
+        when(alertRepository.countActiveBySeverityAndType()).thenReturn(groupBy(Alert.AlertSeverity.WARNING, 1L));
+        index.verifyCounters();
+
+        index.apply(alert(1L, Alert.AlertSeverity.WARNING));
+        index.verifyCounters();
+        verify(alertRepository, never()).findByStatusOrderByCreatedAtDesc(any());
+    }
+
+    @Test
+    void updatesDuringRebuildAreKept() throws Exception {
+        Alert late = alert(2L, Alert.AlertSeverity.CRITICAL);
+        CountDownLatch querying = new CountDownLatch(1);
+        when(alertRepository.findByStatusOrderByCreatedAtDesc(Alert.AlertStatus.ACTIVE)).thenAnswer(invocation -> {
+            querying.countDown();
+            Thread.sleep(200);
+            return List.of(alert(1L, Alert.AlertSeverity.WARNING));
+        });
+
+        Thread rebuild = new Thread(index::rebuild);
+        rebuild.start();
+        querying.await(5, TimeUnit.SECONDS);
+        // committed after the rebuild's query started
+        index.apply(late);
+        rebuild.join(5000);
+
+        assertThat(index.size()).isEqualTo(2);
+        assertThat(index.criticalCount()).isEqualTo(1L);
+    }
+
+    @Test
+    void newestActiveAndPipelineCounts() {
+        Alert older = alert(1L, Alert.AlertSeverity.WARNING);
+        older.setCreatedAt(java.time.LocalDateTime.now().minusHours(1));
+        Alert newer = alert(2L, Alert.AlertSeverity.WARNING);
+        newer.setCreatedAt(java.time.LocalDateTime.now());
+        index.apply(older);
+        index.apply(newer);
+
+        assertThat(index.newestActive(10)).extracting(Alert::getId).containsExactly(2L, 1L);
+        assertThat(index.countForPipeline(1)).isEqualTo(2);
+        assertThat(index.countForPipeline(99)).isZero();
+    }
+
+    private List<Object[]> groupBy(Alert.AlertSeverity severity, long count) {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{severity, Alert.AlertType.CONSECUTIVE_FAILURES, count});
+        return rows;
+    }
+
+    private Alert alert(Long id, Alert.AlertSeverity severity) {
+        return Alert.builder()
+                .id(id)
+                .pipeline(pipeline)
+                .type(Alert.AlertType.CONSECUTIVE_FAILURES)
+                .severity(severity)
+                .status(Alert.AlertStatus.ACTIVE)
+                .fingerprint("consecutive_failures_" + id)
+                .build();
+    }
+}
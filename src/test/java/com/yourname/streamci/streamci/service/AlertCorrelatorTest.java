@@ -0,0 +1,156 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.AlertChangedEvent;
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.model.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * unit tests for alert storm grouping
+ */
+class AlertCorrelatorTest {
+
+    @Mock
+    private NotificationService notificationService;
+
+    private AlertCorrelator correlator;
+    private AlertConfig config;
+    private LocalDateTime failedAt;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        correlator = new AlertCorrelator(notificationService);
+        config = AlertConfig.builder().notifySlack(true).notifyEmail(false).notifyWebhook(false).build();
+        failedAt = LocalDateTime.now().withMinute(10);
+    }
+
+    @Test
+    void stormOfSameTypeProducesOneAlertAndOneDigest() {
+        for (int i = 1; i <= 5; i++) {
+            recordFailure(i, "dependency-bot");
+            correlator.submit(alert(i, Alert.AlertType.SUCCESS_RATE_DROP, Alert.AlertSeverity.WARNING), config);
+        }
+
+        // only the first alert goes out right away
+        verify(notificationService, times(1)).sendAlert(any(), any());
+        verify(notificationService, never()).sendDigest(any(), any());
+
+        int digests = correlator.flush(LocalDateTime.now(), true);
+        assertThat(digests).isEqualTo(1);
+
+        ArgumentCaptor<AlertDigest> captor = ArgumentCaptor.forClass(AlertDigest.class);
+        verify(notificationService).sendDigest(captor.capture(), any());
+        AlertDigest digest = captor.getValue();
+        assertThat(digest.getAlertCount()).isEqualTo(4);
+        assertThat(digest.getType()).isEqualTo(Alert.AlertType.SUCCESS_RATE_DROP);
+        assertThat(digest.getPipelineNames()).hasSize(4);
+        assertThat(digest.getCause()).contains("dependency-bot");
+    }
+
+    @Test
+    void differentTypesAreNotGrouped() {
+        recordFailure(1, "alice");
+        recordFailure(2, "alice");
+
+        correlator.submit(alert(1, Alert.AlertType.SUCCESS_RATE_DROP, Alert.AlertSeverity.WARNING), config);
+        correlator.submit(alert(2, Alert.AlertType.CONSECUTIVE_FAILURES, Alert.AlertSeverity.CRITICAL), config);
+
+        verify(notificationService, times(2)).sendAlert(any(), any());
+        assertThat(correlator.flush(LocalDateTime.now(), true)).isZero();
+    }
+
+    @Test
+    void sharedCommitterGroupsAcrossDifferentHours() {
+        correlator.onBuildIngested(new BuildIngestedEvent(this, failedBuild(1, "bob", failedAt)));
+        correlator.onBuildIngested(new BuildIngestedEvent(this, failedBuild(2, "bob", failedAt.minusHours(3))));
+
+        correlator.submit(alert(1, Alert.AlertType.CONSECUTIVE_FAILURES, Alert.AlertSeverity.CRITICAL), config);
+        boolean sent = correlator.submit(alert(2, Alert.AlertType.CONSECUTIVE_FAILURES, Alert.AlertSeverity.EMERGENCY), config);
+
+        assertThat(sent).isFalse();
+        assertThat(correlator.getOpenGroupCount()).isEqualTo(1);
+    }
+
+    @Test
+    void digestsAreSplitByChannelsAndSkipResolvedAlerts() {
+        AlertConfig webhook = AlertConfig.builder().notifySlack(false).notifyEmail(false)
+                .notifyWebhook(true).notificationEndpoint("https://hooks.example.com/team-b").build();
+        for (int i = 1; i <= 5; i++) {
+            recordFailure(i, "dependency-bot");
+        }
+        correlator.submit(alert(1, Alert.AlertType.SUCCESS_RATE_DROP, Alert.AlertSeverity.WARNING), config);
+        correlator.submit(alert(2, Alert.AlertType.SUCCESS_RATE_DROP, Alert.AlertSeverity.WARNING), config);
+        correlator.submit(alert(3, Alert.AlertType.SUCCESS_RATE_DROP, Alert.AlertSeverity.WARNING), webhook);
+        correlator.submit(alert(4, Alert.AlertType.SUCCESS_RATE_DROP, Alert.AlertSeverity.WARNING), webhook);
+        Alert resolved = alert(5, Alert.AlertType.SUCCESS_RATE_DROP, Alert.AlertSeverity.CRITICAL);
+        correlator.submit(resolved, config);
+
+        resolved.setStatus(Alert.AlertStatus.RESOLVED);
+        correlator.onAlertChanged(new AlertChangedEvent(this, resolved, false));
+
+        assertThat(correlator.flush(LocalDateTime.now(), true)).isEqualTo(2);
+        ArgumentCaptor<AlertDigest> digest = ArgumentCaptor.forClass(AlertDigest.class);
+        verify(notificationService).sendDigest(digest.capture(), same(config));
+        assertThat(digest.getValue().getAlertIds()).isEqualTo(List.of(2L));
+        assertThat(digest.getValue().getMaxSeverity()).isEqualTo(Alert.AlertSeverity.WARNING);
+        verify(notificationService).sendDigest(digest.capture(), same(webhook));
+        assertThat(digest.getValue().getAlertIds()).isEqualTo(List.of(3L, 4L));
+    }
+
+    @Test
+    void notificationsAreSentOutsideTheLock() throws Exception {
+        doAnswer(invocation -> {
+            // another producer must get through while this notification is in flight
+            Thread other = new Thread(() -> correlator.submit(
+                    alert(2, Alert.AlertType.QUEUE_BACKUP, Alert.AlertSeverity.WARNING), config));
+            other.start();
+            other.join(2000);
+            assertThat(other.isAlive()).isFalse();
+            return null;
+        }).when(notificationService).sendAlert(argThat(a -> a.getId() == 1L), any());
+
+        correlator.submit(alert(1, Alert.AlertType.STALE_PIPELINE, Alert.AlertSeverity.INFO), config);
+
+        verify(notificationService, times(2)).sendAlert(any(), any());
+    }
+
+    private void recordFailure(int pipelineId, String committer) {
+        correlator.onBuildIngested(new BuildIngestedEvent(this, failedBuild(pipelineId, committer, failedAt)));
+    }
+
+    private Build failedBuild(int pipelineId, String committer, LocalDateTime at) {
+        return Build.builder()
+                .pipeline(pipeline(pipelineId))
+                .status("failure")
+                .committer(committer)
+                .startTime(at.minusMinutes(5))
+                .endTime(at)
+                .build();
+    }
+
+    private Alert alert(int pipelineId, Alert.AlertType type, Alert.AlertSeverity severity) {
+        return Alert.builder()
+                .id((long) pipelineId)
+                .pipeline(pipeline(pipelineId))
+                .type(type)
+                .severity(severity)
+                .title("alert " + pipelineId)
+                .build();
+    }
+
+    private Pipeline pipeline(int id) {
+        return Pipeline.builder().id(id).name("pipeline-" + id).build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.Pipeline;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * unit tests for the EWMA anomaly detector
+ */
+class AnomalyDetectorTest {
+
+    @Mock
+    private AlertService alertService;
+
+    @Mock
+    private BuildRepository buildRepository;
+
+    private AnomalyDetector detector;
+    private Pipeline pipeline;
+    private long nextBuildId = 1;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(buildRepository.findByPipelineIdAndStartTimeAfter(anyInt(), any())).thenReturn(List.of());
+        detector = new AnomalyDetector(alertService, buildRepository);
+        pipeline = Pipeline.builder().id(7).name("anomaly-pipeline").build();
+    }
+
+    @Test
+    void steadyBuildsDoNotAlert() {
+        for (int i = 0; i < 30; i++) {
+            detector.observe(build("success", 300 + (i % 5) * 10));
+        }
+
+        verify(alertService, never()).raiseAnomalyAlert(any(), anyString(), anyDouble(), anyDouble(), anyDouble());
+    }
+
+    @Test
+    void durationSpikeRaisesAnomaly() {
+        for (int i = 0; i < 20; i++) {
+            detector.observe(build("success", 300 + (i % 5) * 10));
+        }
+        detector.observe(build("success", 900));
+
+        ArgumentCaptor<Double> zScore = ArgumentCaptor.forClass(Double.class);
+        verify(alertService).raiseAnomalyAlert(eq(pipeline), eq("duration"), eq(900.0), anyDouble(), zScore.capture());
+        assertThat(zScore.getValue()).isGreaterThan(3.0);
+    }
+
+    @Test
+    void failureBurstRaisesAnomalyAndResolvesAfterRecovery() {
+        for (int i = 0; i < 30; i++) {
+            detector.observe(build(i % 10 == 0 ? "failure" : "success", 300));
+        }
+        for (int i = 0; i < 4; i++) {
+            detector.observe(build("failure", 300));
+        }
+
+        verify(alertService, atLeastOnce()).raiseAnomalyAlert(eq(pipeline), eq("failure_rate"),
+                anyDouble(), anyDouble(), anyDouble());
+
+        for (int i = 0; i < 15; i++) {
+            detector.observe(build("success", 300));
+        }
+        verify(alertService).resolveByFingerprint(eq("anomaly_failure_rate_7"), anyString());
+    }
+
+    @Test
+    void scoresBelowTheConfiguredSensitivityDoNotLatch() {
+        when(alertService.anomalySensitivity(7)).thenReturn(100.0);
+        for (int i = 0; i < 30; i++) {
+            detector.observe(build(i % 10 == 0 ? "failure" : "success", 300));
+        }
+        for (int i = 0; i < 4; i++) {
+            detector.observe(build("failure", 300));
+        }
+        for (int i = 0; i < 15; i++) {
+            detector.observe(build("success", 300));
+        }
+
+        verify(alertService, never()).raiseAnomalyAlert(any(), anyString(), anyDouble(), anyDouble(), anyDouble());
+        verify(alertService, never()).resolveByFingerprint(anyString(), anyString());
+    }
+
+    @Test
+    void noAlertsBeforeMinSamples() {
+        for (int i = 0; i < 5; i++) {
+            detector.observe(build("success", 300));
+        }
+        detector.observe(build("failure", 3000));
+
+        verifyNoInteractions(alertService);
+    }
+
+    private Build build(String status, long duration) {
+        LocalDateTime now = LocalDateTime.now();
+        return Build.builder()
+                .buildId(nextBuildId++)
+                .pipeline(pipeline)
+                .status(status)
+                .duration(duration)
+                .startTime(now.minusSeconds(duration))
+                .endTime(now)
+                .build();
+    }
+}
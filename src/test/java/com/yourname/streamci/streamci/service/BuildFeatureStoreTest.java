@@ -0,0 +1,166 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.BuildModifiedEvent;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.Pipeline;
+import com.yourname.streamci.streamci.model.SuccessPrediction;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.repository.PipelineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * unit tests for the predictor's feature store
+ */
+class BuildFeatureStoreTest {
+
+    @Mock
+    private BuildRepository buildRepository;
+
+    @Mock
+    private PipelineRepository pipelineRepository;
+
+    @Mock
+    private OutcomeModelService outcomeModel;
+
+    private BuildFeatureStore store;
+    private Pipeline pipeline;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(pipelineRepository.existsById(7)).thenReturn(true);
+        store = new BuildFeatureStore(buildRepository, pipelineRepository);
+        pipeline = Pipeline.builder().id(7).name("pipeline").build();
+        start = LocalDateTime.now().minusDays(1).withHour(9).withMinute(0);
+    }
+
+    @Test
+    void warmsInTimeOrderThenAppendsOnInsert() {
+        // 10 old failures then 10 newer successes, returned newest first like the repository does
+        List<Build> history = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            history.add(0, build(i < 10 ? "failure" : "success", "alice", "main", start.plusMinutes(i)));
+        }
+        when(buildRepository.findByPipelineIdAndStartTimeAfter(eq(7), any())).thenReturn(history);
+
+        BuildFeatureStore.Snapshot snapshot = store.snapshot(7, "alice", "main", 9);
+        assertThat(snapshot.total()).isEqualTo(20);
+        assertThat(snapshot.recent().successes()).isEqualTo(10);
+        assertThat(snapshot.recent5()).isEqualTo(5);
+        assertThat(snapshot.committer()).isEqualTo(new BuildFeatureStore.Outcomes(10, 10)); // last 10 only
+        assertThat(snapshot.hour().size()).isEqualTo(20);
+
+        store.onBuildIngested(new BuildIngestedEvent(this, build("failure", "bob", "feature", start.plusHours(1))));
+
+        snapshot = store.snapshot(7, "bob", "feature", 10);
+        assertThat(snapshot.total()).isEqualTo(21);
+        assertThat(snapshot.recent5()).isEqualTo(4);
+        assertThat(snapshot.committer()).isEqualTo(new BuildFeatureStore.Outcomes(1, 0));
+        assertThat(snapshot.branch()).isEqualTo(new BuildFeatureStore.Outcomes(1, 0));
+        assertThat(snapshot.hour()).isEqualTo(new BuildFeatureStore.Outcomes(1, 0));
+
+        // one query for the warm-up, nothing per prediction
+        verify(buildRepository, times(1)).findByPipelineIdAndStartTimeAfter(eq(7), any());
+    }
+
+    @Test
+    void totalCountsHistoryOlderThanTheWarmUpWindow() {
+        // three builds in the window, forty in all, the predictor's cut-offs use the forty
+        List<Build> history = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            history.add(0, build("success", "alice", "main", start.plusMinutes(i)));
+        }
+        List<Build> latest = new ArrayList<>(history);
+        for (int i = 1; i <= 17; i++) {
+            latest.add(build("failure", "alice", "main", start.minusDays(100 + i)));
+        }
+        when(buildRepository.findByPipelineIdAndStartTimeAfter(eq(7), any())).thenReturn(history);
+        when(buildRepository.findLatestByPipelineId(eq(7), any())).thenReturn(latest);
+        when(buildRepository.countByPipelineId(7)).thenReturn(40L);
+
+        BuildFeatureStore.Snapshot snapshot = store.snapshot(7, null, null, 9);
+        assertThat(snapshot.total()).isEqualTo(40);
+        // too few in the window, so the ring is filled from the newest builds instead
+        assertThat(snapshot.recent()).isEqualTo(new BuildFeatureStore.Outcomes(20, 3));
+        assertThat(snapshot.recent5()).isEqualTo(3);
+
+        store.onBuildIngested(new BuildIngestedEvent(this, build("success", "alice", "main", start.plusHours(1))));
+        assertThat(store.snapshot(7, null, null, 9).total()).isEqualTo(41);
+    }
+
+    @Test
+    void pipelineWithOnlyOldBuildsIsPredictedFromThem() {
+        // twelve successes, all older than the warm-up window
+        List<Build> latest = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            latest.add(build("success", "alice", "main", start.minusDays(120 + i)));
+        }
+        when(buildRepository.findByPipelineIdAndStartTimeAfter(eq(7), any())).thenReturn(List.of());
+        when(buildRepository.findLatestByPipelineId(eq(7), any())).thenReturn(latest);
+        when(buildRepository.countByPipelineId(7)).thenReturn(12L);
+        when(outcomeModel.score(any(), any(), any(), any())).thenReturn(new OutcomeModelService.Score(0.5, 0));
+
+        BuildFeatureStore.Snapshot snapshot = store.snapshot(7, "alice", "main", 9);
+        assertThat(snapshot.recent()).isEqualTo(new BuildFeatureStore.Outcomes(12, 12));
+        assertThat(snapshot.recent5()).isEqualTo(5);
+        assertThat(snapshot.previous5()).isEqualTo(5);
+
+        SuccessPrediction prediction = new BuildSuccessPredictor(store, outcomeModel)
+                .predictNextBuildSuccess(7, "alice", "main");
+        assertThat(prediction.getFactors().get("base_success_rate")).isEqualTo(100.0);
+        assertThat(prediction.getFactors().get("trend_factor")).isEqualTo(70.0);
+        assertThat(prediction.getProbability()).isGreaterThan(80.0);
+        assertThat(prediction.getConfidence()).isEqualTo("medium");
+    }
+
+    @Test
+    void unknownPipelineIsNeitherQueriedNorCached() {
+        when(pipelineRepository.existsById(404)).thenReturn(false);
+
+        BuildFeatureStore.Snapshot snapshot = store.snapshot(404, "alice", "main", 9);
+        assertThat(snapshot.total()).isZero();
+        assertThat(snapshot.recent()).isEqualTo(new BuildFeatureStore.Outcomes(0, 0));
+        store.snapshot(404, "alice", "main", 9);
+
+        verify(pipelineRepository, times(2)).existsById(404);
+        verifyNoInteractions(buildRepository);
+    }
+
+    @Test
+    void updatedBuildInvalidatesPipeline() {
+        Build build = build("failure", "alice", "main", start);
+        when(buildRepository.findByPipelineIdAndStartTimeAfter(eq(7), any())).thenReturn(List.of(build));
+        assertThat(store.snapshot(7, null, null, 9).recent().successes()).isZero();
+
+        build.setStatus("success");
+        store.onBuildModified(new BuildModifiedEvent(this, build, false));
+
+        assertThat(store.snapshot(7, null, null, 9).recent().successes()).isEqualTo(1);
+        verify(buildRepository, times(2)).findByPipelineIdAndStartTimeAfter(eq(7), any());
+    }
+
+    private Build build(String status, String committer, String branch, LocalDateTime time) {
+        return Build.builder()
+                .pipeline(pipeline)
+                .status(status)
+                .committer(committer)
+                .branch(branch)
+                .startTime(time)
+                .endTime(time.plusMinutes(5))
+                .build();
+    }
+}
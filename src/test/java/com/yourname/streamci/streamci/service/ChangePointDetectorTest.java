@@ -0,0 +1,118 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.ChangePoint;
+import com.yourname.streamci.streamci.model.Pipeline;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.repository.ChangePointRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * unit tests for the CUSUM change-point detector
+ */
+class ChangePointDetectorTest {
+
+    @Mock
+    private AlertService alertService;
+
+    @Mock
+    private BuildRepository buildRepository;
+
+    @Mock
+    private ChangePointRepository changePointRepository;
+
+    private ChangePointDetector detector;
+    private Pipeline pipeline;
+    private LocalDateTime start;
+    private long nextBuildId = 1;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(buildRepository.findByPipelineIdAndStartTimeAfter(anyInt(), any())).thenReturn(List.of());
+        detector = new ChangePointDetector(alertService, buildRepository, changePointRepository);
+        pipeline = Pipeline.builder().id(9).name("changepoint-pipeline").build();
+        start = LocalDateTime.now().minusDays(2);
+    }
+
+    @Test
+    void steadyBuildsDoNotSignal() {
+        for (int i = 0; i < 60; i++) {
+            detector.observe(build(i % 10 == 0 ? "failure" : "success", 300 + (i % 5) * 10));
+        }
+
+        verify(changePointRepository, never()).save(any());
+        verify(alertService, never()).raiseChangePointAlert(any(), any());
+    }
+
+    @Test
+    void durationShiftRecordsCommitRange() {
+        // ends on a 300s build so the cusum is back at zero before the shift
+        for (int i = 0; i < 21; i++) {
+            detector.observe(build("success", 300 + (i % 5) * 10));
+        }
+        for (int i = 0; i < 3; i++) {
+            detector.observe(build("success", 450));
+        }
+
+        ArgumentCaptor<ChangePoint> saved = ArgumentCaptor.forClass(ChangePoint.class);
+        verify(changePointRepository).save(saved.capture());
+        ChangePoint changePoint = saved.getValue();
+        assertThat(changePoint.getMetric()).isEqualTo("duration");
+        assertThat(changePoint.getPipelineId()).isEqualTo(9);
+        assertThat(changePoint.getLastGoodCommit()).isEqualTo("c21");
+        assertThat(changePoint.getFirstBadCommit()).isEqualTo("c22");
+        assertThat(changePoint.getShiftedValue()).isEqualTo(450.0);
+        assertThat(changePoint.getBaselineValue()).isBetween(300.0, 340.0);
+        assertThat(changePoint.getChangeStartedAt()).isEqualTo(start.plusHours(22).plusSeconds(450));
+        verify(alertService).raiseChangePointAlert(pipeline, changePoint);
+    }
+
+    @Test
+    void failureRateShiftIsDetectedWithinAFewBuildsAndNotReplayedOnWarmUp() {
+        List<Build> history = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            history.add(0, build(i % 10 == 0 ? "failure" : "success", 300));
+        }
+        when(buildRepository.findByPipelineIdAndStartTimeAfter(eq(9), any())).thenReturn(history);
+
+        // after the alarm the baseline relearns, so ten failures give exactly one change point
+        for (int i = 0; i < 10; i++) {
+            detector.observe(build("failure", 120));
+        }
+
+        ArgumentCaptor<ChangePoint> saved = ArgumentCaptor.forClass(ChangePoint.class);
+        verify(changePointRepository).save(saved.capture());
+        assertThat(saved.getValue().getMetric()).isEqualTo("failure_rate");
+        assertThat(saved.getValue().getLastGoodCommit()).isEqualTo("c40");
+        assertThat(saved.getValue().getFirstBadCommit()).isEqualTo("c41");
+        assertThat(saved.getValue().getShiftedValue()).isEqualTo(100.0);
+        verify(buildRepository, times(1)).findByPipelineIdAndStartTimeAfter(eq(9), any());
+    }
+
+    private Build build(String status, long duration) {
+        long id = nextBuildId++;
+        LocalDateTime startTime = start.plusHours(id);
+        return Build.builder()
+                .buildId(id)
+                .pipeline(pipeline)
+                .status(status)
+                .commitHash("c" + id)
+                .startTime(startTime)
+                .endTime(startTime.plusSeconds(duration))
+                .duration(duration)
+                .build();
+    }
+}
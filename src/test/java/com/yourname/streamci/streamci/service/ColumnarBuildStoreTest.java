@@ -0,0 +1,167 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.BuildModifiedEvent;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.Pipeline;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.LongSummaryStatistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * unit tests for the in-memory columnar build store
+ */
+class ColumnarBuildStoreTest {
+
+    @Mock
+    private BuildRepository buildRepository;
+
+    private ColumnarBuildStore store;
+    private final Pipeline pipeline = Pipeline.builder().id(3).name("columns").build();
+    // a monday
+    private final LocalDateTime start = LocalDateTime.of(2026, 3, 2, 8, 0);
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        store = new ColumnarBuildStore(buildRepository);
+    }
+
+    @Test
+    void loadsInPagesAndKeepsChangesThatArriveMeanwhile() {
+        List<Object[]> firstPage = new ArrayList<>();
+        for (long id = 1; id <= 10_000; id++) {
+            firstPage.add(row(id, 3, start.plusMinutes(id), id % 5 == 0 ? "failure" : "success", 100L + id % 7, "alice"));
+        }
+        List<Object[]> secondPage = List.<Object[]>of(row(10_001L, 3, start, "SUCCESS", null, "bob"),
+                row(10_002L, null, start, "success", 10L, "bob"));
+        when(buildRepository.findColumnRowsAfter(eq(0L), any())).thenReturn(firstPage);
+        when(buildRepository.findColumnRowsAfter(eq(10_000L), any())).thenReturn(secondPage);
+
+        // ingested before the load finished, applied after the loaded rows
+        store.onBuildIngested(new BuildIngestedEvent(this, build(10_003L, "failure", 50L, start.plusDays(30))));
+        assertThat(store.scan(3).count()).isZero();
+
+        store.load();
+
+        ColumnarBuildStore.Scan builds = store.scan(3);
+        assertThat(builds.count()).isEqualTo(10_002);
+        assertThat(builds.withStatus(store.statusId("failure")).count()).isEqualTo(2_001);
+        assertThat(builds.withStatus(store.statusId("success")).count()).isEqualTo(8_001);
+        assertThat(builds.latestTime()).isEqualTo(ColumnarBuildStore.epochSecond(start.plusDays(30)));
+        verify(buildRepository, times(2)).findColumnRowsAfter(anyLong(), any());
+    }
+
+    @Test
+    void filtersAndGroupsAcrossChunks() {
+        store.load();
+        int rows = ColumnarBuildStore.CHUNK_SIZE * 2 + 10;
+        for (long id = 1; id <= rows; id++) {
+            Build build = build(id, id % 4 == 0 ? "failure" : "success", id % 3 == 0 ? null : 60L * (id % 10),
+                    start.plusHours(id));
+            build.setCommitter(id % 2 == 0 ? "alice" : "bob");
+            store.onBuildIngested(new BuildIngestedEvent(this, build));
+        }
+
+        ColumnarBuildStore.Scan builds = store.scan(3);
+        assertThat(builds.count()).isEqualTo(rows);
+
+        int[] byHour = builds.countBy((chunk, row) -> ColumnarBuildStore.hourOf(chunk.time(row)), 24);
+        assertThat(byHour[8]).isEqualTo(builds.filter((chunk, row) ->
+                ColumnarBuildStore.toLocalDateTime(chunk.time(row)).getHour() == 8).count());
+        int[] byDay = builds.countBy((chunk, row) -> ColumnarBuildStore.dayOfWeekOf(chunk.time(row)), 7);
+        assertThat(byDay[DayOfWeek.MONDAY.getValue() - 1]).isEqualTo(builds.filter((chunk, row) ->
+                ColumnarBuildStore.toLocalDateTime(chunk.time(row)).getDayOfWeek() == DayOfWeek.MONDAY).count());
+
+        int[] byCommitter = builds.withStatus(store.statusId("failure"))
+                .countBy((chunk, row) -> chunk.committer(row), store.committerCount());
+        assertThat(byCommitter[store.committerId("alice")]).isEqualTo(rows / 4);
+        assertThat(byCommitter[store.committerId("bob")]).isZero();
+
+        LongSummaryStatistics durations = builds.durations();
+        assertThat(durations.getCount()).isEqualTo(rows - rows / 3);
+        assertThat(durations.getMin()).isZero();
+        assertThat(durations.getMax()).isEqualTo(540L);
+
+        assertThat(builds.after(start.plusHours(rows - 5)).count()).isEqualTo(5);
+    }
+
+    @Test
+    void updatesRewriteTheRowAndDeletesHideIt() {
+        store.load();
+        Build running = build(1L, "in_progress", null, start);
+        Build other = build(2L, "success", 300L, start.plusHours(1));
+        store.onBuildIngested(new BuildIngestedEvent(this, running));
+        store.onBuildIngested(new BuildIngestedEvent(this, other));
+
+        running.setStatus("failure");
+        running.setDuration(120L);
+        store.onBuildModified(new BuildModifiedEvent(this, running, false));
+
+        ColumnarBuildStore.Scan builds = store.scan(3);
+        assertThat(builds.count()).isEqualTo(2);
+        assertThat(builds.withStatus(store.statusId("in_progress")).count()).isZero();
+        assertThat(builds.withStatus(store.statusId("failure")).durations().getSum()).isEqualTo(120L);
+
+        store.onBuildModified(new BuildModifiedEvent(this, other, true));
+        assertThat(store.scan(3).count()).isEqualTo(1);
+        assertThat(store.scan(3).withStatus(store.statusId("success")).count()).isZero();
+        assertThat(store.scan(99).count()).isZero();
+    }
+
+    @Test
+    void buildsWithoutStartOrEndAreTimedOnceCreatedAtSettles() {
+        store.load();
+        LocalDateTime now = LocalDateTime.now();
+        Build untimed = build(1L, "queued", null, null);
+        untimed.setCreatedAt(now);
+        Build laterStarted = build(2L, "queued", null, null);
+        laterStarted.setCreatedAt(now);
+        store.onBuildIngested(new BuildIngestedEvent(this, untimed));
+        store.onBuildIngested(new BuildIngestedEvent(this, laterStarted));
+        assertThat(store.scan(3).timed().count()).isZero();
+
+        laterStarted.setStartTime(start);
+        store.onBuildModified(new BuildModifiedEvent(this, laterStarted, false));
+
+        // not settled yet
+        store.settleCreatedTimes(now.plusMinutes(1));
+        assertThat(store.scan(3).timed().count()).isEqualTo(1);
+
+        store.settleCreatedTimes(now.plusMinutes(10));
+        ColumnarBuildStore.Scan timed = store.scan(3).timed();
+        assertThat(timed.count()).isEqualTo(2);
+        assertThat(timed.withStatus(store.statusId("queued")).filter((chunk, row) -> chunk.buildId(row) == 1L)
+                .latestTime()).isEqualTo(ColumnarBuildStore.epochSecond(now));
+        // the start that arrived meanwhile is kept
+        assertThat(timed.filter((chunk, row) -> chunk.buildId(row) == 2L).latestTime())
+                .isEqualTo(ColumnarBuildStore.epochSecond(start));
+    }
+
+    private Build build(Long id, String status, Long duration, LocalDateTime startTime) {
+        return Build.builder()
+                .buildId(id)
+                .pipeline(pipeline)
+                .status(status)
+                .duration(duration)
+                .startTime(startTime)
+                .build();
+    }
+
+    private static Object[] row(Long id, Integer pipelineId, LocalDateTime startTime, String status,
+                                Long duration, String committer) {
+        return new Object[]{id, pipelineId, startTime, null, startTime, status, duration, committer, "main"};
+    }
+}
@@ -0,0 +1,166 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.AlertChangedEvent;
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.BuildModifiedEvent;
+import com.yourname.streamci.streamci.event.PipelineDataChangedEvent;
+import com.yourname.streamci.streamci.model.*;
+import com.yourname.streamci.streamci.repository.*;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * the dashboard projection follows entity events and serves its summary without queries
+ */
+class DashboardProjectionTest {
+
+    @Mock
+    private PipelineRepository pipelineRepository;
+
+    @Mock
+    private PipelineMetricsRepository metricsRepository;
+
+    @Mock
+    private LatestMetricsRepository latestMetricsRepository;
+
+    @Mock
+    private QueueMetricsRepository queueMetricsRepository;
+
+    @Mock
+    private QueueTrackerRepository queueTrackerRepository;
+
+    @Mock
+    private AlertRepository alertRepository;
+
+    @Mock
+    private BuildRepository buildRepository;
+
+    private ActiveAlertIndex activeAlertIndex;
+    private DashboardProjection projection;
+    private Pipeline frontend;
+    private Pipeline backend;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        DashboardService dashboardService = new DashboardService(null, null, null, null,
+                buildRepository, metricsRepository, queueTrackerRepository, alertRepository);
+        activeAlertIndex = new ActiveAlertIndex(alertRepository);
+        projection = new DashboardProjection(dashboardService, pipelineRepository, latestMetricsRepository,
+                queueMetricsRepository, queueTrackerRepository, alertRepository, buildRepository, activeAlertIndex);
+        projection.rebuild();
+
+        frontend = Pipeline.builder().id(1).name("frontend").status("active").build();
+        backend = Pipeline.builder().id(2).name("backend").status("active").build();
+        changed(frontend, false);
+        changed(backend, false);
+    }
+
+    @Test
+    void summaryFollowsEventsWithoutQueries() {
+        LocalDateTime now = LocalDateTime.now();
+        changed(PipelineMetrics.builder().id(10L).pipeline(frontend).calculatedAt(now.minusHours(1))
+                .successRate(50.0).totalBuilds(4).successfulBuilds(2).failedBuilds(2).build(), false);
+        changed(PipelineMetrics.builder().id(11L).pipeline(frontend).calculatedAt(now)
+                .successRate(80.0).totalBuilds(10).successfulBuilds(8).failedBuilds(2).avgDurationSeconds(90L).build(), false);
+        changed(QueueMetrics.builder().id(20L).pipeline(backend).timestamp(now).currentQueueDepth(4).build(), false);
+        changed(QueueTracker.builder().id(30L).pipeline(frontend).status("running").build(), false);
+        changed(QueueTracker.builder().id(31L).pipeline(backend).status("queued").build(), false);
+        changed(QueueTracker.builder().id(32L).pipeline(backend).status("completed").build(), false);
+
+        projection.onBuildIngested(new BuildIngestedEvent(this, Build.builder().buildId(100L)
+                .pipeline(frontend).status("success").startTime(now.minusHours(2)).build()));
+        projection.onBuildIngested(new BuildIngestedEvent(this, Build.builder().buildId(101L)
+                .pipeline(frontend).status("failure").startTime(now.minusHours(30)).build()));
+
+        alertChanged(alert(40L, backend, now.minusMinutes(5)));
+        alertChanged(alert(41L, null, now));
+        clearInvocations(pipelineRepository, latestMetricsRepository, queueMetricsRepository,
+                queueTrackerRepository, alertRepository, buildRepository);
+
+        Map<String, Object> summary = projection.snapshot();
+
+        assertThat(summary.get("total_pipelines")).isEqualTo(2);
+        Map<String, Object> overview = (Map<String, Object>) summary.get("overview");
+        assertThat(overview.get("average_success_rate")).isEqualTo(80.0);
+        assertThat(overview.get("pipelines_with_data")).isEqualTo(1);
+
+        Map<String, Object> queue = (Map<String, Object>) summary.get("queue_status");
+        assertThat(queue.get("total_queued")).isEqualTo(1);
+        assertThat(queue.get("total_running")).isEqualTo(1);
+
+        // the 30 hour old build is outside the window
+        Map<String, Object> activity = (Map<String, Object>) summary.get("recent_activity");
+        assertThat(activity.get("builds_last_24h")).isEqualTo(1);
+        assertThat(activity.get("successful_builds_last_24h")).isEqualTo(1L);
+        assertThat(activity.get("alerts_last_24h")).isEqualTo(2L);
+
+        List<Map<String, Object>> alerts = (List<Map<String, Object>>) summary.get("active_alerts");
+        assertThat(alerts).extracting(a -> a.get("id")).containsExactly(41L, 40L);
+
+        List<Map<String, Object>> pipelines = (List<Map<String, Object>>) summary.get("pipelines");
+        assertThat(pipelines).extracting(p -> p.get("success_rate")).containsExactly(80.0, 0);
+        assertThat(pipelines.get(1).get("queue_depth")).isEqualTo(4);
+        assertThat(pipelines.get(1).get("active_alerts")).isEqualTo(1);
+
+        verifyNoInteractions(pipelineRepository, latestMetricsRepository, queueMetricsRepository,
+                queueTrackerRepository, alertRepository, buildRepository);
+        assertThat(projection.snapshot()).isSameAs(summary);
+    }
+
+    @Test
+    void resolutionsAndDeletesLeaveTheSummary() {
+        LocalDateTime now = LocalDateTime.now();
+        Alert alert = alert(40L, frontend, now);
+        alertChanged(alert);
+        changed(QueueTracker.builder().id(30L).pipeline(backend).status("running").build(), false);
+        Build build = Build.builder().buildId(100L).pipeline(backend).status("running").startTime(now).build();
+        projection.onBuildIngested(new BuildIngestedEvent(this, build));
+        assertThat((List<?>) projection.snapshot().get("active_alerts")).hasSize(1);
+
+        alert.setStatus(Alert.AlertStatus.RESOLVED);
+        alertChanged(alert);
+        build.setStatus("failure");
+        projection.onBuildModified(new BuildModifiedEvent(this, build, false));
+        changed(backend, true);
+
+        Map<String, Object> summary = projection.snapshot();
+        assertThat((List<?>) summary.get("active_alerts")).isEmpty();
+        assertThat(summary.get("total_pipelines")).isEqualTo(1);
+        assertThat(((Map<String, Object>) summary.get("queue_status")).get("total_running")).isEqualTo(0);
+        Map<String, Object> activity = (Map<String, Object>) summary.get("recent_activity");
+        assertThat(activity.get("failed_builds_last_24h")).isEqualTo(1L);
+        assertThat(activity.get("alerts_last_24h")).isEqualTo(1L);
+    }
+
+    // the index sees alert events before the projection, as with the listener order in the app
+    private void alertChanged(Alert alert) {
+        AlertChangedEvent event = new AlertChangedEvent(this, alert, false);
+        activeAlertIndex.onAlertChanged(event);
+        projection.onAlertChanged(event);
+    }
+
+    private void changed(Object entity, boolean removed) {
+        projection.onPipelineDataChanged(new PipelineDataChangedEvent(this, null, entity, removed));
+    }
+
+    private Alert alert(Long id, Pipeline pipeline, LocalDateTime createdAt) {
+        return Alert.builder()
+                .id(id)
+                .pipeline(pipeline)
+                .type(Alert.AlertType.SUCCESS_RATE_DROP)
+                .severity(Alert.AlertSeverity.WARNING)
+                .status(Alert.AlertStatus.ACTIVE)
+                .message("alert " + id)
+                .createdAt(createdAt)
+                .build();
+    }
+}
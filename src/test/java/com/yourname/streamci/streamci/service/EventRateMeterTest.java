@@ -0,0 +1,125 @@
+package com.yourname.streamci.streamci.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * the event rate meter counts every event under concurrent writers and
+ * reports sliding-window rates overall, per type and per repository
+ */
+class EventRateMeterTest {
+
+    private SimpleMeterRegistry registry;
+    private EventRateMeter meter;
+    private final AtomicLong clock = new AtomicLong(1_700_000_000_000L);
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        meter = new EventRateMeter(registry, clock::get);
+    }
+
+    @Test
+    void concurrentWritersLoseNoEvents() throws Exception {
+        int threads = 8;
+        int perThread = 5000;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                String repository = "org/repo-" + (t % 2);
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perThread; i++) {
+                        meter.record("workflow_run", repository);
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(10, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long events = (long) threads * perThread;
+        assertThat(meter.getTotalEvents()).isEqualTo(events);
+        // under a minute of uptime the window is a full minute, so the rate is the count
+        assertThat(meter.getEventsPerMinute()).isEqualTo((double) events);
+
+        Map<String, Object> snapshot = meter.snapshot();
+        assertThat(snapshot.get("total")).isEqualTo(events);
+        assertThat(snapshot.get("rate_15m")).isEqualTo((double) events);
+        assertThat(entry(snapshot, "by_repository", "org/repo-0").get("total")).isEqualTo(events / 2);
+        assertThat(entry(snapshot, "by_repository", "org/repo-1").get("total")).isEqualTo(events / 2);
+    }
+
+    @Test
+    void breaksDownByTypeAndRepositoryAndPublishesMeters() {
+        meter.record("workflow_run", "org/api");
+        meter.record("workflow_run", "org/web");
+        meter.record("push", "org/api");
+        meter.record("ping", null);
+
+        Map<String, Object> snapshot = meter.snapshot();
+        assertThat(entry(snapshot, "by_type", "workflow_run").get("rate_1m")).isEqualTo(2.0);
+        assertThat(entry(snapshot, "by_type", "push").get("total")).isEqualTo(1L);
+        assertThat(List.<Object>copyOf(((Map<?, ?>) snapshot.get("by_repository")).keySet())).contains("org/api", "org/web", "unknown");
+        assertThat(entry(snapshot, "by_repository", "org/api").get("rate_5m")).isEqualTo(2.0);
+
+        assertThat(registry.get("streamci.events").tag("event_type", "workflow_run").functionCounter().count())
+                .isEqualTo(2.0);
+        assertThat(registry.get("streamci.events.rate").tag("repository", "org/api").tag("window", "1m").gauge().value())
+                .isEqualTo(2.0);
+        assertThat(registry.get("streamci.events.rate").tags("window", "15m").gauges()).hasSizeGreaterThan(1);
+    }
+
+    @Test
+    void oldSecondsLeaveEachWindow() {
+        // past the first 15 minutes, so no window is shortened to the uptime
+        clock.addAndGet(TimeUnit.MINUTES.toMillis(20));
+        for (int i = 0; i < 6; i++) {
+            meter.record("push", "org/api");
+        }
+
+        advanceSeconds(61);
+        assertThat(rates(meter.snapshot())).containsExactly(0.0, 1.2, 0.4);
+
+        advanceSeconds(240);
+        assertThat(rates(meter.snapshot())).containsExactly(0.0, 0.0, 0.4);
+        assertThat(rates(entry(meter.snapshot(), "by_type", "push"))).containsExactly(0.0, 0.0, 0.4);
+
+        // lands in the slot the first events used, which must not count them again
+        advanceSeconds(599);
+        meter.record("push", "org/api");
+        advanceSeconds(1);
+        assertThat(rates(meter.snapshot())).containsExactly(1.0, 0.2, 0.1);
+        assertThat(meter.getTotalEvents()).isEqualTo(7L);
+        assertThat(registry.get("streamci.events.rate").tag("repository", "org/api").tag("window", "15m").gauge().value())
+                .isEqualTo(1 / 15.0);
+    }
+
+    private void advanceSeconds(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(seconds));
+    }
+
+    private static List<Object> rates(Map<?, ?> rates) {
+        return List.of(rates.get("rate_1m"), rates.get("rate_5m"), rates.get("rate_15m"));
+    }
+
+    private static Map<?, ?> entry(Map<String, Object> snapshot, String breakdown, String key) {
+        return (Map<?, ?>) ((Map<?, ?>) snapshot.get(breakdown)).get(key);
+    }
+}
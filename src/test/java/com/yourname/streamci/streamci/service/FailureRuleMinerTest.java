@@ -0,0 +1,88 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.PatternDetectionResult;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * unit tests for eclat failure rule mining
+ */
+class FailureRuleMinerTest {
+
+    private final FailureRuleMiner miner = new FailureRuleMiner();
+
+    // a monday
+    private final LocalDateTime start = LocalDateTime.of(2026, 1, 5, 10, 0);
+
+    @Test
+    void findsCombinationThatNeitherAttributeExplainsAlone() {
+        // release branches fail on fridays, everything else fails one build in ten
+        List<Build> builds = new ArrayList<>();
+        for (int day = 0; day < 140; day++) {
+            for (String branch : List.of("main", "release/1." + day % 3)) {
+                LocalDateTime time = start.plusDays(day);
+                boolean releaseFriday = branch.startsWith("release") && time.getDayOfWeek() == DayOfWeek.FRIDAY;
+                boolean failed = releaseFriday ? day % 10 != 4 : day % 10 == 0;
+                builds.add(build(branch, "alice", time, failed ? "failure" : "success", "a" + day + branch));
+            }
+        }
+
+        List<PatternDetectionResult> rules = miner.mine(FailureTransactions.of(builds, Map.of()));
+
+        assertThat(rules).isNotEmpty();
+        PatternDetectionResult top = rules.get(0);
+        assertThat(top.getPatternType()).isEqualTo("failure_rule");
+        assertThat(top.getDetails().get("items")).isEqualTo(List.of("branch=release/*", "weekday=FRIDAY"));
+        assertThat((double) top.getDetails().get("lift")).isGreaterThan(3.0);
+        assertThat(top.getConfidence()).isGreaterThan(0.8);
+        // constant attributes (the hour, the committer) add nothing and aren't reported on top
+        assertThat(rules).noneMatch(rule -> rule.getDescription().contains("committer=alice"));
+        assertThat(rules).noneMatch(rule -> rule.getDescription().equals("failures when branch=release/*"));
+    }
+
+    @Test
+    void pushedFilesBecomeItemsAndRareCombinationsArePruned() {
+        List<Build> builds = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            String sha = "c" + i;
+            boolean migration = i % 4 == 0;
+            // bob's late builds fail twice only, under the minimum support
+            boolean bobLate = i == 7 || i == 11;
+            boolean failed = migration || bobLate;
+            LocalDateTime time = bobLate ? start.plusDays(i).withHour(23) : start.plusDays(i);
+            builds.add(build("main", bobLate ? "bob" : "alice", time, failed ? "failure" : "success", sha));
+        }
+        Map<String, Set<String>> paths = new HashMap<>();
+        for (int i = 0; i < 60; i++) {
+            paths.put("c" + i, i % 4 == 0 ? Set.of("db/migrations/00" + i + ".sql") : Set.of("src/App.java"));
+        }
+
+        List<PatternDetectionResult> rules = miner.mine(FailureTransactions.of(builds, paths));
+
+        assertThat(rules).extracting(PatternDetectionResult::getDescription).contains("failures when files=db/**");
+        assertThat(rules).noneMatch(rule -> rule.getDescription().contains("committer=bob"));
+        assertThat(rules).noneMatch(rule -> rule.getDescription().contains("hour=21-23"));
+    }
+
+    private Build build(String branch, String committer, LocalDateTime time, String status, String sha) {
+        return Build.builder()
+                .branch(branch)
+                .committer(committer)
+                .commitHash(sha)
+                .status(status)
+                .startTime(time)
+                .endTime(time.plusMinutes(5))
+                .duration(300L)
+                .build();
+    }
+}
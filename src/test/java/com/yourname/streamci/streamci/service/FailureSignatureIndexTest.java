@@ -0,0 +1,118 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.model.FailurePattern;
+import com.yourname.streamci.streamci.model.Pipeline;
+import com.yourname.streamci.streamci.repository.FailurePatternRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * unit tests for minhash / lsh failure log clustering
+ */
+class FailureSignatureIndexTest {
+
+    private static final String NPM_FAILURE = """
+            2026-03-02T10:15:01.1234567Z Run npm ci
+            2026-03-02T10:15:09.0000000Z added 812 packages in 8s
+            2026-03-02T10:15:10.0000000Z Run npm test
+            2026-03-02T10:16:41.5550000Z FAIL src/components/Cart.test.tsx (12.4 s)
+            2026-03-02T10:16:41.5560000Z   ● Cart › applies discount codes
+            2026-03-02T10:16:41.5570000Z     expect(received).toEqual(expected)
+            2026-03-02T10:16:41.5580000Z     at Object.<anonymous> (/home/runner/work/shop/shop/src/components/Cart.test.tsx:48:27)
+            2026-03-02T10:16:42.0000000Z Tests: 1 failed, 211 passed, 212 total
+            2026-03-02T10:16:42.1000000Z ##[error]Process completed with exit code 1.
+            """;
+
+    private static final String GRADLE_FAILURE = """
+            2026-03-02T11:00:00.0000000Z > Task :compileJava
+            2026-03-02T11:00:04.0000000Z /home/runner/work/api/api/src/main/java/Api.java:12: error: cannot find symbol
+            2026-03-02T11:00:04.0000000Z     import com.example.missing.Client;
+            2026-03-02T11:00:04.0000000Z FAILURE: Build failed with an exception.
+            2026-03-02T11:00:04.0000000Z * What went wrong: Execution failed for task ':compileJava'.
+            2026-03-02T11:00:04.0000000Z BUILD FAILED in 9s
+            """;
+
+    @Mock
+    private FailurePatternRepository patternRepository;
+
+    @Mock
+    private PipelineService pipelineService;
+
+    private FailureSignatureIndex index;
+    private final AtomicLong nextId = new AtomicLong(1);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        index = new FailureSignatureIndex(patternRepository, pipelineService);
+        when(pipelineService.getPipelineById(4)).thenReturn(Optional.of(Pipeline.builder().id(4).name("shop").build()));
+        when(patternRepository.findByPipelineIdAndPatternTypeOrderByConfidenceDesc(4, "log_signature"))
+                .thenReturn(List.of());
+        when(patternRepository.save(any(FailurePattern.class))).thenAnswer(invocation -> {
+            FailurePattern pattern = invocation.getArgument(0);
+            pattern.setId(nextId.getAndIncrement());
+            return pattern;
+        });
+    }
+
+    @Test
+    void normalizationStripsRunSpecificNoise() {
+        List<String> lines = FailureSignatureIndex.normalize(
+                "2026-03-02T10:16:41.5580000Z at Object (/home/runner/work/shop/src/a.ts:48:27) sha 3f9c2e1ab");
+
+        assertThat(lines).containsExactly("at object (<path>:<n>:<n>) sha <hash>");
+    }
+
+    @Test
+    void reRunsOfTheSameFailureJoinOneClusterAndOtherFailuresStartTheirOwn() {
+        FailureSignatureIndex.Match first = index.ingest(4, NPM_FAILURE, now).orElseThrow();
+        assertThat(first.created()).isTrue();
+        assertThat(first.headline()).startsWith("fail src/components/cart.test.tsx");
+
+        // same failure on another day, another runner path and different counts
+        String rerun = NPM_FAILURE.replace("2026-03-02", "2026-03-05")
+                .replace("/home/runner/work/shop/shop", "/home/runner/_work/shop-2/shop")
+                .replace("211 passed, 212 total", "215 passed, 216 total")
+                .replace("12.4 s", "9.8 s");
+        FailureSignatureIndex.Match second = index.ingest(4, rerun, now.plusDays(3)).orElseThrow();
+        assertThat(second.created()).isFalse();
+        assertThat(second.patternId()).isEqualTo(first.patternId());
+        assertThat(second.similarity()).isGreaterThan(0.8);
+        verify(patternRepository).recordOccurrence(eq(first.patternId()), anyDouble(), eq(now.plusDays(3)));
+
+        FailureSignatureIndex.Match other = index.ingest(4, GRADLE_FAILURE, now).orElseThrow();
+        assertThat(other.created()).isTrue();
+        assertThat(other.patternId()).isNotEqualTo(first.patternId());
+    }
+
+    @Test
+    void clustersAreRestoredFromStoredSignatures() {
+        index.ingest(4, NPM_FAILURE, now);
+        ArgumentCaptor<FailurePattern> saved = ArgumentCaptor.forClass(FailurePattern.class);
+        verify(patternRepository).save(saved.capture());
+        assertThat(saved.getValue().getPatternType()).isEqualTo("log_signature");
+        assertThat(saved.getValue().getSignature()).hasSize(FailureSignatureIndex.SIGNATURE_SIZE * Integer.BYTES);
+
+        FailureSignatureIndex restarted = new FailureSignatureIndex(patternRepository, pipelineService);
+        when(patternRepository.findByPipelineIdAndPatternTypeOrderByConfidenceDesc(4, "log_signature"))
+                .thenReturn(List.of(saved.getValue()));
+
+        FailureSignatureIndex.Match match = restarted.ingest(4, NPM_FAILURE, now).orElseThrow();
+        assertThat(match.created()).isFalse();
+        assertThat(match.patternId()).isEqualTo(saved.getValue().getId());
+        assertThat(match.similarity()).isEqualTo(1.0);
+    }
+}
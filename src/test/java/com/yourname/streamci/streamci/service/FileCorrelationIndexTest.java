@@ -0,0 +1,128 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.CommitFileChange;
+import com.yourname.streamci.streamci.model.FileCorrelationResult;
+import com.yourname.streamci.streamci.model.Pipeline;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.repository.CommitFileChangeRepository;
+import com.yourname.streamci.streamci.repository.PipelineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+/**
+ * unit tests for the path -> build outcome index
+ */
+class FileCorrelationIndexTest {
+
+    @Mock
+    private CommitFileChangeRepository fileRepository;
+
+    @Mock
+    private BuildRepository buildRepository;
+
+    @Mock
+    private PipelineRepository pipelineRepository;
+
+    private FileCorrelationIndex index;
+    private Pipeline pipeline;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(pipelineRepository.existsById(5)).thenReturn(true);
+        index = new FileCorrelationIndex(fileRepository, buildRepository, pipelineRepository);
+        pipeline = Pipeline.builder().id(5).name("pipeline").build();
+    }
+
+    @Test
+    void keysCoverPathExtensionAndPrefixes() {
+        assertThat(FileCorrelationIndex.keysFor("db/migrations/2024/001_init.sql"))
+                .containsExactly("db/migrations/2024/001_init.sql", "*.sql",
+                        "db/**", "db/migrations/**", "db/migrations/2024/**");
+        assertThat(FileCorrelationIndex.keysFor("Makefile")).containsExactly("Makefile");
+    }
+
+    @Test
+    void joinsPushesAndBuildsInEitherOrder() {
+        // history: three failing migrations and two passing docs changes
+        List<Object[]> paths = new ArrayList<>();
+        List<Object[]> outcomes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            paths.add(new Object[]{"m" + i, "db/migrations/00" + i + ".sql"});
+            outcomes.add(new Object[]{(long) i, "m" + i, "failure"});
+        }
+        for (int i = 0; i < 2; i++) {
+            paths.add(new Object[]{"d" + i, "docs/guide.md"});
+            outcomes.add(new Object[]{(long) i + 3, "d" + i, "success"});
+        }
+        when(fileRepository.findPathsByPipelineId(5)).thenReturn(paths);
+        when(buildRepository.findOutcomesWithFileChanges(5)).thenReturn(outcomes);
+
+        assertThat(index.correlations(5)).extracting(FileCorrelationResult::getAffectedBuilds).containsOnly(3);
+
+        // build first, push later - it waits for its files
+        index.onBuildIngested(new BuildIngestedEvent(this, build("late", "failure")));
+        index.recordPush(5, "late", List.of(change("late", "db/migrations/003.sql")));
+        // push first, build later
+        index.recordPush(5, "early", List.of(change("early", "docs/guide.md")));
+        index.onBuildIngested(new BuildIngestedEvent(this, build("early", "success")));
+
+        List<FileCorrelationResult> results = index.correlations(5);
+        // *.sql, db/** and db/migrations/** cover the same builds, only the most specific is kept
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getFilePattern()).isEqualTo("db/migrations/**");
+        assertThat(results.get(0).getAffectedBuilds()).isEqualTo(4);
+        assertThat(results.get(0).getFailureRate()).isEqualTo(100.0);
+
+        verify(fileRepository, times(1)).findPathsByPipelineId(5);
+        verify(fileRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void warmUpJoinsEveryStoredBuildPastThePendingBound() {
+        // more commits than the sha cache holds, each with one failing build on the same path
+        int commits = FileCorrelationIndex.MAX_PENDING + 500;
+        List<Object[]> paths = new ArrayList<>();
+        List<Object[]> outcomes = new ArrayList<>();
+        for (int i = 0; i < commits; i++) {
+            paths.add(new Object[]{"sha" + i, "src/app.js"});
+            outcomes.add(new Object[]{(long) i, "sha" + i, i % 2 == 0 ? "failure" : "success"});
+        }
+        paths.add(new Object[]{"ok", "README.md"});
+        outcomes.add(new Object[]{(long) commits, "ok", "success"});
+        when(fileRepository.findPathsByPipelineId(5)).thenReturn(paths);
+        when(buildRepository.findOutcomesWithFileChanges(5)).thenReturn(outcomes);
+
+        List<FileCorrelationResult> results = index.correlations(5);
+        assertThat(results).isNotEmpty();
+        assertThat(results.get(0).getAffectedBuilds()).isEqualTo(commits);
+
+        // the newest pushes are still cached for builds that arrive later
+        index.onBuildIngested(new BuildIngestedEvent(this, build("sha" + (commits - 1), "failure")));
+        assertThat(index.correlations(5).get(0).getAffectedBuilds()).isEqualTo(commits + 1);
+    }
+
+    private Build build(String commitHash, String status) {
+        return Build.builder().pipeline(pipeline).commitHash(commitHash).status(status).build();
+    }
+
+    private CommitFileChange change(String headSha, String path) {
+        return CommitFileChange.builder()
+                .pipelineId(5)
+                .headSha(headSha)
+                .commitSha(headSha)
+                .path(path)
+                .changeType(CommitFileChange.ChangeType.MODIFIED)
+                .build();
+    }
+}
@@ -0,0 +1,240 @@
+package com.yourname.streamci.streamci.service;
+
+import com.yourname.streamci.streamci.event.BuildIngestedEvent;
+import com.yourname.streamci.streamci.event.BuildModifiedEvent;
+import com.yourname.streamci.streamci.model.Build;
+import com.yourname.streamci.streamci.model.OutcomeModel;
+import com.yourname.streamci.streamci.model.Pipeline;
+import com.yourname.streamci.streamci.repository.BuildRepository;
+import com.yourname.streamci.streamci.repository.OutcomeModelRepository;
+import com.yourname.streamci.streamci.repository.PipelineRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * unit tests for the online outcome model
+ */
+class OutcomeModelServiceTest {
+
+    @Mock
+    private OutcomeModelRepository modelRepository;
+
+    @Mock
+    private BuildRepository buildRepository;
+
+    @Mock
+    private PipelineRepository pipelineRepository;
+
+    private OutcomeModelService service;
+    private Pipeline pipeline;
+    private LocalDateTime start;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        service = new OutcomeModelService(modelRepository, buildRepository, pipelineRepository);
+        pipeline = Pipeline.builder().id(3).name("pipeline").build();
+        start = LocalDateTime.now().minusDays(20);
+        when(pipelineRepository.existsById(3)).thenReturn(true);
+        when(modelRepository.findByPipelineId(3)).thenReturn(Optional.empty());
+        when(modelRepository.save(any(OutcomeModel.class))).thenAnswer(invocation -> {
+            OutcomeModel saved = invocation.getArgument(0);
+            saved.setId(1L);
+            return saved;
+        });
+    }
+
+    @Test
+    void learnsCommitterSignalAndBeatsBaselineOnHeldOutBuilds() {
+        // alice's builds pass, bob's fail - the success rate alone can't tell them apart
+        List<Build> history = new ArrayList<>();
+        for (int i = 0; i < 400; i++) {
+            boolean alice = i % 2 == 0;
+            history.add(0, build(i + 1L, alice ? "success" : "failure", alice ? "alice" : "bob", start.plusMinutes(i * 30L)));
+        }
+        when(buildRepository.findByPipelineIdAndStartTimeAfter(eq(3), any())).thenReturn(history);
+
+        double alice = service.score(3, "alice", "main", LocalDateTime.now()).probability();
+        double bob = service.score(3, "bob", "main", LocalDateTime.now()).probability();
+        assertThat(alice).isGreaterThan(0.7);
+        assertThat(bob).isLessThan(0.3);
+
+        Map<String, Object> report = service.report(3);
+        long heldOut = (long) report.get("held_out_builds");
+        assertThat(heldOut).isBetween(20L, 60L);
+        assertThat((long) report.get("trained_builds")).isEqualTo(400L - heldOut);
+        assertThat((double) report.get("accuracy")).isGreaterThan(0.8);
+        assertThat((double) report.get("brier_score")).isLessThan((double) report.get("baseline_brier_score"));
+        assertThat((double) report.get("brier_skill_score")).isGreaterThan(0.0);
+    }
+
+    @Test
+    void flushedWeightsRestoreWithoutRetraining() {
+        when(buildRepository.findByPipelineIdAndStartTimeAfter(eq(3), any())).thenReturn(List.of());
+        for (int i = 0; i < 30; i++) {
+            service.onBuildIngested(new BuildIngestedEvent(this,
+                    build(i + 1L, i % 3 == 0 ? "failure" : "success", "alice", start.plusHours(i))));
+        }
+        LocalDateTime at = LocalDateTime.now();
+        OutcomeModelService.Score before = service.score(3, "alice", "main", at);
+
+        service.flush();
+        ArgumentCaptor<OutcomeModel> saved = ArgumentCaptor.forClass(OutcomeModel.class);
+        verify(modelRepository).save(saved.capture());
+        assertThat(saved.getValue().getWeights()).hasSize(OutcomeModelService.DIMENSIONS * Float.BYTES);
+
+        // nothing changed since, so a second flush writes nothing
+        service.flush();
+        verify(modelRepository, times(1)).save(any());
+
+        OutcomeModelService restarted = new OutcomeModelService(modelRepository, buildRepository, pipelineRepository);
+        when(modelRepository.findByPipelineId(3)).thenReturn(Optional.of(saved.getValue()));
+
+        OutcomeModelService.Score after = restarted.score(3, "alice", "main", at);
+        assertThat(after.trainedBuilds()).isEqualTo(before.trainedBuilds());
+        assertThat(after.probability()).isCloseTo(before.probability(), offset(1e-6));
+        verify(buildRepository, times(1)).findByPipelineIdAndStartTimeAfter(eq(3), any());
+    }
+
+    @Test
+    void restoredModelCatchesUpOnBuildsAfterItsLastFlush() {
+        when(buildRepository.findByPipelineIdAndStartTimeAfter(eq(3), any())).thenReturn(List.of());
+        for (int i = 0; i < 10; i++) {
+            service.onBuildIngested(new BuildIngestedEvent(this, build(i + 1L, "success", "alice", start.plusHours(i))));
+        }
+        service.flush();
+        ArgumentCaptor<OutcomeModel> saved = ArgumentCaptor.forClass(OutcomeModel.class);
+        verify(modelRepository).save(saved.capture());
+        assertThat(saved.getValue().getLastBuildId()).isEqualTo(10L);
+
+        // five builds finished while the service was down, one is still running
+        List<Build> missed = new ArrayList<>();
+        for (int i = 10; i < 15; i++) {
+            missed.add(build(i + 1L, "failure", "alice", start.plusHours(i)));
+        }
+        missed.add(build(16L, "running", "alice", start.plusHours(15)));
+        when(modelRepository.findByPipelineId(3)).thenReturn(Optional.of(saved.getValue()));
+        when(buildRepository.findByPipelineIdAndBuildIdAfter(3, 10L)).thenReturn(missed);
+
+        OutcomeModelService restarted = new OutcomeModelService(modelRepository, buildRepository, pipelineRepository);
+        long held = LongStream.rangeClosed(1, 15).filter(OutcomeModelService::isHeldOut).count();
+        assertThat((long) restarted.report(3).get("trained_builds")).isEqualTo(15L - held);
+
+        // the ingest event of a replayed build doesn't train it twice
+        restarted.onBuildIngested(new BuildIngestedEvent(this, missed.get(4)));
+        assertThat((long) restarted.report(3).get("trained_builds")).isEqualTo(15L - held);
+        verify(buildRepository, times(1)).findByPipelineIdAndStartTimeAfter(eq(3), any());
+    }
+
+    @Test
+    void failedFlushIsRetriedWithoutBlockingOtherModels() {
+        when(pipelineRepository.existsById(4)).thenReturn(true);
+        when(modelRepository.findByPipelineId(4)).thenReturn(Optional.empty());
+        when(buildRepository.findByPipelineIdAndStartTimeAfter(any(), any())).thenReturn(List.of());
+        Pipeline other = Pipeline.builder().id(4).name("other").build();
+        service.onBuildIngested(new BuildIngestedEvent(this, build(1L, "success", "alice", start)));
+        Build otherBuild = build(2L, "success", "alice", start);
+        otherBuild.setPipeline(other);
+        service.onBuildIngested(new BuildIngestedEvent(this, otherBuild));
+
+        doThrow(new RuntimeException("connection reset"))
+                .when(modelRepository).save(argThat((OutcomeModel model) -> model.getPipelineId() == 3));
+        service.flush();
+        verify(modelRepository).save(argThat((OutcomeModel model) -> model.getPipelineId() == 4));
+
+        // pipeline 3 stayed dirty, pipeline 4 didn't
+        reset(modelRepository);
+        when(modelRepository.save(any(OutcomeModel.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        service.flush();
+        verify(modelRepository, times(1)).save(any());
+        verify(modelRepository).save(argThat((OutcomeModel model) -> model.getPipelineId() == 3));
+    }
+
+    @Test
+    void modifiedBuildTrainsOnlyWhenItsOutcomeChanges() {
+        when(buildRepository.findByPipelineIdAndStartTimeAfter(eq(3), any())).thenReturn(List.of());
+        for (int i = 0; i < 5; i++) {
+            service.onBuildIngested(new BuildIngestedEvent(this, build(i + 1L, "success", "alice", start.plusHours(i))));
+        }
+        Build running = build(6L, "running", "alice", start.plusHours(5));
+        service.onBuildIngested(new BuildIngestedEvent(this, running));
+        assertThat(trained()).isEqualTo(5);
+
+        // duration corrected, status unchanged - nothing to learn
+        Build corrected = updated(1L, "success", "success", start);
+        service.onBuildModified(new BuildModifiedEvent(this, corrected, false));
+        assertThat(trained()).isEqualTo(5);
+
+        // running -> failure is the build's first outcome
+        Build finished = updated(6L, "failure", "running", start.plusHours(5));
+        service.onBuildModified(new BuildModifiedEvent(this, finished, false));
+        assertThat(trained()).isEqualTo(6);
+        verify(buildRepository, times(1)).findByPipelineIdAndStartTimeAfter(eq(3), any());
+
+        // a final outcome flipping means the model learned the wrong label, it is rebuilt from history
+        Build rerun = updated(2L, "failure", "success", start.plusHours(1));
+        service.onBuildModified(new BuildModifiedEvent(this, rerun, false));
+        verify(buildRepository, times(2)).findByPipelineIdAndStartTimeAfter(eq(3), any());
+        assertThat(trained()).isZero();
+    }
+
+    @Test
+    void unknownPipelinesAreNotCached() {
+        OutcomeModelService.Score score = service.score(99, "alice", "main", LocalDateTime.now());
+
+        assertThat(score.trainedBuilds()).isZero();
+        assertThat(score.probability()).isEqualTo(0.5);
+        verify(buildRepository, never()).findByPipelineIdAndStartTimeAfter(any(), any());
+        verify(modelRepository, never()).findByPipelineId(99);
+
+        service.flush();
+        verify(modelRepository, never()).save(any());
+    }
+
+    private long trained() {
+        return (long) service.report(3).get("trained_builds");
+    }
+
+    // a build as saved over an existing row whose status was previousStatus
+    private Build updated(Long id, String status, String previousStatus, LocalDateTime time) {
+        return Build.builder()
+                .buildId(id)
+                .pipeline(pipeline)
+                .status(status)
+                .persistedStatus(previousStatus)
+                .committer("alice")
+                .branch("main")
+                .startTime(time)
+                .build();
+    }
+
+    private Build build(Long id, String status, String committer, LocalDateTime time) {
+        return Build.builder()
+                .buildId(id)
+                .pipeline(pipeline)
+                .status(status)
+                .committer(committer)
+                .branch("main")
+                .startTime(time)
+                .endTime(time.plusMinutes(5))
+                .duration(300L)
+                .build();
+    }
+}
@@ -2,6 +2,7 @@ package com.yourname.streamci.streamci.service;
 
 import com.yourname.streamci.streamci.model.*;
 import com.yourname.streamci.streamci.repository.*;
+import com.yourname.streamci.streamci.scheduler.PatternScheduler;
 import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
@@ -33,6 +34,9 @@ public class PatternAnalysisServiceTest {
     @Autowired
     private FailurePatternRepository patternRepository;
 
+    @Autowired
+    private PatternScheduler patternScheduler;
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
@@ -119,15 +123,21 @@ public class PatternAnalysisServiceTest {
     void testFlakyTestDetection() {
         System.out.println("\n=== TEST 3: Flaky Test Detection ===");
 
-        // create flaky scenario: same branch/committer with 50% failure rate
-        for (int i = 0; i < 10; i++) {
-            String status = (i % 2 == 0) ? "success" : "failure";
-            createBuild("flaky-branch", "test-dev", status, 300L);
+        // create flaky scenario: each commit re-run once, passing then failing
+        for (int i = 0; i < 5; i++) {
+            createBuildForCommit("flaky-" + i, "flaky-branch", "test-dev", "success");
+            createBuildForCommit("flaky-" + i, "flaky-branch", "test-dev", "failure");
         }
 
-        // create stable scenario: same branch/committer with consistent success
-        for (int i = 0; i < 8; i++) {
-            createBuild("stable-branch", "reliable-dev", "success", 300L);
+        // create stable scenario: re-runs agree with each other
+        for (int i = 0; i < 4; i++) {
+            createBuildForCommit("stable-" + i, "stable-branch", "reliable-dev", "success");
+            createBuildForCommit("stable-" + i, "stable-branch", "reliable-dev", "success");
+        }
+
+        // busy developer: half of the builds fail, but never on a re-run of the same commit
+        for (int i = 0; i < 10; i++) {
+            createBuild("busy-branch", "busy-dev", (i % 2 == 0) ? "success" : "failure", 300L);
         }
 
         List<FlakyTestResult> flakyTests = patternService.detectFlakyTests(testPipeline.getId());
@@ -141,6 +151,8 @@ public class PatternAnalysisServiceTest {
         FlakyTestResult flaky = flakyTests.get(0);
         assertThat(flaky.getTestIdentifier()).isEqualTo("flaky-branch:test-dev");
         assertThat(flaky.getFailureRate()).isBetween(40.0, 60.0);
+        assertThat(flaky.getDivergentCommits()).isEqualTo(5);
+        assertThat(flaky.getFlakinessScore()).isGreaterThan(0.9);
 
         System.out.println("✅ Flaky test detection working correctly");
     }
@@ -150,9 +162,12 @@ public class PatternAnalysisServiceTest {
     void testSuccessPredictionBaseline() {
         System.out.println("\n=== TEST 4: Success Prediction Baseline ===");
 
-        // create mostly successful builds
-        createBuilds("reliable-dev", 8, "success", 300L);
-        createBuilds("reliable-dev", 2, "failure", 400L);
+        // create mostly successful builds, the two failures before the successes so the
+        // predictor's start-time order doesn't depend on random times
+        LocalDateTime start = LocalDateTime.now().minusMinutes(30);
+        for (int i = 0; i < 10; i++) {
+            createBuildAtTime(i < 2 ? "failure" : "success", i < 2 ? 400L : 300L, start.plusMinutes(i), "main", "reliable-dev");
+        }
 
         SuccessPrediction prediction = successPredictor.predictNextBuildSuccess(testPipeline.getId());
 
@@ -258,6 +273,40 @@ public class PatternAnalysisServiceTest {
     }
 
     // helper methods
+    @Test
+    @Order(8)
+    void testSchedulerUpsertsPatternsAndDeletesOldOnes() {
+        System.out.println("\n=== TEST 8: Scheduled Pattern Upsert ===");
+
+        createBuilds("problem-dev", 2, "success", 300L);
+        createBuilds("problem-dev", 6, "failure", 500L);
+        createBuilds("good-dev", 15, "success", 280L);
+
+        patternScheduler.analyzePatterns();
+        List<FailurePattern> first = patternRepository.findByPipelineIdAndPatternTypeOrderByConfidenceDesc(
+                testPipeline.getId(), "committer_based");
+        assertThat(first).hasSize(1);
+        assertThat(first.get(0).getFrequency()).isEqualTo(6);
+
+        // a second run updates the same row instead of inserting another
+        createBuilds("problem-dev", 2, "failure", 500L);
+        patternScheduler.analyzePatterns();
+        List<FailurePattern> second = patternRepository.findByPipelineIdAndPatternTypeOrderByConfidenceDesc(
+                testPipeline.getId(), "committer_based");
+        assertThat(second).hasSize(1);
+        assertThat(second.get(0).getId()).isEqualTo(first.get(0).getId());
+        assertThat(second.get(0).getFrequency()).isEqualTo(8);
+        // detectedAt follows the latest run, so retention keeps patterns that are still detected
+        assertThat(second.get(0).getDetectedAt()).isAfter(first.get(0).getDetectedAt());
+
+        jdbcTemplate.update("UPDATE failure_patterns SET detected_at = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(31), second.get(0).getId());
+        patternScheduler.cleanupOldPatterns();
+        assertThat(patternRepository.findById(second.get(0).getId())).isEmpty();
+
+        System.out.println("✅ Pattern upsert and retention working");
+    }
+
     private void createBuilds(String committer, int count, String status, Long duration) {
         for (int i = 0; i < count; i++) {
             createBuild("main", committer, status, duration);
@@ -269,6 +318,20 @@ public class PatternAnalysisServiceTest {
         createBuildAtTime(status, duration, time, branch, committer);
     }
 
+    private void createBuildForCommit(String commitHash, String branch, String committer, String status) {
+        LocalDateTime time = LocalDateTime.now().minusMinutes((long) (Math.random() * 60));
+        buildRepository.save(Build.builder()
+                .pipeline(testPipeline)
+                .status(status)
+                .duration(300L)
+                .commitHash(commitHash)
+                .committer(committer)
+                .branch(branch)
+                .startTime(time)
+                .endTime(time.plusSeconds(300))
+                .build());
+    }
+
     private void createBuildAtTime(String status, Long duration, LocalDateTime time) {
         createBuildAtTime(status, duration, time, "main", "testuser");
     }